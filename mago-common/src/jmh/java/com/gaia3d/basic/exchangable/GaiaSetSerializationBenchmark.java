@@ -0,0 +1,119 @@
+package com.gaia3d.basic.exchangable;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.basic.model.GaiaAttribute;
+import com.gaia3d.basic.model.GaiaMaterial;
+import com.gaia3d.basic.types.AccessorType;
+import com.gaia3d.basic.types.AttributeType;
+import com.gaia3d.basic.types.TempFormatType;
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares java object serialization against the binary temp formats on a synthetic GaiaSet.
+ * Run with "gradlew :mago-common:jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class GaiaSetSerializationBenchmark {
+
+    @Param({"java", "binary", "binary-deflate"})
+    public String format;
+
+    @Param({"64"})
+    public int bufferDataSetCount;
+
+    @Param({"10000"})
+    public int verticesPerDataSet;
+
+    private Path tempDir;
+    private TempFormatType tempFormat;
+    private GaiaSet gaiaSet;
+    private Path writtenFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        tempDir = Files.createTempDirectory("gaia-set-benchmark");
+        gaiaSet = createGaiaSet(bufferDataSetCount, verticesPerDataSet);
+        tempFormat = TempFormatType.fromName(format);
+        writtenFile = gaiaSet.writeFileInThePath(tempDir.resolve("read.mgb"), tempFormat);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(tempDir.toFile());
+    }
+
+    @Benchmark
+    public Path write() {
+        return gaiaSet.writeFileInThePath(tempDir.resolve("write.mgb"), tempFormat);
+    }
+
+    @Benchmark
+    public GaiaSet read() throws IOException {
+        return GaiaSet.readFile(writtenFile);
+    }
+
+    private static GaiaSet createGaiaSet(int dataSetCount, int vertexCount) {
+        Random random = new Random(42);
+        List<GaiaBufferDataSet> bufferDataSets = new ArrayList<>(dataSetCount);
+        for (int index = 0; index < dataSetCount; index++) {
+            GaiaBufferDataSet bufferDataSet = new GaiaBufferDataSet();
+            bufferDataSet.setId(index);
+            bufferDataSet.setMaterialId(0);
+            bufferDataSet.setBoundingBox(new GaiaBoundingBox(0, 0, 0, 100, 100, 100, true));
+            bufferDataSet.getBuffers().put(AttributeType.POSITION, floatBuffer(AttributeType.POSITION, random, vertexCount, 3));
+            bufferDataSet.getBuffers().put(AttributeType.NORMAL, floatBuffer(AttributeType.NORMAL, random, vertexCount, 3));
+            bufferDataSet.getBuffers().put(AttributeType.TEXCOORD, floatBuffer(AttributeType.TEXCOORD, random, vertexCount, 2));
+
+            int[] indices = new int[vertexCount * 3];
+            for (int i = 0; i < indices.length; i++) {
+                indices[i] = random.nextInt(vertexCount);
+            }
+            GaiaBuffer indicesBuffer = new GaiaBuffer();
+            indicesBuffer.setAttributeType(AttributeType.INDICE);
+            indicesBuffer.setAccessorType(AccessorType.SCALAR);
+            indicesBuffer.setGlDimension((byte) 1);
+            indicesBuffer.setElementsCount(indices.length);
+            indicesBuffer.setInts(indices);
+            bufferDataSet.getBuffers().put(AttributeType.INDICE, indicesBuffer);
+            bufferDataSets.add(bufferDataSet);
+        }
+
+        GaiaMaterial material = new GaiaMaterial();
+        material.setId(0);
+        material.setName("benchmark");
+        List<GaiaMaterial> materials = new ArrayList<>();
+        materials.add(material);
+
+        GaiaSet gaiaSet = new GaiaSet();
+        gaiaSet.setProjectName("benchmark");
+        gaiaSet.setAttribute(new GaiaAttribute());
+        gaiaSet.setMaterials(materials);
+        gaiaSet.setBufferDataList(bufferDataSets);
+        return gaiaSet;
+    }
+
+    private static GaiaBuffer floatBuffer(AttributeType attributeType, Random random, int vertexCount, int dimension) {
+        float[] values = new float[vertexCount * dimension];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextFloat() * 100.0f;
+        }
+        GaiaBuffer buffer = new GaiaBuffer();
+        buffer.setAttributeType(attributeType);
+        buffer.setAccessorType(dimension == 3 ? AccessorType.VEC3 : AccessorType.VEC2);
+        buffer.setGlDimension((byte) dimension);
+        buffer.setElementsCount(vertexCount);
+        buffer.setFloats(values);
+        return buffer;
+    }
+}
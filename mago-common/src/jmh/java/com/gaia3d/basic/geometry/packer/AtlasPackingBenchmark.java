@@ -0,0 +1,54 @@
+package com.gaia3d.basic.geometry.packer;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the corner mosaic placement used by the texture coordinators before the MaxRectsPacker
+ * against the MaxRectsPacker on facade-like texture sizes.
+ * Run with "gradlew :mago-common:jmh", MaxRectsPackerTest checks that the MaxRectsPacker atlas is not larger than the mosaic one.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class AtlasPackingBenchmark {
+
+    @Param({"mosaic", "maxrects"})
+    public String packer;
+
+    @Param({"100", "500", "1000"})
+    public int textureCount;
+
+    private int[] widths;
+    private int[] heights;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        int[] sizes = {16, 32, 64, 128, 256, 512};
+        widths = new int[textureCount];
+        heights = new int[textureCount];
+        for (int i = 0; i < textureCount; i++) {
+            if (random.nextBoolean()) {
+                // power of two textures
+                widths[i] = sizes[random.nextInt(sizes.length)];
+                heights[i] = sizes[random.nextInt(sizes.length)];
+            } else {
+                // scissored facade images
+                widths[i] = 8 + random.nextInt(300);
+                heights[i] = 8 + random.nextInt(300);
+            }
+        }
+    }
+
+    @Benchmark
+    public int[] pack() {
+        if ("mosaic".equals(packer)) {
+            return MosaicPacker.pack(widths, heights);
+        }
+        PackingResult result = new MaxRectsPacker().pack(widths, heights);
+        return new int[]{result.width(), result.height()};
+    }
+}
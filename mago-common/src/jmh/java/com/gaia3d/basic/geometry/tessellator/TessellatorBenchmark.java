@@ -0,0 +1,83 @@
+package com.gaia3d.basic.geometry.tessellator;
+
+import org.joml.Vector3d;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the GaiaTessellator against the EarcutTessellator on footprint-like polygons with holes,
+ * including the packing of the point lists into the coordinate array as the converters do.
+ * Run with "gradlew :mago-common:jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TessellatorBenchmark {
+
+    @Param({"16", "128", "1024"})
+    public int vertexCount;
+
+    @Param({"0", "2"})
+    public int holeCount;
+
+    private List<Vector3d> exterior;
+    private List<List<Vector3d>> interiors;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Random random = new Random(42);
+        exterior = createRing(random, vertexCount, 100.0d, 0.0d, false);
+        interiors = new ArrayList<>();
+        for (int i = 0; i < holeCount; i++) {
+            interiors.add(createRing(random, Math.max(8, vertexCount / 8), 10.0d, (i * 2 - 1) * 40.0d, true));
+        }
+    }
+
+    private List<Vector3d> createRing(Random random, int count, double radius, double centerX, boolean clockwise) {
+        List<Vector3d> ring = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double angle = 2.0d * Math.PI * i / count * (clockwise ? -1.0d : 1.0d);
+            // a star shaped ring, concave at every other vertex
+            double length = radius * (i % 2 == 0 ? 1.0d : 0.7d + 0.2d * random.nextDouble());
+            ring.add(new Vector3d(centerX + length * Math.cos(angle), length * Math.sin(angle), 10.0d));
+        }
+        return ring;
+    }
+
+    @Benchmark
+    public int gaiaTessellator() {
+        List<Vector3d> resultPolygonPoints = new ArrayList<>();
+        List<Integer> resultTrianglesIndices = new ArrayList<>();
+        new GaiaTessellator().tessellate3D(exterior, interiors, resultPolygonPoints, resultTrianglesIndices);
+        return resultTrianglesIndices.size();
+    }
+
+    @Benchmark
+    public int earcutTessellator() {
+        int pointCount = exterior.size();
+        for (List<Vector3d> interior : interiors) {
+            pointCount += interior.size();
+        }
+        double[] coordinates = new double[pointCount * 3];
+        int[] holeIndices = new int[interiors.size()];
+        int offset = put(exterior, coordinates, 0);
+        for (int i = 0; i < interiors.size(); i++) {
+            holeIndices[i] = offset / 3;
+            offset = put(interiors.get(i), coordinates, offset);
+        }
+        return new EarcutTessellator().tessellate3D(coordinates, holeIndices).length;
+    }
+
+    private int put(List<Vector3d> ring, double[] coordinates, int offset) {
+        for (Vector3d point : ring) {
+            coordinates[offset++] = point.x;
+            coordinates[offset++] = point.y;
+            coordinates[offset++] = point.z;
+        }
+        return offset;
+    }
+}
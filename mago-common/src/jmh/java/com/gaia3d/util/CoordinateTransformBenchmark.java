@@ -0,0 +1,85 @@
+package com.gaia3d.util;
+
+import org.locationtech.proj4j.BasicCoordinateTransform;
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+import org.locationtech.proj4j.ProjCoordinate;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares a new BasicCoordinateTransform per point (GlobeUtils.transform before the CoordinateTransformService)
+ * against the cached per-thread transform and the fused array transform into WGS84 cartesian coordinates,
+ * on vertices of a projected CRS converted to world coordinates as the coordinate extractors do.
+ * Run with "gradlew :mago-common:jmh".
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class CoordinateTransformBenchmark {
+
+    @Param({"EPSG:5186", "EPSG:32652"})
+    public String sourceCrs;
+
+    @Param({"100000"})
+    public int pointCount;
+
+    private CoordinateReferenceSystem source;
+    private double[] positions;
+    private double[] buffer;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        source = new CRSFactory().createFromName(sourceCrs);
+        BasicCoordinateTransform toSource = new BasicCoordinateTransform(GlobeUtils.wgs84, source);
+        positions = new double[pointCount * 3];
+        ProjCoordinate result = new ProjCoordinate();
+        for (int i = 0; i < pointCount; i++) {
+            // a few kilometers around Seoul
+            double lon = 126.9 + 0.05 * (i % 1000) / 1000.0;
+            double lat = 37.5 + 0.05 * (i / 1000 % 100) / 100.0;
+            toSource.transform(new ProjCoordinate(lon, lat, 0.0), result);
+            positions[i * 3] = result.x;
+            positions[i * 3 + 1] = result.y;
+            positions[i * 3 + 2] = 10.0 + i % 50;
+        }
+        buffer = new double[positions.length];
+    }
+
+    @Benchmark
+    public double newTransformPerPoint() {
+        double sum = 0.0d;
+        for (int i = 0; i < pointCount; i++) {
+            ProjCoordinate vertexSource = new ProjCoordinate(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+            BasicCoordinateTransform transformer = new BasicCoordinateTransform(source, GlobeUtils.wgs84);
+            ProjCoordinate vertexWgs84 = transformer.transform(vertexSource, new ProjCoordinate());
+            double[] posWC = GlobeUtils.geographicToCartesianWgs84(vertexWgs84.x, vertexWgs84.y, vertexSource.z);
+            sum += posWC[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double cachedTransformPerPoint() {
+        double sum = 0.0d;
+        for (int i = 0; i < pointCount; i++) {
+            ProjCoordinate vertexSource = new ProjCoordinate(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
+            ProjCoordinate vertexWgs84 = GlobeUtils.transform(source, vertexSource);
+            double[] posWC = GlobeUtils.geographicToCartesianWgs84(vertexWgs84.x, vertexWgs84.y, vertexSource.z);
+            sum += posWC[0];
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public double fusedArrayTransform() {
+        System.arraycopy(positions, 0, buffer, 0, positions.length);
+        CoordinateTransformService.getInstance().transformToCartesianWgs84(source, buffer, pointCount);
+        double sum = 0.0d;
+        for (int i = 0; i < pointCount; i++) {
+            sum += buffer[i * 3];
+        }
+        return sum;
+    }
+}
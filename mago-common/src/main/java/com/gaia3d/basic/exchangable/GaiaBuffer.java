@@ -34,6 +34,24 @@ public class GaiaBuffer implements Serializable {
         bytes = null;
     }
 
+    /**
+     * Copies the buffer description but shares the data arrays.
+     */
+    public GaiaBuffer shallowClone() {
+        GaiaBuffer clone = new GaiaBuffer();
+        clone.setAttributeType(attributeType);
+        clone.setAccessorType(accessorType);
+        clone.setElementsCount(elementsCount);
+        clone.setGlDimension(glDimension);
+        clone.setGlType(glType);
+        clone.setGlTarget(glTarget);
+        clone.setFloats(floats);
+        clone.setInts(ints);
+        clone.setShorts(shorts);
+        clone.setBytes(bytes);
+        return clone;
+    }
+
     public GaiaBuffer clone() {
         GaiaBuffer clone = new GaiaBuffer();
         clone.setAttributeType(attributeType);
@@ -157,4 +157,56 @@ public class GaiaBufferDataSet implements Serializable {
         }
         return clone;
     }
+
+    /**
+     * Approximate heap size of the buffer data arrays in bytes.
+     */
+    public long getBufferByteSize() {
+        long byteSize = 0;
+        for (GaiaBuffer buffer : this.buffers.values()) {
+            if (buffer.getFloats() != null) {
+                byteSize += (long) buffer.getFloats().length * Float.BYTES;
+            }
+            if (buffer.getInts() != null) {
+                byteSize += (long) buffer.getInts().length * Integer.BYTES;
+            }
+            if (buffer.getShorts() != null) {
+                byteSize += (long) buffer.getShorts().length * Short.BYTES;
+            }
+            if (buffer.getBytes() != null) {
+                byteSize += buffer.getBytes().length;
+            }
+        }
+        return byteSize;
+    }
+
+    /**
+     * Creates a copy that shares the read-only data arrays with this data set.
+     * Positions and texture coordinates are copied, because the relocation and the texture atlas modify them in place.
+     */
+    public GaiaBufferDataSet createView() {
+        GaiaBufferDataSet view = new GaiaBufferDataSet();
+        view.setId(this.id);
+        view.setGuid(this.guid);
+        view.setMaterialId(this.materialId);
+        if (this.boundingBox != null) {
+            view.setBoundingBox(this.boundingBox.clone());
+        }
+        if (this.texcoordBoundingRectangle != null) {
+            view.setTexcoordBoundingRectangle(this.texcoordBoundingRectangle.clone());
+        }
+        if (this.transformMatrix != null) {
+            view.setTransformMatrix(new Matrix4d(this.transformMatrix));
+        }
+        if (this.preMultipliedTransformMatrix != null) {
+            view.setPreMultipliedTransformMatrix(new Matrix4d(this.preMultipliedTransformMatrix));
+        }
+        for (Map.Entry<AttributeType, GaiaBuffer> entry : this.buffers.entrySet()) {
+            AttributeType attributeType = entry.getKey();
+            GaiaBuffer buffer = entry.getValue();
+            boolean isMutable = attributeType == AttributeType.POSITION || attributeType == AttributeType.TEXCOORD;
+            view.buffers.put(attributeType, isMutable ? buffer.clone() : buffer.shallowClone());
+        }
+        return view;
+    }
 }
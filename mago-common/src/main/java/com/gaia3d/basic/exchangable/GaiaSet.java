@@ -6,6 +6,7 @@ import com.gaia3d.basic.model.*;
 import com.gaia3d.basic.types.AttributeType;
 import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.basic.types.LevelOfDetail;
+import com.gaia3d.basic.types.TempFormatType;
 import com.gaia3d.basic.types.TextureType;
 import com.gaia3d.util.ImageResizer;
 import com.gaia3d.util.ImageUtils;
@@ -65,8 +66,8 @@ public class GaiaSet implements Serializable {
     public static GaiaSet readFile(Path path) throws FileNotFoundException {
         File input = path.toFile();
         Path imagesPath = path.getParent().resolve("images");
-        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(input)))) {
-            GaiaSet gaiaSet = (GaiaSet) inputStream.readObject();
+        try {
+            GaiaSet gaiaSet = readObjectFile(input);
             for (GaiaMaterial material : gaiaSet.getMaterials()) {
                 material.getTextures().forEach((textureType, textures) -> {
                     for (GaiaTexture texture : textures) {
@@ -85,6 +86,26 @@ public class GaiaSet implements Serializable {
         return null;
     }
 
+    private static GaiaSet readObjectFile(File input) throws IOException, ClassNotFoundException {
+        if (GaiaSetBinaryFormat.isBinaryFile(input.toPath())) {
+            return GaiaSetBinaryFormat.read(input.toPath());
+        }
+        try (ObjectInputStream inputStream = new ObjectInputStream(new BufferedInputStream(new FileInputStream(input)))) {
+            return (GaiaSet) inputStream.readObject();
+        }
+    }
+
+    private void writeObjectFile(File output, TempFormatType tempFormat) throws IOException {
+        if (tempFormat != null && tempFormat.isBinary()) {
+            GaiaSetBinaryFormat.write(this, output.toPath(), tempFormat.isCompressed());
+            return;
+        }
+        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(output)))) {
+            outputStream.writeObject(this);
+            outputStream.flush();
+        }
+    }
+
     public GaiaBoundingBox getBoundingBox() {
         GaiaBoundingBox boundingBox = new GaiaBoundingBox();
         for (GaiaBufferDataSet bufferDataSet : bufferDataList) {
@@ -94,13 +115,15 @@ public class GaiaSet implements Serializable {
     }
 
     public Path writeFileForPR(Path path, boolean copyTexturesToNewPath) {
+        return writeFileForPR(path, copyTexturesToNewPath, TempFormatType.JAVA);
+    }
+
+    public Path writeFileForPR(Path path, boolean copyTexturesToNewPath, TempFormatType tempFormat) {
         String tempFileName = this.attribute.getIdentifier().toString() + "." + FormatType.TEMP.getExtension();
         Path tempDir = path.resolve(this.projectName);
         File tempFile = path.resolve(tempFileName).toFile();
-        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
-            outputStream.writeObject(this);
-            outputStream.flush();
-            outputStream.close();
+        try {
+            writeObjectFile(tempFile, tempFormat);
 
             // Copy images to the temp directory
             if (copyTexturesToNewPath) {
@@ -116,12 +139,14 @@ public class GaiaSet implements Serializable {
     }
 
     public Path writeFileInThePath(Path path) {
+        return writeFileInThePath(path, TempFormatType.JAVA);
+    }
+
+    public Path writeFileInThePath(Path path, TempFormatType tempFormat) {
         Path folder = path.getParent();
         File file = path.toFile();
-        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
-            outputStream.writeObject(this);
-            outputStream.flush();
-            outputStream.close();
+        try {
+            writeObjectFile(file, tempFormat);
 
             // Copy images to the temp directory
             for (GaiaMaterial material : materials) {
@@ -135,6 +160,10 @@ public class GaiaSet implements Serializable {
     }
 
     public Path writeFile(Path path, int serial) {
+        return writeFile(path, serial, TempFormatType.JAVA);
+    }
+
+    public Path writeFile(Path path, int serial, TempFormatType tempFormat) {
         int dividedNumber = serial / 10000;
 
         String tempFileName = this.attribute.getIdentifier().toString() + "." + FormatType.TEMP.getExtension();
@@ -144,10 +173,8 @@ public class GaiaSet implements Serializable {
             log.debug("Directory created: {}", tempDir);
         }
         File tempFile = tempDir.resolve(tempFileName).toFile();
-        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
-            outputStream.writeObject(this);
-            outputStream.flush();
-            outputStream.close();
+        try {
+            writeObjectFile(tempFile, tempFormat);
 
             // Copy images to the temp directory
             for (GaiaMaterial material : materials) {
@@ -161,6 +188,13 @@ public class GaiaSet implements Serializable {
     }
 
     public Path writeFileWithLod(Path path, int serial, List<LevelOfDetail> lods) {
+        return writeFileWithLod(path, serial, lods, TempFormatType.JAVA);
+    }
+
+    /**
+     * Writes the temp file in the given format, GaiaSet.readFile detects the format of the file.
+     */
+    public Path writeFileWithLod(Path path, int serial, List<LevelOfDetail> lods, TempFormatType tempFormat) {
         int dividedNumber = serial / 10000;
 
         String tempFileName = this.attribute.getIdentifier().toString() + "." + FormatType.TEMP.getExtension();
@@ -170,8 +204,8 @@ public class GaiaSet implements Serializable {
             log.debug("Directory created: {}", tempDir);
         }
         File tempFile = tempDir.resolve(tempFileName).toFile();
-        try (ObjectOutputStream outputStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(tempFile)))) {
-            outputStream.writeObject(this);
+        try {
+            writeObjectFile(tempFile, tempFormat);
 
             // Copy images to the temp directory
             for (GaiaMaterial material : materials) {
@@ -349,6 +383,44 @@ public class GaiaSet implements Serializable {
         return gaiaSet;
     }
 
+    /**
+     * Creates a copy for a single consumer of a shared (cached) set.
+     * Lists, materials and mutable buffers are copied, the other data arrays are shared and must not be modified.
+     */
+    public GaiaSet createView() {
+        GaiaSet gaiaSet = new GaiaSet();
+        gaiaSet.setBufferDataList(new ArrayList<>(this.bufferDataList.size()));
+        for (GaiaBufferDataSet bufferData : this.bufferDataList) {
+            gaiaSet.getBufferDataList().add(bufferData.createView());
+        }
+        gaiaSet.setMaterials(new ArrayList<>(this.materials.size()));
+        for (GaiaMaterial material : this.materials) {
+            GaiaMaterial clonedMaterial = material.clone();
+            clonedMaterial.setRepeat(material.isRepeat());
+            clonedMaterial.setBlend(material.isBlend());
+            clonedMaterial.setOpaque(material.isOpaque());
+            gaiaSet.getMaterials().add(clonedMaterial);
+        }
+        gaiaSet.setAttribute(this.attribute);
+        gaiaSet.setProjectName(this.projectName);
+        gaiaSet.setFilePath(this.filePath);
+        gaiaSet.setFolderPath(this.folderPath);
+        gaiaSet.setProjectFolderPath(this.projectFolderPath);
+        gaiaSet.setOutputDir(this.outputDir);
+        return gaiaSet;
+    }
+
+    /**
+     * Approximate heap size of the buffer data arrays in bytes.
+     */
+    public long getBufferByteSize() {
+        long byteSize = 0;
+        for (GaiaBufferDataSet bufferData : this.bufferDataList) {
+            byteSize += bufferData.getBufferByteSize();
+        }
+        return byteSize;
+    }
+
     public void clear() {
         this.bufferDataList.forEach(GaiaBufferDataSet::clear);
         this.bufferDataList.clear();
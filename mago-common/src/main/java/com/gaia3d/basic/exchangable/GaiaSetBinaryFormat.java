@@ -0,0 +1,694 @@
+package com.gaia3d.basic.exchangable;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.basic.geometry.GaiaRectangle;
+import com.gaia3d.basic.model.GaiaAttribute;
+import com.gaia3d.basic.model.GaiaMaterial;
+import com.gaia3d.basic.model.GaiaTexture;
+import com.gaia3d.basic.types.AccessorType;
+import com.gaia3d.basic.types.AttributeType;
+import com.gaia3d.basic.types.TextureType;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Matrix4d;
+import org.joml.Vector4d;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Versioned, length-prefixed binary container for the GaiaSet temp files.
+ * File layout : [magic][version][block count] followed by the blocks.
+ * Block layout : [block type][compression][raw length][stored length][payload].
+ * The first block holds the set header (names, attribute and materials),
+ * every following block holds one GaiaBufferDataSet whose primitive arrays are written in bulk.
+ * Files are read through a memory-mapped buffer, uncompressed blocks are decoded without an intermediate copy.
+ * Enum values are stored by ordinal, so the temp files are only valid for the build that wrote them.
+ */
+@Slf4j
+public class GaiaSetBinaryFormat {
+    public static final int MAGIC = 0x54455347; // "GSET" in little endian
+    public static final int VERSION = 1;
+
+    private static final int BLOCK_TYPE_HEADER = 1;
+    private static final int BLOCK_TYPE_BUFFER_DATA_SET = 2;
+    private static final byte COMPRESSION_NONE = 0;
+    private static final byte COMPRESSION_DEFLATE = 1;
+    private static final int FILE_HEADER_SIZE = 12;
+    private static final int BLOCK_HEADER_SIZE = 13;
+    private static final int INITIAL_BLOCK_SIZE = 1024;
+
+    private GaiaSetBinaryFormat() {
+    }
+
+    /**
+     * Checks the magic number, so java serialized temp files can still be read.
+     */
+    public static boolean isBinaryFile(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < FILE_HEADER_SIZE) {
+                return false;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(buffer, 0);
+            buffer.flip();
+            return buffer.getInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    public static void write(GaiaSet gaiaSet, Path path, boolean compress) throws IOException {
+        List<GaiaBufferDataSet> bufferDataSets = gaiaSet.getBufferDataList();
+        if (bufferDataSets == null) {
+            bufferDataSets = Collections.emptyList();
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer fileHeader = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            fileHeader.putInt(MAGIC);
+            fileHeader.putInt(VERSION);
+            fileHeader.putInt(bufferDataSets.size() + 1);
+            fileHeader.flip();
+            writeFully(channel, fileHeader);
+
+            writeBlock(channel, BLOCK_TYPE_HEADER, encodeHeader(gaiaSet), compress);
+            for (GaiaBufferDataSet bufferDataSet : bufferDataSets) {
+                writeBlock(channel, BLOCK_TYPE_BUFFER_DATA_SET, encodeBufferDataSet(bufferDataSet), compress);
+            }
+        }
+    }
+
+    public static GaiaSet read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            if (fileSize > Integer.MAX_VALUE) {
+                throw new IOException("GaiaSet binary file is too large to be mapped : " + path);
+            }
+            MappedByteBuffer mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize);
+            mappedBuffer.order(ByteOrder.LITTLE_ENDIAN);
+
+            int magic = mappedBuffer.getInt();
+            if (magic != MAGIC) {
+                throw new IOException("Not a GaiaSet binary file : " + path);
+            }
+            int version = mappedBuffer.getInt();
+            if (version > VERSION) {
+                throw new IOException("Unsupported GaiaSet binary version " + version + " : " + path);
+            }
+            int blockCount = mappedBuffer.getInt();
+
+            GaiaSet gaiaSet = null;
+            List<GaiaBufferDataSet> bufferDataSets = new ArrayList<>(Math.max(0, blockCount - 1));
+            for (int index = 0; index < blockCount; index++) {
+                int blockType = mappedBuffer.getInt();
+                byte compression = mappedBuffer.get();
+                int rawLength = mappedBuffer.getInt();
+                int storedLength = mappedBuffer.getInt();
+                ByteBuffer stored = mappedBuffer.slice(mappedBuffer.position(), storedLength).order(ByteOrder.LITTLE_ENDIAN);
+                mappedBuffer.position(mappedBuffer.position() + storedLength);
+
+                ByteBuffer payload = compression == COMPRESSION_DEFLATE ? inflate(stored, rawLength) : stored;
+                if (blockType == BLOCK_TYPE_HEADER) {
+                    gaiaSet = decodeHeader(payload);
+                } else if (blockType == BLOCK_TYPE_BUFFER_DATA_SET) {
+                    bufferDataSets.add(decodeBufferDataSet(payload));
+                } else {
+                    log.debug("[DEBUG] Skipping unknown GaiaSet block type {} : {}", blockType, path);
+                }
+            }
+            if (gaiaSet == null) {
+                throw new IOException("GaiaSet binary file has no header block : " + path);
+            }
+            gaiaSet.setBufferDataList(bufferDataSets);
+            return gaiaSet;
+        }
+    }
+
+    private static void writeBlock(FileChannel channel, int blockType, ByteBuffer payload, boolean compress) throws IOException {
+        int rawLength = payload.remaining();
+        byte compression = COMPRESSION_NONE;
+        if (compress && rawLength > 0) {
+            ByteBuffer deflated = deflate(payload);
+            if (deflated.remaining() < rawLength) {
+                payload = deflated;
+                compression = COMPRESSION_DEFLATE;
+            }
+        }
+        ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        blockHeader.putInt(blockType);
+        blockHeader.put(compression);
+        blockHeader.putInt(rawLength);
+        blockHeader.putInt(payload.remaining());
+        blockHeader.flip();
+        writeFully(channel, blockHeader);
+        writeFully(channel, payload);
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private static ByteBuffer deflate(ByteBuffer payload) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(payload.duplicate());
+            deflater.finish();
+            ByteBuffer output = ByteBuffer.allocate(payload.remaining() + 64);
+            while (!deflater.finished()) {
+                if (!output.hasRemaining()) {
+                    output = grow(output, output.capacity());
+                }
+                deflater.deflate(output);
+            }
+            output.flip();
+            return output;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static ByteBuffer inflate(ByteBuffer stored, int rawLength) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored);
+            ByteBuffer output = ByteBuffer.allocate(rawLength).order(ByteOrder.LITTLE_ENDIAN);
+            while (output.hasRemaining() && !inflater.finished()) {
+                if (inflater.inflate(output) == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("Truncated GaiaSet binary block");
+                }
+            }
+            output.flip();
+            return output;
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupted GaiaSet binary block", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    /* header block */
+
+    private static ByteBuffer encodeHeader(GaiaSet gaiaSet) {
+        BlockWriter writer = new BlockWriter(INITIAL_BLOCK_SIZE);
+        writer.putString(gaiaSet.getProjectName());
+        writer.putString(gaiaSet.getFilePath());
+        writer.putString(gaiaSet.getFolderPath());
+        writer.putString(gaiaSet.getProjectFolderPath());
+        writer.putString(gaiaSet.getOutputDir());
+
+        GaiaAttribute attribute = gaiaSet.getAttribute();
+        writer.putBoolean(attribute != null);
+        if (attribute != null) {
+            UUID identifier = attribute.getIdentifier();
+            writer.putBoolean(identifier != null);
+            if (identifier != null) {
+                writer.putLong(identifier.getMostSignificantBits());
+                writer.putLong(identifier.getLeastSignificantBits());
+            }
+            writer.putString(attribute.getFileName());
+            writer.putString(attribute.getNodeName());
+            writer.putStringMap(attribute.getAttributes());
+        }
+
+        List<GaiaMaterial> materials = gaiaSet.getMaterials();
+        writer.putInt(materials == null ? -1 : materials.size());
+        if (materials != null) {
+            for (GaiaMaterial material : materials) {
+                encodeMaterial(writer, material);
+            }
+        }
+        return writer.toByteBuffer();
+    }
+
+    private static GaiaSet decodeHeader(ByteBuffer buffer) {
+        GaiaSet gaiaSet = new GaiaSet();
+        gaiaSet.setProjectName(getString(buffer));
+        gaiaSet.setFilePath(getString(buffer));
+        gaiaSet.setFolderPath(getString(buffer));
+        gaiaSet.setProjectFolderPath(getString(buffer));
+        gaiaSet.setOutputDir(getString(buffer));
+
+        if (getBoolean(buffer)) {
+            GaiaAttribute attribute = new GaiaAttribute();
+            if (getBoolean(buffer)) {
+                attribute.setIdentifier(new UUID(buffer.getLong(), buffer.getLong()));
+            } else {
+                attribute.setIdentifier(null);
+            }
+            attribute.setFileName(getString(buffer));
+            attribute.setNodeName(getString(buffer));
+            attribute.setAttributes(getStringMap(buffer));
+            gaiaSet.setAttribute(attribute);
+        }
+
+        int materialCount = buffer.getInt();
+        if (materialCount >= 0) {
+            List<GaiaMaterial> materials = new ArrayList<>(materialCount);
+            for (int index = 0; index < materialCount; index++) {
+                materials.add(decodeMaterial(buffer));
+            }
+            gaiaSet.setMaterials(materials);
+        }
+        return gaiaSet;
+    }
+
+    private static void encodeMaterial(BlockWriter writer, GaiaMaterial material) {
+        writer.putBoolean(material != null);
+        if (material == null) {
+            return;
+        }
+        writer.putInt(material.getId());
+        writer.putString(material.getName());
+        writer.putVector4d(material.getDiffuseColor());
+        writer.putVector4d(material.getAmbientColor());
+        writer.putVector4d(material.getSpecularColor());
+        writer.putFloat(material.getShininess());
+        writer.putBoolean(material.isRepeat());
+        writer.putBoolean(material.isBlend());
+        writer.putBoolean(material.isOpaque());
+
+        Map<TextureType, List<GaiaTexture>> textures = material.getTextures();
+        writer.putInt(textures == null ? -1 : textures.size());
+        if (textures == null) {
+            return;
+        }
+        for (Map.Entry<TextureType, List<GaiaTexture>> entry : textures.entrySet()) {
+            writer.putByte(entry.getKey().getValue());
+            List<GaiaTexture> textureList = entry.getValue();
+            writer.putInt(textureList == null ? -1 : textureList.size());
+            if (textureList == null) {
+                continue;
+            }
+            for (GaiaTexture texture : textureList) {
+                writer.putBoolean(texture != null);
+                if (texture == null) {
+                    continue;
+                }
+                writer.putString(texture.getParentPath());
+                writer.putString(texture.getName());
+                writer.putString(texture.getPath());
+                writer.putByte(texture.getType() == null ? -1 : texture.getType().getValue());
+                writer.putInt(texture.getWidth());
+                writer.putInt(texture.getHeight());
+                writer.putInt(texture.getFormat());
+                writer.putInt(texture.getByteLength());
+                writer.putInt(texture.getTextureId());
+            }
+        }
+    }
+
+    private static GaiaMaterial decodeMaterial(ByteBuffer buffer) {
+        if (!getBoolean(buffer)) {
+            return null;
+        }
+        GaiaMaterial material = new GaiaMaterial();
+        material.setId(buffer.getInt());
+        material.setName(getString(buffer));
+        material.setDiffuseColor(getVector4d(buffer));
+        material.setAmbientColor(getVector4d(buffer));
+        material.setSpecularColor(getVector4d(buffer));
+        material.setShininess(buffer.getFloat());
+        material.setRepeat(getBoolean(buffer));
+        material.setBlend(getBoolean(buffer));
+        material.setOpaque(getBoolean(buffer));
+
+        int textureTypeCount = buffer.getInt();
+        if (textureTypeCount < 0) {
+            material.setTextures(null);
+            return material;
+        }
+        Map<TextureType, List<GaiaTexture>> textures = new HashMap<>();
+        for (int typeIndex = 0; typeIndex < textureTypeCount; typeIndex++) {
+            TextureType textureType = TextureType.fromValue(buffer.get());
+            int textureCount = buffer.getInt();
+            if (textureCount < 0) {
+                textures.put(textureType, null);
+                continue;
+            }
+            List<GaiaTexture> textureList = new ArrayList<>(textureCount);
+            for (int index = 0; index < textureCount; index++) {
+                if (!getBoolean(buffer)) {
+                    textureList.add(null);
+                    continue;
+                }
+                GaiaTexture texture = new GaiaTexture();
+                texture.setParentPath(getString(buffer));
+                texture.setName(getString(buffer));
+                texture.setPath(getString(buffer));
+                byte type = buffer.get();
+                texture.setType(type < 0 ? null : TextureType.fromValue(type));
+                texture.setWidth(buffer.getInt());
+                texture.setHeight(buffer.getInt());
+                texture.setFormat(buffer.getInt());
+                texture.setByteLength(buffer.getInt());
+                texture.setTextureId(buffer.getInt());
+                textureList.add(texture);
+            }
+            textures.put(textureType, textureList);
+        }
+        material.setTextures(textures);
+        return material;
+    }
+
+    /* buffer data set block */
+
+    private static ByteBuffer encodeBufferDataSet(GaiaBufferDataSet bufferDataSet) {
+        Map<AttributeType, GaiaBuffer> buffers = bufferDataSet.getBuffers();
+        long estimatedSize = INITIAL_BLOCK_SIZE + bufferDataSet.getBufferByteSize() + 64L * buffers.size();
+        BlockWriter writer = new BlockWriter((int) Math.min(Integer.MAX_VALUE - 8, estimatedSize));
+        writer.putInt(bufferDataSet.getMaterialId());
+        writer.putInt(bufferDataSet.getId());
+        writer.putString(bufferDataSet.getGuid());
+
+        GaiaBoundingBox boundingBox = bufferDataSet.getBoundingBox();
+        writer.putBoolean(boundingBox != null);
+        if (boundingBox != null) {
+            writer.putDouble(boundingBox.getMinX());
+            writer.putDouble(boundingBox.getMinY());
+            writer.putDouble(boundingBox.getMinZ());
+            writer.putDouble(boundingBox.getMaxX());
+            writer.putDouble(boundingBox.getMaxY());
+            writer.putDouble(boundingBox.getMaxZ());
+            writer.putBoolean(boundingBox.isInit());
+        }
+        GaiaRectangle rectangle = bufferDataSet.getTexcoordBoundingRectangle();
+        writer.putBoolean(rectangle != null);
+        if (rectangle != null) {
+            writer.putDouble(rectangle.getMinX());
+            writer.putDouble(rectangle.getMinY());
+            writer.putDouble(rectangle.getMaxX());
+            writer.putDouble(rectangle.getMaxY());
+        }
+        writer.putMatrix4d(bufferDataSet.getTransformMatrix());
+        writer.putMatrix4d(bufferDataSet.getPreMultipliedTransformMatrix());
+
+        writer.putInt(buffers.size());
+        for (Map.Entry<AttributeType, GaiaBuffer> entry : buffers.entrySet()) {
+            GaiaBuffer buffer = entry.getValue();
+            writer.putByte((byte) entry.getKey().ordinal());
+            writer.putByte(buffer.getAttributeType() == null ? -1 : (byte) buffer.getAttributeType().ordinal());
+            writer.putByte(buffer.getAccessorType() == null ? -1 : (byte) buffer.getAccessorType().ordinal());
+            writer.putInt(buffer.getElementsCount());
+            writer.putByte(buffer.getGlDimension());
+            writer.putInt(buffer.getGlType());
+            writer.putInt(buffer.getGlTarget());
+            writer.putFloats(buffer.getFloats());
+            writer.putInts(buffer.getInts());
+            writer.putShorts(buffer.getShorts());
+            writer.putBytes(buffer.getBytes());
+        }
+        return writer.toByteBuffer();
+    }
+
+    private static GaiaBufferDataSet decodeBufferDataSet(ByteBuffer buffer) {
+        AttributeType[] attributeTypes = AttributeType.values();
+        AccessorType[] accessorTypes = AccessorType.values();
+
+        GaiaBufferDataSet bufferDataSet = new GaiaBufferDataSet();
+        bufferDataSet.setMaterialId(buffer.getInt());
+        bufferDataSet.setId(buffer.getInt());
+        bufferDataSet.setGuid(getString(buffer));
+
+        if (getBoolean(buffer)) {
+            GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+            boundingBox.setMinX(buffer.getDouble());
+            boundingBox.setMinY(buffer.getDouble());
+            boundingBox.setMinZ(buffer.getDouble());
+            boundingBox.setMaxX(buffer.getDouble());
+            boundingBox.setMaxY(buffer.getDouble());
+            boundingBox.setMaxZ(buffer.getDouble());
+            boundingBox.setInit(getBoolean(buffer));
+            bufferDataSet.setBoundingBox(boundingBox);
+        }
+        if (getBoolean(buffer)) {
+            bufferDataSet.setTexcoordBoundingRectangle(new GaiaRectangle(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble()));
+        }
+        bufferDataSet.setTransformMatrix(getMatrix4d(buffer));
+        bufferDataSet.setPreMultipliedTransformMatrix(getMatrix4d(buffer));
+
+        int bufferCount = buffer.getInt();
+        Map<AttributeType, GaiaBuffer> buffers = bufferDataSet.getBuffers();
+        for (int index = 0; index < bufferCount; index++) {
+            AttributeType key = attributeTypes[buffer.get()];
+            byte attributeType = buffer.get();
+            byte accessorType = buffer.get();
+
+            GaiaBuffer gaiaBuffer = new GaiaBuffer();
+            gaiaBuffer.setAttributeType(attributeType < 0 ? null : attributeTypes[attributeType]);
+            gaiaBuffer.setAccessorType(accessorType < 0 ? null : accessorTypes[accessorType]);
+            gaiaBuffer.setElementsCount(buffer.getInt());
+            gaiaBuffer.setGlDimension(buffer.get());
+            gaiaBuffer.setGlType(buffer.getInt());
+            gaiaBuffer.setGlTarget(buffer.getInt());
+            gaiaBuffer.setFloats(getFloats(buffer));
+            gaiaBuffer.setInts(getInts(buffer));
+            gaiaBuffer.setShorts(getShorts(buffer));
+            gaiaBuffer.setBytes(getBytes(buffer));
+            buffers.put(key, gaiaBuffer);
+        }
+        return bufferDataSet;
+    }
+
+    /* primitive readers */
+
+    private static boolean getBoolean(ByteBuffer buffer) {
+        return buffer.get() != 0;
+    }
+
+    private static String getString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static Map<String, String> getStringMap(ByteBuffer buffer) {
+        int size = buffer.getInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new HashMap<>(size * 2);
+        for (int index = 0; index < size; index++) {
+            map.put(getString(buffer), getString(buffer));
+        }
+        return map;
+    }
+
+    private static Vector4d getVector4d(ByteBuffer buffer) {
+        if (!getBoolean(buffer)) {
+            return null;
+        }
+        return new Vector4d(buffer.getDouble(), buffer.getDouble(), buffer.getDouble(), buffer.getDouble());
+    }
+
+    private static Matrix4d getMatrix4d(ByteBuffer buffer) {
+        if (!getBoolean(buffer)) {
+            return null;
+        }
+        double[] values = new double[16];
+        buffer.asDoubleBuffer().get(values);
+        buffer.position(buffer.position() + values.length * Double.BYTES);
+        return new Matrix4d().set(values);
+    }
+
+    private static float[] getFloats(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        float[] values = new float[length];
+        buffer.asFloatBuffer().get(values);
+        buffer.position(buffer.position() + length * Float.BYTES);
+        return values;
+    }
+
+    private static int[] getInts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        buffer.asIntBuffer().get(values);
+        buffer.position(buffer.position() + length * Integer.BYTES);
+        return values;
+    }
+
+    private static short[] getShorts(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        short[] values = new short[length];
+        buffer.asShortBuffer().get(values);
+        buffer.position(buffer.position() + length * Short.BYTES);
+        return values;
+    }
+
+    private static byte[] getBytes(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] values = new byte[length];
+        buffer.get(values);
+        return values;
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer, int additional) {
+        ByteBuffer grown = ByteBuffer.allocate(buffer.capacity() + Math.max(additional, buffer.capacity())).order(buffer.order());
+        buffer.flip();
+        grown.put(buffer);
+        return grown;
+    }
+
+    /**
+     * Growable little endian block buffer with bulk writes for primitive arrays.
+     */
+    private static class BlockWriter {
+        private ByteBuffer buffer;
+
+        BlockWriter(int initialSize) {
+            this.buffer = ByteBuffer.allocate(initialSize).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        ByteBuffer toByteBuffer() {
+            buffer.flip();
+            return buffer;
+        }
+
+        private void ensure(int size) {
+            if (buffer.remaining() < size) {
+                buffer = grow(buffer, size);
+            }
+        }
+
+        void putBoolean(boolean value) {
+            putByte(value ? (byte) 1 : (byte) 0);
+        }
+
+        void putByte(byte value) {
+            ensure(Byte.BYTES);
+            buffer.put(value);
+        }
+
+        void putInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        void putLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        void putFloat(float value) {
+            ensure(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        void putDouble(double value) {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        void putString(String value) {
+            if (value == null) {
+                putInt(-1);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            putInt(bytes.length);
+            ensure(bytes.length);
+            buffer.put(bytes);
+        }
+
+        void putStringMap(Map<String, String> map) {
+            if (map == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(map.size());
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                putString(entry.getKey());
+                putString(entry.getValue());
+            }
+        }
+
+        void putVector4d(Vector4d vector) {
+            putBoolean(vector != null);
+            if (vector != null) {
+                putDouble(vector.x);
+                putDouble(vector.y);
+                putDouble(vector.z);
+                putDouble(vector.w);
+            }
+        }
+
+        void putMatrix4d(Matrix4d matrix) {
+            putBoolean(matrix != null);
+            if (matrix != null) {
+                double[] values = matrix.get(new double[16]);
+                ensure(values.length * Double.BYTES);
+                buffer.asDoubleBuffer().put(values);
+                buffer.position(buffer.position() + values.length * Double.BYTES);
+            }
+        }
+
+        void putFloats(float[] values) {
+            if (values == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(values.length);
+            ensure(values.length * Float.BYTES);
+            buffer.asFloatBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Float.BYTES);
+        }
+
+        void putInts(int[] values) {
+            if (values == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(values.length);
+            ensure(values.length * Integer.BYTES);
+            buffer.asIntBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Integer.BYTES);
+        }
+
+        void putShorts(short[] values) {
+            if (values == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(values.length);
+            ensure(values.length * Short.BYTES);
+            buffer.asShortBuffer().put(values);
+            buffer.position(buffer.position() + values.length * Short.BYTES);
+        }
+
+        void putBytes(byte[] values) {
+            if (values == null) {
+                putInt(-1);
+                return;
+            }
+            putInt(values.length);
+            ensure(values.length);
+            buffer.put(values);
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.gaia3d.basic.exchangable;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Size-bounded cache of decoded temp GaiaSets, keyed by temp file path.
+ * The same temp file is read once per content node when a tile info is shared across LOD levels,
+ * so the decoded sets are kept in an LRU map weighted by their buffer bytes.
+ * Entries evicted from the LRU map are kept as soft references until the garbage collector needs the memory.
+ * Callers always receive a view (see GaiaSet.createView), the cached sets are never modified.
+ */
+@Slf4j
+public class GaiaSetCache {
+    private static final GaiaSetCache instance = new GaiaSetCache();
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Path, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Path, SoftEntry> softEntries = new HashMap<>();
+    private final ReferenceQueue<GaiaSet> referenceQueue = new ReferenceQueue<>();
+    private final Map<Path, CompletableFuture<GaiaSet>> loading = new ConcurrentHashMap<>();
+
+    @Getter
+    private volatile long maximumWeight = 0;
+    private long weight = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong softHitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public static GaiaSetCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the maximum weight in bytes, 0 disables the cache.
+     */
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = Math.max(0, maximumWeight);
+        synchronized (lock) {
+            evict();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maximumWeight > 0;
+    }
+
+    /**
+     * Returns a private view of the set stored in the temp file, reading the file only when it is not cached.
+     */
+    public GaiaSet get(Path tempPath) throws IOException {
+        if (!isEnabled()) {
+            return GaiaSet.readFile(tempPath);
+        }
+        GaiaSet cached = lookup(tempPath);
+        if (cached != null) {
+            return cached.createView();
+        }
+
+        CompletableFuture<GaiaSet> future = new CompletableFuture<>();
+        CompletableFuture<GaiaSet> inFlight = loading.putIfAbsent(tempPath, future);
+        if (inFlight != null) {
+            // another thread is reading the same file
+            hitCount.incrementAndGet();
+            GaiaSet loaded = join(inFlight);
+            return loaded == null ? null : loaded.createView();
+        }
+
+        missCount.incrementAndGet();
+        GaiaSet loaded = null;
+        try {
+            loaded = GaiaSet.readFile(tempPath);
+            if (loaded != null) {
+                put(tempPath, loaded);
+            }
+        } finally {
+            future.complete(loaded);
+            loading.remove(tempPath, future);
+        }
+        return loaded == null ? null : loaded.createView();
+    }
+
+    public void invalidate(Path tempPath) {
+        synchronized (lock) {
+            Entry entry = entries.remove(tempPath);
+            if (entry != null) {
+                weight -= entry.weight;
+            }
+            softEntries.remove(tempPath);
+        }
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            softEntries.clear();
+            weight = 0;
+            drainReferenceQueue();
+        }
+    }
+
+    public void logStatistics() {
+        if (!isEnabled()) {
+            return;
+        }
+        long hits = hitCount.get();
+        long softHits = softHitCount.get();
+        long misses = missCount.get();
+        long requests = hits + softHits + misses;
+        double hitRate = requests > 0 ? (double) (hits + softHits) / requests * 100.0 : 0.0;
+        log.info("[Cache] GaiaSet cache hits: {}, soft hits: {}, misses: {}, evictions: {}, hit rate: {}%", hits, softHits, misses, evictionCount.get(), String.format("%.1f", hitRate));
+        synchronized (lock) {
+            log.info("[Cache] GaiaSet cache entries: {}, weight: {} / {} MB", entries.size(), weight / (1024 * 1024), maximumWeight / (1024 * 1024));
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get() + softHitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public void resetStatistics() {
+        hitCount.set(0);
+        softHitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    private GaiaSet lookup(Path tempPath) {
+        synchronized (lock) {
+            drainReferenceQueue();
+            Entry entry = entries.get(tempPath);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.set;
+            }
+            SoftEntry softEntry = softEntries.remove(tempPath);
+            GaiaSet softSet = softEntry != null ? softEntry.get() : null;
+            if (softSet != null) {
+                softHitCount.incrementAndGet();
+                putLocked(tempPath, softSet);
+                return softSet;
+            }
+            return null;
+        }
+    }
+
+    private void put(Path tempPath, GaiaSet set) {
+        synchronized (lock) {
+            putLocked(tempPath, set);
+        }
+    }
+
+    private void putLocked(Path tempPath, GaiaSet set) {
+        long setWeight = set.getBufferByteSize();
+        if (setWeight > maximumWeight) {
+            // too large to be kept strongly
+            softEntries.put(tempPath, new SoftEntry(tempPath, set, referenceQueue));
+            return;
+        }
+        Entry previous = entries.put(tempPath, new Entry(set, setWeight));
+        if (previous != null) {
+            weight -= previous.weight;
+        }
+        weight += setWeight;
+        evict();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Path, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maximumWeight && iterator.hasNext()) {
+            Map.Entry<Path, Entry> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight;
+            evictionCount.incrementAndGet();
+            softEntries.put(eldest.getKey(), new SoftEntry(eldest.getKey(), eldest.getValue().set, referenceQueue));
+        }
+    }
+
+    private void drainReferenceQueue() {
+        SoftEntry cleared;
+        while ((cleared = (SoftEntry) referenceQueue.poll()) != null) {
+            softEntries.remove(cleared.path, cleared);
+        }
+    }
+
+    private GaiaSet join(CompletableFuture<GaiaSet> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the temp file", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to read the temp file", e.getCause());
+        }
+    }
+
+    private record Entry(GaiaSet set, long weight) {
+    }
+
+    private static class SoftEntry extends SoftReference<GaiaSet> {
+        private final Path path;
+
+        SoftEntry(Path path, GaiaSet set, ReferenceQueue<GaiaSet> queue) {
+            super(set, queue);
+            this.path = path;
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.gaia3d.basic.geometry.modifier.topology;
+
+import com.gaia3d.basic.model.GaiaVertex;
+import org.joml.Vector3d;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Finds the weldable vertices on a spatial hash grid instead of an octree with pairwise comparisons in its leaves.
+ * The positions are quantized into cells of the weld error (with the batchId when it is checked)
+ * and the cell hashes are kept in an open addressing table of primitive arrays.
+ * A vertex is only compared with the masters of the 27 cells around it, and is welded to the master with the lowest index,
+ * the first vertex of its cluster in the vertex order as before.
+ * Large vertex lists are split into slabs along the longest axis welded in parallel, then the masters on both sides
+ * of every seam are welded to each other.
+ */
+public class VertexHashWelder {
+    private static final int PARALLEL_VERTEX_COUNT = 100000;
+    private static final int NIL = -1;
+
+    private final GaiaWeldOptions weldOptions;
+    private final double cellSize;
+
+    public VertexHashWelder(GaiaWeldOptions weldOptions) {
+        this.weldOptions = weldOptions;
+        // any cell size finds the exact matches, the error only sets the searched neighborhood
+        this.cellSize = weldOptions.getError() > 0.0d ? weldOptions.getError() : 1.0d;
+    }
+
+    /**
+     * Returns the index of the master vertex of every vertex, masters point to themselves.
+     */
+    public int[] findMasters(List<GaiaVertex> vertices) {
+        int vertexCount = vertices.size();
+        int[] masters = new int[vertexCount];
+        if (vertexCount == 0) {
+            return masters;
+        }
+        long[] cells = new long[vertexCount * 3];
+        boolean parallel = vertexCount >= PARALLEL_VERTEX_COUNT && Runtime.getRuntime().availableProcessors() > 1;
+        IntStream range = IntStream.range(0, vertexCount);
+        (parallel ? range.parallel() : range).forEach(i -> {
+            Vector3d position = vertices.get(i).getPosition();
+            cells[i * 3] = (long) Math.floor(position.x / cellSize);
+            cells[i * 3 + 1] = (long) Math.floor(position.y / cellSize);
+            cells[i * 3 + 2] = (long) Math.floor(position.z / cellSize);
+        });
+
+        int[] nextMasters = new int[vertexCount];
+        if (!parallel) {
+            int[] order = IntStream.range(0, vertexCount).toArray();
+            weldRange(vertices, cells, order, masters, nextMasters, new CellTable(vertexCount));
+            return masters;
+        }
+
+        // slabs of whole cells along the longest axis
+        int axis = getLongestAxis(cells, vertexCount);
+        long minCell = Long.MAX_VALUE;
+        long maxCell = Long.MIN_VALUE;
+        for (int i = 0; i < vertexCount; i++) {
+            minCell = Math.min(minCell, cells[i * 3 + axis]);
+            maxCell = Math.max(maxCell, cells[i * 3 + axis]);
+        }
+        int slabCount = (int) Math.max(1, Math.min(Runtime.getRuntime().availableProcessors() * 2L, maxCell - minCell + 1));
+        long slabCells = (maxCell - minCell) / slabCount + 1;
+        int[][] slabs = splitSlabs(cells, vertexCount, axis, minCell, slabCells, slabCount);
+        IntStream.range(0, slabCount).parallel().forEach(slab -> {
+            int[] order = slabs[slab];
+            weldRange(vertices, cells, order, masters, nextMasters, new CellTable(order.length));
+        });
+
+        for (int slab = 1; slab < slabCount; slab++) {
+            long seamCell = minCell + slab * slabCells;
+            weldSeam(vertices, cells, axis, seamCell, slabs[slab - 1], slabs[slab], masters, nextMasters);
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            int master = masters[i];
+            while (masters[master] != master) {
+                master = masters[master];
+            }
+            masters[i] = master;
+        }
+        return masters;
+    }
+
+    /**
+     * Greedy welding of the vertices in the given (ascending) order, new masters are added to the table.
+     */
+    private void weldRange(List<GaiaVertex> vertices, long[] cells, int[] order, int[] masters, int[] nextMasters, CellTable table) {
+        for (int i : order) {
+            GaiaVertex vertex = vertices.get(i);
+            int master = findMaster(vertices, cells, i, vertex, table, nextMasters);
+            if (master == NIL) {
+                masters[i] = i;
+                addMaster(cells, i, vertex, table, nextMasters);
+            } else {
+                masters[i] = master;
+            }
+        }
+    }
+
+    /**
+     * Welds the masters of the first cell column of a slab to the masters of the last column of the previous slab.
+     */
+    private void weldSeam(List<GaiaVertex> vertices, long[] cells, int axis, long seamCell, int[] left, int[] right, int[] masters, int[] nextMasters) {
+        int[] seamMasters = Arrays.stream(left)
+                .filter(i -> masters[i] == i && cells[i * 3 + axis] == seamCell - 1)
+                .toArray();
+        if (seamMasters.length == 0) {
+            return;
+        }
+        CellTable table = new CellTable(seamMasters.length);
+        for (int i : seamMasters) {
+            addMaster(cells, i, vertices.get(i), table, nextMasters);
+        }
+        for (int i : right) {
+            if (masters[i] == i && cells[i * 3 + axis] == seamCell) {
+                int master = findMaster(vertices, cells, i, vertices.get(i), table, nextMasters);
+                if (master != NIL) {
+                    masters[i] = master;
+                }
+            }
+        }
+    }
+
+    private int findMaster(List<GaiaVertex> vertices, long[] cells, int index, GaiaVertex vertex, CellTable table, int[] nextMasters) {
+        long cellX = cells[index * 3];
+        long cellY = cells[index * 3 + 1];
+        long cellZ = cells[index * 3 + 2];
+        int batchKey = getBatchKey(vertex);
+        int best = NIL;
+        for (int dx = -1; dx <= 1; dx++) {
+            for (int dy = -1; dy <= 1; dy++) {
+                for (int dz = -1; dz <= 1; dz++) {
+                    long hash = hash(cellX + dx, cellY + dy, cellZ + dz, batchKey);
+                    for (int master = table.get(hash); master != NIL; master = nextMasters[master]) {
+                        if ((best == NIL || master < best) && isWeldable(vertices.get(master), vertex)) {
+                            best = master;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    private void addMaster(long[] cells, int index, GaiaVertex vertex, CellTable table, int[] nextMasters) {
+        long hash = hash(cells[index * 3], cells[index * 3 + 1], cells[index * 3 + 2], getBatchKey(vertex));
+        nextMasters[index] = table.put(hash, index);
+    }
+
+    private boolean isWeldable(GaiaVertex master, GaiaVertex vertex) {
+        return master.isWeldable(vertex, weldOptions.getError(), weldOptions.isCheckTexCoord(), weldOptions.isCheckNormal(), weldOptions.isCheckColor(), weldOptions.isCheckBatchId());
+    }
+
+    private int getBatchKey(GaiaVertex vertex) {
+        // + 0.0f folds -0.0f into 0.0f, both weld
+        return weldOptions.isCheckBatchId() ? Float.floatToIntBits(vertex.getBatchId() + 0.0f) : 0;
+    }
+
+    private int getLongestAxis(long[] cells, int vertexCount) {
+        long[] min = {Long.MAX_VALUE, Long.MAX_VALUE, Long.MAX_VALUE};
+        long[] max = {Long.MIN_VALUE, Long.MIN_VALUE, Long.MIN_VALUE};
+        for (int i = 0; i < vertexCount; i++) {
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], cells[i * 3 + axis]);
+                max[axis] = Math.max(max[axis], cells[i * 3 + axis]);
+            }
+        }
+        int longest = 0;
+        for (int axis = 1; axis < 3; axis++) {
+            if (max[axis] - min[axis] > max[longest] - min[longest]) {
+                longest = axis;
+            }
+        }
+        return longest;
+    }
+
+    /**
+     * Counting sort of the vertex indices into the slabs, ascending in every slab.
+     */
+    private int[][] splitSlabs(long[] cells, int vertexCount, int axis, long minCell, long slabCells, int slabCount) {
+        int[] slabOfVertex = new int[vertexCount];
+        int[] counts = new int[slabCount];
+        for (int i = 0; i < vertexCount; i++) {
+            int slab = (int) ((cells[i * 3 + axis] - minCell) / slabCells);
+            slabOfVertex[i] = slab;
+            counts[slab]++;
+        }
+        int[][] slabs = new int[slabCount][];
+        for (int slab = 0; slab < slabCount; slab++) {
+            slabs[slab] = new int[counts[slab]];
+        }
+        Arrays.fill(counts, 0);
+        for (int i = 0; i < vertexCount; i++) {
+            int slab = slabOfVertex[i];
+            slabs[slab][counts[slab]++] = i;
+        }
+        return slabs;
+    }
+
+    private static long hash(long x, long y, long z, int batchKey) {
+        long hash = x * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (hash >>> 29) ^ y) * 0xBF58476D1CE4E5B9L;
+        hash = (hash ^ (hash >>> 31) ^ z) * 0x94D049BB133111EBL;
+        hash = (hash ^ (hash >>> 27) ^ batchKey) * 0x9E3779B97F4A7C15L;
+        return hash ^ (hash >>> 32);
+    }
+
+    /**
+     * Open addressing (linear probing) table from cell hashes to the last added master of the cell.
+     * Different cells with the same hash share one chain, the weld checks sort them out.
+     */
+    private static class CellTable {
+        private final long[] keys;
+        private final int[] heads;
+        private final int mask;
+
+        private CellTable(int expectedCount) {
+            int capacity = Integer.highestOneBit(Math.max(16, expectedCount) * 2 - 1) << 1;
+            keys = new long[capacity];
+            heads = new int[capacity];
+            Arrays.fill(heads, NIL);
+            mask = capacity - 1;
+        }
+
+        private int get(long key) {
+            int slot = (int) key & mask;
+            while (heads[slot] != NIL) {
+                if (keys[slot] == key) {
+                    return heads[slot];
+                }
+                slot = (slot + 1) & mask;
+            }
+            return NIL;
+        }
+
+        /**
+         * Sets the head of the chain and returns the previous head.
+         */
+        private int put(long key, int head) {
+            int slot = (int) key & mask;
+            while (heads[slot] != NIL) {
+                if (keys[slot] == key) {
+                    int previous = heads[slot];
+                    heads[slot] = head;
+                    return previous;
+                }
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            heads[slot] = head;
+            return NIL;
+        }
+    }
+}
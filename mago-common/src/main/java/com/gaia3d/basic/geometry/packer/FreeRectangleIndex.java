@@ -0,0 +1,182 @@
+package com.gaia3d.basic.geometry.packer;
+
+import java.util.Arrays;
+
+/**
+ * Free rectangles of a MaxRectsPacker bin, indexed by a uniform grid.
+ * Splitting and pruning only look at the free rectangles sharing a cell with the query,
+ * instead of comparing every free rectangle with every other one.
+ * Rectangles are int ids into parallel arrays, the ids of removed rectangles are not reused.
+ */
+class FreeRectangleIndex {
+    private static final int GRID_DIVISIONS = 16;
+
+    private final int cellWidth;
+    private final int cellHeight;
+    private final int[][] cells = new int[GRID_DIVISIONS * GRID_DIVISIONS][];
+    private final int[] cellSizes = new int[GRID_DIVISIONS * GRID_DIVISIONS];
+
+    private int[] xs = new int[64];
+    private int[] ys = new int[64];
+    private int[] widths = new int[64];
+    private int[] heights = new int[64];
+    /* position of the id in the alive array, -1 when removed */
+    private int[] alivePositions = new int[64];
+    private int[] stamps = new int[64];
+    private int idCount = 0;
+
+    private int[] alive = new int[64];
+    private int aliveCount = 0;
+
+    private int stamp = 0;
+    private int[] queryResult = new int[64];
+
+    FreeRectangleIndex(int binWidth, int binHeight) {
+        this.cellWidth = Math.max(1, (binWidth + GRID_DIVISIONS - 1) / GRID_DIVISIONS);
+        this.cellHeight = Math.max(1, (binHeight + GRID_DIVISIONS - 1) / GRID_DIVISIONS);
+    }
+
+    int size() {
+        return aliveCount;
+    }
+
+    /**
+     * Id of the i-th alive rectangle, the order changes on removal.
+     */
+    int idAt(int i) {
+        return alive[i];
+    }
+
+    int x(int id) {
+        return xs[id];
+    }
+
+    int y(int id) {
+        return ys[id];
+    }
+
+    int width(int id) {
+        return widths[id];
+    }
+
+    int height(int id) {
+        return heights[id];
+    }
+
+    int add(int x, int y, int width, int height) {
+        int id = idCount++;
+        if (id == xs.length) {
+            int capacity = xs.length * 2;
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            alivePositions = Arrays.copyOf(alivePositions, capacity);
+            stamps = Arrays.copyOf(stamps, capacity);
+        }
+        xs[id] = x;
+        ys[id] = y;
+        widths[id] = width;
+        heights[id] = height;
+        stamps[id] = 0;
+
+        if (aliveCount == alive.length) {
+            alive = Arrays.copyOf(alive, aliveCount * 2);
+        }
+        alivePositions[id] = aliveCount;
+        alive[aliveCount++] = id;
+
+        int minCellX = cellX(x), maxCellX = cellX(x + width - 1);
+        int minCellY = cellY(y), maxCellY = cellY(y + height - 1);
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                int cell = cellY * GRID_DIVISIONS + cellX;
+                int[] ids = cells[cell];
+                if (ids == null) {
+                    ids = new int[8];
+                    cells[cell] = ids;
+                } else if (cellSizes[cell] == ids.length) {
+                    ids = Arrays.copyOf(ids, ids.length * 2);
+                    cells[cell] = ids;
+                }
+                ids[cellSizes[cell]++] = id;
+            }
+        }
+        return id;
+    }
+
+    void remove(int id) {
+        int position = alivePositions[id];
+        if (position < 0) {
+            return;
+        }
+        int last = alive[--aliveCount];
+        alive[position] = last;
+        alivePositions[last] = position;
+        alivePositions[id] = -1;
+
+        int minCellX = cellX(xs[id]), maxCellX = cellX(xs[id] + widths[id] - 1);
+        int minCellY = cellY(ys[id]), maxCellY = cellY(ys[id] + heights[id] - 1);
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                int cell = cellY * GRID_DIVISIONS + cellX;
+                int[] ids = cells[cell];
+                int count = cellSizes[cell];
+                for (int i = 0; i < count; i++) {
+                    if (ids[i] == id) {
+                        ids[i] = ids[count - 1];
+                        cellSizes[cell] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    boolean isAlive(int id) {
+        return alivePositions[id] >= 0;
+    }
+
+    /**
+     * Ids of the alive rectangles overlapping the query rectangle with a positive area.
+     * The returned array is a copy, the index can be modified while iterating it.
+     */
+    int[] queryOverlapping(int x, int y, int width, int height) {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        int resultCount = 0;
+        int minCellX = cellX(x), maxCellX = cellX(x + width - 1);
+        int minCellY = cellY(y), maxCellY = cellY(y + height - 1);
+        for (int cellY = minCellY; cellY <= maxCellY; cellY++) {
+            for (int cellX = minCellX; cellX <= maxCellX; cellX++) {
+                int cell = cellY * GRID_DIVISIONS + cellX;
+                int[] ids = cells[cell];
+                int count = cellSizes[cell];
+                for (int i = 0; i < count; i++) {
+                    int id = ids[i];
+                    if (stamps[id] == stamp) {
+                        continue;
+                    }
+                    stamps[id] = stamp;
+                    if (xs[id] < x + width && x < xs[id] + widths[id] && ys[id] < y + height && y < ys[id] + heights[id]) {
+                        if (resultCount == queryResult.length) {
+                            queryResult = Arrays.copyOf(queryResult, resultCount * 2);
+                        }
+                        queryResult[resultCount++] = id;
+                    }
+                }
+            }
+        }
+        return Arrays.copyOf(queryResult, resultCount);
+    }
+
+    private int cellX(int x) {
+        return Math.min(GRID_DIVISIONS - 1, Math.max(0, x / cellWidth));
+    }
+
+    private int cellY(int y) {
+        return Math.min(GRID_DIVISIONS - 1, Math.max(0, y / cellHeight));
+    }
+}
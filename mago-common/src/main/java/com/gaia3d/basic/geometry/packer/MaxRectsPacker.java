@@ -0,0 +1,326 @@
+package com.gaia3d.basic.geometry.packer;
+
+import com.gaia3d.basic.geometry.GaiaRectangle;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Texture atlas packer using the MaxRects algorithm (J. Jylänki, "A Thousand Ways to Pack the Bin").
+ * The bin keeps the maximal free rectangles, a new rectangle goes into the best free rectangle of the heuristic
+ * and every free rectangle it overlaps is split into its (up to four) remaining parts.
+ * The bin starts as a square of the total area and grows until every rectangle fits,
+ * the returned atlas is the bounding rectangle of the placed rectangles.
+ */
+public class MaxRectsPacker {
+    private final PackingOptions options;
+
+    public MaxRectsPacker() {
+        this(PackingOptions.defaults());
+    }
+
+    public MaxRectsPacker(PackingOptions options) {
+        this.options = options;
+    }
+
+    /**
+     * Packs the items, the boundary of an item gives its size and the placed boundary is given back to the consumer.
+     */
+    public <T> PackingResult pack(List<T> items, Function<T, GaiaRectangle> boundaryOf, BiConsumer<T, GaiaRectangle> placedBoundary) {
+        int count = items.size();
+        int[] widths = new int[count];
+        int[] heights = new int[count];
+        for (int i = 0; i < count; i++) {
+            GaiaRectangle boundary = boundaryOf.apply(items.get(i));
+            widths[i] = boundary.getWidthInt();
+            heights[i] = boundary.getHeightInt();
+        }
+        PackingResult result = pack(widths, heights);
+        for (int i = 0; i < count; i++) {
+            int x = result.x()[i];
+            int y = result.y()[i];
+            placedBoundary.accept(items.get(i), new GaiaRectangle(x, y, x + widths[i], y + heights[i]));
+        }
+        return result;
+    }
+
+    /**
+     * Packs the rectangles of the given sizes, the positions are returned in the input order.
+     */
+    public PackingResult pack(int[] widths, int[] heights) {
+        int count = widths.length;
+        int padding = Math.max(0, options.getPadding());
+
+        long paddedArea = 0;
+        long usedArea = 0;
+        int maxWidth = 0;
+        int maxHeight = 0;
+        for (int i = 0; i < count; i++) {
+            if (isEmpty(widths[i], heights[i])) {
+                continue;
+            }
+            int paddedWidth = widths[i] + padding;
+            int paddedHeight = heights[i] + padding;
+            paddedArea += (long) paddedWidth * paddedHeight;
+            usedArea += (long) widths[i] * heights[i];
+            maxWidth = Math.max(maxWidth, paddedWidth);
+            maxHeight = Math.max(maxHeight, paddedHeight);
+        }
+
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, options.getSortType().comparator(widths, heights));
+
+        int side = (int) Math.ceil(Math.sqrt(paddedArea));
+        int binWidth = Math.max(side, maxWidth) + padding;
+        int binHeight = Math.max(side, maxHeight) + padding;
+        if (options.isPowerOfTwo()) {
+            binWidth = ceilPowerOfTwo(binWidth);
+            binHeight = ceilPowerOfTwo(binHeight);
+        }
+
+        int[] x = new int[count];
+        int[] y = new int[count];
+        boolean grownWidth = false;
+        int failedSize = 0;
+        while (!tryPack(order, widths, heights, padding, binWidth, binHeight, x, y)) {
+            grownWidth = binWidth <= binHeight;
+            if (grownWidth) {
+                failedSize = binWidth;
+                binWidth = grow(binWidth);
+            } else {
+                failedSize = binHeight;
+                binHeight = grow(binHeight);
+            }
+        }
+
+        // the growth overshoots, bisect the last grown side between the failed and the packed size
+        if (!options.isPowerOfTwo() && failedSize > 0) {
+            int[] candidateX = new int[count];
+            int[] candidateY = new int[count];
+            int low = failedSize;
+            int high = grownWidth ? binWidth : binHeight;
+            while (high - low > 1) {
+                int middle = (low + high) >>> 1;
+                boolean packed = grownWidth
+                        ? tryPack(order, widths, heights, padding, middle, binHeight, candidateX, candidateY)
+                        : tryPack(order, widths, heights, padding, binWidth, middle, candidateX, candidateY);
+                if (packed) {
+                    high = middle;
+                    System.arraycopy(candidateX, 0, x, 0, count);
+                    System.arraycopy(candidateY, 0, y, 0, count);
+                } else {
+                    low = middle;
+                }
+            }
+        }
+
+        int atlasWidth = 0;
+        int atlasHeight = 0;
+        for (int i = 0; i < count; i++) {
+            if (isEmpty(widths[i], heights[i])) {
+                continue;
+            }
+            atlasWidth = Math.max(atlasWidth, x[i] + widths[i] + padding);
+            atlasHeight = Math.max(atlasHeight, y[i] + heights[i] + padding);
+        }
+        if (options.isPowerOfTwo() && atlasWidth > 0) {
+            atlasWidth = ceilPowerOfTwo(atlasWidth);
+            atlasHeight = ceilPowerOfTwo(atlasHeight);
+        }
+        return new PackingResult(atlasWidth, atlasHeight, x, y, usedArea);
+    }
+
+    private boolean tryPack(Integer[] order, int[] widths, int[] heights, int padding, int binWidth, int binHeight, int[] x, int[] y) {
+        // the top and left border, the right and bottom ones come with the padding of the rectangles
+        FreeRectangleIndex freeRectangles = new FreeRectangleIndex(binWidth, binHeight);
+        freeRectangles.add(padding, padding, binWidth - padding, binHeight - padding);
+
+        for (int index : order) {
+            if (isEmpty(widths[index], heights[index])) {
+                x[index] = padding;
+                y[index] = padding;
+                continue;
+            }
+            int width = widths[index] + padding;
+            int height = heights[index] + padding;
+            int best = findBestFreeRectangle(freeRectangles, width, height);
+            if (best < 0) {
+                return false;
+            }
+            int placedX = freeRectangles.x(best);
+            int placedY = freeRectangles.y(best);
+            x[index] = placedX;
+            y[index] = placedY;
+            placeRectangle(freeRectangles, placedX, placedY, width, height);
+        }
+        return true;
+    }
+
+    private int findBestFreeRectangle(FreeRectangleIndex freeRectangles, int width, int height) {
+        PackingHeuristicType heuristicType = options.getHeuristicType();
+        int best = -1;
+        long bestScore = Long.MAX_VALUE;
+        long bestSecondScore = Long.MAX_VALUE;
+        int freeCount = freeRectangles.size();
+        for (int i = 0; i < freeCount; i++) {
+            int id = freeRectangles.idAt(i);
+            int freeWidth = freeRectangles.width(id);
+            int freeHeight = freeRectangles.height(id);
+            if (width > freeWidth || height > freeHeight) {
+                continue;
+            }
+            int leftoverX = freeWidth - width;
+            int leftoverY = freeHeight - height;
+            if (leftoverX == 0 && leftoverY == 0 && heuristicType != PackingHeuristicType.BOTTOM_LEFT) {
+                // a perfect fit can not be beaten
+                return id;
+            }
+
+            long score;
+            long secondScore;
+            switch (heuristicType) {
+                case BEST_LONG_SIDE_FIT -> {
+                    score = Math.max(leftoverX, leftoverY);
+                    secondScore = Math.min(leftoverX, leftoverY);
+                }
+                case BEST_AREA_FIT -> {
+                    score = (long) freeWidth * freeHeight - (long) width * height;
+                    secondScore = Math.min(leftoverX, leftoverY);
+                }
+                case BOTTOM_LEFT -> {
+                    score = (long) freeRectangles.y(id) + height;
+                    secondScore = freeRectangles.x(id);
+                }
+                default -> {
+                    score = Math.min(leftoverX, leftoverY);
+                    secondScore = Math.max(leftoverX, leftoverY);
+                }
+            }
+            if (score < bestScore || (score == bestScore && secondScore < bestSecondScore)) {
+                best = id;
+                bestScore = score;
+                bestSecondScore = secondScore;
+            }
+        }
+        return best;
+    }
+
+    private void placeRectangle(FreeRectangleIndex freeRectangles, int placedX, int placedY, int width, int height) {
+        int placedMaxX = placedX + width;
+        int placedMaxY = placedY + height;
+
+        // split every free rectangle overlapped by the placed one into its remaining parts
+        int[] splits = new int[32];
+        int splitCount = 0;
+        for (int id : freeRectangles.queryOverlapping(placedX, placedY, width, height)) {
+            int freeX = freeRectangles.x(id);
+            int freeY = freeRectangles.y(id);
+            int freeMaxX = freeX + freeRectangles.width(id);
+            int freeMaxY = freeY + freeRectangles.height(id);
+            freeRectangles.remove(id);
+
+            if (splitCount + 16 > splits.length) {
+                splits = Arrays.copyOf(splits, splits.length * 2);
+            }
+            if (placedX > freeX) {
+                splitCount = putRectangle(splits, splitCount, freeX, freeY, placedX - freeX, freeMaxY - freeY);
+            }
+            if (placedMaxX < freeMaxX) {
+                splitCount = putRectangle(splits, splitCount, placedMaxX, freeY, freeMaxX - placedMaxX, freeMaxY - freeY);
+            }
+            if (placedY > freeY) {
+                splitCount = putRectangle(splits, splitCount, freeX, freeY, freeMaxX - freeX, placedY - freeY);
+            }
+            if (placedMaxY < freeMaxY) {
+                splitCount = putRectangle(splits, splitCount, freeX, placedMaxY, freeMaxX - freeX, freeMaxY - placedMaxY);
+            }
+        }
+
+        // prune the parts contained in another part, or in a free rectangle that was not split
+        int partCount = splitCount / 4;
+        boolean[] contained = new boolean[partCount];
+        for (int i = 0; i < partCount; i++) {
+            for (int j = 0; j < partCount && !contained[i]; j++) {
+                if (i == j || contained[j]) {
+                    continue;
+                }
+                if (contains(splits, j * 4, splits[i * 4], splits[i * 4 + 1], splits[i * 4 + 2], splits[i * 4 + 3])) {
+                    contained[i] = true;
+                }
+            }
+        }
+        for (int i = 0; i < partCount; i++) {
+            if (contained[i]) {
+                continue;
+            }
+            int partX = splits[i * 4];
+            int partY = splits[i * 4 + 1];
+            int partWidth = splits[i * 4 + 2];
+            int partHeight = splits[i * 4 + 3];
+            int[] overlapping = freeRectangles.queryOverlapping(partX, partY, partWidth, partHeight);
+            boolean redundant = false;
+            for (int id : overlapping) {
+                if (freeRectangles.x(id) <= partX && freeRectangles.y(id) <= partY
+                        && freeRectangles.x(id) + freeRectangles.width(id) >= partX + partWidth
+                        && freeRectangles.y(id) + freeRectangles.height(id) >= partY + partHeight) {
+                    redundant = true;
+                    break;
+                }
+            }
+            if (redundant) {
+                continue;
+            }
+            for (int id : overlapping) {
+                if (partX <= freeRectangles.x(id) && partY <= freeRectangles.y(id)
+                        && partX + partWidth >= freeRectangles.x(id) + freeRectangles.width(id)
+                        && partY + partHeight >= freeRectangles.y(id) + freeRectangles.height(id)) {
+                    freeRectangles.remove(id);
+                }
+            }
+            freeRectangles.add(partX, partY, partWidth, partHeight);
+        }
+    }
+
+    private int putRectangle(int[] rectangles, int offset, int x, int y, int width, int height) {
+        rectangles[offset] = x;
+        rectangles[offset + 1] = y;
+        rectangles[offset + 2] = width;
+        rectangles[offset + 3] = height;
+        return offset + 4;
+    }
+
+    /**
+     * true if the rectangle at the offset contains the given one, equal rectangles contain each other,
+     * so only one of two equal parts survives the pruning.
+     */
+    private boolean contains(int[] rectangles, int offset, int x, int y, int width, int height) {
+        int containerX = rectangles[offset];
+        int containerY = rectangles[offset + 1];
+        return containerX <= x && containerY <= y
+                && containerX + rectangles[offset + 2] >= x + width
+                && containerY + rectangles[offset + 3] >= y + height;
+    }
+
+    private int grow(int size) {
+        if (options.isPowerOfTwo()) {
+            return size * 2;
+        }
+        return Math.max(size + 1, (int) Math.ceil(size * options.getGrowFactor()));
+    }
+
+    private boolean isEmpty(int width, int height) {
+        return width <= 0 || height <= 0;
+    }
+
+    private static int ceilPowerOfTwo(int value) {
+        if (value <= 1) {
+            return 1;
+        }
+        return Integer.highestOneBit(value - 1) << 1;
+    }
+}
@@ -0,0 +1,15 @@
+package com.gaia3d.basic.geometry.packer;
+
+/**
+ * Rule choosing the free rectangle a new rectangle is placed into.
+ * BEST_SHORT_SIDE_FIT : the smallest leftover on the shorter side.
+ * BEST_LONG_SIDE_FIT : the smallest leftover on the longer side.
+ * BEST_AREA_FIT : the smallest free rectangle.
+ * BOTTOM_LEFT : the lowest position, then the leftmost (tetris placement).
+ */
+public enum PackingHeuristicType {
+    BEST_SHORT_SIDE_FIT,
+    BEST_LONG_SIDE_FIT,
+    BEST_AREA_FIT,
+    BOTTOM_LEFT
+}
@@ -0,0 +1,31 @@
+package com.gaia3d.basic.geometry.packer;
+
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Options of the MaxRectsPacker.
+ * padding : empty pixels kept between the rectangles and around the atlas border.
+ * powerOfTwo : the atlas width and height are rounded up to powers of two.
+ */
+@Getter
+@Setter
+@Builder
+public class PackingOptions {
+    @Builder.Default
+    private int padding = 0;
+    @Builder.Default
+    private boolean powerOfTwo = false;
+    @Builder.Default
+    private PackingSortType sortType = PackingSortType.HEIGHT;
+    @Builder.Default
+    private PackingHeuristicType heuristicType = PackingHeuristicType.BOTTOM_LEFT;
+    /* growth of the atlas side after a failed attempt */
+    @Builder.Default
+    private double growFactor = 1.1;
+
+    public static PackingOptions defaults() {
+        return PackingOptions.builder().build();
+    }
+}
@@ -0,0 +1,17 @@
+package com.gaia3d.basic.geometry.packer;
+
+/**
+ * Positions of the packed rectangles, in the input order, and the size of the atlas.
+ * The atlas is the bounding rectangle of the placed rectangles (with padding),
+ * rounded up to powers of two when the option is set.
+ */
+public record PackingResult(int width, int height, int[] x, int[] y, long usedArea) {
+
+    /**
+     * Ratio of the rectangle area to the atlas area, 1.0 is a perfect packing.
+     */
+    public double efficiency() {
+        long atlasArea = (long) width * height;
+        return atlasArea == 0 ? 0.0 : (double) usedArea / atlasArea;
+    }
+}
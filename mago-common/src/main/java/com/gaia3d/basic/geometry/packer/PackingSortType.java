@@ -0,0 +1,32 @@
+package com.gaia3d.basic.geometry.packer;
+
+import java.util.Comparator;
+
+/**
+ * Order in which the rectangles are inserted into the atlas, every order is descending.
+ * Inserting the big rectangles first leaves the small ones to fill the gaps.
+ */
+public enum PackingSortType {
+    NONE,
+    HEIGHT,
+    WIDTH,
+    AREA,
+    MAX_SIDE,
+    PERIMETER;
+
+    /**
+     * Comparator of rectangle indices in the insertion order.
+     */
+    public Comparator<Integer> comparator(int[] widths, int[] heights) {
+        Comparator<Integer> comparator = switch (this) {
+            case NONE -> (a, b) -> 0;
+            case HEIGHT -> Comparator.<Integer>comparingInt(i -> heights[i]).thenComparingInt(i -> widths[i]).reversed();
+            case WIDTH -> Comparator.<Integer>comparingInt(i -> widths[i]).thenComparingInt(i -> heights[i]).reversed();
+            case AREA -> Comparator.<Integer>comparingLong(i -> (long) widths[i] * heights[i]).reversed();
+            case MAX_SIDE -> Comparator.<Integer>comparingInt(i -> Math.max(widths[i], heights[i])).thenComparingInt(i -> Math.min(widths[i], heights[i])).reversed();
+            case PERIMETER -> Comparator.<Integer>comparingInt(i -> widths[i] + heights[i]).reversed();
+        };
+        // stable for equal sizes
+        return comparator.thenComparingInt(i -> i);
+    }
+}
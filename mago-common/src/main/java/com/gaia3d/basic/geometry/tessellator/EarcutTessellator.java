@@ -0,0 +1,735 @@
+package com.gaia3d.basic.geometry.tessellator;
+
+import java.util.Arrays;
+
+/**
+ * Ear clipping tessellator on packed coordinate arrays, a port of the earcut algorithm (mapbox/earcut, ISC license).
+ * A polygon is one array of coordinates, the exterior ring first and then the holes starting at the vertex indices of holeIndices.
+ * The result is an index buffer of triangles into the vertices of the array, wound like the exterior ring.
+ * The linked vertex lists are kept in int and double arrays of a per-thread workspace, so a polygon only allocates its result.
+ * Polygons of more than 80 vertices look up the vertices inside a candidate ear along a z-order curve.
+ */
+public class EarcutTessellator {
+    private static final int NIL = -1;
+    private static final int HASH_THRESHOLD = 80;
+    private static final int[] EMPTY = new int[0];
+    private static final ThreadLocal<Workspace> workspaces = ThreadLocal.withInitial(Workspace::new);
+
+    /**
+     * Tessellates a 2D polygon of packed x, y coordinates.
+     */
+    public int[] tessellate(double[] coords, int[] holeIndices) {
+        return tessellate(workspaces.get(), coords, coords.length / 2, holeIndices);
+    }
+
+    /**
+     * Tessellates a planar 3D polygon of packed x, y, z coordinates,
+     * projected on the axis plane most aligned with its (Newell) normal.
+     */
+    public int[] tessellate3D(double[] coords, int[] holeIndices) {
+        Workspace workspace = workspaces.get();
+        int vertexCount = coords.length / 3;
+        int exteriorCount = holeIndices != null && holeIndices.length > 0 ? holeIndices[0] : vertexCount;
+        double normalX = 0.0d;
+        double normalY = 0.0d;
+        double normalZ = 0.0d;
+        for (int i = 0, j = exteriorCount - 1; i < exteriorCount; j = i++) {
+            double xi = coords[i * 3];
+            double yi = coords[i * 3 + 1];
+            double zi = coords[i * 3 + 2];
+            double xj = coords[j * 3];
+            double yj = coords[j * 3 + 1];
+            double zj = coords[j * 3 + 2];
+            normalX += (yj - yi) * (zj + zi);
+            normalY += (zj - zi) * (xj + xi);
+            normalZ += (xj - xi) * (yj + yi);
+        }
+        double absX = Math.abs(normalX);
+        double absY = Math.abs(normalY);
+        double absZ = Math.abs(normalZ);
+        // the two coordinates of the plane, YZ, XZ or XY
+        int first = 0;
+        int second = 1;
+        if (absX > absY && absX > absZ) {
+            first = 1;
+            second = 2;
+        } else if (absY > absZ) {
+            second = 2;
+        }
+        double[] projected = workspace.ensureProjected(vertexCount * 2);
+        for (int i = 0; i < vertexCount; i++) {
+            projected[i * 2] = coords[i * 3 + first];
+            projected[i * 2 + 1] = coords[i * 3 + second];
+        }
+        return tessellate(workspace, projected, vertexCount, holeIndices);
+    }
+
+    private int[] tessellate(Workspace w, double[] data, int vertexCount, int[] holeIndices) {
+        boolean hasHoles = holeIndices != null && holeIndices.length > 0;
+        int outerLength = hasHoles ? holeIndices[0] : vertexCount;
+        w.reset(vertexCount);
+        if (outerLength < 3) {
+            return EMPTY;
+        }
+        boolean clockwise = signedArea(data, 0, outerLength) < 0;
+        int outerNode = w.linkedList(data, 0, outerLength, true);
+        if (outerNode == NIL || w.next[outerNode] == w.prev[outerNode]) {
+            return EMPTY;
+        }
+        if (hasHoles) {
+            outerNode = w.eliminateHoles(data, holeIndices, vertexCount, outerNode);
+        }
+
+        double minX = 0.0d;
+        double minY = 0.0d;
+        double invSize = 0.0d;
+        if (vertexCount > HASH_THRESHOLD) {
+            minX = data[0];
+            minY = data[1];
+            double maxX = minX;
+            double maxY = minY;
+            for (int i = 1; i < outerLength; i++) {
+                double x = data[i * 2];
+                double y = data[i * 2 + 1];
+                minX = Math.min(minX, x);
+                minY = Math.min(minY, y);
+                maxX = Math.max(maxX, x);
+                maxY = Math.max(maxY, y);
+            }
+            invSize = Math.max(maxX - minX, maxY - minY);
+            invSize = invSize != 0.0d ? 32767.0d / invSize : 0.0d;
+        }
+        w.earcutLinked(outerNode, minX, minY, invSize, 0);
+
+        int[] triangles = Arrays.copyOf(w.triangles, w.triangleCount);
+        if (clockwise) {
+            // the linked list runs counter-clockwise, keep the winding of the exterior ring
+            for (int i = 0; i < triangles.length; i += 3) {
+                int temp = triangles[i + 1];
+                triangles[i + 1] = triangles[i + 2];
+                triangles[i + 2] = temp;
+            }
+        }
+        return triangles;
+    }
+
+    /**
+     * Twice the signed area of the ring, positive when counter-clockwise.
+     */
+    private static double signedArea(double[] data, int start, int end) {
+        double sum = 0.0d;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            sum += (data[j * 2] - data[i * 2]) * (data[i * 2 + 1] + data[j * 2 + 1]);
+        }
+        return sum;
+    }
+
+    private static boolean pointInTriangle(double ax, double ay, double bx, double by, double cx, double cy, double px, double py) {
+        return (cx - px) * (ay - py) >= (ax - px) * (cy - py)
+                && (ax - px) * (by - py) >= (bx - px) * (ay - py)
+                && (bx - px) * (cy - py) >= (cx - px) * (by - py);
+    }
+
+    private static int sign(double value) {
+        return value > 0.0d ? 1 : value < 0.0d ? -1 : 0;
+    }
+
+    /**
+     * Doubly linked vertex lists (and the z-order lists) as parallel arrays, NIL is the null link.
+     */
+    private static class Workspace {
+        private int capacity = 0;
+        private int nodeCount = 0;
+        private int[] vertex = EMPTY;
+        private double[] x = new double[0];
+        private double[] y = new double[0];
+        private int[] prev = EMPTY;
+        private int[] next = EMPTY;
+        private int[] z = EMPTY;
+        private int[] prevZ = EMPTY;
+        private int[] nextZ = EMPTY;
+        private boolean[] steiner = new boolean[0];
+
+        private int[] triangles = new int[64];
+        private int triangleCount = 0;
+        private int[] queue = EMPTY;
+        private double[] projected = new double[0];
+
+        private void reset(int vertexCount) {
+            nodeCount = 0;
+            triangleCount = 0;
+            // the bridges of the holes and the splits add nodes, the arrays still grow when needed
+            ensureCapacity(vertexCount + vertexCount / 2 + 8);
+        }
+
+        private double[] ensureProjected(int length) {
+            if (projected.length < length) {
+                projected = new double[Math.max(length, projected.length * 2)];
+            }
+            return projected;
+        }
+
+        private void ensureCapacity(int required) {
+            if (capacity >= required) {
+                return;
+            }
+            int newCapacity = Math.max(required, capacity * 2);
+            vertex = Arrays.copyOf(vertex, newCapacity);
+            x = Arrays.copyOf(x, newCapacity);
+            y = Arrays.copyOf(y, newCapacity);
+            prev = Arrays.copyOf(prev, newCapacity);
+            next = Arrays.copyOf(next, newCapacity);
+            z = Arrays.copyOf(z, newCapacity);
+            prevZ = Arrays.copyOf(prevZ, newCapacity);
+            nextZ = Arrays.copyOf(nextZ, newCapacity);
+            steiner = Arrays.copyOf(steiner, newCapacity);
+            capacity = newCapacity;
+        }
+
+        private int createNode(int vertexIndex, double nodeX, double nodeY) {
+            ensureCapacity(nodeCount + 1);
+            int node = nodeCount++;
+            vertex[node] = vertexIndex;
+            x[node] = nodeX;
+            y[node] = nodeY;
+            prev[node] = NIL;
+            next[node] = NIL;
+            z[node] = 0;
+            prevZ[node] = NIL;
+            nextZ[node] = NIL;
+            steiner[node] = false;
+            return node;
+        }
+
+        private void addTriangle(int a, int b, int c) {
+            if (triangleCount + 3 > triangles.length) {
+                triangles = Arrays.copyOf(triangles, triangles.length * 2);
+            }
+            triangles[triangleCount++] = vertex[a];
+            triangles[triangleCount++] = vertex[b];
+            triangles[triangleCount++] = vertex[c];
+        }
+
+        /**
+         * Circular list of the ring vertices, in the requested winding.
+         */
+        private int linkedList(double[] data, int start, int end, boolean counterClockwise) {
+            int last = NIL;
+            if (counterClockwise == (signedArea(data, start, end) > 0)) {
+                for (int i = start; i < end; i++) {
+                    last = insertNode(i, data[i * 2], data[i * 2 + 1], last);
+                }
+            } else {
+                for (int i = end - 1; i >= start; i--) {
+                    last = insertNode(i, data[i * 2], data[i * 2 + 1], last);
+                }
+            }
+            if (last != NIL && equals(last, next[last])) {
+                removeNode(last);
+                last = next[last];
+            }
+            return last;
+        }
+
+        /**
+         * Removes duplicated and collinear vertices.
+         */
+        private int filterPoints(int start, int end) {
+            if (start == NIL) {
+                return start;
+            }
+            if (end == NIL) {
+                end = start;
+            }
+            int p = start;
+            boolean again;
+            do {
+                again = false;
+                if (!steiner[p] && (equals(p, next[p]) || area(prev[p], p, next[p]) == 0.0d)) {
+                    removeNode(p);
+                    p = end = prev[p];
+                    if (p == next[p]) {
+                        break;
+                    }
+                    again = true;
+                } else {
+                    p = next[p];
+                }
+            } while (again || p != end);
+            return end;
+        }
+
+        private void earcutLinked(int ear, double minX, double minY, double invSize, int pass) {
+            if (ear == NIL) {
+                return;
+            }
+            if (pass == 0 && invSize != 0.0d) {
+                indexCurve(ear, minX, minY, invSize);
+            }
+            int stop = ear;
+            while (prev[ear] != next[ear]) {
+                int earPrev = prev[ear];
+                int earNext = next[ear];
+                if (invSize != 0.0d ? isEarHashed(ear, minX, minY, invSize) : isEar(ear)) {
+                    addTriangle(earPrev, ear, earNext);
+                    removeNode(ear);
+                    // skipping the next vertex leads to less sliver triangles
+                    ear = next[earNext];
+                    stop = next[earNext];
+                    continue;
+                }
+                ear = earNext;
+                if (ear == stop) {
+                    if (pass == 0) {
+                        // try again after removing the collinear and duplicated vertices
+                        earcutLinked(filterPoints(ear, NIL), minX, minY, invSize, 1);
+                    } else if (pass == 1) {
+                        ear = cureLocalIntersections(filterPoints(ear, NIL));
+                        earcutLinked(ear, minX, minY, invSize, 2);
+                    } else if (pass == 2) {
+                        splitEarcut(ear, minX, minY, invSize);
+                    }
+                    break;
+                }
+            }
+        }
+
+        private boolean isEar(int ear) {
+            int a = prev[ear];
+            int b = ear;
+            int c = next[ear];
+            if (area(a, b, c) >= 0.0d) {
+                return false; // reflex
+            }
+            double ax = x[a], bx = x[b], cx = x[c];
+            double ay = y[a], by = y[b], cy = y[c];
+            double x0 = Math.min(ax, Math.min(bx, cx));
+            double y0 = Math.min(ay, Math.min(by, cy));
+            double x1 = Math.max(ax, Math.max(bx, cx));
+            double y1 = Math.max(ay, Math.max(by, cy));
+            int p = next[c];
+            while (p != a) {
+                if (x[p] >= x0 && x[p] <= x1 && y[p] >= y0 && y[p] <= y1
+                        && pointInTriangle(ax, ay, bx, by, cx, cy, x[p], y[p])
+                        && area(prev[p], p, next[p]) >= 0.0d) {
+                    return false;
+                }
+                p = next[p];
+            }
+            return true;
+        }
+
+        private boolean isEarHashed(int ear, double minX, double minY, double invSize) {
+            int a = prev[ear];
+            int b = ear;
+            int c = next[ear];
+            if (area(a, b, c) >= 0.0d) {
+                return false; // reflex
+            }
+            double ax = x[a], bx = x[b], cx = x[c];
+            double ay = y[a], by = y[b], cy = y[c];
+            double x0 = Math.min(ax, Math.min(bx, cx));
+            double y0 = Math.min(ay, Math.min(by, cy));
+            double x1 = Math.max(ax, Math.max(bx, cx));
+            double y1 = Math.max(ay, Math.max(by, cy));
+            int minZ = zOrder(x0, y0, minX, minY, invSize);
+            int maxZ = zOrder(x1, y1, minX, minY, invSize);
+
+            // look for points inside the triangle in both directions of the z-order curve
+            int p = prevZ[ear];
+            int n = nextZ[ear];
+            while (p != NIL && z[p] >= minZ && n != NIL && z[n] <= maxZ) {
+                if (isInsideEar(p, a, c, x0, y0, x1, y1, ax, ay, bx, by, cx, cy)) {
+                    return false;
+                }
+                p = prevZ[p];
+                if (isInsideEar(n, a, c, x0, y0, x1, y1, ax, ay, bx, by, cx, cy)) {
+                    return false;
+                }
+                n = nextZ[n];
+            }
+            while (p != NIL && z[p] >= minZ) {
+                if (isInsideEar(p, a, c, x0, y0, x1, y1, ax, ay, bx, by, cx, cy)) {
+                    return false;
+                }
+                p = prevZ[p];
+            }
+            while (n != NIL && z[n] <= maxZ) {
+                if (isInsideEar(n, a, c, x0, y0, x1, y1, ax, ay, bx, by, cx, cy)) {
+                    return false;
+                }
+                n = nextZ[n];
+            }
+            return true;
+        }
+
+        private boolean isInsideEar(int p, int a, int c, double x0, double y0, double x1, double y1,
+                                    double ax, double ay, double bx, double by, double cx, double cy) {
+            return x[p] >= x0 && x[p] <= x1 && y[p] >= y0 && y[p] <= y1 && p != a && p != c
+                    && pointInTriangle(ax, ay, bx, by, cx, cy, x[p], y[p])
+                    && area(prev[p], p, next[p]) >= 0.0d;
+        }
+
+        /**
+         * Clips the triangles of small self intersections.
+         */
+        private int cureLocalIntersections(int start) {
+            int p = start;
+            do {
+                int a = prev[p];
+                int b = next[next[p]];
+                if (!equals(a, b) && intersects(a, p, next[p], b) && locallyInside(a, b) && locallyInside(b, a)) {
+                    addTriangle(a, p, b);
+                    removeNode(p);
+                    removeNode(next[p]);
+                    p = start = b;
+                }
+                p = next[p];
+            } while (p != start);
+            return filterPoints(p, NIL);
+        }
+
+        /**
+         * Splits the polygon along a valid diagonal and tessellates both halves.
+         */
+        private void splitEarcut(int start, double minX, double minY, double invSize) {
+            int a = start;
+            do {
+                int b = next[next[a]];
+                while (b != prev[a]) {
+                    if (vertex[a] != vertex[b] && isValidDiagonal(a, b)) {
+                        int c = splitPolygon(a, b);
+                        a = filterPoints(a, next[a]);
+                        c = filterPoints(c, next[c]);
+                        earcutLinked(a, minX, minY, invSize, 0);
+                        earcutLinked(c, minX, minY, invSize, 0);
+                        return;
+                    }
+                    b = next[b];
+                }
+                a = next[a];
+            } while (a != start);
+        }
+
+        /**
+         * Links the holes into the exterior ring through bridges, from the leftmost hole to the rightmost.
+         */
+        private int eliminateHoles(double[] data, int[] holeIndices, int vertexCount, int outerNode) {
+            int holeCount = holeIndices.length;
+            if (queue.length < holeCount) {
+                queue = new int[holeCount];
+            }
+            int queueSize = 0;
+            for (int i = 0; i < holeCount; i++) {
+                int start = holeIndices[i];
+                int end = i < holeCount - 1 ? holeIndices[i + 1] : vertexCount;
+                if (end - start < 1) {
+                    continue;
+                }
+                int list = linkedList(data, start, end, false);
+                if (list == NIL) {
+                    continue;
+                }
+                if (list == next[list]) {
+                    steiner[list] = true;
+                }
+                queue[queueSize++] = getLeftmost(list);
+            }
+            // insertion sort by x, the number of holes is small
+            for (int i = 1; i < queueSize; i++) {
+                int node = queue[i];
+                int j = i - 1;
+                while (j >= 0 && x[queue[j]] > x[node]) {
+                    queue[j + 1] = queue[j];
+                    j--;
+                }
+                queue[j + 1] = node;
+            }
+            for (int i = 0; i < queueSize; i++) {
+                outerNode = eliminateHole(queue[i], outerNode);
+            }
+            return outerNode;
+        }
+
+        private int eliminateHole(int hole, int outerNode) {
+            int bridge = findHoleBridge(hole, outerNode);
+            if (bridge == NIL) {
+                return outerNode;
+            }
+            int bridgeReverse = splitPolygon(bridge, hole);
+            filterPoints(bridgeReverse, next[bridgeReverse]);
+            return filterPoints(bridge, next[bridge]);
+        }
+
+        /**
+         * Vertex of the exterior ring visible from the leftmost vertex of the hole (David Eberly's algorithm).
+         */
+        private int findHoleBridge(int hole, int outerNode) {
+            int p = outerNode;
+            double hx = x[hole];
+            double hy = y[hole];
+            double qx = Double.NEGATIVE_INFINITY;
+            int m = NIL;
+
+            // the segment to the left of the hole point, crossing its horizontal line
+            do {
+                int pn = next[p];
+                if (hy <= y[p] && hy >= y[pn] && y[pn] != y[p]) {
+                    double crossX = x[p] + (hy - y[p]) * (x[pn] - x[p]) / (y[pn] - y[p]);
+                    if (crossX <= hx && crossX > qx) {
+                        qx = crossX;
+                        m = x[p] < x[pn] ? p : pn;
+                        if (crossX == hx) {
+                            return m; // the hole touches the exterior ring
+                        }
+                    }
+                }
+                p = pn;
+            } while (p != outerNode);
+            if (m == NIL) {
+                return NIL;
+            }
+
+            // the vertex inside the triangle of the hole point, the crossing and m with the smallest angle
+            int stop = m;
+            double mx = x[m];
+            double my = y[m];
+            double tanMin = Double.POSITIVE_INFINITY;
+            p = m;
+            do {
+                if (hx >= x[p] && x[p] >= mx && hx != x[p]
+                        && pointInTriangle(hy < my ? hx : qx, hy, mx, my, hy < my ? qx : hx, hy, x[p], y[p])) {
+                    double tan = Math.abs(hy - y[p]) / (hx - x[p]);
+                    if (locallyInside(p, hole)
+                            && (tan < tanMin || (tan == tanMin && (x[p] > x[m] || (x[p] == x[m] && sectorContainsSector(m, p)))))) {
+                        m = p;
+                        tanMin = tan;
+                    }
+                }
+                p = next[p];
+            } while (p != stop);
+            return m;
+        }
+
+        private boolean sectorContainsSector(int m, int p) {
+            return area(prev[m], m, prev[p]) < 0.0d && area(next[p], m, next[m]) < 0.0d;
+        }
+
+        private void indexCurve(int start, double minX, double minY, double invSize) {
+            int p = start;
+            do {
+                if (z[p] == 0) {
+                    z[p] = zOrder(x[p], y[p], minX, minY, invSize);
+                }
+                prevZ[p] = prev[p];
+                nextZ[p] = next[p];
+                p = next[p];
+            } while (p != start);
+            nextZ[prevZ[p]] = NIL;
+            prevZ[p] = NIL;
+            sortLinked(p);
+        }
+
+        /**
+         * Bottom-up merge sort of the z-order list (Simon Tatham's linked list merge sort).
+         */
+        private void sortLinked(int list) {
+            int inSize = 1;
+            int numMerges;
+            do {
+                int p = list;
+                list = NIL;
+                int tail = NIL;
+                numMerges = 0;
+                while (p != NIL) {
+                    numMerges++;
+                    int q = p;
+                    int pSize = 0;
+                    for (int i = 0; i < inSize; i++) {
+                        pSize++;
+                        q = nextZ[q];
+                        if (q == NIL) {
+                            break;
+                        }
+                    }
+                    int qSize = inSize;
+                    while (pSize > 0 || (qSize > 0 && q != NIL)) {
+                        int e;
+                        if (pSize != 0 && (qSize == 0 || q == NIL || z[p] <= z[q])) {
+                            e = p;
+                            p = nextZ[p];
+                            pSize--;
+                        } else {
+                            e = q;
+                            q = nextZ[q];
+                            qSize--;
+                        }
+                        if (tail != NIL) {
+                            nextZ[tail] = e;
+                        } else {
+                            list = e;
+                        }
+                        prevZ[e] = tail;
+                        tail = e;
+                    }
+                    p = q;
+                }
+                nextZ[tail] = NIL;
+                inSize *= 2;
+            } while (numMerges > 1);
+        }
+
+        private int getLeftmost(int start) {
+            int p = start;
+            int leftmost = start;
+            do {
+                if (x[p] < x[leftmost] || (x[p] == x[leftmost] && y[p] < y[leftmost])) {
+                    leftmost = p;
+                }
+                p = next[p];
+            } while (p != start);
+            return leftmost;
+        }
+
+        private boolean isValidDiagonal(int a, int b) {
+            return vertex[next[a]] != vertex[b] && vertex[prev[a]] != vertex[b] && !intersectsPolygon(a, b)
+                    && ((locallyInside(a, b) && locallyInside(b, a) && middleInside(a, b)
+                    && (area(prev[a], a, prev[b]) != 0.0d || area(a, prev[b], b) != 0.0d))
+                    || (equals(a, b) && area(prev[a], a, next[a]) > 0.0d && area(prev[b], b, next[b]) > 0.0d));
+        }
+
+        private double area(int p, int q, int r) {
+            return (y[q] - y[p]) * (x[r] - x[q]) - (x[q] - x[p]) * (y[r] - y[q]);
+        }
+
+        private boolean equals(int p1, int p2) {
+            return x[p1] == x[p2] && y[p1] == y[p2];
+        }
+
+        private boolean intersects(int p1, int q1, int p2, int q2) {
+            int o1 = sign(area(p1, q1, p2));
+            int o2 = sign(area(p1, q1, q2));
+            int o3 = sign(area(p2, q2, p1));
+            int o4 = sign(area(p2, q2, q1));
+            if (o1 != o2 && o3 != o4) {
+                return true;
+            }
+            if (o1 == 0 && onSegment(p1, p2, q1)) {
+                return true;
+            }
+            if (o2 == 0 && onSegment(p1, q2, q1)) {
+                return true;
+            }
+            if (o3 == 0 && onSegment(p2, p1, q2)) {
+                return true;
+            }
+            return o4 == 0 && onSegment(p2, q1, q2);
+        }
+
+        private boolean onSegment(int p, int q, int r) {
+            return x[q] <= Math.max(x[p], x[r]) && x[q] >= Math.min(x[p], x[r])
+                    && y[q] <= Math.max(y[p], y[r]) && y[q] >= Math.min(y[p], y[r]);
+        }
+
+        private boolean intersectsPolygon(int a, int b) {
+            int p = a;
+            do {
+                int pn = next[p];
+                if (vertex[p] != vertex[a] && vertex[pn] != vertex[a] && vertex[p] != vertex[b] && vertex[pn] != vertex[b]
+                        && intersects(p, pn, a, b)) {
+                    return true;
+                }
+                p = pn;
+            } while (p != a);
+            return false;
+        }
+
+        private boolean locallyInside(int a, int b) {
+            return area(prev[a], a, next[a]) < 0.0d
+                    ? area(a, b, next[a]) >= 0.0d && area(a, prev[a], b) >= 0.0d
+                    : area(a, b, prev[a]) < 0.0d || area(a, next[a], b) < 0.0d;
+        }
+
+        private boolean middleInside(int a, int b) {
+            int p = a;
+            boolean inside = false;
+            double px = (x[a] + x[b]) / 2.0d;
+            double py = (y[a] + y[b]) / 2.0d;
+            do {
+                int pn = next[p];
+                if (((y[p] > py) != (y[pn] > py)) && y[pn] != y[p]
+                        && (px < (x[pn] - x[p]) * (py - y[p]) / (y[pn] - y[p]) + x[p])) {
+                    inside = !inside;
+                }
+                p = pn;
+            } while (p != a);
+            return inside;
+        }
+
+        /**
+         * Links a and b with a bridge, duplicating both vertices, and returns the copy of b.
+         * Two polygons remain when a and b belong to the same ring, one when they belong to a ring and a hole.
+         */
+        private int splitPolygon(int a, int b) {
+            int a2 = createNode(vertex[a], x[a], y[a]);
+            int b2 = createNode(vertex[b], x[b], y[b]);
+            int an = next[a];
+            int bp = prev[b];
+
+            next[a] = b;
+            prev[b] = a;
+
+            next[a2] = an;
+            prev[an] = a2;
+
+            next[b2] = a2;
+            prev[a2] = b2;
+
+            next[bp] = b2;
+            prev[b2] = bp;
+            return b2;
+        }
+
+        private int insertNode(int vertexIndex, double nodeX, double nodeY, int last) {
+            int p = createNode(vertexIndex, nodeX, nodeY);
+            if (last == NIL) {
+                prev[p] = p;
+                next[p] = p;
+            } else {
+                next[p] = next[last];
+                prev[p] = last;
+                prev[next[last]] = p;
+                next[last] = p;
+            }
+            return p;
+        }
+
+        private void removeNode(int p) {
+            prev[next[p]] = prev[p];
+            next[prev[p]] = next[p];
+            if (prevZ[p] != NIL) {
+                nextZ[prevZ[p]] = nextZ[p];
+            }
+            if (nextZ[p] != NIL) {
+                prevZ[nextZ[p]] = prevZ[p];
+            }
+        }
+    }
+
+    /**
+     * Position of the point along the z-order curve of the bounding box scaled to 15 bits.
+     */
+    private static int zOrder(double px, double py, double minX, double minY, double invSize) {
+        int zx = (int) ((px - minX) * invSize);
+        int zy = (int) ((py - minY) * invSize);
+        zx = (zx | (zx << 8)) & 0x00FF00FF;
+        zx = (zx | (zx << 4)) & 0x0F0F0F0F;
+        zx = (zx | (zx << 2)) & 0x33333333;
+        zx = (zx | (zx << 1)) & 0x55555555;
+        zy = (zy | (zy << 8)) & 0x00FF00FF;
+        zy = (zy | (zy << 4)) & 0x0F0F0F0F;
+        zy = (zy | (zy << 2)) & 0x33333333;
+        zy = (zy | (zy << 1)) & 0x55555555;
+        return zx | (zy << 1);
+    }
+}
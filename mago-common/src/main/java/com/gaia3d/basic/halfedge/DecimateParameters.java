@@ -18,6 +18,11 @@ public class DecimateParameters {
     private double smallHedgeSize = 1.0;
     private int lod = -1;
 
+    // quadric error metric decimation
+    private DecimateType decimateType = DecimateType.ANGLE_LENGTH;
+    private double targetTriangleRatio = 0.5;
+    private double maxQuadricError = 0.5; // meters
+
     private Map<Integer, Double> mapMaxDiffAngDegrees;
     private Map<Integer, Double> mapHedgeMinLength;
     private Map<Integer, Double> mapFrontierMaxDiffAngDeg;
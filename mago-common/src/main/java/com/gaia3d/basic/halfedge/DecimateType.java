@@ -0,0 +1,5 @@
+package com.gaia3d.basic.halfedge;
+
+public enum DecimateType {
+    ANGLE_LENGTH, QUADRIC
+}
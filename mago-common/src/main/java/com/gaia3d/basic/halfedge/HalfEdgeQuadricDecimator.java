@@ -0,0 +1,721 @@
+package com.gaia3d.basic.halfedge;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Edge collapse decimation of a half-edge surface by quadric error metrics (Garland and Heckbert), on the IndexedHalfEdgeSurface.
+ * Every vertex keeps the quadric of the planes of its original faces, every edge its collapse cost and target position,
+ * and the edges are kept in an indexed min-heap that is only updated around the collapsed vertex.
+ * The collapses run in one pass until the target triangle count or the maximum error is reached.
+ * Vertices on borders, UV seams (split vertices are borders of the texture charts), non-manifold edges and skirts never move,
+ * so the borders of the tiles and the texture charts are kept as they are.
+ */
+@Slf4j
+public class HalfEdgeQuadricDecimator {
+    private static final int NIL = -1;
+
+    private final DecimateParameters decimateParameters;
+
+    private IndexedHalfEdgeSurface indexedSurface;
+    private int vertexCount;
+    private double[] positions;
+    private double[] texcoords;
+    private boolean[] locked;
+    private boolean[] vertexAlive;
+    private double[] quadrics;
+
+    private int triangleCount;
+    private int[] triangleFaces;
+    private int[] triangleHalfEdges;
+    private int[] triangleVertices;
+    private boolean[] triangleAlive;
+    private int[][] vertexTriangles;
+    private int[] vertexTriangleCounts;
+
+    private int edgeCount;
+    private int[] edgeVertices;
+    private double[] edgeCosts;
+    private double[] edgeTargets;
+    private boolean[] edgeAlive;
+    private int[][] vertexEdges;
+    private int[] vertexEdgeCounts;
+
+    private int[] heap;
+    private int heapSize;
+    private int[] heapPositions;
+
+    private int[] marks;
+    private int markStamp = 0;
+
+    // scratch arrays of computeCollapse and keepsTriangles, reused for every edge
+    private final double[] edgeQuadric = new double[10];
+    private final double[] normalBefore = new double[3];
+    private final double[] normalAfter = new double[3];
+
+    public HalfEdgeQuadricDecimator(DecimateParameters decimateParameters) {
+        this.decimateParameters = decimateParameters;
+    }
+
+    public void decimate(HalfEdgeSurface surface) {
+        IndexedHalfEdgeSurface indexedSurface = IndexedHalfEdgeUtils.fromHalfEdgeSurface(surface);
+        // faces left out of the indexed surface (open loops) keep their vertices
+        boolean[] fixedVertices = new boolean[indexedSurface.getVertexCount()];
+        List<HalfEdge> loop = new ArrayList<>();
+        List<HalfEdgeFace> faces = surface.getFaces();
+        for (int f = 0; f < faces.size(); f++) {
+            if (!indexedSurface.isFaceDeleted(f)) {
+                continue;
+            }
+            loop.clear();
+            faces.get(f).getHalfEdgesLoop(loop);
+            for (HalfEdge halfEdge : loop) {
+                HalfEdgeVertex vertex = halfEdge.getStartVertex();
+                if (vertex != null && vertex.getId() >= 0 && vertex.getId() < fixedVertices.length) {
+                    fixedVertices[vertex.getId()] = true;
+                }
+            }
+        }
+        decimate(indexedSurface, fixedVertices);
+        IndexedHalfEdgeUtils.updateHalfEdgeSurface(indexedSurface, surface);
+    }
+
+    public void decimate(IndexedHalfEdgeSurface indexedSurface) {
+        decimate(indexedSurface, null);
+    }
+
+    /**
+     * Decimates the indexed surface in place, the collapsed vertices and faces are left as deleted (not compacted).
+     */
+    private void decimate(IndexedHalfEdgeSurface indexedSurface, boolean[] fixedVertices) {
+        this.indexedSurface = indexedSurface;
+        initVertices(fixedVertices);
+        initTriangles();
+        if (triangleCount == 0) {
+            return;
+        }
+        initQuadrics();
+        initEdges();
+
+        int targetTriangleCount = (int) Math.ceil(triangleCount * decimateParameters.getTargetTriangleRatio());
+        double maxError = decimateParameters.getMaxQuadricError();
+        double maxCost = maxError * maxError;
+        int liveTriangleCount = triangleCount;
+        int collapsedCount = 0;
+        while (liveTriangleCount > targetTriangleCount && heapSize > 0) {
+            int edge = heap[0];
+            if (edgeCosts[edge] > maxCost) {
+                break;
+            }
+            removeFromHeap(edge);
+            int removed = edgeVertices[edge * 2];
+            int kept = edgeVertices[edge * 2 + 1];
+            if (locked[removed]) {
+                removed = kept;
+                kept = edgeVertices[edge * 2];
+            }
+            double targetX = edgeTargets[edge * 3];
+            double targetY = edgeTargets[edge * 3 + 1];
+            double targetZ = edgeTargets[edge * 3 + 2];
+            if (!isCollapsible(removed, kept, targetX, targetY, targetZ)) {
+                // evaluated again when its neighborhood changes
+                continue;
+            }
+            liveTriangleCount -= collapse(edge, removed, kept, targetX, targetY, targetZ);
+            collapsedCount++;
+        }
+
+        writeBack();
+        log.debug("[Tile] quadric decimation : {} collapses, triangles {} -> {}", collapsedCount, triangleCount, liveTriangleCount);
+    }
+
+    /**
+     * The positions and texcoords are the buffers of the indexed surface, moved in place.
+     */
+    private void initVertices(boolean[] fixedVertices) {
+        vertexCount = indexedSurface.getVertexCount();
+        positions = indexedSurface.getPositions();
+        texcoords = indexedSurface.getTexcoords();
+        locked = new boolean[vertexCount];
+        vertexAlive = new boolean[vertexCount];
+        marks = new int[vertexCount];
+        for (int i = 0; i < vertexCount; i++) {
+            vertexAlive[i] = !indexedSurface.isVertexDeleted(i);
+            locked[i] = !vertexAlive[i] || (fixedVertices != null && fixedVertices[i]);
+        }
+    }
+
+    /**
+     * Triangles by vertex index, other faces (skirts, polygons) are kept and lock their vertices.
+     */
+    private void initTriangles() {
+        int faceCount = indexedSurface.getFaceCount();
+        triangleFaces = new int[faceCount];
+        triangleHalfEdges = new int[faceCount * 3];
+        triangleVertices = new int[faceCount * 3];
+        triangleCount = 0;
+        for (int face = 0; face < faceCount; face++) {
+            if (indexedSurface.isFaceDeleted(face)) {
+                continue;
+            }
+            int first = indexedSurface.getFaceHalfEdge(face);
+            int second = indexedSurface.getNext(first);
+            int third = indexedSurface.getNext(second);
+            int a = indexedSurface.getStartVertex(first);
+            int b = indexedSurface.getStartVertex(second);
+            int c = indexedSurface.getStartVertex(third);
+            boolean triangle = indexedSurface.getNext(third) == first && indexedSurface.getFaceType(face) != FaceType.SKIRT
+                    && a != b && b != c && c != a && vertexAlive[a] && vertexAlive[b] && vertexAlive[c];
+            if (!triangle) {
+                int halfEdge = first;
+                do {
+                    locked[indexedSurface.getStartVertex(halfEdge)] = true;
+                    halfEdge = indexedSurface.getNext(halfEdge);
+                } while (halfEdge != first);
+                continue;
+            }
+            int t = triangleCount++;
+            triangleFaces[t] = face;
+            triangleHalfEdges[t * 3] = first;
+            triangleHalfEdges[t * 3 + 1] = second;
+            triangleHalfEdges[t * 3 + 2] = third;
+            triangleVertices[t * 3] = a;
+            triangleVertices[t * 3 + 1] = b;
+            triangleVertices[t * 3 + 2] = c;
+        }
+
+        triangleAlive = new boolean[triangleCount];
+        vertexTriangles = new int[vertexCount][];
+        vertexTriangleCounts = new int[vertexCount];
+        for (int t = 0; t < triangleCount; t++) {
+            triangleAlive[t] = true;
+            for (int k = 0; k < 3; k++) {
+                vertexTriangleCounts[triangleVertices[t * 3 + k]]++;
+            }
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            vertexTriangles[i] = new int[Math.max(4, vertexTriangleCounts[i])];
+            vertexTriangleCounts[i] = 0;
+        }
+        for (int t = 0; t < triangleCount; t++) {
+            for (int k = 0; k < 3; k++) {
+                int vertex = triangleVertices[t * 3 + k];
+                vertexTriangles[vertex][vertexTriangleCounts[vertex]++] = t;
+            }
+        }
+    }
+
+    /**
+     * Sum of the plane quadrics of the faces around each vertex, stored as the 10 values of the symmetric 4x4 matrix.
+     */
+    private void initQuadrics() {
+        quadrics = new double[vertexCount * 10];
+        double[] normal = new double[3];
+        for (int t = 0; t < triangleCount; t++) {
+            int a = triangleVertices[t * 3];
+            int b = triangleVertices[t * 3 + 1];
+            int c = triangleVertices[t * 3 + 2];
+            double length = cross(positions[a * 3], positions[a * 3 + 1], positions[a * 3 + 2], b, c, normal);
+            if (length <= 0.0d) {
+                continue;
+            }
+            double nx = normal[0] / length;
+            double ny = normal[1] / length;
+            double nz = normal[2] / length;
+            double d = -(nx * positions[a * 3] + ny * positions[a * 3 + 1] + nz * positions[a * 3 + 2]);
+            for (int k = 0; k < 3; k++) {
+                int offset = triangleVertices[t * 3 + k] * 10;
+                quadrics[offset] += nx * nx;
+                quadrics[offset + 1] += nx * ny;
+                quadrics[offset + 2] += nx * nz;
+                quadrics[offset + 3] += nx * d;
+                quadrics[offset + 4] += ny * ny;
+                quadrics[offset + 5] += ny * nz;
+                quadrics[offset + 6] += ny * d;
+                quadrics[offset + 7] += nz * nz;
+                quadrics[offset + 8] += nz * d;
+                quadrics[offset + 9] += d * d;
+            }
+        }
+    }
+
+    /**
+     * Unique edges of the triangles, border and non-manifold edges lock their vertices.
+     */
+    private void initEdges() {
+        long[] keys = new long[triangleCount * 3];
+        for (int t = 0; t < triangleCount; t++) {
+            for (int k = 0; k < 3; k++) {
+                int a = triangleVertices[t * 3 + k];
+                int b = triangleVertices[t * 3 + (k + 1) % 3];
+                keys[t * 3 + k] = ((long) Math.min(a, b) << 32) | Math.max(a, b);
+            }
+        }
+        Arrays.sort(keys);
+
+        edgeVertices = new int[keys.length * 2];
+        edgeCount = 0;
+        for (int i = 0; i < keys.length; ) {
+            int j = i + 1;
+            while (j < keys.length && keys[j] == keys[i]) {
+                j++;
+            }
+            int a = (int) (keys[i] >>> 32);
+            int b = (int) keys[i];
+            if (j - i != 2) {
+                locked[a] = true;
+                locked[b] = true;
+            }
+            if (a != b) {
+                edgeVertices[edgeCount * 2] = a;
+                edgeVertices[edgeCount * 2 + 1] = b;
+                edgeCount++;
+            }
+            i = j;
+        }
+
+        edgeCosts = new double[edgeCount];
+        edgeTargets = new double[edgeCount * 3];
+        edgeAlive = new boolean[edgeCount];
+        heap = new int[edgeCount];
+        heapPositions = new int[edgeCount];
+        Arrays.fill(heapPositions, NIL);
+        vertexEdges = new int[vertexCount][];
+        vertexEdgeCounts = new int[vertexCount];
+        for (int e = 0; e < edgeCount; e++) {
+            vertexEdgeCounts[edgeVertices[e * 2]]++;
+            vertexEdgeCounts[edgeVertices[e * 2 + 1]]++;
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            vertexEdges[i] = new int[Math.max(4, vertexEdgeCounts[i])];
+            vertexEdgeCounts[i] = 0;
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            edgeAlive[e] = true;
+            int a = edgeVertices[e * 2];
+            int b = edgeVertices[e * 2 + 1];
+            vertexEdges[a][vertexEdgeCounts[a]++] = e;
+            vertexEdges[b][vertexEdgeCounts[b]++] = e;
+            if (computeCollapse(e)) {
+                heapPositions[e] = heapSize;
+                heap[heapSize++] = e;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Target position and cost of the collapse of the edge, false when both vertices are locked.
+     */
+    private boolean computeCollapse(int edge) {
+        int a = edgeVertices[edge * 2];
+        int b = edgeVertices[edge * 2 + 1];
+        if (locked[a] && locked[b]) {
+            return false;
+        }
+        double[] q = edgeQuadric;
+        for (int i = 0; i < 10; i++) {
+            q[i] = quadrics[a * 10 + i] + quadrics[b * 10 + i];
+        }
+
+        double x;
+        double y;
+        double z;
+        if (locked[a] || locked[b]) {
+            int fixed = locked[a] ? a : b;
+            x = positions[fixed * 3];
+            y = positions[fixed * 3 + 1];
+            z = positions[fixed * 3 + 2];
+        } else {
+            // minimum of the quadric, q * v = 0 solved by Cramer's rule
+            double det = q[0] * (q[4] * q[7] - q[5] * q[5]) - q[1] * (q[1] * q[7] - q[5] * q[2]) + q[2] * (q[1] * q[5] - q[4] * q[2]);
+            double ax = positions[a * 3], ay = positions[a * 3 + 1], az = positions[a * 3 + 2];
+            double bx = positions[b * 3], by = positions[b * 3 + 1], bz = positions[b * 3 + 2];
+            double edgeLengthSquared = (bx - ax) * (bx - ax) + (by - ay) * (by - ay) + (bz - az) * (bz - az);
+            boolean solved = false;
+            x = y = z = 0.0d;
+            if (Math.abs(det) > 1.0e-10) {
+                double rx = -q[3];
+                double ry = -q[6];
+                double rz = -q[8];
+                x = (rx * (q[4] * q[7] - q[5] * q[5]) - q[1] * (ry * q[7] - q[5] * rz) + q[2] * (ry * q[5] - q[4] * rz)) / det;
+                y = (q[0] * (ry * q[7] - rz * q[5]) - rx * (q[1] * q[7] - q[5] * q[2]) + q[2] * (q[1] * rz - ry * q[2])) / det;
+                z = (q[0] * (q[4] * rz - q[5] * ry) - q[1] * (q[1] * rz - ry * q[2]) + rx * (q[1] * q[5] - q[4] * q[2])) / det;
+                // an almost singular quadric can place the vertex far away
+                double mx = x - (ax + bx) / 2.0d;
+                double my = y - (ay + by) / 2.0d;
+                double mz = z - (az + bz) / 2.0d;
+                solved = mx * mx + my * my + mz * mz <= edgeLengthSquared;
+            }
+            if (!solved) {
+                double bestCost = Double.POSITIVE_INFINITY;
+                for (int i = 0; i <= 2; i++) {
+                    double t = i / 2.0d;
+                    double cx = ax + (bx - ax) * t;
+                    double cy = ay + (by - ay) * t;
+                    double cz = az + (bz - az) * t;
+                    double cost = evaluate(q, cx, cy, cz);
+                    if (cost < bestCost) {
+                        bestCost = cost;
+                        x = cx;
+                        y = cy;
+                        z = cz;
+                    }
+                }
+            }
+        }
+        edgeTargets[edge * 3] = x;
+        edgeTargets[edge * 3 + 1] = y;
+        edgeTargets[edge * 3 + 2] = z;
+        edgeCosts[edge] = Math.max(0.0d, evaluate(q, x, y, z));
+        return true;
+    }
+
+    private double evaluate(double[] q, double x, double y, double z) {
+        return q[0] * x * x + 2.0d * q[1] * x * y + 2.0d * q[2] * x * z + 2.0d * q[3] * x
+                + q[4] * y * y + 2.0d * q[5] * y * z + 2.0d * q[6] * y
+                + q[7] * z * z + 2.0d * q[8] * z + q[9];
+    }
+
+    /**
+     * Link condition (no new non-manifold edges) and no flipped, degenerate or too stretched triangles around the collapse.
+     */
+    private boolean isCollapsible(int removed, int kept, double x, double y, double z) {
+        int stamp = nextMarkStamp();
+        int sharedCount = 0;
+        for (int i = 0; i < vertexTriangleCounts[removed]; i++) {
+            int t = vertexTriangles[removed][i];
+            for (int k = 0; k < 3; k++) {
+                int vertex = triangleVertices[t * 3 + k];
+                if (vertex == kept) {
+                    sharedCount++;
+                }
+                if (vertex != removed) {
+                    marks[vertex] = stamp;
+                }
+            }
+        }
+        if (sharedCount == 0) {
+            return false;
+        }
+        int commonCount = 0;
+        for (int i = 0; i < vertexTriangleCounts[kept]; i++) {
+            int t = vertexTriangles[kept][i];
+            for (int k = 0; k < 3; k++) {
+                int vertex = triangleVertices[t * 3 + k];
+                if (vertex != kept && marks[vertex] == stamp) {
+                    // counted once
+                    marks[vertex] = stamp + 1;
+                    commonCount++;
+                }
+            }
+        }
+        // more common neighbors than shared triangles would pinch the surface
+        if (commonCount > sharedCount) {
+            return false;
+        }
+        return keepsTriangles(removed, kept, x, y, z) && keepsTriangles(kept, removed, x, y, z);
+    }
+
+    private boolean keepsTriangles(int moved, int other, double x, double y, double z) {
+        double maxAspectRatio = decimateParameters.getMaxAspectRatio();
+        double[] before = normalBefore;
+        double[] after = normalAfter;
+        for (int i = 0; i < vertexTriangleCounts[moved]; i++) {
+            int t = vertexTriangles[moved][i];
+            int corner = 0;
+            boolean shared = false;
+            for (int k = 0; k < 3; k++) {
+                int vertex = triangleVertices[t * 3 + k];
+                if (vertex == other) {
+                    shared = true;
+                }
+                if (vertex == moved) {
+                    corner = k;
+                }
+            }
+            if (shared) {
+                continue;
+            }
+            int a = triangleVertices[t * 3 + corner];
+            int b = triangleVertices[t * 3 + (corner + 1) % 3];
+            int c = triangleVertices[t * 3 + (corner + 2) % 3];
+            double beforeLength = cross(positions[a * 3], positions[a * 3 + 1], positions[a * 3 + 2], b, c, before);
+            double afterLength = cross(x, y, z, b, c, after);
+            // flipped or turned too much (more than about 75 degrees)
+            double dot = before[0] * after[0] + before[1] * after[1] + before[2] * after[2];
+            if (afterLength <= 1.0e-12 || dot <= 0.25d * beforeLength * afterLength) {
+                return false;
+            }
+            double afterAspectRatio = getLongestEdgeSquared(b, c, x, y, z) / afterLength;
+            if (afterAspectRatio > maxAspectRatio && beforeLength > 0.0d) {
+                double beforeAspectRatio = getLongestEdgeSquared(b, c, positions[a * 3], positions[a * 3 + 1], positions[a * 3 + 2]) / beforeLength;
+                if (afterAspectRatio > beforeAspectRatio) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Collapses the removed vertex into the kept one moved to the target, returns the number of removed triangles.
+     */
+    private int collapse(int edge, int removed, int kept, double x, double y, double z) {
+        double kx = positions[kept * 3], ky = positions[kept * 3 + 1], kz = positions[kept * 3 + 2];
+        double dx = positions[removed * 3] - kx, dy = positions[removed * 3 + 1] - ky, dz = positions[removed * 3 + 2] - kz;
+        double lengthSquared = dx * dx + dy * dy + dz * dz;
+        if (indexedSurface.hasTexcoords(kept) && indexedSurface.hasTexcoords(removed) && lengthSquared > 0.0d) {
+            // the texture coordinate of the target along the edge
+            double t = ((x - kx) * dx + (y - ky) * dy + (z - kz) * dz) / lengthSquared;
+            t = Math.max(0.0d, Math.min(1.0d, t));
+            texcoords[kept * 2] += (texcoords[removed * 2] - texcoords[kept * 2]) * t;
+            texcoords[kept * 2 + 1] += (texcoords[removed * 2 + 1] - texcoords[kept * 2 + 1]) * t;
+        }
+        positions[kept * 3] = x;
+        positions[kept * 3 + 1] = y;
+        positions[kept * 3 + 2] = z;
+        for (int i = 0; i < 10; i++) {
+            quadrics[kept * 10 + i] += quadrics[removed * 10 + i];
+        }
+
+        int removedTriangleCount = 0;
+        for (int i = 0; i < vertexTriangleCounts[removed]; i++) {
+            int t = vertexTriangles[removed][i];
+            boolean shared = false;
+            for (int k = 0; k < 3; k++) {
+                if (triangleVertices[t * 3 + k] == kept) {
+                    shared = true;
+                }
+            }
+            if (shared) {
+                triangleAlive[t] = false;
+                removedTriangleCount++;
+                for (int k = 0; k < 3; k++) {
+                    int vertex = triangleVertices[t * 3 + k];
+                    if (vertex != removed) {
+                        removeTriangle(vertex, t);
+                    }
+                }
+            } else {
+                for (int k = 0; k < 3; k++) {
+                    if (triangleVertices[t * 3 + k] == removed) {
+                        triangleVertices[t * 3 + k] = kept;
+                    }
+                }
+                addTriangle(kept, t);
+            }
+        }
+        vertexTriangleCounts[removed] = 0;
+        vertexAlive[removed] = false;
+
+        // the edges of the removed vertex move to the kept one, unless the kept one already has them
+        killEdge(edge);
+        for (int i = 0; i < vertexEdgeCounts[removed]; i++) {
+            int otherEdge = vertexEdges[removed][i];
+            if (!edgeAlive[otherEdge]) {
+                continue;
+            }
+            int opposite = getOpposite(otherEdge, removed);
+            if (findEdge(kept, opposite) != NIL) {
+                killEdge(otherEdge);
+                continue;
+            }
+            if (edgeVertices[otherEdge * 2] == removed) {
+                edgeVertices[otherEdge * 2] = kept;
+            } else {
+                edgeVertices[otherEdge * 2 + 1] = kept;
+            }
+            addEdge(kept, otherEdge);
+        }
+        vertexEdgeCounts[removed] = 0;
+
+        // local update of the costs around the kept vertex
+        int count = 0;
+        for (int i = 0; i < vertexEdgeCounts[kept]; i++) {
+            int otherEdge = vertexEdges[kept][i];
+            if (!edgeAlive[otherEdge]) {
+                continue;
+            }
+            vertexEdges[kept][count++] = otherEdge;
+            if (computeCollapse(otherEdge)) {
+                updateHeap(otherEdge);
+            } else {
+                removeFromHeap(otherEdge);
+            }
+        }
+        vertexEdgeCounts[kept] = count;
+        return removedTriangleCount;
+    }
+
+    /**
+     * The moved vertices are already in the buffers, the corners of the triangles are re-pointed and the collapsed elements deleted.
+     */
+    private void writeBack() {
+        for (int t = 0; t < triangleCount; t++) {
+            if (!triangleAlive[t]) {
+                indexedSurface.deleteFace(triangleFaces[t]);
+                continue;
+            }
+            for (int k = 0; k < 3; k++) {
+                indexedSurface.setStartVertex(triangleHalfEdges[t * 3 + k], triangleVertices[t * 3 + k]);
+            }
+        }
+        for (int i = 0; i < vertexCount; i++) {
+            if (!vertexAlive[i] && !indexedSurface.isVertexDeleted(i)) {
+                indexedSurface.deleteVertex(i);
+            }
+        }
+        indexedSurface.setTwins();
+        indexedSurface.updateVertexHalfEdges();
+    }
+
+    /**
+     * Normal (not normalized) of the triangle with the first corner at the given position, returns its length.
+     */
+    private double cross(double ax, double ay, double az, int b, int c, double[] result) {
+        double bx = positions[b * 3], by = positions[b * 3 + 1], bz = positions[b * 3 + 2];
+        double cx = positions[c * 3], cy = positions[c * 3 + 1], cz = positions[c * 3 + 2];
+        double ux = bx - ax, uy = by - ay, uz = bz - az;
+        double vx = cx - ax, vy = cy - ay, vz = cz - az;
+        result[0] = uy * vz - uz * vy;
+        result[1] = uz * vx - ux * vz;
+        result[2] = ux * vy - uy * vx;
+        return Math.sqrt(result[0] * result[0] + result[1] * result[1] + result[2] * result[2]);
+    }
+
+    private double getLongestEdgeSquared(int b, int c, double ax, double ay, double az) {
+        double bx = positions[b * 3], by = positions[b * 3 + 1], bz = positions[b * 3 + 2];
+        double cx = positions[c * 3], cy = positions[c * 3 + 1], cz = positions[c * 3 + 2];
+        double ab = (bx - ax) * (bx - ax) + (by - ay) * (by - ay) + (bz - az) * (bz - az);
+        double bc = (cx - bx) * (cx - bx) + (cy - by) * (cy - by) + (cz - bz) * (cz - bz);
+        double ca = (ax - cx) * (ax - cx) + (ay - cy) * (ay - cy) + (az - cz) * (az - cz);
+        return Math.max(ab, Math.max(bc, ca));
+    }
+
+    private int nextMarkStamp() {
+        markStamp += 2;
+        if (markStamp < 0) {
+            Arrays.fill(marks, 0);
+            markStamp = 2;
+        }
+        return markStamp;
+    }
+
+    private int getOpposite(int edge, int vertex) {
+        int a = edgeVertices[edge * 2];
+        return a == vertex ? edgeVertices[edge * 2 + 1] : a;
+    }
+
+    private int findEdge(int vertex, int opposite) {
+        for (int i = 0; i < vertexEdgeCounts[vertex]; i++) {
+            int edge = vertexEdges[vertex][i];
+            if (edgeAlive[edge] && getOpposite(edge, vertex) == opposite) {
+                return edge;
+            }
+        }
+        return NIL;
+    }
+
+    private void killEdge(int edge) {
+        edgeAlive[edge] = false;
+        removeFromHeap(edge);
+    }
+
+    private void addEdge(int vertex, int edge) {
+        if (vertexEdgeCounts[vertex] == vertexEdges[vertex].length) {
+            vertexEdges[vertex] = Arrays.copyOf(vertexEdges[vertex], vertexEdges[vertex].length * 2);
+        }
+        vertexEdges[vertex][vertexEdgeCounts[vertex]++] = edge;
+    }
+
+    private void addTriangle(int vertex, int triangle) {
+        if (vertexTriangleCounts[vertex] == vertexTriangles[vertex].length) {
+            vertexTriangles[vertex] = Arrays.copyOf(vertexTriangles[vertex], vertexTriangles[vertex].length * 2);
+        }
+        vertexTriangles[vertex][vertexTriangleCounts[vertex]++] = triangle;
+    }
+
+    private void removeTriangle(int vertex, int triangle) {
+        int[] triangles = vertexTriangles[vertex];
+        int count = vertexTriangleCounts[vertex];
+        for (int i = 0; i < count; i++) {
+            if (triangles[i] == triangle) {
+                triangles[i] = triangles[count - 1];
+                vertexTriangleCounts[vertex] = count - 1;
+                return;
+            }
+        }
+    }
+
+    private void updateHeap(int edge) {
+        int position = heapPositions[edge];
+        if (position == NIL) {
+            position = heapSize++;
+            heap[position] = edge;
+            heapPositions[edge] = position;
+        }
+        siftUp(position);
+        siftDown(heapPositions[edge]);
+    }
+
+    private void removeFromHeap(int edge) {
+        int position = heapPositions[edge];
+        if (position == NIL) {
+            return;
+        }
+        heapPositions[edge] = NIL;
+        int last = heap[--heapSize];
+        if (position < heapSize) {
+            heap[position] = last;
+            heapPositions[last] = position;
+            siftUp(position);
+            siftDown(heapPositions[last]);
+        }
+    }
+
+    private void siftUp(int position) {
+        int edge = heap[position];
+        double cost = edgeCosts[edge];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            int parentEdge = heap[parent];
+            if (edgeCosts[parentEdge] <= cost) {
+                break;
+            }
+            heap[position] = parentEdge;
+            heapPositions[parentEdge] = position;
+            position = parent;
+        }
+        heap[position] = edge;
+        heapPositions[edge] = position;
+    }
+
+    private void siftDown(int position) {
+        int edge = heap[position];
+        double cost = edgeCosts[edge];
+        while (true) {
+            int child = position * 2 + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && edgeCosts[heap[child + 1]] < edgeCosts[heap[child]]) {
+                child++;
+            }
+            int childEdge = heap[child];
+            if (edgeCosts[childEdge] >= cost) {
+                break;
+            }
+            heap[position] = childEdge;
+            heapPositions[childEdge] = position;
+            position = child;
+        }
+        heap[position] = edge;
+        heapPositions[edge] = position;
+    }
+}
@@ -4,6 +4,7 @@ import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.basic.geometry.GaiaRectangle;
 import com.gaia3d.basic.geometry.octree.GaiaOctree;
 import com.gaia3d.basic.geometry.octree.HalfEdgeOctreeVertices;
+import com.gaia3d.basic.geometry.packer.MaxRectsPacker;
 import com.gaia3d.basic.model.*;
 import com.gaia3d.basic.types.AttributeType;
 import com.gaia3d.basic.types.TextureType;
@@ -379,6 +380,11 @@ public class HalfEdgeSurface implements Serializable {
     }
 
     public void decimate(DecimateParameters decimateParameters) {
+        if (decimateParameters.getDecimateType() == DecimateType.QUADRIC) {
+            new HalfEdgeQuadricDecimator(decimateParameters).decimate(this);
+            return;
+        }
+
         // 1rst, find possible halfEdges to remove
         // Reasons to remove a halfEdge:
         // 1. The halfEdge is very short. (small length).
@@ -3250,14 +3256,8 @@ public class HalfEdgeSurface implements Serializable {
         int textureScissorDatasCount = textureScissorDates.size();
         log.info("[Tile][Photogrammetry][Atlas] doTextureAtlasProcess() : textureScissorDatasCount = " + textureScissorDatasCount);
 
-        GuillotinePacker guillotinePacker = new GuillotinePacker();
-
-        for (int i = 0; i < textureScissorDatasCount; i++) {
-            GaiaTextureScissorData textureScissorData = textureScissorDates.get(i);
-            if (!guillotinePacker.insert(textureScissorData)) {
-                log.info("[Tile][Photogrammetry][Atlas] doTextureAtlasProcess() : guillotinePacker.insert() failed.");
-            }
-        }
+        MaxRectsPacker packer = new MaxRectsPacker();
+        packer.pack(textureScissorDates, GaiaTextureScissorData::getOriginBoundary, GaiaTextureScissorData::setBatchedBoundary);
     }
 
     private int getMaxWidth(List<GaiaTextureScissorData> compareImages) {
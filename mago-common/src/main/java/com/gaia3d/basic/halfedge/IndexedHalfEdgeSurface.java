@@ -0,0 +1,656 @@
+package com.gaia3d.basic.halfedge;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+
+import java.util.Arrays;
+
+/**
+ * Compact half-edge surface: the vertices, halfEdges and faces are indices into primitive arrays instead of linked objects.
+ * A halfEdge is its next, twin, start vertex and face index, a face is the index of one of its halfEdges.
+ * The vertex attributes are kept in flat buffers (positions and texcoords as doubles, normals as floats, colors as bytes).
+ * Deleted elements are tombstones (NIL start vertex for halfEdges, NIL halfEdge for faces, a flag for vertices)
+ * until compact() removes them and remaps the indices.
+ */
+@Slf4j
+@Getter
+public class IndexedHalfEdgeSurface {
+    public static final int NIL = -1;
+
+    private static final byte HAS_NORMAL = 1;
+    private static final byte HAS_TEXCOORDS = 2;
+    private static final byte HAS_COLOR = 4;
+    private static final byte DELETED = 8;
+
+    private static final FaceType[] FACE_TYPES = FaceType.values();
+
+    // vertices
+    private int vertexCount = 0;
+    private double[] positions;
+    private float[] normals;
+    private double[] texcoords;
+    private byte[] colors;
+    private float[] batchIds;
+    private byte[] vertexFlags;
+    private int[] vertexHalfEdges;
+
+    // halfEdges
+    private int halfEdgeCount = 0;
+    private int[] nexts;
+    private int[] twins;
+    private int[] halfEdgeVertices;
+    private int[] halfEdgeFaces;
+
+    // faces
+    private int faceCount = 0;
+    private int[] faceHalfEdges;
+    private int[] faceClassifyIds;
+    private byte[] faceTypes;
+
+    public IndexedHalfEdgeSurface() {
+        this(16, 16);
+    }
+
+    public IndexedHalfEdgeSurface(int vertexCapacity, int faceCapacity) {
+        vertexCapacity = Math.max(vertexCapacity, 4);
+        faceCapacity = Math.max(faceCapacity, 4);
+        positions = new double[vertexCapacity * 3];
+        normals = new float[vertexCapacity * 3];
+        texcoords = new double[vertexCapacity * 2];
+        colors = new byte[vertexCapacity * 4];
+        batchIds = new float[vertexCapacity];
+        vertexFlags = new byte[vertexCapacity];
+        vertexHalfEdges = new int[vertexCapacity];
+
+        int halfEdgeCapacity = faceCapacity * 3;
+        nexts = new int[halfEdgeCapacity];
+        twins = new int[halfEdgeCapacity];
+        halfEdgeVertices = new int[halfEdgeCapacity];
+        halfEdgeFaces = new int[halfEdgeCapacity];
+
+        faceHalfEdges = new int[faceCapacity];
+        faceClassifyIds = new int[faceCapacity];
+        faceTypes = new byte[faceCapacity];
+    }
+
+    public int addVertex(double x, double y, double z) {
+        if (vertexCount == vertexFlags.length) {
+            int capacity = vertexCount + (vertexCount >> 1) + 1;
+            positions = Arrays.copyOf(positions, capacity * 3);
+            normals = Arrays.copyOf(normals, capacity * 3);
+            texcoords = Arrays.copyOf(texcoords, capacity * 2);
+            colors = Arrays.copyOf(colors, capacity * 4);
+            batchIds = Arrays.copyOf(batchIds, capacity);
+            vertexFlags = Arrays.copyOf(vertexFlags, capacity);
+            vertexHalfEdges = Arrays.copyOf(vertexHalfEdges, capacity);
+        }
+        int vertex = vertexCount++;
+        positions[vertex * 3] = x;
+        positions[vertex * 3 + 1] = y;
+        positions[vertex * 3 + 2] = z;
+        vertexFlags[vertex] = 0;
+        batchIds[vertex] = 0.0f;
+        vertexHalfEdges[vertex] = NIL;
+        return vertex;
+    }
+
+    /**
+     * Adds a face as a loop of new halfEdges (without twins) over the given vertices.
+     */
+    public int addFace(int... vertices) {
+        if (faceCount == faceHalfEdges.length) {
+            int capacity = faceCount + (faceCount >> 1) + 1;
+            faceHalfEdges = Arrays.copyOf(faceHalfEdges, capacity);
+            faceClassifyIds = Arrays.copyOf(faceClassifyIds, capacity);
+            faceTypes = Arrays.copyOf(faceTypes, capacity);
+        }
+        int face = faceCount++;
+        faceClassifyIds[face] = NIL;
+        faceTypes[face] = (byte) FaceType.NORMAL.ordinal();
+        if (vertices.length < 3) {
+            // kept as a tombstone, the face indices still follow the source faces
+            faceHalfEdges[face] = NIL;
+            return face;
+        }
+        int first = halfEdgeCount;
+        for (int k = 0; k < vertices.length; k++) {
+            int halfEdge = addHalfEdge(vertices[k], face);
+            nexts[halfEdge] = k == vertices.length - 1 ? first : halfEdge + 1;
+            vertexHalfEdges[vertices[k]] = halfEdge;
+        }
+        faceHalfEdges[face] = first;
+        return face;
+    }
+
+    private int addHalfEdge(int vertex, int face) {
+        if (halfEdgeCount == nexts.length) {
+            int capacity = halfEdgeCount + (halfEdgeCount >> 1) + 3;
+            nexts = Arrays.copyOf(nexts, capacity);
+            twins = Arrays.copyOf(twins, capacity);
+            halfEdgeVertices = Arrays.copyOf(halfEdgeVertices, capacity);
+            halfEdgeFaces = Arrays.copyOf(halfEdgeFaces, capacity);
+        }
+        int halfEdge = halfEdgeCount++;
+        nexts[halfEdge] = NIL;
+        twins[halfEdge] = NIL;
+        halfEdgeVertices[halfEdge] = vertex;
+        halfEdgeFaces[halfEdge] = face;
+        return halfEdge;
+    }
+
+    public Vector3d getPosition(int vertex, Vector3d resultPosition) {
+        if (resultPosition == null) {
+            resultPosition = new Vector3d();
+        }
+        return resultPosition.set(positions[vertex * 3], positions[vertex * 3 + 1], positions[vertex * 3 + 2]);
+    }
+
+    public void setPosition(int vertex, double x, double y, double z) {
+        positions[vertex * 3] = x;
+        positions[vertex * 3 + 1] = y;
+        positions[vertex * 3 + 2] = z;
+    }
+
+    public boolean hasNormal(int vertex) {
+        return (vertexFlags[vertex] & HAS_NORMAL) != 0;
+    }
+
+    public Vector3d getNormal(int vertex, Vector3d resultNormal) {
+        if (resultNormal == null) {
+            resultNormal = new Vector3d();
+        }
+        return resultNormal.set(normals[vertex * 3], normals[vertex * 3 + 1], normals[vertex * 3 + 2]);
+    }
+
+    public void setNormal(int vertex, double x, double y, double z) {
+        normals[vertex * 3] = (float) x;
+        normals[vertex * 3 + 1] = (float) y;
+        normals[vertex * 3 + 2] = (float) z;
+        vertexFlags[vertex] |= HAS_NORMAL;
+    }
+
+    public boolean hasTexcoords(int vertex) {
+        return (vertexFlags[vertex] & HAS_TEXCOORDS) != 0;
+    }
+
+    public Vector2d getTexcoords(int vertex, Vector2d resultTexcoords) {
+        if (resultTexcoords == null) {
+            resultTexcoords = new Vector2d();
+        }
+        return resultTexcoords.set(texcoords[vertex * 2], texcoords[vertex * 2 + 1]);
+    }
+
+    public void setTexcoords(int vertex, double u, double v) {
+        texcoords[vertex * 2] = u;
+        texcoords[vertex * 2 + 1] = v;
+        vertexFlags[vertex] |= HAS_TEXCOORDS;
+    }
+
+    public boolean hasColor(int vertex) {
+        return (vertexFlags[vertex] & HAS_COLOR) != 0;
+    }
+
+    public byte[] getColor(int vertex) {
+        return Arrays.copyOfRange(colors, vertex * 4, vertex * 4 + 4);
+    }
+
+    public void setColor(int vertex, byte[] color) {
+        System.arraycopy(color, 0, colors, vertex * 4, Math.min(4, color.length));
+        vertexFlags[vertex] |= HAS_COLOR;
+    }
+
+    public float getBatchId(int vertex) {
+        return batchIds[vertex];
+    }
+
+    public void setBatchId(int vertex, float batchId) {
+        batchIds[vertex] = batchId;
+    }
+
+    public boolean isVertexDeleted(int vertex) {
+        return (vertexFlags[vertex] & DELETED) != 0;
+    }
+
+    public void deleteVertex(int vertex) {
+        vertexFlags[vertex] |= DELETED;
+    }
+
+    public int getNext(int halfEdge) {
+        return nexts[halfEdge];
+    }
+
+    public int getPrev(int halfEdge) {
+        int prev = halfEdge;
+        while (nexts[prev] != halfEdge) {
+            prev = nexts[prev];
+        }
+        return prev;
+    }
+
+    public int getTwin(int halfEdge) {
+        return twins[halfEdge];
+    }
+
+    public int getStartVertex(int halfEdge) {
+        return halfEdgeVertices[halfEdge];
+    }
+
+    public void setStartVertex(int halfEdge, int vertex) {
+        halfEdgeVertices[halfEdge] = vertex;
+    }
+
+    public int getEndVertex(int halfEdge) {
+        return halfEdgeVertices[nexts[halfEdge]];
+    }
+
+    public int getFace(int halfEdge) {
+        return halfEdgeFaces[halfEdge];
+    }
+
+    public boolean isHalfEdgeDeleted(int halfEdge) {
+        return halfEdgeVertices[halfEdge] == NIL;
+    }
+
+    public int getFaceHalfEdge(int face) {
+        return faceHalfEdges[face];
+    }
+
+    public boolean isFaceDeleted(int face) {
+        return faceHalfEdges[face] == NIL;
+    }
+
+    public int getFaceVertexCount(int face) {
+        int first = faceHalfEdges[face];
+        if (first == NIL) {
+            return 0;
+        }
+        int count = 0;
+        int halfEdge = first;
+        do {
+            count++;
+            halfEdge = nexts[halfEdge];
+        } while (halfEdge != first);
+        return count;
+    }
+
+    public FaceType getFaceType(int face) {
+        return FACE_TYPES[faceTypes[face]];
+    }
+
+    public void setFaceType(int face, FaceType faceType) {
+        faceTypes[face] = (byte) faceType.ordinal();
+    }
+
+    public int getClassifyId(int face) {
+        return faceClassifyIds[face];
+    }
+
+    public void setClassifyId(int face, int classifyId) {
+        faceClassifyIds[face] = classifyId;
+    }
+
+    /**
+     * Deletes the face and its halfEdges, the twins on the other side become borders.
+     */
+    public void deleteFace(int face) {
+        int first = faceHalfEdges[face];
+        if (first == NIL) {
+            return;
+        }
+        int halfEdge = first;
+        do {
+            int next = nexts[halfEdge];
+            int twin = twins[halfEdge];
+            if (twin != NIL) {
+                twins[twin] = NIL;
+            }
+            twins[halfEdge] = NIL;
+            halfEdgeVertices[halfEdge] = NIL;
+            halfEdge = next;
+        } while (halfEdge != first);
+        faceHalfEdges[face] = NIL;
+    }
+
+    public int getFacesCount() {
+        int count = 0;
+        for (int face = 0; face < faceCount; face++) {
+            if (faceHalfEdges[face] != NIL) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Twins the opposite halfEdges of the live faces.
+     * The halfEdges are bucketed by the lower vertex of their edge (a counting sort of the edge keys) and matched inside the buckets,
+     * instead of the maps of outing and incoming halfEdges per vertex object. On non-manifold edges the first opposite pair is twinned.
+     */
+    public int setTwins() {
+        int[] offsets = new int[vertexCount + 1];
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            twins[halfEdge] = NIL;
+            if (halfEdgeVertices[halfEdge] != NIL) {
+                offsets[getLowerVertex(halfEdge) + 1]++;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            offsets[vertex + 1] += offsets[vertex];
+        }
+        int[] buckets = new int[offsets[vertexCount]];
+        int[] fills = Arrays.copyOf(offsets, vertexCount);
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            if (halfEdgeVertices[halfEdge] != NIL) {
+                buckets[fills[getLowerVertex(halfEdge)]++] = halfEdge;
+            }
+        }
+
+        int twinnedCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            for (int i = offsets[vertex]; i < offsets[vertex + 1]; i++) {
+                int halfEdge = buckets[i];
+                if (twins[halfEdge] != NIL) {
+                    continue;
+                }
+                int start = halfEdgeVertices[halfEdge];
+                int end = getEndVertex(halfEdge);
+                for (int j = i + 1; j < offsets[vertex + 1]; j++) {
+                    int other = buckets[j];
+                    if (twins[other] == NIL && halfEdgeVertices[other] == end && getEndVertex(other) == start) {
+                        twins[halfEdge] = other;
+                        twins[other] = halfEdge;
+                        twinnedCount += 2;
+                        break;
+                    }
+                }
+            }
+        }
+        return twinnedCount;
+    }
+
+    private int getLowerVertex(int halfEdge) {
+        return Math.min(halfEdgeVertices[halfEdge], getEndVertex(halfEdge));
+    }
+
+    /**
+     * Points every vertex to one of its live outing halfEdges, or NIL.
+     */
+    public void updateVertexHalfEdges() {
+        Arrays.fill(vertexHalfEdges, 0, vertexCount, NIL);
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int vertex = halfEdgeVertices[halfEdge];
+            if (vertex != NIL) {
+                vertexHalfEdges[vertex] = halfEdge;
+            }
+        }
+    }
+
+    /**
+     * Splits the triangles crossed by an axis aligned plane, the crossing edges are split at the plane
+     * and the triangles on both sides of them into two, as HalfEdgeSurface.cutByPlane does.
+     * Returns the number of split edges.
+     */
+    public int cutByPlane(PlaneType planeType, Vector3d planePosition, double error) {
+        int axis;
+        double plane;
+        if (planeType == PlaneType.YZ) {
+            axis = 0;
+            plane = planePosition.x;
+        } else if (planeType == PlaneType.XZ) {
+            axis = 1;
+            plane = planePosition.y;
+        } else if (planeType == PlaneType.XY) {
+            axis = 2;
+            plane = planePosition.z;
+        } else {
+            return 0;
+        }
+
+        int cutCount = 0;
+        // the new halfEdges are checked too, as they are added
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int start = halfEdgeVertices[halfEdge];
+            if (start == NIL) {
+                continue;
+            }
+            int end = getEndVertex(halfEdge);
+            double startValue = positions[start * 3 + axis] - plane;
+            double endValue = positions[end * 3 + axis] - plane;
+            if (Math.abs(startValue) < error || Math.abs(endValue) < error || startValue * endValue > 0.0d) {
+                continue;
+            }
+            if (Math.abs(startValue - endValue) < error) {
+                continue;
+            }
+            int twin = twins[halfEdge];
+            if (getFaceVertexCount(halfEdgeFaces[halfEdge]) != 3 || (twin != NIL && getFaceVertexCount(halfEdgeFaces[twin]) != 3)) {
+                continue;
+            }
+            double t = startValue / (startValue - endValue);
+            int vertex = addInterpolatedVertex(start, end, t);
+            positions[vertex * 3 + axis] = plane;
+            splitEdge(halfEdge, vertex);
+            cutCount++;
+        }
+        log.debug("[Tile][Photogrammetry][cut][cutByPlane] hedgesCount = {} , hedgesCutCount = {}", halfEdgeCount, cutCount);
+        return cutCount;
+    }
+
+    private int addInterpolatedVertex(int start, int end, double t) {
+        int vertex = addVertex(positions[start * 3] + t * (positions[end * 3] - positions[start * 3]),
+                positions[start * 3 + 1] + t * (positions[end * 3 + 1] - positions[start * 3 + 1]),
+                positions[start * 3 + 2] + t * (positions[end * 3 + 2] - positions[start * 3 + 2]));
+        if (hasNormal(start) && hasNormal(end)) {
+            setNormal(vertex, normals[start * 3] + t * (normals[end * 3] - normals[start * 3]),
+                    normals[start * 3 + 1] + t * (normals[end * 3 + 1] - normals[start * 3 + 1]),
+                    normals[start * 3 + 2] + t * (normals[end * 3 + 2] - normals[start * 3 + 2]));
+        }
+        if (hasTexcoords(start) && hasTexcoords(end)) {
+            setTexcoords(vertex, texcoords[start * 2] + t * (texcoords[end * 2] - texcoords[start * 2]),
+                    texcoords[start * 2 + 1] + t * (texcoords[end * 2 + 1] - texcoords[start * 2 + 1]));
+        }
+        if (hasColor(start) && hasColor(end)) {
+            byte[] color = new byte[4];
+            for (int i = 0; i < 4; i++) {
+                color[i] = (byte) (colors[start * 4 + i] + t * (colors[end * 4 + i] - colors[start * 4 + i]));
+            }
+            setColor(vertex, color);
+        }
+        batchIds[vertex] = batchIds[start];
+        return vertex;
+    }
+
+    /**
+     * Splits the edge of the halfEdge (and its twin) at the vertex, the triangles on both sides are split in two.
+     */
+    private void splitEdge(int halfEdge, int vertex) {
+        int twin = twins[halfEdge];
+        int startVertex = halfEdgeVertices[halfEdge];
+        int endVertex = getEndVertex(halfEdge);
+        // halfEdge : start -> vertex, endHalfEdge : vertex -> end
+        int endHalfEdge = splitTriangle(halfEdge, vertex);
+        if (twin == NIL) {
+            return;
+        }
+        // twin : end -> vertex, twinEndHalfEdge : vertex -> start
+        int twinEndHalfEdge = splitTriangle(twin, vertex);
+        twins[halfEdge] = twinEndHalfEdge;
+        twins[twinEndHalfEdge] = halfEdge;
+        twins[twin] = endHalfEdge;
+        twins[endHalfEdge] = twin;
+        vertexHalfEdges[startVertex] = halfEdge;
+        vertexHalfEdges[endVertex] = twin;
+    }
+
+    //                  opposite
+    //                    /|\
+    //                  /  |  \
+    //          prev  /    |    \  next
+    //              /  face|newFace\
+    //            /        |        \
+    //    start  *---------*---------*  end
+    //         halfEdge  vertex  endHalfEdge
+    private int splitTriangle(int halfEdge, int vertex) {
+        int face = halfEdgeFaces[halfEdge];
+        int next = nexts[halfEdge];
+        int prev = nexts[next];
+        int opposite = halfEdgeVertices[prev];
+
+        int newFace = addFace();
+        faceClassifyIds[newFace] = faceClassifyIds[face];
+        faceTypes[newFace] = faceTypes[face];
+        int inner = addHalfEdge(vertex, face);
+        int innerTwin = addHalfEdge(opposite, newFace);
+        int endHalfEdge = addHalfEdge(vertex, newFace);
+
+        // face : start -> vertex -> opposite
+        nexts[halfEdge] = inner;
+        nexts[inner] = prev;
+        // newFace : vertex -> end -> opposite
+        nexts[endHalfEdge] = next;
+        nexts[next] = innerTwin;
+        nexts[innerTwin] = endHalfEdge;
+        halfEdgeFaces[next] = newFace;
+        faceHalfEdges[newFace] = endHalfEdge;
+        faceHalfEdges[face] = halfEdge;
+
+        twins[inner] = innerTwin;
+        twins[innerTwin] = inner;
+        vertexHalfEdges[vertex] = endHalfEdge;
+        vertexHalfEdges[opposite] = innerTwin;
+        return endHalfEdge;
+    }
+
+    /**
+     * Sets the classifyId of the faces by the side of the plane of their barycenter, 2 above and 1 below (or on) the plane.
+     */
+    public void classifyFacesIdByPlane(PlaneType planeType, Vector3d planePosition) {
+        int axis;
+        double plane;
+        if (planeType == PlaneType.YZ) {
+            axis = 0;
+            plane = planePosition.x;
+        } else if (planeType == PlaneType.XZ) {
+            axis = 1;
+            plane = planePosition.y;
+        } else if (planeType == PlaneType.XY) {
+            axis = 2;
+            plane = planePosition.z;
+        } else {
+            return;
+        }
+        for (int face = 0; face < faceCount; face++) {
+            int first = faceHalfEdges[face];
+            if (first == NIL) {
+                continue;
+            }
+            double sum = 0.0d;
+            int count = 0;
+            int halfEdge = first;
+            do {
+                sum += positions[halfEdgeVertices[halfEdge] * 3 + axis];
+                count++;
+                halfEdge = nexts[halfEdge];
+            } while (halfEdge != first);
+            faceClassifyIds[face] = sum / count > plane ? 2 : 1;
+        }
+    }
+
+    /**
+     * Deletes the faces with the classifyId and the vertices no longer used, compact() removes them.
+     */
+    public void deleteFacesWithClassifyId(int classifyId) {
+        for (int face = 0; face < faceCount; face++) {
+            if (faceHalfEdges[face] != NIL && faceClassifyIds[face] == classifyId) {
+                deleteFace(face);
+            }
+        }
+        deleteNoUsedVertices();
+    }
+
+    public void deleteNoUsedVertices() {
+        boolean[] used = new boolean[vertexCount];
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int vertex = halfEdgeVertices[halfEdge];
+            if (vertex != NIL) {
+                used[vertex] = true;
+            }
+        }
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (!used[vertex]) {
+                vertexFlags[vertex] |= DELETED;
+            }
+        }
+    }
+
+    /**
+     * Removes the deleted vertices, halfEdges and faces, the live ones keep their order.
+     * HalfEdges of deleted vertices are deleted with their faces.
+     */
+    public void compact() {
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int vertex = halfEdgeVertices[halfEdge];
+            if (vertex != NIL && isVertexDeleted(vertex)) {
+                deleteFace(halfEdgeFaces[halfEdge]);
+            }
+        }
+
+        int[] vertexMap = new int[vertexCount];
+        int newVertexCount = 0;
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (isVertexDeleted(vertex)) {
+                vertexMap[vertex] = NIL;
+                continue;
+            }
+            int newVertex = newVertexCount++;
+            vertexMap[vertex] = newVertex;
+            System.arraycopy(positions, vertex * 3, positions, newVertex * 3, 3);
+            System.arraycopy(normals, vertex * 3, normals, newVertex * 3, 3);
+            System.arraycopy(texcoords, vertex * 2, texcoords, newVertex * 2, 2);
+            System.arraycopy(colors, vertex * 4, colors, newVertex * 4, 4);
+            batchIds[newVertex] = batchIds[vertex];
+            vertexFlags[newVertex] = vertexFlags[vertex];
+        }
+
+        int[] faceMap = new int[faceCount];
+        int newFaceCount = 0;
+        for (int face = 0; face < faceCount; face++) {
+            if (faceHalfEdges[face] == NIL) {
+                faceMap[face] = NIL;
+                continue;
+            }
+            int newFace = newFaceCount++;
+            faceMap[face] = newFace;
+            faceHalfEdges[newFace] = faceHalfEdges[face];
+            faceClassifyIds[newFace] = faceClassifyIds[face];
+            faceTypes[newFace] = faceTypes[face];
+        }
+
+        int[] halfEdgeMap = new int[halfEdgeCount];
+        int newHalfEdgeCount = 0;
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            halfEdgeMap[halfEdge] = halfEdgeVertices[halfEdge] == NIL ? NIL : newHalfEdgeCount++;
+        }
+        for (int halfEdge = 0; halfEdge < halfEdgeCount; halfEdge++) {
+            int newHalfEdge = halfEdgeMap[halfEdge];
+            if (newHalfEdge == NIL) {
+                continue;
+            }
+            int twin = twins[halfEdge];
+            nexts[newHalfEdge] = halfEdgeMap[nexts[halfEdge]];
+            twins[newHalfEdge] = twin == NIL ? NIL : halfEdgeMap[twin];
+            halfEdgeVertices[newHalfEdge] = vertexMap[halfEdgeVertices[halfEdge]];
+            halfEdgeFaces[newHalfEdge] = faceMap[halfEdgeFaces[halfEdge]];
+        }
+        for (int face = 0; face < newFaceCount; face++) {
+            faceHalfEdges[face] = halfEdgeMap[faceHalfEdges[face]];
+        }
+
+        vertexCount = newVertexCount;
+        halfEdgeCount = newHalfEdgeCount;
+        faceCount = newFaceCount;
+        updateVertexHalfEdges();
+    }
+}
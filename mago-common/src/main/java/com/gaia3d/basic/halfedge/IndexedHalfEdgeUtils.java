@@ -0,0 +1,367 @@
+package com.gaia3d.basic.halfedge;
+
+import com.gaia3d.basic.model.*;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Conversions between the IndexedHalfEdgeSurface and the GaiaScene / HalfEdgeScene surfaces.
+ * The scene conversions keep the scene graph (nodes, meshes, materials) and only exchange the surfaces,
+ * in the order of extractPrimitives / extractSurfaces.
+ */
+public class IndexedHalfEdgeUtils {
+
+    public static List<IndexedHalfEdgeSurface> fromGaiaScene(GaiaScene gaiaScene) {
+        List<IndexedHalfEdgeSurface> indexedSurfaces = new ArrayList<>();
+        for (GaiaPrimitive primitive : extractPrimitives(gaiaScene)) {
+            for (GaiaSurface surface : primitive.getSurfaces()) {
+                indexedSurfaces.add(fromGaiaSurface(surface, primitive.getVertices()));
+            }
+        }
+        return indexedSurfaces;
+    }
+
+    /**
+     * Writes the indexed surfaces (in the order of fromGaiaScene) back into the primitives of the scene,
+     * the vertices of every primitive are rebuilt from its surfaces.
+     */
+    public static void updateGaiaScene(GaiaScene gaiaScene, List<IndexedHalfEdgeSurface> indexedSurfaces) {
+        int index = 0;
+        for (GaiaPrimitive primitive : extractPrimitives(gaiaScene)) {
+            List<GaiaSurface> surfaces = primitive.getSurfaces();
+            List<GaiaVertex> vertices = new ArrayList<>();
+            for (GaiaSurface surface : surfaces) {
+                IndexedHalfEdgeSurface indexedSurface = indexedSurfaces.get(index++);
+                surface.setFaces(toGaiaFaces(indexedSurface, vertices));
+            }
+            primitive.setVertices(vertices);
+        }
+    }
+
+    private static List<GaiaPrimitive> extractPrimitives(GaiaScene gaiaScene) {
+        List<GaiaPrimitive> primitives = new ArrayList<>();
+        for (GaiaNode node : gaiaScene.getNodes()) {
+            node.extractPrimitives(primitives);
+        }
+        return primitives;
+    }
+
+    /**
+     * The faces are read as triangle lists (3 indices per triangle), only the vertices used by the surface are copied.
+     */
+    public static IndexedHalfEdgeSurface fromGaiaSurface(GaiaSurface gaiaSurface, List<GaiaVertex> gaiaVertices) {
+        List<GaiaFace> gaiaFaces = gaiaSurface.getFaces();
+        int trianglesCount = 0;
+        for (GaiaFace gaiaFace : gaiaFaces) {
+            trianglesCount += gaiaFace.getIndices().length / 3;
+        }
+        IndexedHalfEdgeSurface indexedSurface = new IndexedHalfEdgeSurface(trianglesCount, trianglesCount);
+        int[] vertexMap = new int[gaiaVertices.size()];
+        Arrays.fill(vertexMap, IndexedHalfEdgeSurface.NIL);
+        for (GaiaFace gaiaFace : gaiaFaces) {
+            int[] indices = gaiaFace.getIndices();
+            for (int i = 0; i + 2 < indices.length; i += 3) {
+                int a = getIndexedVertex(indexedSurface, gaiaVertices, vertexMap, indices[i]);
+                int b = getIndexedVertex(indexedSurface, gaiaVertices, vertexMap, indices[i + 1]);
+                int c = getIndexedVertex(indexedSurface, gaiaVertices, vertexMap, indices[i + 2]);
+                int face = indexedSurface.addFace(a, b, c);
+                indexedSurface.setClassifyId(face, gaiaFace.getClassifyId());
+            }
+        }
+        indexedSurface.setTwins();
+        return indexedSurface;
+    }
+
+    private static int getIndexedVertex(IndexedHalfEdgeSurface indexedSurface, List<GaiaVertex> gaiaVertices, int[] vertexMap, int index) {
+        int vertex = vertexMap[index];
+        if (vertex == IndexedHalfEdgeSurface.NIL) {
+            GaiaVertex gaiaVertex = gaiaVertices.get(index);
+            Vector3d position = gaiaVertex.getPosition();
+            vertex = indexedSurface.addVertex(position.x, position.y, position.z);
+            Vector3d normal = gaiaVertex.getNormal();
+            if (normal != null) {
+                indexedSurface.setNormal(vertex, normal.x, normal.y, normal.z);
+            }
+            Vector2d texcoords = gaiaVertex.getTexcoords();
+            if (texcoords != null) {
+                indexedSurface.setTexcoords(vertex, texcoords.x, texcoords.y);
+            }
+            if (gaiaVertex.getColor() != null) {
+                indexedSurface.setColor(vertex, gaiaVertex.getColor());
+            }
+            indexedSurface.setBatchId(vertex, gaiaVertex.getBatchId());
+            vertexMap[index] = vertex;
+        }
+        return vertex;
+    }
+
+    /**
+     * Appends the live vertices of the surface to the vertices list and returns its live faces indexing them.
+     */
+    public static List<GaiaFace> toGaiaFaces(IndexedHalfEdgeSurface indexedSurface, List<GaiaVertex> resultVertices) {
+        int vertexCount = indexedSurface.getVertexCount();
+        int[] vertexMap = new int[vertexCount];
+        for (int vertex = 0; vertex < vertexCount; vertex++) {
+            if (indexedSurface.isVertexDeleted(vertex)) {
+                vertexMap[vertex] = IndexedHalfEdgeSurface.NIL;
+                continue;
+            }
+            vertexMap[vertex] = resultVertices.size();
+            GaiaVertex gaiaVertex = new GaiaVertex();
+            gaiaVertex.setPosition(indexedSurface.getPosition(vertex, null));
+            if (indexedSurface.hasNormal(vertex)) {
+                gaiaVertex.setNormal(indexedSurface.getNormal(vertex, null));
+            }
+            if (indexedSurface.hasTexcoords(vertex)) {
+                gaiaVertex.setTexcoords(indexedSurface.getTexcoords(vertex, null));
+            }
+            if (indexedSurface.hasColor(vertex)) {
+                gaiaVertex.setColor(indexedSurface.getColor(vertex));
+            }
+            gaiaVertex.setBatchId(indexedSurface.getBatchId(vertex));
+            resultVertices.add(gaiaVertex);
+        }
+
+        List<GaiaFace> gaiaFaces = new ArrayList<>();
+        for (int face = 0; face < indexedSurface.getFaceCount(); face++) {
+            if (indexedSurface.isFaceDeleted(face)) {
+                continue;
+            }
+            int[] indices = new int[indexedSurface.getFaceVertexCount(face)];
+            int first = indexedSurface.getFaceHalfEdge(face);
+            int halfEdge = first;
+            int k = 0;
+            do {
+                indices[k++] = vertexMap[indexedSurface.getStartVertex(halfEdge)];
+                halfEdge = indexedSurface.getNext(halfEdge);
+            } while (halfEdge != first);
+            GaiaFace gaiaFace = new GaiaFace();
+            gaiaFace.setIndices(indices);
+            gaiaFace.setClassifyId(indexedSurface.getClassifyId(face));
+            gaiaFaces.add(gaiaFace);
+        }
+        return gaiaFaces;
+    }
+
+    public static List<IndexedHalfEdgeSurface> fromHalfEdgeScene(HalfEdgeScene halfEdgeScene) {
+        List<IndexedHalfEdgeSurface> indexedSurfaces = new ArrayList<>();
+        for (HalfEdgeSurface surface : halfEdgeScene.extractSurfaces(null)) {
+            indexedSurfaces.add(fromHalfEdgeSurface(surface));
+        }
+        return indexedSurfaces;
+    }
+
+    /**
+     * Writes the indexed surfaces (in the order of fromHalfEdgeScene) back into the surfaces of the scene.
+     */
+    public static void updateHalfEdgeScene(HalfEdgeScene halfEdgeScene, List<IndexedHalfEdgeSurface> indexedSurfaces) {
+        List<HalfEdgeSurface> surfaces = halfEdgeScene.extractSurfaces(null);
+        for (int i = 0; i < surfaces.size(); i++) {
+            updateHalfEdgeSurface(indexedSurfaces.get(i), surfaces.get(i));
+        }
+    }
+
+    /**
+     * Vertex i of the indexed surface is vertex i of the surface and face f is face f, the halfEdges follow the face loops.
+     * Vertices used by the faces but missing in the vertices list are added to it,
+     * faces with an open loop or without positions are kept as deleted faces (and left as they are by updateHalfEdgeSurface).
+     */
+    public static IndexedHalfEdgeSurface fromHalfEdgeSurface(HalfEdgeSurface halfEdgeSurface) {
+        halfEdgeSurface.removeDeletedObjects();
+        List<HalfEdgeVertex> vertices = halfEdgeSurface.getVertices();
+        List<HalfEdgeFace> faces = halfEdgeSurface.getFaces();
+        halfEdgeSurface.setObjectIdsInList();
+        List<HalfEdge> loop = new ArrayList<>();
+        for (HalfEdgeFace face : faces) {
+            loop.clear();
+            face.getHalfEdgesLoop(loop);
+            for (HalfEdge halfEdge : loop) {
+                HalfEdgeVertex vertex = halfEdge.getStartVertex();
+                if (vertex != null && !isInList(vertex, vertices)) {
+                    vertex.setId(vertices.size());
+                    vertices.add(vertex);
+                }
+            }
+        }
+
+        IndexedHalfEdgeSurface indexedSurface = new IndexedHalfEdgeSurface(vertices.size(), faces.size());
+        for (HalfEdgeVertex vertex : vertices) {
+            Vector3d position = vertex.getPosition();
+            int index = position == null ? indexedSurface.addVertex(0.0d, 0.0d, 0.0d) : indexedSurface.addVertex(position.x, position.y, position.z);
+            if (position == null) {
+                indexedSurface.deleteVertex(index);
+                continue;
+            }
+            Vector3d normal = vertex.getNormal();
+            if (normal != null) {
+                indexedSurface.setNormal(index, normal.x, normal.y, normal.z);
+            }
+            Vector2d texcoords = vertex.getTexcoords();
+            if (texcoords != null) {
+                indexedSurface.setTexcoords(index, texcoords.x, texcoords.y);
+            }
+            if (vertex.getColor() != null) {
+                indexedSurface.setColor(index, vertex.getColor());
+            }
+            indexedSurface.setBatchId(index, vertex.getBatchId());
+        }
+
+        for (HalfEdgeFace face : faces) {
+            loop.clear();
+            face.getHalfEdgesLoop(loop);
+            int[] faceVertices = new int[isValidLoop(loop) ? loop.size() : 0];
+            for (int k = 0; k < faceVertices.length; k++) {
+                faceVertices[k] = loop.get(k).getStartVertex().getId();
+            }
+            int index = indexedSurface.addFace(faceVertices);
+            indexedSurface.setClassifyId(index, face.getClassifyId());
+            indexedSurface.setFaceType(index, face.getFaceType() == null ? FaceType.NORMAL : face.getFaceType());
+        }
+        indexedSurface.setTwins();
+        return indexedSurface;
+    }
+
+    private static boolean isInList(HalfEdgeVertex vertex, List<HalfEdgeVertex> vertices) {
+        int id = vertex.getId();
+        return id >= 0 && id < vertices.size() && vertices.get(id) == vertex;
+    }
+
+    /**
+     * The normals are kept as floats, an unchanged normal keeps its double precision.
+     */
+    private static boolean isSameNormal(IndexedHalfEdgeSurface indexedSurface, int vertex, Vector3d normal) {
+        float[] normals = indexedSurface.getNormals();
+        return normal != null && (float) normal.x == normals[vertex * 3] && (float) normal.y == normals[vertex * 3 + 1] && (float) normal.z == normals[vertex * 3 + 2];
+    }
+
+    private static boolean isValidLoop(List<HalfEdge> loop) {
+        if (loop.size() < 3 || loop.get(loop.size() - 1).getNext() != loop.get(0)) {
+            return false;
+        }
+        for (HalfEdge halfEdge : loop) {
+            HalfEdgeVertex vertex = halfEdge.getStartVertex();
+            if (vertex == null || vertex.getPosition() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Writes an indexed surface made by fromHalfEdgeSurface back into the same (unchanged since) surface.
+     * The indexed surface must not be compacted in between, the indices are the correspondence.
+     * The existing vertices, halfEdges and faces are updated in place, so they keep their other properties,
+     * new ones are created and deleted ones are removed.
+     */
+    public static void updateHalfEdgeSurface(IndexedHalfEdgeSurface indexedSurface, HalfEdgeSurface halfEdgeSurface) {
+        List<HalfEdgeVertex> vertices = halfEdgeSurface.getVertices();
+        List<HalfEdgeFace> faces = halfEdgeSurface.getFaces();
+
+        // the halfEdges in the order of fromHalfEdgeSurface
+        HalfEdge[] halfEdgeObjects = new HalfEdge[indexedSurface.getHalfEdgeCount()];
+        boolean[] keptFaces = new boolean[faces.size()];
+        int halfEdgeIndex = 0;
+        List<HalfEdge> loop = new ArrayList<>();
+        for (int f = 0; f < faces.size(); f++) {
+            loop.clear();
+            faces.get(f).getHalfEdgesLoop(loop);
+            if (!isValidLoop(loop)) {
+                keptFaces[f] = true;
+                continue;
+            }
+            for (HalfEdge halfEdge : loop) {
+                halfEdgeObjects[halfEdgeIndex++] = halfEdge;
+            }
+        }
+
+        HalfEdgeVertex[] vertexObjects = new HalfEdgeVertex[indexedSurface.getVertexCount()];
+        for (int v = 0; v < vertexObjects.length; v++) {
+            if (v < vertices.size()) {
+                vertexObjects[v] = vertices.get(v);
+                if (vertexObjects[v].getPosition() == null) {
+                    continue;
+                }
+            } else {
+                vertexObjects[v] = new HalfEdgeVertex();
+                vertices.add(vertexObjects[v]);
+            }
+            HalfEdgeVertex vertex = vertexObjects[v];
+            if (indexedSurface.isVertexDeleted(v)) {
+                vertex.setStatus(ObjectStatus.DELETED);
+                continue;
+            }
+            vertex.setPosition(indexedSurface.getPosition(v, vertex.getPosition()));
+            if (indexedSurface.hasNormal(v) && !isSameNormal(indexedSurface, v, vertex.getNormal())) {
+                vertex.setNormal(indexedSurface.getNormal(v, vertex.getNormal()));
+            }
+            if (indexedSurface.hasTexcoords(v)) {
+                vertex.setTexcoords(indexedSurface.getTexcoords(v, vertex.getTexcoords()));
+            }
+            if (indexedSurface.hasColor(v)) {
+                vertex.setColor(indexedSurface.getColor(v));
+            }
+            vertex.setBatchId(indexedSurface.getBatchId(v));
+        }
+
+        HalfEdgeFace[] faceObjects = new HalfEdgeFace[indexedSurface.getFaceCount()];
+        for (int f = 0; f < faceObjects.length; f++) {
+            if (f < keptFaces.length) {
+                faceObjects[f] = faces.get(f);
+                if (keptFaces[f]) {
+                    continue;
+                }
+            } else {
+                faceObjects[f] = new HalfEdgeFace();
+                faces.add(faceObjects[f]);
+            }
+            HalfEdgeFace face = faceObjects[f];
+            if (indexedSurface.isFaceDeleted(f)) {
+                face.setStatus(ObjectStatus.DELETED);
+                continue;
+            }
+            face.setClassifyId(indexedSurface.getClassifyId(f));
+            face.setFaceType(indexedSurface.getFaceType(f));
+            face.setNormal(null);
+        }
+
+        for (int h = 0; h < halfEdgeObjects.length; h++) {
+            if (halfEdgeObjects[h] == null) {
+                halfEdgeObjects[h] = new HalfEdge();
+                halfEdgeSurface.getHalfEdges().add(halfEdgeObjects[h]);
+            }
+            halfEdgeObjects[h].untwin();
+        }
+        for (int h = 0; h < halfEdgeObjects.length; h++) {
+            HalfEdge halfEdge = halfEdgeObjects[h];
+            if (indexedSurface.isHalfEdgeDeleted(h)) {
+                halfEdge.setStatus(ObjectStatus.DELETED);
+                continue;
+            }
+            halfEdge.setStartVertex(vertexObjects[indexedSurface.getStartVertex(h)]);
+            halfEdge.setNext(halfEdgeObjects[indexedSurface.getNext(h)]);
+            halfEdge.setFace(faceObjects[indexedSurface.getFace(h)]);
+        }
+        for (int h = 0; h < halfEdgeObjects.length; h++) {
+            int twin = indexedSurface.getTwin(h);
+            if (twin != IndexedHalfEdgeSurface.NIL && twin < h && !indexedSurface.isHalfEdgeDeleted(h)) {
+                halfEdgeObjects[h].setTwin(halfEdgeObjects[twin]);
+            }
+        }
+        for (int f = 0; f < faceObjects.length; f++) {
+            if (!(f < keptFaces.length && keptFaces[f]) && !indexedSurface.isFaceDeleted(f)) {
+                faceObjects[f].setHalfEdge(halfEdgeObjects[indexedSurface.getFaceHalfEdge(f)]);
+            }
+        }
+
+        halfEdgeSurface.removeDeletedObjects();
+        for (HalfEdge halfEdge : halfEdgeSurface.getHalfEdges()) {
+            halfEdge.setItselfAsOutingHalfEdgeToTheStartVertex();
+        }
+        halfEdgeSurface.setObjectIdsInList();
+        halfEdgeSurface.setDirty(true);
+    }
+}
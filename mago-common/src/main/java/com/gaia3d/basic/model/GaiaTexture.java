@@ -5,6 +5,7 @@ import com.gaia3d.basic.types.LevelOfDetail;
 import com.gaia3d.basic.types.TextureType;
 import com.gaia3d.util.ImageResizer;
 import com.gaia3d.util.ImageUtils;
+import lombok.AccessLevel;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -14,10 +15,15 @@ import lombok.extern.slf4j.Slf4j;
 import javax.imageio.ImageIO;
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.awt.image.DataBuffer;
 import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.DataBufferUShort;
 import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Objects;
 
 /**
  * A class that represents a texture of a Gaia object.
@@ -42,6 +48,9 @@ public class GaiaTexture extends TextureStructure implements Serializable {
 
     private int byteLength;
     private transient BufferedImage bufferedImage;
+    /* the buffered image is shared through the GaiaTextureCache, it is released but never flushed or modified */
+    @Setter(AccessLevel.NONE)
+    private transient boolean sharedImage = false;
     private ByteBuffer byteBuffer;
 
     private int textureId = -1;
@@ -56,7 +65,7 @@ public class GaiaTexture extends TextureStructure implements Serializable {
         if (this.bufferedImage == null) {
             BufferedImage bufferedImage = readImage(imagePath);
             if (bufferedImage != null) {
-                this.bufferedImage = bufferedImage;
+                setBufferedImage(bufferedImage);
                 this.width = bufferedImage.getWidth();
                 this.height = bufferedImage.getHeight();
                 this.format = bufferedImage.getType();
@@ -76,6 +85,11 @@ public class GaiaTexture extends TextureStructure implements Serializable {
     }
 
     public void flipImageY() {
+        if (sharedImage) {
+            // flip a private copy, the cached image is shared
+            BufferedImage copy = new BufferedImage(bufferedImage.getColorModel(), bufferedImage.copyData(null), bufferedImage.isAlphaPremultiplied(), null);
+            setBufferedImage(copy);
+        }
         for (int i = 0; i < width; i++) {
             for (int j = 0; j < height / 2; j++) {
                 int tmp = bufferedImage.getRGB(i, j);
@@ -118,7 +132,7 @@ public class GaiaTexture extends TextureStructure implements Serializable {
     public void createImage(int width, int height, int imageType) {
         this.width = width;
         this.height = height;
-        this.bufferedImage = new BufferedImage(width, height, imageType);
+        setBufferedImage(new BufferedImage(width, height, imageType));
     }
 
     public void fillImage(Color color) {
@@ -135,45 +149,61 @@ public class GaiaTexture extends TextureStructure implements Serializable {
         return bufferedImage;
     }
 
+    /**
+     * Loads the image of the level of detail through the GaiaTextureCache,
+     * the loaded image may be shared with other textures of the same file.
+     */
     public void loadImage(LevelOfDetail lod) {
         if (path == null || parentPath == null || path.isEmpty() || parentPath.isEmpty()) {
             return;
         }
+        if (this.bufferedImage != null) {
+            return;
+        }
+
+        String imagePath = new File(getFullPath()).getAbsolutePath();
+        BufferedImage bufferedImage = GaiaTextureCache.getInstance().get(imagePath, lod.getLevel(), () -> readLodImage(imagePath, lod));
+        if (bufferedImage != null) {
+            this.bufferedImage = bufferedImage;
+            this.sharedImage = GaiaTextureCache.getInstance().isEnabled();
+            this.width = bufferedImage.getWidth();
+            this.height = bufferedImage.getHeight();
+            this.format = bufferedImage.getType();
+        }
+    }
 
+    private BufferedImage readLodImage(String imagePath, LevelOfDetail lod) {
         int level = lod.getLevel();
-        Path diffusePath = new File(path).toPath();
-        String imagePath = parentPath + File.separator + diffusePath;
         File imageFile = new File(imagePath);
         String fileName = imageFile.getName();
         String lodFileName = level > 0 ? level + "_" + fileName : fileName;
         File lodImageFile = new File(imageFile.getParent(), lodFileName);
-        boolean lodFileExists = lodImageFile.exists();
-
-        if (lodFileExists) {
-            if (this.bufferedImage == null) {
-                BufferedImage bufferedImage = readImage(lodImageFile.getAbsolutePath());
-                if (bufferedImage != null) {
-                    this.bufferedImage = bufferedImage;
-                    this.width = bufferedImage.getWidth();
-                    this.height = bufferedImage.getHeight();
-                    this.format = bufferedImage.getType();
-                }
-            }
-        } else {
-            log.warn("[WARN] LOD file not found : {}, loading original image and resizing.", lodImageFile.getAbsolutePath());
-            float scaleFactor = lod.getTextureScale();
-            loadImage();
-            if (this.bufferedImage != null) {
-                int resizeWidth = (int) (this.bufferedImage.getWidth() * scaleFactor);
-                int resizeHeight = (int) (this.bufferedImage.getHeight() * scaleFactor);
-                resizeWidth = ImageUtils.getNearestPowerOfTwo(resizeWidth);
-                resizeHeight = ImageUtils.getNearestPowerOfTwo(resizeHeight);
-                this.width = resizeWidth;
-                this.height = resizeHeight;
-                ImageResizer imageResizer = new ImageResizer();
-                this.bufferedImage = imageResizer.resizeImageGraphic2D(this.bufferedImage, resizeWidth, resizeHeight);
-            }
+        if (lodImageFile.exists()) {
+            return readImage(lodImageFile.getAbsolutePath());
+        }
+
+        log.warn("[WARN] LOD file not found : {}, loading original image and resizing.", lodImageFile.getAbsolutePath());
+        float scaleFactor = lod.getTextureScale();
+        BufferedImage originalImage = readImage(imagePath);
+        if (originalImage == null) {
+            return null;
         }
+        int resizeWidth = (int) (originalImage.getWidth() * scaleFactor);
+        int resizeHeight = (int) (originalImage.getHeight() * scaleFactor);
+        resizeWidth = ImageUtils.getNearestPowerOfTwo(resizeWidth);
+        resizeHeight = ImageUtils.getNearestPowerOfTwo(resizeHeight);
+        ImageResizer imageResizer = new ImageResizer();
+        return imageResizer.resizeImageGraphic2D(originalImage, resizeWidth, resizeHeight);
+    }
+
+    public void setBufferedImage(BufferedImage bufferedImage) {
+        this.bufferedImage = bufferedImage;
+        this.sharedImage = false;
+    }
+
+    private void releaseSharedImage() {
+        this.bufferedImage = null;
+        this.sharedImage = false;
     }
 
     public void resizeImage(int width, int height) {
@@ -184,7 +214,7 @@ public class GaiaTexture extends TextureStructure implements Serializable {
             return;
         }
         ImageResizer imageResizer = new ImageResizer();
-        this.bufferedImage = imageResizer.resizeImageGraphic2D(this.bufferedImage, width, height);
+        setBufferedImage(imageResizer.resizeImageGraphic2D(this.bufferedImage, width, height));
         this.width = width;
         this.height = height;
     }
@@ -214,7 +244,9 @@ public class GaiaTexture extends TextureStructure implements Serializable {
         if (byteBuffer != null) {
             byteBuffer.clear();
         }
-        if (bufferedImage != null) {
+        if (sharedImage) {
+            releaseSharedImage();
+        } else if (bufferedImage != null) {
             bufferedImage.flush();
         }
     }
@@ -304,8 +336,48 @@ public class GaiaTexture extends TextureStructure implements Serializable {
         return isEqualTexture(compareTexture);
     }
 
+    /**
+     * Hash of the decoded pixels at the level of detail, cached by the image file and the level in the GaiaTextureCache,
+     * so every texture file is decoded and hashed once per level even when it is shared by many materials.
+     * Equal textures have equal hashes, textures with equal hashes still have to be confirmed with isEqualTexture.
+     */
+    public long getContentHash(LevelOfDetail lod) {
+        if (path == null || parentPath == null || path.isEmpty() || parentPath.isEmpty()) {
+            return hashImage(this.bufferedImage);
+        }
+        File imageFile = new File(getFullPath());
+        return GaiaTextureCache.getInstance().getContentHash(imageFile.getAbsolutePath(), lod.getLevel(), imageFile.length(), imageFile.lastModified(), () -> hashImage(getBufferedImage(lod)));
+    }
+
+    /**
+     * Size and format in the high bits, a hash of the raster data in the low bits.
+     */
+    private static long hashImage(BufferedImage image) {
+        if (image == null) {
+            return 0L;
+        }
+        int width = image.getWidth();
+        int height = image.getHeight();
+        long header = Objects.hash(width, height, image.getType());
+
+        int dataHash;
+        DataBuffer dataBuffer = image.getRaster().getDataBuffer();
+        if (dataBuffer instanceof DataBufferByte byteBuffer) {
+            dataHash = Arrays.deepHashCode(byteBuffer.getBankData());
+        } else if (dataBuffer instanceof DataBufferInt intBuffer) {
+            dataHash = Arrays.deepHashCode(intBuffer.getBankData());
+        } else if (dataBuffer instanceof DataBufferUShort shortBuffer) {
+            dataHash = Arrays.deepHashCode(shortBuffer.getBankData());
+        } else {
+            dataHash = Arrays.hashCode(image.getRGB(0, 0, width, height, null, 0, width));
+        }
+        return (header << 32) | (dataHash & 0xFFFFFFFFL);
+    }
+
     public void clear() {
-        if (this.bufferedImage != null) {
+        if (sharedImage) {
+            releaseSharedImage();
+        } else if (this.bufferedImage != null) {
             this.bufferedImage.flush();
             this.bufferedImage = null;
         }
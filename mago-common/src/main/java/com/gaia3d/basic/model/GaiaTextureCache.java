@@ -0,0 +1,226 @@
+package com.gaia3d.basic.model;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Size-bounded cache of decoded (and LOD-resized) texture images shared by the post-process workers.
+ * Facade and roof images are reused by thousands of buildings in different contents,
+ * so each image is decoded once per level of detail and kept in an LRU map weighted by its pixel bytes.
+ * Concurrent loads of the same image wait for the first one (single flight).
+ * The cached images are shared, textures holding them must not draw into them.
+ * The content hashes of the image files are kept here as well, bounded by their count and cleared with the images.
+ */
+@Slf4j
+public class GaiaTextureCache {
+    private static final GaiaTextureCache instance = new GaiaTextureCache();
+    /* a content hash costs about a hundred bytes, so far more hashes than images are kept */
+    private static final int MAXIMUM_HASH_COUNT = 64 * 1024;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final Map<Key, CompletableFuture<BufferedImage>> loading = new ConcurrentHashMap<>();
+    private final LinkedHashMap<HashKey, Long> contentHashes = new LinkedHashMap<>(64, 0.75f, true);
+
+    @Getter
+    private volatile long maximumWeight = 0;
+    private long weight = 0;
+
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public static GaiaTextureCache getInstance() {
+        return instance;
+    }
+
+    /**
+     * Sets the maximum weight in bytes, 0 disables the cache.
+     */
+    public void setMaximumWeight(long maximumWeight) {
+        this.maximumWeight = Math.max(0, maximumWeight);
+        synchronized (lock) {
+            evict();
+        }
+    }
+
+    public boolean isEnabled() {
+        return maximumWeight > 0;
+    }
+
+    /**
+     * Returns the image of the file at the level of detail, decoding it with the loader only when it is not cached.
+     * Returns null when the loader returns null, failed loads are not cached.
+     */
+    public BufferedImage get(String imagePath, int level, Supplier<BufferedImage> loader) {
+        if (!isEnabled()) {
+            return loader.get();
+        }
+        Key key = new Key(imagePath, level);
+        synchronized (lock) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                hitCount.incrementAndGet();
+                return entry.image;
+            }
+        }
+
+        CompletableFuture<BufferedImage> future = new CompletableFuture<>();
+        CompletableFuture<BufferedImage> inFlight = loading.putIfAbsent(key, future);
+        if (inFlight != null) {
+            // another worker is decoding the same image
+            hitCount.incrementAndGet();
+            return inFlight.join();
+        }
+
+        BufferedImage image = null;
+        try {
+            synchronized (lock) {
+                // loaded between the lookup and the registration of this load
+                Entry entry = entries.get(key);
+                if (entry != null) {
+                    hitCount.incrementAndGet();
+                    image = entry.image;
+                    return image;
+                }
+            }
+            missCount.incrementAndGet();
+            image = loader.get();
+            if (image != null) {
+                put(key, image);
+            }
+        } finally {
+            future.complete(image);
+            loading.remove(key, future);
+        }
+        return image;
+    }
+
+    /**
+     * Returns the content hash of the image file at the level of detail, computing it with the hasher only when it is not cached.
+     * The size and the modification time of the file are part of the key, so a changed file is hashed again.
+     * The hashes are kept even when the image cache is disabled.
+     */
+    public long getContentHash(String imagePath, int level, long length, long lastModified, LongSupplier hasher) {
+        HashKey key = new HashKey(imagePath, level, length, lastModified);
+        synchronized (lock) {
+            Long hash = contentHashes.get(key);
+            if (hash != null) {
+                return hash;
+            }
+        }
+        long hash = hasher.getAsLong();
+        synchronized (lock) {
+            contentHashes.put(key, hash);
+            Iterator<HashKey> iterator = contentHashes.keySet().iterator();
+            while (contentHashes.size() > MAXIMUM_HASH_COUNT && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+        return hash;
+    }
+
+    public void clear() {
+        synchronized (lock) {
+            entries.clear();
+            contentHashes.clear();
+            weight = 0;
+        }
+    }
+
+    public int getContentHashCount() {
+        synchronized (lock) {
+            return contentHashes.size();
+        }
+    }
+
+    public void logStatistics() {
+        if (!isEnabled()) {
+            return;
+        }
+        long hits = hitCount.get();
+        long misses = missCount.get();
+        long requests = hits + misses;
+        double hitRate = requests > 0 ? (double) hits / requests * 100.0 : 0.0;
+        log.info("[Cache] Texture cache hits: {}, misses: {}, evictions: {}, hit rate: {}%", hits, misses, evictionCount.get(), String.format("%.1f", hitRate));
+        synchronized (lock) {
+            log.info("[Cache] Texture cache entries: {}, weight: {} / {} MB", entries.size(), weight / (1024 * 1024), maximumWeight / (1024 * 1024));
+        }
+    }
+
+    public long getHitCount() {
+        return hitCount.get();
+    }
+
+    public long getMissCount() {
+        return missCount.get();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.get();
+    }
+
+    public void resetStatistics() {
+        hitCount.set(0);
+        missCount.set(0);
+        evictionCount.set(0);
+    }
+
+    private void put(Key key, BufferedImage image) {
+        long imageWeight = getWeight(image);
+        synchronized (lock) {
+            if (imageWeight > maximumWeight) {
+                // too large to be kept
+                return;
+            }
+            Entry previous = entries.put(key, new Entry(image, imageWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += imageWeight;
+            evict();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<Key, Entry>> iterator = entries.entrySet().iterator();
+        while (weight > maximumWeight && iterator.hasNext()) {
+            Map.Entry<Key, Entry> eldest = iterator.next();
+            iterator.remove();
+            weight -= eldest.getValue().weight;
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Pixel bytes of the image, from the pixel size of its color model.
+     */
+    private static long getWeight(BufferedImage image) {
+        int bytesPerPixel = Math.max(1, (image.getColorModel().getPixelSize() + 7) / 8);
+        return (long) image.getWidth() * image.getHeight() * bytesPerPixel;
+    }
+
+    /**
+     * Absolute path of the source image and the level of detail it was loaded for (-1 for the original image).
+     * The size and the color model of the decoded image follow from them.
+     */
+    private record Key(String imagePath, int level) {
+    }
+
+    private record Entry(BufferedImage image, long weight) {
+    }
+
+    private record HashKey(String imagePath, int level, long length, long lastModified) {
+    }
+}
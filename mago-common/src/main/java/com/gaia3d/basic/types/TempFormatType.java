@@ -0,0 +1,29 @@
+package com.gaia3d.basic.types;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+
+/**
+ * Enumerates the file formats of the temporary GaiaSet files.
+ * JAVA uses java object serialization, BINARY uses the length-prefixed block container of GaiaSetBinaryFormat.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TempFormatType {
+    JAVA("java", false, false),
+    BINARY("binary", true, false),
+    BINARY_DEFLATE("binary-deflate", true, true);
+
+    private final String name;
+    private final boolean binary;
+    private final boolean compressed;
+
+    public static TempFormatType fromName(String name) {
+        return Arrays.stream(TempFormatType.values())
+                .filter(type -> type.name.equalsIgnoreCase(name))
+                .findFirst()
+                .orElse(null);
+    }
+}
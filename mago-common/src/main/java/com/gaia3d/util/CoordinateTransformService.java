@@ -0,0 +1,125 @@
+package com.gaia3d.util;
+
+import org.locationtech.proj4j.BasicCoordinateTransform;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+import org.locationtech.proj4j.ProjCoordinate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * proj4j coordinate transforms cached per (source, target) pair.
+ * A BasicCoordinateTransform keeps intermediate coordinates in its fields and is not thread-safe,
+ * so every thread gets its own instances, created once instead of once per transformed point.
+ * The array transforms work in place on packed x, y, z triples without allocating per point.
+ */
+public class CoordinateTransformService {
+    private static final CoordinateTransformService instance = new CoordinateTransformService();
+    /* CRS instances are created per file, the per-thread map is dropped when it grows past this */
+    private static final int MAX_TRANSFORMS_PER_THREAD = 64;
+
+    private final ThreadLocal<ThreadTransforms> threadTransforms = ThreadLocal.withInitial(ThreadTransforms::new);
+
+    public static CoordinateTransformService getInstance() {
+        return instance;
+    }
+
+    /**
+     * The transform of the calling thread, it must not be handed to other threads.
+     */
+    public BasicCoordinateTransform getTransform(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+        return threadTransforms.get().getTransform(source, target);
+    }
+
+    /**
+     * Transforms the coordinate into the result and returns the result.
+     */
+    public ProjCoordinate transform(CoordinateReferenceSystem source, CoordinateReferenceSystem target, ProjCoordinate coordinate, ProjCoordinate result) {
+        return getTransform(source, target).transform(coordinate, result);
+    }
+
+    /**
+     * Transforms count packed x, y, z triples in place.
+     * The z value is kept when the transform does not change heights.
+     */
+    public void transform(CoordinateReferenceSystem source, CoordinateReferenceSystem target, double[] xyz, int count) {
+        checkLength(xyz, count);
+        transform(source, target, xyz, count, false);
+    }
+
+    /**
+     * Transforms count packed x, y, z triples of the source CRS into WGS84 ECEF (cartesian) coordinates in place,
+     * the same result as GlobeUtils.transform into WGS84 followed by GlobeUtils.geographicToCartesianWgs84 with the source height.
+     */
+    public void transformToCartesianWgs84(CoordinateReferenceSystem source, double[] xyz, int count) {
+        checkLength(xyz, count);
+        if (source != null && source != GlobeUtils.wgs84) {
+            transform(source, GlobeUtils.wgs84, xyz, count, true);
+        }
+        double e2 = GlobeUtils.FIRST_ECCENTRICITY_SQUARED;
+        for (int i = 0, offset = 0; i < count; i++, offset += 3) {
+            double lonRad = xyz[offset] * GlobeUtils.DEGREE_TO_RADIAN_FACTOR;
+            double latRad = xyz[offset + 1] * GlobeUtils.DEGREE_TO_RADIAN_FACTOR;
+            double altitude = xyz[offset + 2];
+            double cosLat = Math.cos(latRad);
+            double sinLat = Math.sin(latRad);
+            double v = GlobeUtils.EQUATORIAL_RADIUS / Math.sqrt(1.0 - e2 * sinLat * sinLat);
+            xyz[offset] = (v + altitude) * cosLat * Math.cos(lonRad);
+            xyz[offset + 1] = (v + altitude) * cosLat * Math.sin(lonRad);
+            xyz[offset + 2] = (v * (1.0 - e2) + altitude) * sinLat;
+        }
+    }
+
+    private void transform(CoordinateReferenceSystem source, CoordinateReferenceSystem target, double[] xyz, int count, boolean keepHeights) {
+        ThreadTransforms transforms = threadTransforms.get();
+        BasicCoordinateTransform transform = transforms.getTransform(source, target);
+        ProjCoordinate sourceCoordinate = transforms.sourceCoordinate;
+        ProjCoordinate targetCoordinate = transforms.targetCoordinate;
+        for (int i = 0, offset = 0; i < count; i++, offset += 3) {
+            sourceCoordinate.setValue(xyz[offset], xyz[offset + 1], xyz[offset + 2]);
+            targetCoordinate.z = Double.NaN;
+            transform.transform(sourceCoordinate, targetCoordinate);
+            xyz[offset] = targetCoordinate.x;
+            xyz[offset + 1] = targetCoordinate.y;
+            if (!keepHeights && !Double.isNaN(targetCoordinate.z)) {
+                xyz[offset + 2] = targetCoordinate.z;
+            }
+        }
+    }
+
+    private static void checkLength(double[] xyz, int count) {
+        if (count < 0 || xyz.length < count * 3) {
+            throw new IllegalArgumentException("Coordinate array too short : " + xyz.length + " for " + count + " points");
+        }
+    }
+
+    private static class ThreadTransforms {
+        private final Map<TransformKey, BasicCoordinateTransform> transforms = new HashMap<>();
+        private final ProjCoordinate sourceCoordinate = new ProjCoordinate();
+        private final ProjCoordinate targetCoordinate = new ProjCoordinate();
+        private TransformKey lastKey;
+        private BasicCoordinateTransform lastTransform;
+
+        private BasicCoordinateTransform getTransform(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+            // consecutive calls almost always use the same pair
+            if (lastKey != null && lastKey.source() == source && lastKey.target() == target) {
+                return lastTransform;
+            }
+            TransformKey key = new TransformKey(source, target);
+            BasicCoordinateTransform transform = transforms.get(key);
+            if (transform == null) {
+                if (transforms.size() >= MAX_TRANSFORMS_PER_THREAD) {
+                    transforms.clear();
+                }
+                transform = new BasicCoordinateTransform(source, target);
+                transforms.put(key, transform);
+            }
+            lastKey = key;
+            lastTransform = transform;
+            return transform;
+        }
+    }
+
+    private record TransformKey(CoordinateReferenceSystem source, CoordinateReferenceSystem target) {
+    }
+}
@@ -10,7 +10,6 @@ import org.geotools.referencing.CRS;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 import org.locationtech.jts.geom.Coordinate;
-import org.locationtech.proj4j.BasicCoordinateTransform;
 import org.locationtech.proj4j.CRSFactory;
 import org.locationtech.proj4j.CoordinateReferenceSystem;
 import org.locationtech.proj4j.ProjCoordinate;
@@ -32,7 +31,13 @@ public class GlobeUtils {
     public static final CoordinateReferenceSystem wgs84 = factory.createFromParameters("WGS84", "+proj=longlat +datum=WGS84 +no_defs");
 
     public static double[] geographicToCartesianWgs84(double longitude, double latitude, double altitude) {
-        double[] result = new double[3];
+        return geographicToCartesianWgs84(longitude, latitude, altitude, new double[3]);
+    }
+
+    /**
+     * Same as geographicToCartesianWgs84(longitude, latitude, altitude), writes into result so a caller can reuse the array.
+     */
+    public static double[] geographicToCartesianWgs84(double longitude, double latitude, double altitude, double[] result) {
         double lonRad = longitude * DEGREE_TO_RADIAN_FACTOR;
         double latRad = latitude * DEGREE_TO_RADIAN_FACTOR;
         double cosLon = Math.cos(lonRad);
@@ -214,8 +219,8 @@ public class GlobeUtils {
     }
 
     public static ProjCoordinate transform(CoordinateReferenceSystem source, CoordinateReferenceSystem target,ProjCoordinate coordinate) {
-        BasicCoordinateTransform transformer = new BasicCoordinateTransform(source, target);
-        return transformer.transform(coordinate, new ProjCoordinate());
+        // cached per thread, creating the transform costs more than transforming the coordinate
+        return CoordinateTransformService.getInstance().transform(source, target, coordinate, new ProjCoordinate());
     }
 
     public static Vector3d transform(CoordinateReferenceSystem source, Vector3d coordinate) {
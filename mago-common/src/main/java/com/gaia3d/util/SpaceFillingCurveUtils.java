@@ -0,0 +1,50 @@
+package com.gaia3d.util;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Keys of 2D grid cells along space filling curves, sorting by the key keeps nearby cells together.
+ */
+@UtilityClass
+public class SpaceFillingCurveUtils {
+
+    /**
+     * Distance of the cell (x, y) along the Hilbert curve filling a 2^order x 2^order grid.
+     */
+    public static long hilbertIndex(int order, int x, int y) {
+        long index = 0;
+        for (int side = 1 << (order - 1); side > 0; side >>= 1) {
+            int regionX = (x & side) > 0 ? 1 : 0;
+            int regionY = (y & side) > 0 ? 1 : 0;
+            index += (long) side * side * ((3 * regionX) ^ regionY);
+            // rotate the quadrant, so the sub curve starts where the previous one ended
+            if (regionY == 0) {
+                if (regionX == 1) {
+                    x = side - 1 - x;
+                    y = side - 1 - y;
+                }
+                int temp = x;
+                x = y;
+                y = temp;
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Interleaved bits of x and y (x in the even bits), the Z-order curve.
+     */
+    public static long mortonIndex(int x, int y) {
+        return spreadBits(x) | (spreadBits(y) << 1);
+    }
+
+    private static long spreadBits(int value) {
+        long bits = value & 0xFFFFFFFFL;
+        bits = (bits | (bits << 16)) & 0x0000FFFF0000FFFFL;
+        bits = (bits | (bits << 8)) & 0x00FF00FF00FF00FFL;
+        bits = (bits | (bits << 4)) & 0x0F0F0F0F0F0F0F0FL;
+        bits = (bits | (bits << 2)) & 0x3333333333333333L;
+        bits = (bits | (bits << 1)) & 0x5555555555555555L;
+        return bits;
+    }
+}
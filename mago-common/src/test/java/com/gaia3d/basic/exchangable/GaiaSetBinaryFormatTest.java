@@ -0,0 +1,131 @@
+package com.gaia3d.basic.exchangable;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.basic.model.GaiaAttribute;
+import com.gaia3d.basic.model.GaiaMaterial;
+import com.gaia3d.basic.model.GaiaTexture;
+import com.gaia3d.basic.types.AccessorType;
+import com.gaia3d.basic.types.AttributeType;
+import com.gaia3d.basic.types.TempFormatType;
+import com.gaia3d.basic.types.TextureType;
+import org.joml.Matrix4d;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaiaSetBinaryFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void roundTrip() throws IOException {
+        roundTrip(false);
+    }
+
+    @Test
+    void roundTripDeflate() throws IOException {
+        roundTrip(true);
+    }
+
+    @Test
+    void formatPerWrite() throws IOException {
+        GaiaSet original = createGaiaSet();
+        original.setMaterials(new ArrayList<>());
+        // the format is an argument of the write, so writers with different formats do not affect each other
+        Path javaFile = original.writeFileInThePath(tempDir.resolve("java.mgb"), TempFormatType.JAVA);
+        Path binaryFile = original.writeFileInThePath(tempDir.resolve("binary.mgb"), TempFormatType.BINARY_DEFLATE);
+        assertFalse(GaiaSetBinaryFormat.isBinaryFile(javaFile));
+        assertTrue(GaiaSetBinaryFormat.isBinaryFile(binaryFile));
+
+        // the readers detect the format
+        assertEquals(original.getBufferByteSize(), GaiaSet.readFile(javaFile).getBufferByteSize());
+        assertEquals(original.getBufferByteSize(), GaiaSet.readFile(binaryFile).getBufferByteSize());
+    }
+
+    private void roundTrip(boolean compress) throws IOException {
+        GaiaSet original = createGaiaSet();
+        Path file = tempDir.resolve(compress ? "deflate.mgb" : "plain.mgb");
+        GaiaSetBinaryFormat.write(original, file, compress);
+
+        assertTrue(GaiaSetBinaryFormat.isBinaryFile(file));
+        GaiaSet restored = GaiaSetBinaryFormat.read(file);
+
+        assertEquals(original.getProjectName(), restored.getProjectName());
+        assertEquals(original.getAttribute().getIdentifier(), restored.getAttribute().getIdentifier());
+        assertEquals("value", restored.getAttribute().getAttributes().get("key"));
+
+        GaiaMaterial material = restored.getMaterials().get(0);
+        assertEquals("material", material.getName());
+        assertTrue(material.isBlend());
+        GaiaTexture texture = material.getTextures().get(TextureType.DIFFUSE).get(0);
+        assertEquals("texture.png", texture.getPath());
+        assertEquals(TextureType.DIFFUSE, texture.getType());
+
+        GaiaBufferDataSet originalDataSet = original.getBufferDataList().get(0);
+        GaiaBufferDataSet restoredDataSet = restored.getBufferDataList().get(0);
+        assertEquals(originalDataSet.getId(), restoredDataSet.getId());
+        assertEquals(originalDataSet.getBoundingBox().getMaxZ(), restoredDataSet.getBoundingBox().getMaxZ());
+        assertEquals(originalDataSet.getTransformMatrix(), restoredDataSet.getTransformMatrix());
+
+        GaiaBuffer positions = restoredDataSet.getBuffers().get(AttributeType.POSITION);
+        assertEquals(AccessorType.VEC3, positions.getAccessorType());
+        assertArrayEquals(originalDataSet.getBuffers().get(AttributeType.POSITION).getFloats(), positions.getFloats());
+        assertArrayEquals(originalDataSet.getBuffers().get(AttributeType.INDICE).getInts(), restoredDataSet.getBuffers().get(AttributeType.INDICE).getInts());
+        assertNull(positions.getShorts());
+    }
+
+    private GaiaSet createGaiaSet() {
+        GaiaBuffer positions = new GaiaBuffer();
+        positions.setAttributeType(AttributeType.POSITION);
+        positions.setAccessorType(AccessorType.VEC3);
+        positions.setGlDimension((byte) 3);
+        positions.setElementsCount(3);
+        positions.setFloats(new float[]{0, 0, 0, 1, 0, 0, 0, 1, 0});
+
+        GaiaBuffer indices = new GaiaBuffer();
+        indices.setAttributeType(AttributeType.INDICE);
+        indices.setAccessorType(AccessorType.SCALAR);
+        indices.setGlDimension((byte) 1);
+        indices.setElementsCount(3);
+        indices.setInts(new int[]{0, 1, 2});
+
+        GaiaBufferDataSet bufferDataSet = new GaiaBufferDataSet();
+        bufferDataSet.setId(7);
+        bufferDataSet.setBoundingBox(new GaiaBoundingBox(0, 0, 0, 1, 1, 0.5, true));
+        bufferDataSet.setTransformMatrix(new Matrix4d().translate(10, 20, 30));
+        bufferDataSet.getBuffers().put(AttributeType.POSITION, positions);
+        bufferDataSet.getBuffers().put(AttributeType.INDICE, indices);
+        List<GaiaBufferDataSet> bufferDataSets = new ArrayList<>();
+        bufferDataSets.add(bufferDataSet);
+
+        GaiaTexture texture = new GaiaTexture();
+        texture.setType(TextureType.DIFFUSE);
+        texture.setPath("texture.png");
+        List<GaiaTexture> textures = new ArrayList<>();
+        textures.add(texture);
+
+        GaiaMaterial material = new GaiaMaterial();
+        material.setName("material");
+        material.setBlend(true);
+        material.getTextures().put(TextureType.DIFFUSE, textures);
+        List<GaiaMaterial> materials = new ArrayList<>();
+        materials.add(material);
+
+        GaiaAttribute attribute = new GaiaAttribute();
+        attribute.getAttributes().put("key", "value");
+
+        GaiaSet gaiaSet = new GaiaSet();
+        gaiaSet.setProjectName("project");
+        gaiaSet.setAttribute(attribute);
+        gaiaSet.setMaterials(materials);
+        gaiaSet.setBufferDataList(bufferDataSets);
+        return gaiaSet;
+    }
+}
@@ -0,0 +1,77 @@
+package com.gaia3d.basic.exchangable;
+
+import com.gaia3d.basic.model.GaiaAttribute;
+import com.gaia3d.basic.types.AttributeType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaiaSetCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sharedViews() throws IOException {
+        Path tempFile = tempDir.resolve("set.mgb");
+        createGaiaSet().writeFileInThePath(tempFile);
+
+        GaiaSetCache cache = GaiaSetCache.getInstance();
+        long previousMaximumWeight = cache.getMaximumWeight();
+        cache.clear();
+        cache.resetStatistics();
+        cache.setMaximumWeight(1024 * 1024);
+        try {
+            GaiaSet first = cache.get(tempFile);
+            GaiaSet second = cache.get(tempFile);
+            assertEquals(1, cache.getMissCount());
+            assertEquals(1, cache.getHitCount());
+
+            // positions are copied for every view
+            float[] firstPositions = first.getBufferDataList().get(0).getBuffers().get(AttributeType.POSITION).getFloats();
+            float[] secondPositions = second.getBufferDataList().get(0).getBuffers().get(AttributeType.POSITION).getFloats();
+            assertNotSame(firstPositions, secondPositions);
+            firstPositions[0] = 100.0f;
+            assertEquals(0.0f, secondPositions[0]);
+
+            // read-only arrays are shared
+            int[] firstIndices = first.getBufferDataList().get(0).getBuffers().get(AttributeType.INDICE).getInts();
+            int[] secondIndices = second.getBufferDataList().get(0).getBuffers().get(AttributeType.INDICE).getInts();
+            assertSame(firstIndices, secondIndices);
+        } finally {
+            cache.clear();
+            cache.setMaximumWeight(previousMaximumWeight);
+        }
+    }
+
+    private GaiaSet createGaiaSet() {
+        GaiaBuffer positions = new GaiaBuffer();
+        positions.setAttributeType(AttributeType.POSITION);
+        positions.setElementsCount(3);
+        positions.setFloats(new float[]{0, 0, 0, 1, 0, 0, 0, 1, 0});
+
+        GaiaBuffer indices = new GaiaBuffer();
+        indices.setAttributeType(AttributeType.INDICE);
+        indices.setElementsCount(3);
+        indices.setInts(new int[]{0, 1, 2});
+
+        GaiaBufferDataSet bufferDataSet = new GaiaBufferDataSet();
+        bufferDataSet.getBuffers().put(AttributeType.POSITION, positions);
+        bufferDataSet.getBuffers().put(AttributeType.INDICE, indices);
+        List<GaiaBufferDataSet> bufferDataSets = new ArrayList<>();
+        bufferDataSets.add(bufferDataSet);
+
+        GaiaSet gaiaSet = new GaiaSet();
+        gaiaSet.setProjectName("project");
+        gaiaSet.setAttribute(new GaiaAttribute());
+        gaiaSet.setMaterials(new ArrayList<>());
+        gaiaSet.setBufferDataList(bufferDataSets);
+        return gaiaSet;
+    }
+}
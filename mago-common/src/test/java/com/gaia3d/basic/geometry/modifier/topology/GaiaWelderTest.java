@@ -0,0 +1,123 @@
+package com.gaia3d.basic.geometry.modifier.topology;
+
+import com.gaia3d.basic.model.GaiaFace;
+import com.gaia3d.basic.model.GaiaPrimitive;
+import com.gaia3d.basic.model.GaiaSurface;
+import com.gaia3d.basic.model.GaiaVertex;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaiaWelderTest {
+
+    /**
+     * A grid of quads (two triangles each) without shared vertices, the positions are jittered below the error.
+     */
+    private static GaiaPrimitive createUnweldedGrid(int size, double jitter) {
+        Random random = new Random(3);
+        GaiaPrimitive primitive = new GaiaPrimitive();
+        GaiaSurface surface = new GaiaSurface();
+        primitive.getSurfaces().add(surface);
+        List<GaiaVertex> vertices = new ArrayList<>();
+        int[][] corners = {{0, 0}, {1, 0}, {1, 1}, {0, 1}};
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                int first = vertices.size();
+                for (int[] corner : corners) {
+                    GaiaVertex vertex = new GaiaVertex();
+                    vertex.setPosition(new Vector3d(column + corner[0] + random.nextDouble() * jitter, row + corner[1] + random.nextDouble() * jitter, 0.0d));
+                    vertex.setNormal(new Vector3d(0.0d, 0.0d, 1.0d));
+                    vertices.add(vertex);
+                }
+                GaiaFace lower = new GaiaFace();
+                lower.setIndices(new int[]{first, first + 1, first + 2});
+                GaiaFace upper = new GaiaFace();
+                upper.setIndices(new int[]{first, first + 2, first + 3});
+                surface.getFaces().add(lower);
+                surface.getFaces().add(upper);
+            }
+        }
+        primitive.setVertices(vertices);
+        return primitive;
+    }
+
+    private static void assertValidIndices(GaiaPrimitive primitive) {
+        for (GaiaSurface surface : primitive.getSurfaces()) {
+            for (GaiaFace face : surface.getFaces()) {
+                for (int index : face.getIndices()) {
+                    assertTrue(index >= 0 && index < primitive.getVertices().size());
+                }
+            }
+        }
+    }
+
+    @Test
+    void weldGrid() {
+        GaiaPrimitive primitive = createUnweldedGrid(20, 0.00001);
+        new GaiaWelder().weldVertices(primitive);
+        assertEquals(21 * 21, primitive.getVertices().size());
+        assertEquals(20 * 20 * 2, primitive.getSurfaces().get(0).getFaces().size());
+        assertValidIndices(primitive);
+    }
+
+    @Test
+    void weldLargeGrid() {
+        // enough vertices for the parallel slabs
+        GaiaPrimitive primitive = createUnweldedGrid(200, 0.00001);
+        new GaiaWelder().weldVertices(primitive);
+        assertEquals(201 * 201, primitive.getVertices().size());
+        assertValidIndices(primitive);
+    }
+
+    @Test
+    void keepDifferentAttributes() {
+        GaiaPrimitive primitive = createUnweldedGrid(2, 0.0d);
+        // a texture seam between the two columns
+        for (int i = 4; i < primitive.getVertices().size(); i += 8) {
+            for (int k = 0; k < 4; k++) {
+                primitive.getVertices().get(i + k).setTexcoords(new Vector2d(0.5d, 0.5d));
+            }
+        }
+        for (int i = 0; i < primitive.getVertices().size(); i += 8) {
+            for (int k = 0; k < 4; k++) {
+                primitive.getVertices().get(i + k).setTexcoords(new Vector2d(0.0d, 0.0d));
+            }
+        }
+        new GaiaWelder().weldVertices(primitive);
+        // each column welds on its own
+        assertEquals(6 + 6, primitive.getVertices().size());
+
+        GaiaPrimitive batched = createUnweldedGrid(2, 0.0d);
+        for (int i = 0; i < batched.getVertices().size(); i++) {
+            batched.getVertices().get(i).setBatchId(i / 8);
+        }
+        new GaiaWelder(GaiaWeldOptions.builder().checkBatchId(true).build()).weldVertices(batched);
+        // each row welds on its own
+        assertEquals(6 + 6, batched.getVertices().size());
+    }
+
+    @Test
+    void removeCollapsedFaces() {
+        GaiaPrimitive primitive = createUnweldedGrid(1, 0.0d);
+        // the upper right corner moves onto the lower right corner
+        primitive.getVertices().get(2).setPosition(new Vector3d(1.0d, 0.00001d, 0.0d));
+        new GaiaWelder().weldVertices(primitive);
+        assertEquals(3, primitive.getVertices().size());
+        assertEquals(1, primitive.getSurfaces().get(0).getFaces().size());
+        assertValidIndices(primitive);
+    }
+
+    @Test
+    void deprecatedPrimitiveWeld() {
+        GaiaPrimitive primitive = createUnweldedGrid(10, 0.00001);
+        primitive.weldVertices(0.0001, false, true, false, false);
+        assertEquals(11 * 11, primitive.getVertices().size());
+        assertValidIndices(primitive);
+    }
+}
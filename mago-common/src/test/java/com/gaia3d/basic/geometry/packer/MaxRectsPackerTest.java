@@ -0,0 +1,94 @@
+package com.gaia3d.basic.geometry.packer;
+
+import com.gaia3d.basic.geometry.GaiaRectangle;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MaxRectsPackerTest {
+
+    @Test
+    void packWithoutOverlaps() {
+        for (PackingHeuristicType heuristicType : PackingHeuristicType.values()) {
+            PackingOptions options = PackingOptions.builder().heuristicType(heuristicType).build();
+            int[][] sizes = randomSizes(1000);
+            PackingResult result = new MaxRectsPacker(options).pack(sizes[0], sizes[1]);
+            assertPacked(sizes, result, 0);
+            assertTrue(result.efficiency() > 0.9, heuristicType + " efficiency : " + result.efficiency());
+        }
+    }
+
+    @Test
+    void packNoLargerThanMosaic() {
+        int[][] sizes = randomSizes(300);
+        int[] mosaic = MosaicPacker.pack(sizes[0], sizes[1]);
+        long mosaicArea = (long) mosaic[0] * mosaic[1];
+        for (PackingHeuristicType heuristicType : PackingHeuristicType.values()) {
+            PackingOptions options = PackingOptions.builder().heuristicType(heuristicType).build();
+            PackingResult result = new MaxRectsPacker(options).pack(sizes[0], sizes[1]);
+            long atlasArea = (long) result.width() * result.height();
+            assertTrue(atlasArea <= mosaicArea, heuristicType + " atlas " + atlasArea + " is larger than the mosaic " + mosaicArea);
+        }
+    }
+
+    @Test
+    void packWithPaddingAndPowerOfTwo() {
+        PackingOptions options = PackingOptions.builder().padding(2).powerOfTwo(true).build();
+        int[][] sizes = randomSizes(300);
+        PackingResult result = new MaxRectsPacker(options).pack(sizes[0], sizes[1]);
+        assertPacked(sizes, result, 2);
+        assertEquals(1, Integer.bitCount(result.width()));
+        assertEquals(1, Integer.bitCount(result.height()));
+    }
+
+    @Test
+    void packItems() {
+        List<GaiaRectangle> origins = new ArrayList<>();
+        origins.add(new GaiaRectangle(0, 0, 64, 64));
+        origins.add(new GaiaRectangle(0, 0, 64, 64));
+        origins.add(new GaiaRectangle(0, 0, 128, 64));
+        List<GaiaRectangle> placed = new ArrayList<>();
+        origins.forEach(origin -> placed.add(null));
+
+        PackingResult result = new MaxRectsPacker().pack(origins, origin -> origin, (origin, boundary) -> placed.set(origins.indexOf(origin), boundary));
+        // a perfect fit, 128 x 128
+        assertEquals(128, result.width());
+        assertEquals(128, result.height());
+        assertEquals(1.0, result.efficiency());
+        for (int i = 0; i < origins.size(); i++) {
+            assertEquals(origins.get(i).getWidth(), placed.get(i).getWidth());
+            assertEquals(origins.get(i).getHeight(), placed.get(i).getHeight());
+        }
+    }
+
+    private int[][] randomSizes(int count) {
+        Random random = new Random(42);
+        int[] widths = new int[count];
+        int[] heights = new int[count];
+        for (int i = 0; i < count; i++) {
+            widths[i] = 4 + random.nextInt(256);
+            heights[i] = 4 + random.nextInt(256);
+        }
+        return new int[][]{widths, heights};
+    }
+
+    private void assertPacked(int[][] sizes, PackingResult result, int padding) {
+        int[] widths = sizes[0];
+        int[] heights = sizes[1];
+        int[] x = result.x();
+        int[] y = result.y();
+        for (int i = 0; i < widths.length; i++) {
+            assertTrue(x[i] >= padding && y[i] >= padding, "rectangle " + i + " is on the border");
+            assertTrue(x[i] + widths[i] + padding <= result.width() && y[i] + heights[i] + padding <= result.height(), "rectangle " + i + " is out of the atlas");
+            for (int j = i + 1; j < widths.length; j++) {
+                boolean overlaps = x[i] < x[j] + widths[j] + padding && x[j] < x[i] + widths[i] + padding
+                        && y[i] < y[j] + heights[j] + padding && y[j] < y[i] + heights[i] + padding;
+                assertFalse(overlaps, "rectangles " + i + " and " + j + " overlap");
+            }
+        }
+    }
+}
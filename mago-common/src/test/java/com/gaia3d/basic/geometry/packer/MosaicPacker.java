@@ -0,0 +1,78 @@
+package com.gaia3d.basic.geometry.packer;
+
+import com.gaia3d.basic.geometry.GaiaRectangle;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Reference packer for the MaxRectsPacker comparisons, shared by MaxRectsPackerTest and AtlasPackingBenchmark.
+ */
+class MosaicPacker {
+
+    /**
+     * The placement of GaiaTextureCoordinator.getBestPositionMosaicInAtlas before the MaxRectsPacker :
+     * the biggest texture first, then every texture tries the left-up and right-down corners of every placed one,
+     * checks the candidate against every placed rectangle and keeps the position of the smallest mosaic perimeter.
+     * Returns the width and height of the mosaic.
+     */
+    static int[] pack(int[] widths, int[] heights) {
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < widths.length; i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.<Integer>comparingLong(i -> (long) widths[i] * heights[i]).reversed());
+
+        List<GaiaRectangle> placed = new ArrayList<>();
+        GaiaRectangle mosaic = new GaiaRectangle(0.0, 0.0, 0.0, 0.0);
+        for (int index : order) {
+            double width = widths[index];
+            double height = heights[index];
+            if (placed.isEmpty()) {
+                GaiaRectangle first = new GaiaRectangle(0.0, 0.0, width, height);
+                placed.add(first);
+                mosaic.copyFrom(first);
+                continue;
+            }
+
+            double candidateX = 0.0;
+            double candidateY = 0.0;
+            double candidatePerimeter = -1.0;
+            GaiaRectangle candidate = new GaiaRectangle();
+            for (GaiaRectangle current : placed) {
+                double[][] corners = {{current.getMinX(), current.getMaxY()}, {current.getMaxX(), current.getMinY()}};
+                for (double[] corner : corners) {
+                    candidate.setMinX(corner[0]);
+                    candidate.setMinY(corner[1]);
+                    candidate.setMaxX(corner[0] + width);
+                    candidate.setMaxY(corner[1] + height);
+                    if (intersectsAny(placed, candidate)) {
+                        continue;
+                    }
+                    GaiaRectangle after = new GaiaRectangle(mosaic);
+                    after.addBoundingRectangle(candidate);
+                    double perimeter = after.getPerimeter();
+                    if (candidatePerimeter < 0.0 || candidatePerimeter > perimeter) {
+                        candidatePerimeter = perimeter;
+                        candidateX = corner[0];
+                        candidateY = corner[1];
+                    }
+                }
+            }
+            GaiaRectangle batched = new GaiaRectangle(candidateX, candidateY, candidateX + width, candidateY + height);
+            placed.add(batched);
+            mosaic.addBoundingRectangle(batched);
+        }
+        return new int[]{(int) mosaic.getMaxX(), (int) mosaic.getMaxY()};
+    }
+
+    private static boolean intersectsAny(List<GaiaRectangle> rectangles, GaiaRectangle rectangle) {
+        for (GaiaRectangle existent : rectangles) {
+            if (existent.intersects(rectangle, 10E-5)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,203 @@
+package com.gaia3d.basic.geometry.tessellator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EarcutTessellatorTest {
+    private final EarcutTessellator tessellator = new EarcutTessellator();
+
+    private static double ringArea(double[] xy, int start, int end) {
+        double sum = 0.0d;
+        for (int i = start, j = end - 1; i < end; j = i++) {
+            sum += (xy[j * 2] - xy[i * 2]) * (xy[i * 2 + 1] + xy[j * 2 + 1]);
+        }
+        return sum / 2.0d;
+    }
+
+    private static double triangleArea(double[] xy, int a, int b, int c) {
+        return ((xy[b * 2] - xy[a * 2]) * (xy[c * 2 + 1] - xy[a * 2 + 1]) - (xy[c * 2] - xy[a * 2]) * (xy[b * 2 + 1] - xy[a * 2 + 1])) / 2.0d;
+    }
+
+    /**
+     * The triangles cover the exterior minus the holes, all wound like the exterior ring.
+     */
+    private static void assertCovered(double[] xy, int[] holeIndices, int[] triangles) {
+        int vertexCount = xy.length / 2;
+        int exteriorCount = holeIndices.length > 0 ? holeIndices[0] : vertexCount;
+        double expected = Math.abs(ringArea(xy, 0, exteriorCount));
+        for (int i = 0; i < holeIndices.length; i++) {
+            int end = i < holeIndices.length - 1 ? holeIndices[i + 1] : vertexCount;
+            expected -= Math.abs(ringArea(xy, holeIndices[i], end));
+        }
+        double exteriorSign = Math.signum(ringArea(xy, 0, exteriorCount));
+        double area = 0.0d;
+        assertEquals(0, triangles.length % 3);
+        for (int i = 0; i < triangles.length; i += 3) {
+            assertTrue(triangles[i] < vertexCount && triangles[i + 1] < vertexCount && triangles[i + 2] < vertexCount);
+            double triangleArea = triangleArea(xy, triangles[i], triangles[i + 1], triangles[i + 2]);
+            assertTrue(triangleArea * exteriorSign >= 0.0d, "triangle " + i / 3 + " is flipped");
+            area += Math.abs(triangleArea);
+        }
+        assertEquals(expected, area, Math.max(1.0e-9, expected * 1.0e-9));
+    }
+
+    private static double[] circle(int count, double radius, double centerX, double centerY, boolean clockwise) {
+        double[] xy = new double[count * 2];
+        for (int i = 0; i < count; i++) {
+            double angle = 2.0d * Math.PI * i / count * (clockwise ? -1.0d : 1.0d);
+            xy[i * 2] = centerX + radius * Math.cos(angle);
+            xy[i * 2 + 1] = centerY + radius * Math.sin(angle);
+        }
+        return xy;
+    }
+
+    private static double[] concat(double[]... rings) {
+        int length = 0;
+        for (double[] ring : rings) {
+            length += ring.length;
+        }
+        double[] result = new double[length];
+        int offset = 0;
+        for (double[] ring : rings) {
+            System.arraycopy(ring, 0, result, offset, ring.length);
+            offset += ring.length;
+        }
+        return result;
+    }
+
+    @Test
+    void convexAndConcave() {
+        double[] square = {0, 0, 1, 0, 1, 1, 0, 1};
+        int[] triangles = tessellator.tessellate(square, new int[0]);
+        assertEquals(6, triangles.length);
+        assertCovered(square, new int[0], triangles);
+
+        double[] lShape = {0, 0, 2, 0, 2, 1, 1, 1, 1, 2, 0, 2};
+        triangles = tessellator.tessellate(lShape, null);
+        assertEquals(12, triangles.length);
+        assertCovered(lShape, new int[0], triangles);
+
+        // the clockwise ring gives clockwise triangles
+        double[] clockwiseLShape = {0, 2, 1, 2, 1, 1, 2, 1, 2, 0, 0, 0};
+        assertCovered(clockwiseLShape, new int[0], tessellator.tessellate(clockwiseLShape, null));
+    }
+
+    @Test
+    void holes() {
+        double[] exterior = {0, 0, 10, 0, 10, 10, 0, 10};
+        double[] hole = {2, 2, 2, 4, 4, 4, 4, 2};
+        double[] touchingHole = {6, 6, 8, 6, 8, 8, 6, 10};
+        double[] xy = concat(exterior, hole, touchingHole);
+        int[] holeIndices = {4, 8};
+        int[] triangles = tessellator.tessellate(xy, holeIndices);
+        assertCovered(xy, holeIndices, triangles);
+
+        // a hole ring with the same winding as the exterior
+        double[] sameWinding = concat(exterior, new double[]{2, 2, 4, 2, 4, 4, 2, 4});
+        assertCovered(sameWinding, new int[]{4}, tessellator.tessellate(sameWinding, new int[]{4}));
+    }
+
+    @Test
+    void degenerateRings() {
+        assertEquals(0, tessellator.tessellate(new double[]{0, 0, 1, 1}, null).length);
+        assertEquals(0, tessellator.tessellate(new double[]{0, 0, 1, 1, 2, 2, 3, 3}, null).length);
+
+        // duplicated, collinear and closing points
+        double[] noisy = {0, 0, 0.5, 0, 1, 0, 1, 0, 1, 1, 0, 1, 0, 1, 0, 0};
+        int[] triangles = tessellator.tessellate(noisy, null);
+        assertCovered(noisy, new int[0], triangles);
+
+        // a ring touching itself in one point
+        double[] bowTie = {0, 0, 2, 0, 1, 1, 2, 2, 0, 2, 1, 1};
+        triangles = tessellator.tessellate(bowTie, null);
+        assertCovered(bowTie, new int[0], triangles);
+
+        // a hole of one point is kept as a steiner point
+        double[] steiner = {0, 0, 4, 0, 4, 4, 0, 4, 2, 2};
+        triangles = tessellator.tessellate(steiner, new int[]{4});
+        assertCovered(steiner, new int[]{4}, triangles);
+        assertEquals(12, triangles.length);
+    }
+
+    @Test
+    void randomStarPolygons() {
+        Random random = new Random(7);
+        for (int n = 0; n < 200; n++) {
+            int count = 3 + random.nextInt(300);
+            double[] xy = new double[count * 2];
+            for (int i = 0; i < count; i++) {
+                double angle = 2.0d * Math.PI * i / count;
+                double radius = 10.0d + random.nextDouble() * 90.0d;
+                xy[i * 2] = 1000.0d + radius * Math.cos(angle);
+                xy[i * 2 + 1] = 2000.0d + radius * Math.sin(angle);
+            }
+            int[] triangles = tessellator.tessellate(xy, null);
+            assertEquals((count - 2) * 3, triangles.length, "vertex count " + count);
+            assertCovered(xy, new int[0], triangles);
+        }
+    }
+
+    @Test
+    void largePolygonWithHoles() {
+        // more than 80 vertices, the ears are checked along the z-order curve
+        double[] exterior = circle(5000, 100.0d, 0.0d, 0.0d, false);
+        double[] first = circle(500, 10.0d, -40.0d, 0.0d, true);
+        double[] second = circle(500, 10.0d, 40.0d, 0.0d, true);
+        double[] xy = concat(exterior, first, second);
+        int[] holeIndices = {5000, 5500};
+        int[] triangles = tessellator.tessellate(xy, holeIndices);
+        assertEquals((6000 - 2 + 2 * 2) * 3, triangles.length);
+        assertCovered(xy, holeIndices, triangles);
+
+        // the workspace of the thread is reused by a smaller polygon
+        double[] square = {0, 0, 1, 0, 1, 1, 0, 1};
+        assertCovered(square, new int[0], tessellator.tessellate(square, null));
+    }
+
+    @Test
+    void verticalPolygon3D() {
+        // a wall in the XZ plane, facing -Y
+        double[] xyz = {0, 5, 0, 4, 5, 0, 4, 5, 3, 2, 5, 1, 0, 5, 3};
+        int[] triangles = tessellator.tessellate3D(xyz, null);
+        assertEquals(9, triangles.length);
+        for (int i = 0; i < triangles.length; i += 3) {
+            int a = triangles[i] * 3;
+            int b = triangles[i + 1] * 3;
+            int c = triangles[i + 2] * 3;
+            double ux = xyz[b] - xyz[a];
+            double uz = xyz[b + 2] - xyz[a + 2];
+            double vx = xyz[c] - xyz[a];
+            double vz = xyz[c + 2] - xyz[a + 2];
+            // y of the cross product, the same side as the ring normal
+            assertTrue(uz * vx - ux * vz < 0.0d);
+        }
+    }
+
+    @Test
+    void concurrentWorkspaces() throws Exception {
+        double[] xy = concat(circle(2000, 100.0d, 0.0d, 0.0d, false), circle(100, 10.0d, 0.0d, 0.0d, true));
+        int[] holeIndices = {2000};
+        int[] expected = tessellator.tessellate(xy, holeIndices);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<int[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 32; i++) {
+                futures.add(executorService.submit(() -> tessellator.tessellate(xy, holeIndices)));
+            }
+            for (Future<int[]> future : futures) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.gaia3d.basic.halfedge;
+
+import com.gaia3d.basic.model.GaiaFace;
+import com.gaia3d.basic.model.GaiaSurface;
+import com.gaia3d.basic.model.GaiaVertex;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HalfEdgeQuadricDecimatorTest {
+    private static final int SIZE = 20;
+
+    /**
+     * A welded grid of quads (two triangles each), flat or curved, optionally with a texture seam
+     * (split vertices) along the middle column.
+     */
+    private static HalfEdgeSurface createGrid(boolean curved, boolean seam) {
+        List<GaiaVertex> vertices = new ArrayList<>();
+        int[][] indices = new int[SIZE + 1][SIZE + 1];
+        int[] seamIndices = new int[SIZE + 1];
+        for (int row = 0; row <= SIZE; row++) {
+            for (int column = 0; column <= SIZE; column++) {
+                double z = curved ? Math.sin(column * 0.3d) * Math.cos(row * 0.3d) * 3.0d : 0.0d;
+                indices[row][column] = vertices.size();
+                vertices.add(createVertex(column, row, z, (double) column / SIZE, (double) row / SIZE));
+                if (seam && column == SIZE / 2) {
+                    seamIndices[row] = vertices.size();
+                    vertices.add(createVertex(column, row, z, 1.0d + (double) column / SIZE, (double) row / SIZE));
+                }
+            }
+        }
+
+        GaiaSurface surface = new GaiaSurface();
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                boolean onSeam = seam && column == SIZE / 2;
+                int a = onSeam ? seamIndices[row] : indices[row][column];
+                int b = indices[row][column + 1];
+                int c = indices[row + 1][column + 1];
+                int d = onSeam ? seamIndices[row + 1] : indices[row + 1][column];
+                GaiaFace lower = new GaiaFace();
+                lower.setIndices(new int[]{a, b, c});
+                GaiaFace upper = new GaiaFace();
+                upper.setIndices(new int[]{a, c, d});
+                surface.getFaces().add(lower);
+                surface.getFaces().add(upper);
+            }
+        }
+        return HalfEdgeUtils.halfEdgeSurfaceFromGaiaSurface(surface, vertices);
+    }
+
+    private static GaiaVertex createVertex(double x, double y, double z, double u, double v) {
+        GaiaVertex vertex = new GaiaVertex();
+        vertex.setPosition(new Vector3d(x, y, z));
+        vertex.setTexcoords(new Vector2d(u, v));
+        return vertex;
+    }
+
+    private static DecimateParameters createParameters(double targetTriangleRatio, double maxQuadricError) {
+        DecimateParameters decimateParameters = new DecimateParameters();
+        decimateParameters.setDecimateType(DecimateType.QUADRIC);
+        decimateParameters.setTargetTriangleRatio(targetTriangleRatio);
+        decimateParameters.setMaxQuadricError(maxQuadricError);
+        decimateParameters.setMaxAspectRatio(40.0);
+        return decimateParameters;
+    }
+
+    private static int countBorderVertices(HalfEdgeSurface surface) {
+        int count = 0;
+        for (HalfEdgeVertex vertex : surface.getVertices()) {
+            Vector3d position = vertex.getPosition();
+            if (position.x == 0 || position.y == 0 || position.x == SIZE || position.y == SIZE) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void assertValidTopology(HalfEdgeSurface surface) {
+        for (HalfEdge halfEdge : surface.getHalfEdges()) {
+            assertSame(halfEdge, halfEdge.getNext().getNext().getNext());
+            assertTrue(surface.getVertices().contains(halfEdge.getStartVertex()));
+            if (halfEdge.hasTwin()) {
+                assertSame(halfEdge, halfEdge.getTwin().getTwin());
+                assertSame(halfEdge.getEndVertex(), halfEdge.getTwin().getStartVertex());
+            }
+        }
+    }
+
+    @Test
+    void decimateFlatGrid() {
+        HalfEdgeSurface surface = createGrid(false, false);
+        surface.decimate(createParameters(0.25, 0.1));
+
+        assertTrue(surface.getFaces().size() <= SIZE * SIZE * 2 / 4);
+        assertEquals(SIZE * 4, countBorderVertices(surface));
+        assertValidTopology(surface);
+        for (HalfEdgeFace face : surface.getFaces()) {
+            assertTrue(face.calculatePlaneNormal().z > 0.0d);
+        }
+        // the texture coordinates follow the collapsed vertices
+        for (HalfEdgeVertex vertex : surface.getVertices()) {
+            assertEquals(vertex.getPosition().x / SIZE, vertex.getTexcoords().x, 1.0e-9);
+            assertEquals(vertex.getPosition().y / SIZE, vertex.getTexcoords().y, 1.0e-9);
+        }
+    }
+
+    @Test
+    void keepTextureSeam() {
+        HalfEdgeSurface surface = createGrid(false, true);
+        surface.decimate(createParameters(0.25, 0.1));
+
+        int seamVertexCount = 0;
+        for (HalfEdgeVertex vertex : surface.getVertices()) {
+            if (vertex.getPosition().x == SIZE / 2) {
+                seamVertexCount++;
+            }
+        }
+        assertEquals((SIZE + 1) * 2, seamVertexCount);
+        assertValidTopology(surface);
+    }
+
+    @Test
+    void stopAtMaxError() {
+        HalfEdgeSurface exact = createGrid(true, false);
+        exact.decimate(createParameters(0.1, 0.00001));
+        assertEquals(SIZE * SIZE * 2, exact.getFaces().size());
+
+        HalfEdgeSurface coarse = createGrid(true, false);
+        coarse.decimate(createParameters(0.1, 1.0));
+        assertTrue(coarse.getFaces().size() < SIZE * SIZE * 2);
+        assertEquals(SIZE * 4, countBorderVertices(coarse));
+        assertValidTopology(coarse);
+    }
+}
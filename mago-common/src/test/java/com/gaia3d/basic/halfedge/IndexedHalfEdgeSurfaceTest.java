@@ -0,0 +1,218 @@
+package com.gaia3d.basic.halfedge;
+
+import com.gaia3d.basic.model.GaiaFace;
+import com.gaia3d.basic.model.GaiaSurface;
+import com.gaia3d.basic.model.GaiaVertex;
+import org.joml.Vector2d;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IndexedHalfEdgeSurfaceTest {
+    private static final int SIZE = 10;
+
+    /**
+     * A welded grid of quads (two triangles each), the texture coordinates follow the positions.
+     */
+    private static IndexedHalfEdgeSurface createGrid() {
+        IndexedHalfEdgeSurface surface = new IndexedHalfEdgeSurface();
+        int[][] indices = new int[SIZE + 1][SIZE + 1];
+        for (int row = 0; row <= SIZE; row++) {
+            for (int column = 0; column <= SIZE; column++) {
+                indices[row][column] = surface.addVertex(column, row, 0.0d);
+                surface.setNormal(indices[row][column], 0.0d, 0.0d, 1.0d);
+                surface.setTexcoords(indices[row][column], (double) column / SIZE, (double) row / SIZE);
+            }
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                surface.addFace(indices[row][column], indices[row][column + 1], indices[row + 1][column + 1]);
+                surface.addFace(indices[row][column], indices[row + 1][column + 1], indices[row + 1][column]);
+            }
+        }
+        surface.setTwins();
+        return surface;
+    }
+
+    /**
+     * Checks the loops, the twins and the face pointers, returns the count of halfEdges without twin.
+     */
+    private static int assertValidTopology(IndexedHalfEdgeSurface surface) {
+        int twinlessCount = 0;
+        for (int halfEdge = 0; halfEdge < surface.getHalfEdgeCount(); halfEdge++) {
+            if (surface.isHalfEdgeDeleted(halfEdge)) {
+                continue;
+            }
+            int face = surface.getFace(halfEdge);
+            assertFalse(surface.isFaceDeleted(face));
+            assertFalse(surface.isVertexDeleted(surface.getStartVertex(halfEdge)));
+            assertEquals(halfEdge, surface.getNext(surface.getNext(surface.getNext(halfEdge))));
+            assertEquals(face, surface.getFace(surface.getNext(halfEdge)));
+
+            int twin = surface.getTwin(halfEdge);
+            if (twin == IndexedHalfEdgeSurface.NIL) {
+                twinlessCount++;
+            } else {
+                assertEquals(halfEdge, surface.getTwin(twin));
+                assertEquals(surface.getEndVertex(halfEdge), surface.getStartVertex(twin));
+            }
+        }
+        return twinlessCount;
+    }
+
+    private static double calculateArea(IndexedHalfEdgeSurface surface) {
+        double area = 0.0d;
+        for (int face = 0; face < surface.getFaceCount(); face++) {
+            if (surface.isFaceDeleted(face)) {
+                continue;
+            }
+            int halfEdge = surface.getFaceHalfEdge(face);
+            Vector3d a = surface.getPosition(surface.getStartVertex(halfEdge), new Vector3d());
+            Vector3d b = surface.getPosition(surface.getStartVertex(surface.getNext(halfEdge)), new Vector3d());
+            Vector3d c = surface.getPosition(surface.getStartVertex(surface.getPrev(halfEdge)), new Vector3d());
+            area += b.sub(a, new Vector3d()).cross(c.sub(a, new Vector3d())).length() / 2.0d;
+        }
+        return area;
+    }
+
+    @Test
+    void setTwins() {
+        IndexedHalfEdgeSurface surface = createGrid();
+        assertEquals(SIZE * SIZE * 2, surface.getFacesCount());
+        // every edge inside the grid is shared by two halfEdges
+        assertEquals(SIZE * 4, assertValidTopology(surface));
+        assertEquals(SIZE * SIZE * 6 - SIZE * 4, surface.setTwins());
+    }
+
+    @Test
+    void cutByPlane() {
+        IndexedHalfEdgeSurface surface = createGrid();
+        Vector3d planePosition = new Vector3d(3.5d, 0.0d, 0.0d);
+        // the horizontal edges of each row and the diagonals of each quad row
+        assertEquals((SIZE + 1) + SIZE, surface.cutByPlane(PlaneType.YZ, planePosition, 1.0e-6));
+        // each crossed triangle becomes three
+        assertEquals(SIZE * SIZE * 2 + SIZE * 4, surface.getFacesCount());
+        assertEquals(SIZE * 4 + 2, assertValidTopology(surface));
+        assertEquals(SIZE * SIZE, calculateArea(surface), 1.0e-9);
+
+        // no face crosses the plane and the texture coordinates are interpolated
+        for (int face = 0; face < surface.getFaceCount(); face++) {
+            int halfEdge = surface.getFaceHalfEdge(face);
+            boolean hasLower = false;
+            boolean hasUpper = false;
+            for (int i = 0; i < 3; i++) {
+                double x = surface.getPosition(surface.getStartVertex(halfEdge), new Vector3d()).x;
+                hasLower |= x < planePosition.x - 1.0e-9;
+                hasUpper |= x > planePosition.x + 1.0e-9;
+                halfEdge = surface.getNext(halfEdge);
+            }
+            assertFalse(hasLower && hasUpper);
+        }
+        for (int vertex = 0; vertex < surface.getVertexCount(); vertex++) {
+            Vector3d position = surface.getPosition(vertex, new Vector3d());
+            assertEquals(position.x / SIZE, surface.getTexcoords(vertex, new Vector2d()).x, 1.0e-12);
+        }
+    }
+
+    @Test
+    void deleteClassifiedFacesAndCompact() {
+        IndexedHalfEdgeSurface surface = createGrid();
+        Vector3d planePosition = new Vector3d(3.5d, 0.0d, 0.0d);
+        surface.cutByPlane(PlaneType.YZ, planePosition, 1.0e-6);
+        surface.classifyFacesIdByPlane(PlaneType.YZ, planePosition);
+        surface.deleteFacesWithClassifyId(2);
+        surface.compact();
+
+        assertEquals(surface.getFaceCount(), surface.getFacesCount());
+        assertEquals(planePosition.x * SIZE, calculateArea(surface), 1.0e-9);
+        // the columns 0 to 3 and the cut vertices of the horizontal edges and the diagonals
+        assertEquals((SIZE + 1) * 5 + SIZE, surface.getVertexCount());
+        for (int vertex = 0; vertex < surface.getVertexCount(); vertex++) {
+            assertFalse(surface.isVertexDeleted(vertex));
+            assertTrue(surface.getPosition(vertex, new Vector3d()).x <= planePosition.x);
+        }
+        int twinlessCount = assertValidTopology(surface);
+        assertEquals(surface.getHalfEdgeCount() - twinlessCount, surface.setTwins());
+    }
+
+    @Test
+    void gaiaSurfaceRoundTrip() {
+        List<GaiaVertex> vertices = new ArrayList<>();
+        for (int row = 0; row <= 1; row++) {
+            for (int column = 0; column <= 2; column++) {
+                GaiaVertex vertex = new GaiaVertex();
+                vertex.setPosition(new Vector3d(column, row, 0.0d));
+                vertex.setTexcoords(new Vector2d(column * 0.5d, row));
+                vertices.add(vertex);
+            }
+        }
+        GaiaFace gaiaFace = new GaiaFace();
+        gaiaFace.setIndices(new int[]{0, 1, 4, 0, 4, 3, 1, 2, 5, 1, 5, 4});
+        GaiaSurface gaiaSurface = new GaiaSurface();
+        gaiaSurface.getFaces().add(gaiaFace);
+
+        IndexedHalfEdgeSurface surface = IndexedHalfEdgeUtils.fromGaiaSurface(gaiaSurface, vertices);
+        assertEquals(4, surface.getFacesCount());
+        assertEquals(6, assertValidTopology(surface));
+
+        List<GaiaVertex> resultVertices = new ArrayList<>();
+        List<GaiaFace> resultFaces = IndexedHalfEdgeUtils.toGaiaFaces(surface, resultVertices);
+        assertEquals(6, resultVertices.size());
+        int indicesCount = 0;
+        for (GaiaFace face : resultFaces) {
+            for (int index : face.getIndices()) {
+                assertTrue(index >= 0 && index < resultVertices.size());
+                indicesCount++;
+            }
+        }
+        assertEquals(12, indicesCount);
+        assertEquals(new Vector2d(1.0d, 1.0d), resultVertices.get(5).getTexcoords());
+    }
+
+    @Test
+    void halfEdgeSurfaceRoundTrip() {
+        List<GaiaVertex> vertices = new ArrayList<>();
+        GaiaSurface gaiaSurface = new GaiaSurface();
+        for (int row = 0; row <= SIZE; row++) {
+            for (int column = 0; column <= SIZE; column++) {
+                GaiaVertex vertex = new GaiaVertex();
+                vertex.setPosition(new Vector3d(column, row, 0.0d));
+                vertices.add(vertex);
+            }
+        }
+        for (int row = 0; row < SIZE; row++) {
+            for (int column = 0; column < SIZE; column++) {
+                int a = row * (SIZE + 1) + column;
+                GaiaFace lower = new GaiaFace();
+                lower.setIndices(new int[]{a, a + 1, a + SIZE + 2});
+                GaiaFace upper = new GaiaFace();
+                upper.setIndices(new int[]{a, a + SIZE + 2, a + SIZE + 1});
+                gaiaSurface.getFaces().add(lower);
+                gaiaSurface.getFaces().add(upper);
+            }
+        }
+        HalfEdgeSurface halfEdgeSurface = HalfEdgeUtils.halfEdgeSurfaceFromGaiaSurface(gaiaSurface, vertices);
+        HalfEdgeVertex firstVertex = halfEdgeSurface.getVertices().get(0);
+
+        IndexedHalfEdgeSurface surface = IndexedHalfEdgeUtils.fromHalfEdgeSurface(halfEdgeSurface);
+        surface.cutByPlane(PlaneType.XZ, new Vector3d(0.0d, 2.5d, 0.0d), 1.0e-6);
+        IndexedHalfEdgeUtils.updateHalfEdgeSurface(surface, halfEdgeSurface);
+
+        // the objects are updated in place
+        assertSame(firstVertex, halfEdgeSurface.getVertices().get(0));
+        assertEquals(surface.getFacesCount(), halfEdgeSurface.getFaces().size());
+        assertEquals(surface.getFacesCount() * 3, halfEdgeSurface.getHalfEdges().size());
+        for (HalfEdge halfEdge : halfEdgeSurface.getHalfEdges()) {
+            assertSame(halfEdge, halfEdge.getNext().getNext().getNext());
+            assertSame(halfEdge.getStartVertex(), halfEdge.getStartVertex().getOutingHalfEdge().getStartVertex());
+            if (halfEdge.hasTwin()) {
+                assertSame(halfEdge, halfEdge.getTwin().getTwin());
+                assertSame(halfEdge.getEndVertex(), halfEdge.getTwin().getStartVertex());
+            }
+        }
+    }
+}
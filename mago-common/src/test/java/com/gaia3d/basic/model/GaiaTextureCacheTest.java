@@ -0,0 +1,98 @@
+package com.gaia3d.basic.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaiaTextureCacheTest {
+
+    @Test
+    void singleFlightAndEviction() throws Exception {
+        GaiaTextureCache cache = GaiaTextureCache.getInstance();
+        long previousMaximumWeight = cache.getMaximumWeight();
+        cache.clear();
+        cache.resetStatistics();
+        // two 64 x 64 TYPE_INT_ARGB images
+        cache.setMaximumWeight(2 * 64 * 64 * 4);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            AtomicInteger loadCount = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<BufferedImage>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    start.await();
+                    return cache.get("/textures/a.png", 0, () -> {
+                        loadCount.incrementAndGet();
+                        sleep();
+                        return new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB);
+                    });
+                }));
+            }
+            start.countDown();
+            BufferedImage first = futures.get(0).get();
+            for (Future<BufferedImage> future : futures) {
+                assertSame(first, future.get());
+            }
+            assertEquals(1, loadCount.get());
+            assertEquals(1, cache.getMissCount());
+            assertEquals(7, cache.getHitCount());
+
+            // the level is part of the key
+            cache.get("/textures/a.png", 1, () -> new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+            assertEquals(2, cache.getMissCount());
+            // over the budget, the least recently used image is evicted
+            cache.get("/textures/b.png", 0, () -> new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB));
+            assertEquals(1, cache.getEvictionCount());
+            assertNotSame(first, cache.get("/textures/a.png", 0, () -> new BufferedImage(64, 64, BufferedImage.TYPE_INT_ARGB)));
+        } finally {
+            executorService.shutdownNow();
+            cache.clear();
+            cache.setMaximumWeight(previousMaximumWeight);
+        }
+    }
+
+    @Test
+    void contentHashesAreBoundedAndCleared() {
+        GaiaTextureCache cache = GaiaTextureCache.getInstance();
+        cache.clear();
+        AtomicInteger hashCount = new AtomicInteger();
+        LongSupplier hasher = () -> {
+            hashCount.incrementAndGet();
+            return 42L;
+        };
+        try {
+            assertEquals(42L, cache.getContentHash("/textures/a.png", 0, 100, 1, hasher));
+            assertEquals(42L, cache.getContentHash("/textures/a.png", 0, 100, 1, hasher));
+            assertEquals(1, hashCount.get());
+            // a modified file is hashed again
+            cache.getContentHash("/textures/a.png", 0, 100, 2, hasher);
+            assertEquals(2, hashCount.get());
+
+            for (int i = 0; i < 70000; i++) {
+                cache.getContentHash("/textures/" + i + ".png", 0, 100, 1, hasher);
+            }
+            assertEquals(64 * 1024, cache.getContentHashCount());
+
+            cache.clear();
+            assertEquals(0, cache.getContentHashCount());
+        } finally {
+            cache.clear();
+        }
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(100);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
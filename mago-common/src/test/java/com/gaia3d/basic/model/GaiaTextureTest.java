@@ -0,0 +1,78 @@
+package com.gaia3d.basic.model;
+
+import com.gaia3d.basic.types.LevelOfDetail;
+import com.gaia3d.basic.types.TextureType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GaiaTextureTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void contentHash() throws IOException {
+        BufferedImage image = new BufferedImage(16, 16, BufferedImage.TYPE_3BYTE_BGR);
+        for (int x = 0; x < 16; x++) {
+            for (int y = 0; y < 16; y++) {
+                image.setRGB(x, y, (x * 16) << 16 | (y * 16) << 8);
+            }
+        }
+        ImageIO.write(image, "png", tempDir.resolve("a.png").toFile());
+        ImageIO.write(image, "png", tempDir.resolve("copy-of-a.png").toFile());
+        image.setRGB(3, 3, 0xFFFFFF);
+        ImageIO.write(image, "png", tempDir.resolve("b.png").toFile());
+
+        GaiaTexture textureA = createTexture("a.png");
+        GaiaTexture copyOfA = createTexture("copy-of-a.png");
+        GaiaTexture textureB = createTexture("b.png");
+
+        assertEquals(textureA.getContentHash(LevelOfDetail.LOD0), copyOfA.getContentHash(LevelOfDetail.LOD0));
+        assertNotEquals(textureA.getContentHash(LevelOfDetail.LOD0), textureB.getContentHash(LevelOfDetail.LOD0));
+        assertTrue(textureA.isEqualTexture(copyOfA, LevelOfDetail.LOD0));
+
+        // cached by file, a new texture of the same file does not decode the image again
+        GaiaTexture sameFile = createTexture("a.png");
+        assertEquals(textureA.getContentHash(LevelOfDetail.LOD0), sameFile.getContentHash(LevelOfDetail.LOD0));
+        assertNull(sameFile.getPureBufferedImage());
+    }
+
+    @Test
+    void createImageReplacesSharedImage() throws IOException {
+        ImageIO.write(new BufferedImage(16, 16, BufferedImage.TYPE_3BYTE_BGR), "png", tempDir.resolve("shared.png").toFile());
+        GaiaTextureCache cache = GaiaTextureCache.getInstance();
+        long previousMaximumWeight = cache.getMaximumWeight();
+        cache.setMaximumWeight(1024 * 1024);
+        try {
+            GaiaTexture texture = createTexture("shared.png");
+            BufferedImage shared = texture.getBufferedImage(LevelOfDetail.LOD0);
+            assertTrue(texture.isSharedImage());
+
+            // the new image belongs to the texture, drawing into it leaves the cached image alone
+            texture.createImage(8, 8, BufferedImage.TYPE_INT_ARGB);
+            assertFalse(texture.isSharedImage());
+            texture.fillImage(java.awt.Color.RED);
+            texture.deleteObjects();
+            assertEquals(0, shared.getRGB(0, 0) & 0xFFFFFF);
+            assertSame(shared, createTexture("shared.png").getBufferedImage(LevelOfDetail.LOD0));
+        } finally {
+            cache.clear();
+            cache.setMaximumWeight(previousMaximumWeight);
+        }
+    }
+
+    private GaiaTexture createTexture(String fileName) {
+        GaiaTexture texture = new GaiaTexture();
+        texture.setType(TextureType.DIFFUSE);
+        texture.setParentPath(tempDir.toString());
+        texture.setPath(fileName);
+        return texture;
+    }
+}
@@ -0,0 +1,86 @@
+package com.gaia3d.util;
+
+import org.junit.jupiter.api.Test;
+import org.locationtech.proj4j.BasicCoordinateTransform;
+import org.locationtech.proj4j.CRSFactory;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+import org.locationtech.proj4j.ProjCoordinate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoordinateTransformServiceTest {
+    private static final CoordinateReferenceSystem KOREA_CENTRAL = new CRSFactory().createFromName("EPSG:5186");
+
+    private static double[] createPositions(int count) {
+        double[] xyz = new double[count * 3];
+        for (int i = 0; i < count; i++) {
+            xyz[i * 3] = 190000.0 + (i * 37 % 1000) * 10.0;
+            xyz[i * 3 + 1] = 540000.0 + (i * 91 % 1000) * 10.0;
+            xyz[i * 3 + 2] = 10.0 + i % 50;
+        }
+        return xyz;
+    }
+
+    @Test
+    void sameAsNewTransformPerCall() {
+        CoordinateTransformService service = CoordinateTransformService.getInstance();
+        assertSame(service.getTransform(KOREA_CENTRAL, GlobeUtils.wgs84), service.getTransform(KOREA_CENTRAL, GlobeUtils.wgs84));
+
+        int count = 100;
+        double[] xyz = createPositions(count);
+        double[] expected = xyz.clone();
+        service.transform(KOREA_CENTRAL, GlobeUtils.wgs84, xyz, count);
+        for (int i = 0; i < count; i++) {
+            BasicCoordinateTransform transform = new BasicCoordinateTransform(KOREA_CENTRAL, GlobeUtils.wgs84);
+            ProjCoordinate result = transform.transform(new ProjCoordinate(expected[i * 3], expected[i * 3 + 1], expected[i * 3 + 2]), new ProjCoordinate());
+            assertEquals(result.x, xyz[i * 3], 1.0e-12);
+            assertEquals(result.y, xyz[i * 3 + 1], 1.0e-12);
+        }
+    }
+
+    @Test
+    void fusedCartesianTransform() {
+        int count = 100;
+        double[] xyz = createPositions(count);
+        double[] source = xyz.clone();
+        CoordinateTransformService.getInstance().transformToCartesianWgs84(KOREA_CENTRAL, xyz, count);
+        for (int i = 0; i < count; i++) {
+            ProjCoordinate wgs84 = GlobeUtils.transform(KOREA_CENTRAL, new ProjCoordinate(source[i * 3], source[i * 3 + 1], source[i * 3 + 2]));
+            double[] expected = GlobeUtils.geographicToCartesianWgs84(wgs84.x, wgs84.y, source[i * 3 + 2]);
+            assertEquals(expected[0], xyz[i * 3], 1.0e-6);
+            assertEquals(expected[1], xyz[i * 3 + 1], 1.0e-6);
+            assertEquals(expected[2], xyz[i * 3 + 2], 1.0e-6);
+        }
+        assertThrows(IllegalArgumentException.class, () -> CoordinateTransformService.getInstance().transformToCartesianWgs84(KOREA_CENTRAL, new double[3], 2));
+    }
+
+    @Test
+    void concurrentTransforms() throws Exception {
+        int count = 10000;
+        double[] expected = createPositions(count);
+        CoordinateTransformService.getInstance().transform(KOREA_CENTRAL, GlobeUtils.wgs84, expected, count);
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<double[]>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executorService.submit(() -> {
+                    double[] xyz = createPositions(count);
+                    CoordinateTransformService.getInstance().transform(KOREA_CENTRAL, GlobeUtils.wgs84, xyz, count);
+                    return xyz;
+                }));
+            }
+            for (Future<double[]> future : futures) {
+                assertArrayEquals(expected, future.get());
+            }
+        } finally {
+            executorService.shutdown();
+        }
+    }
+}
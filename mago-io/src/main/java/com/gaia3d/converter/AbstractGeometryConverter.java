@@ -2,6 +2,7 @@ package com.gaia3d.converter;
 
 import com.gaia3d.basic.geometry.GaiaTriangle;
 import com.gaia3d.basic.geometry.network.modeler.TopologicalNetwork;
+import com.gaia3d.basic.geometry.tessellator.EarcutTessellator;
 import com.gaia3d.basic.geometry.tessellator.GaiaExtrusionSurface;
 import com.gaia3d.basic.geometry.tessellator.GaiaTessellator;
 import com.gaia3d.basic.model.*;
@@ -9,6 +10,7 @@ import com.gaia3d.basic.pipe.GaiaPipeLineString;
 import com.gaia3d.basic.pipe.Modeler3D;
 import com.gaia3d.basic.pipe.PipeElbow;
 import com.gaia3d.basic.pipe.PipeType;
+import com.gaia3d.basic.temp.GaiaSceneTempGroup;
 import com.gaia3d.basic.types.Classification;
 import com.gaia3d.basic.types.TextureType;
 import com.gaia3d.util.GeometryUtils;
@@ -20,13 +22,164 @@ import org.joml.Vector4d;
 
 import java.io.File;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.IntStream;
 
 @Slf4j
 public abstract class AbstractGeometryConverter {
 
+    private static final int PENDING_BATCHES_PER_WORKER = 2;
+
+    private final EarcutTessellator earcutTessellator = new EarcutTessellator();
+    private volatile Semaphore pendingBatchPermits;
+
     protected abstract List<GaiaScene> convert(File file);
 
+    /**
+     * Whether the polygons are tessellated by the EarcutTessellator instead of the GaiaTessellator.
+     */
+    protected boolean isEarcutTessellation() {
+        return false;
+    }
+
+    /**
+     * Converts the items in batches of the given size in parallel and returns the temp groups in the order of the batches.
+     * The batches run in the fork join pool of the calling task, or in the common pool outside of one.
+     */
+    protected <T> List<GaiaSceneTempGroup> convertInBatches(List<T> items, int batchSize, Function<List<T>, List<GaiaSceneTempGroup>> batchConverter) {
+        int size = Math.max(1, batchSize);
+        try (PendingBatches<T> pendingBatches = new PendingBatches<>(batchConverter)) {
+            for (int start = 0; start < items.size(); start += size) {
+                pendingBatches.fork(items.subList(start, Math.min(items.size(), start + size)));
+            }
+            return pendingBatches.join();
+        }
+    }
+
+    /**
+     * The batches in flight are shared by all the files this converter reads at the same time,
+     * so the memory held by the batches is bounded by the thread count and not by the number of files.
+     */
+    private Semaphore getPendingBatchPermits(ForkJoinPool pool) {
+        Semaphore permits = pendingBatchPermits;
+        if (permits == null) {
+            synchronized (this) {
+                if (pendingBatchPermits == null) {
+                    pendingBatchPermits = new Semaphore(Math.max(1, pool.getParallelism()) * PENDING_BATCHES_PER_WORKER);
+                }
+                permits = pendingBatchPermits;
+            }
+        }
+        return permits;
+    }
+
+    /**
+     * Batches of one file forked into the fork join pool of the calling task, or into the common pool outside of one.
+     * A fork waits while the converter has too many batches in flight, the results are joined in the order of the forks.
+     */
+    protected class PendingBatches<T> implements AutoCloseable {
+        private final Function<List<T>, List<GaiaSceneTempGroup>> batchConverter;
+        private final ForkJoinPool pool;
+        private final Semaphore permits;
+        private final Deque<BatchTask<T>> tasks = new ArrayDeque<>();
+        private final List<GaiaSceneTempGroup> sceneTemps = new ArrayList<>();
+
+        public PendingBatches(Function<List<T>, List<GaiaSceneTempGroup>> batchConverter) {
+            this.batchConverter = batchConverter;
+            this.pool = ForkJoinTask.inForkJoinPool() ? ForkJoinTask.getPool() : ForkJoinPool.commonPool();
+            this.permits = getPendingBatchPermits(pool);
+        }
+
+        public void fork(List<T> batch) {
+            acquire();
+            BatchTask<T> task = new BatchTask<>(batch, batchConverter, permits);
+            if (ForkJoinTask.inForkJoinPool()) {
+                task.fork();
+            } else {
+                pool.execute(task);
+            }
+            tasks.add(task);
+            // the finished batches release their input, only the temp groups are kept
+            while (!tasks.isEmpty() && tasks.peek().isDone()) {
+                sceneTemps.addAll(tasks.poll().join());
+            }
+        }
+
+        public List<GaiaSceneTempGroup> join() {
+            while (!tasks.isEmpty()) {
+                sceneTemps.addAll(tasks.poll().join());
+            }
+            return sceneTemps;
+        }
+
+        @Override
+        public void close() {
+            while (!tasks.isEmpty()) {
+                BatchTask<T> task = tasks.poll();
+                if (task.cancel(true)) {
+                    task.release();
+                }
+            }
+        }
+
+        /**
+         * Waits for a permit without starving the pool, the blocked worker is compensated by a spare thread.
+         */
+        private void acquire() {
+            try {
+                ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                    @Override
+                    public boolean block() throws InterruptedException {
+                        permits.acquire();
+                        return true;
+                    }
+
+                    @Override
+                    public boolean isReleasable() {
+                        return permits.tryAcquire();
+                    }
+                });
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    private static class BatchTask<T> extends RecursiveTask<List<GaiaSceneTempGroup>> {
+        private final Function<List<T>, List<GaiaSceneTempGroup>> batchConverter;
+        private final Semaphore permits;
+        private final AtomicBoolean released = new AtomicBoolean(false);
+        private List<T> batch;
+
+        private BatchTask(List<T> batch, Function<List<T>, List<GaiaSceneTempGroup>> batchConverter, Semaphore permits) {
+            this.batch = batch;
+            this.batchConverter = batchConverter;
+            this.permits = permits;
+        }
+
+        @Override
+        protected List<GaiaSceneTempGroup> compute() {
+            try {
+                return batchConverter.apply(batch);
+            } finally {
+                batch = null;
+                release();
+            }
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
     protected GaiaScene initScene(File file) {
         GaiaScene scene = new GaiaScene();
 
@@ -329,9 +482,15 @@ public abstract class AbstractGeometryConverter {
         Vector3d normal = new Vector3d();
         tessellator.calculateNormal3D(ExteriorPolygon, normal);
 
-        List<Integer> resultTrianglesIndices = new ArrayList<>();
+        int[] resultTrianglesIndices;
         List<Vector3d> resultPolygonPoints = new ArrayList<>();
-        tessellator.tessellate3D(ExteriorPolygon, interiorPolygons, resultPolygonPoints, resultTrianglesIndices);
+        if (isEarcutTessellation()) {
+            resultTrianglesIndices = tessellateEarcut(ExteriorPolygon, interiorPolygons, resultPolygonPoints);
+        } else {
+            List<Integer> tessellatedIndices = new ArrayList<>();
+            tessellator.tessellate3D(ExteriorPolygon, interiorPolygons, resultPolygonPoints, tessellatedIndices);
+            resultTrianglesIndices = toIntArray(tessellatedIndices);
+        }
 
         for (Vector3d point : resultPolygonPoints) {
             GaiaVertex vertex = new GaiaVertex();
@@ -345,12 +504,12 @@ public abstract class AbstractGeometryConverter {
         int idx1Local = -1;
         int idx2Local = -1;
         int idx3Local = -1;
-        int indicesCount = resultTrianglesIndices.size();
+        int indicesCount = resultTrianglesIndices.length;
         int trianglesCount = indicesCount / 3;
         for (int n = 0; n < trianglesCount; n++) {
-            idx1Local = resultTrianglesIndices.get(n * 3);
-            idx2Local = resultTrianglesIndices.get(n * 3 + 1);
-            idx3Local = resultTrianglesIndices.get(n * 3 + 2);
+            idx1Local = resultTrianglesIndices[n * 3];
+            idx2Local = resultTrianglesIndices[n * 3 + 1];
+            idx3Local = resultTrianglesIndices[n * 3 + 2];
 
             GaiaFace face = new GaiaFace();
             int[] indicesArray = new int[3];
@@ -367,6 +526,45 @@ public abstract class AbstractGeometryConverter {
         return primitive;
     }
 
+    /**
+     * Tessellates the polygon with the EarcutTessellator, the indices point to the exterior points followed by the interior points.
+     * Those points are added to the result points when given, nothing is removed or duplicated.
+     * The indices are returned as they come from the tessellator, without boxing them into a list.
+     */
+    private int[] tessellateEarcut(List<Vector3d> exteriorPolygon, List<List<Vector3d>> interiorPolygons, List<Vector3d> resultPolygonPoints) {
+        int pointCount = exteriorPolygon.size();
+        for (List<Vector3d> interiorPolygon : interiorPolygons) {
+            pointCount += interiorPolygon.size();
+        }
+        double[] coordinates = new double[pointCount * 3];
+        int[] holeIndices = new int[interiorPolygons.size()];
+        int offset = putCoordinates(exteriorPolygon, coordinates, 0);
+        for (int i = 0; i < interiorPolygons.size(); i++) {
+            holeIndices[i] = offset / 3;
+            offset = putCoordinates(interiorPolygons.get(i), coordinates, offset);
+        }
+
+        int[] triangles = earcutTessellator.tessellate3D(coordinates, holeIndices);
+        if (resultPolygonPoints != null) {
+            resultPolygonPoints.addAll(exteriorPolygon);
+            interiorPolygons.forEach(resultPolygonPoints::addAll);
+        }
+        return triangles;
+    }
+
+    private int[] toIntArray(List<Integer> indices) {
+        return indices.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private int putCoordinates(List<Vector3d> polygon, double[] coordinates, int offset) {
+        for (Vector3d point : polygon) {
+            coordinates[offset++] = point.x;
+            coordinates[offset++] = point.y;
+            coordinates[offset++] = point.z;
+        }
+        return offset;
+    }
+
     protected GaiaPrimitive createPrimitiveFromPolygons(List<List<Vector3d>> polygons) {
         GaiaTessellator tessellator = new GaiaTessellator();
 
@@ -404,7 +602,7 @@ public abstract class AbstractGeometryConverter {
 
         primitive.setVertices(vertexList); // total vertex list
 
-        List<Integer> resultTrianglesIndices = new ArrayList<>();
+        List<Integer> tessellatedIndices = new ArrayList<>();
 
         for (int m = 0; m < polygonCount; m++) {
             GaiaSurface surface = new GaiaSurface();
@@ -415,18 +613,24 @@ public abstract class AbstractGeometryConverter {
             int idx3Local = -1;
 
             List<Vector3d> polygon = polygonsClean.get(m);
-            resultTrianglesIndices.clear();
 
-            // Note : in "tessellator.tessellate3D(polygon, resultTrianglesIndices);" is possible to loss some points (deleting collinear points)
+            // Note : in "tessellator.tessellate3D(polygon, tessellatedIndices);" is possible to loss some points (deleting collinear points)
             // So, in the end of this method, delete no used vertices
-            tessellator.tessellate3D(polygon, resultTrianglesIndices);
+            int[] resultTrianglesIndices;
+            if (isEarcutTessellation()) {
+                resultTrianglesIndices = tessellateEarcut(polygon, Collections.emptyList(), null);
+            } else {
+                tessellatedIndices.clear();
+                tessellator.tessellate3D(polygon, tessellatedIndices);
+                resultTrianglesIndices = toIntArray(tessellatedIndices);
+            }
 
-            int indicesCount = resultTrianglesIndices.size();
+            int indicesCount = resultTrianglesIndices.length;
             int trianglesCount = indicesCount / 3;
             for (int n = 0; n < trianglesCount; n++) {
-                idx1Local = resultTrianglesIndices.get(n * 3);
-                idx2Local = resultTrianglesIndices.get(n * 3 + 1);
-                idx3Local = resultTrianglesIndices.get(n * 3 + 2);
+                idx1Local = resultTrianglesIndices[n * 3];
+                idx2Local = resultTrianglesIndices[n * 3 + 1];
+                idx3Local = resultTrianglesIndices[n * 3 + 2];
 
                 Vector3d point1 = polygon.get(idx1Local);
                 Vector3d point2 = polygon.get(idx2Local);
@@ -532,7 +736,7 @@ public abstract class AbstractGeometryConverter {
 
         primitive.setVertices(vertexList);
 
-        List<Integer> resultTrianglesIndices = new ArrayList<>();
+        List<Integer> tessellatedIndices = new ArrayList<>();
 
         for (GaiaExtrusionSurface extrusionSurface : surfaces) {
             List<Vector3d> polygon = extrusionSurface.getVertices();
@@ -543,15 +747,21 @@ public abstract class AbstractGeometryConverter {
             int idx2Local = -1;
             int idx3Local = -1;
 
-            resultTrianglesIndices.clear();
-            tessellator.tessellate3D(polygon, resultTrianglesIndices);
+            int[] resultTrianglesIndices;
+            if (isEarcutTessellation()) {
+                resultTrianglesIndices = tessellateEarcut(polygon, Collections.emptyList(), null);
+            } else {
+                tessellatedIndices.clear();
+                tessellator.tessellate3D(polygon, tessellatedIndices);
+                resultTrianglesIndices = toIntArray(tessellatedIndices);
+            }
 
-            int indicesCount = resultTrianglesIndices.size();
+            int indicesCount = resultTrianglesIndices.length;
             int trianglesCount = indicesCount / 3;
             for (int n = 0; n < trianglesCount; n++) {
-                idx1Local = resultTrianglesIndices.get(n * 3);
-                idx2Local = resultTrianglesIndices.get(n * 3 + 1);
-                idx3Local = resultTrianglesIndices.get(n * 3 + 2);
+                idx1Local = resultTrianglesIndices[n * 3];
+                idx2Local = resultTrianglesIndices[n * 3 + 1];
+                idx3Local = resultTrianglesIndices[n * 3 + 2];
 
                 Vector3d point1 = polygon.get(idx1Local);
                 Vector3d point2 = polygon.get(idx2Local);
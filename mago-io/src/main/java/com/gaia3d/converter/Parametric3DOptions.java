@@ -34,4 +34,12 @@ public class Parametric3DOptions {
     private CoordinateReferenceSystem targetCrs;
 
     private boolean flipCoordinate;
+
+    // extruded scenes converted by one worker and written to one temp file
+    @Builder.Default
+    private int extrusionBatchSize = 10000;
+
+    // polygons tessellated by the EarcutTessellator instead of the GaiaTessellator
+    @Builder.Default
+    private boolean earcutTessellation = false;
 }
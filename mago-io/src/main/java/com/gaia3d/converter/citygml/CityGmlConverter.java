@@ -4,6 +4,7 @@ import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.basic.model.*;
 import com.gaia3d.basic.temp.GaiaSceneTempGroup;
 import com.gaia3d.basic.types.Classification;
+import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.converter.Converter;
 import com.gaia3d.basic.geometry.modifier.DefaultSceneFactory;
 import com.gaia3d.converter.AbstractGeometryConverter;
@@ -41,6 +42,7 @@ import org.citygml4j.core.model.waterbody.WaterGroundSurface;
 import org.citygml4j.core.model.waterbody.WaterSurface;
 import org.citygml4j.xml.CityGMLContext;
 import org.citygml4j.xml.CityGMLContextException;
+import org.citygml4j.xml.reader.ChunkOptions;
 import org.citygml4j.xml.reader.CityGMLInputFactory;
 import org.citygml4j.xml.reader.CityGMLReadException;
 import org.citygml4j.xml.reader.CityGMLReader;
@@ -61,17 +63,21 @@ import org.xmlobjects.model.Child;
 import javax.xml.namespace.QName;
 import java.io.File;
 import java.nio.file.Path;
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.util.*;
 
 @Slf4j
 @RequiredArgsConstructor
 public class CityGmlConverter extends AbstractGeometryConverter implements Converter {
 
+    private static final int CITY_OBJECT_BATCH_SIZE = 1000;
+
     private final Parametric3DOptions options;
 
+    @Override
+    protected boolean isEarcutTessellation() {
+        return options.isEarcutTessellation();
+    }
+
     @Override
     public List<GaiaScene> load(String path) {
         return convert(new File(path));
@@ -87,12 +93,96 @@ public class CityGmlConverter extends AbstractGeometryConverter implements Conve
         return convert(path.toFile());
     }
 
+    /**
+     * Reads the file in chunks, the city object members stream out of the reader one at a time instead of a whole CityModel.
+     * Batches of city objects are converted and minimized into temp files by the workers of the fork join pool of the calling task
+     * (the common pool outside of one), while the reader waits once the converter has too many batches in flight.
+     */
     @Override
     public List<GaiaSceneTempGroup> convertTemp(File input, File output) {
-        return null;
+        List<GaiaSceneTempGroup> sceneTemps;
+        log.info("[Load] Reading CityGML file in chunks : {}", input.getAbsolutePath());
+        try (PendingBatches<AbstractCityObject> pendingBatches = new PendingBatches<>(cityObjects -> convertCityObjects(cityObjects, input, output))) {
+            CityGMLContext context = CityGMLContext.newInstance();
+            CityGMLInputFactory factory = context.createCityGMLInputFactory().withChunking(ChunkOptions.defaults());
+            long cityObjectCount = 0;
+            try (CityGMLReader reader = factory.createCityGMLReader(input)) {
+                List<AbstractCityObject> cityObjects = new ArrayList<>(CITY_OBJECT_BATCH_SIZE);
+                while (reader.hasNext()) {
+                    AbstractFeature feature = reader.next();
+                    if (feature instanceof CityModel cityModel) {
+                        // the members left in the city model after chunking, usually none
+                        for (AbstractCityObjectProperty cityObjectProperty : cityModel.getCityObjectMembers()) {
+                            if (cityObjectProperty.getObject() != null) {
+                                cityObjects.add(cityObjectProperty.getObject());
+                            }
+                        }
+                    } else if (feature instanceof AbstractCityObject cityObject) {
+                        cityObjects.add(cityObject);
+                    } else {
+                        continue;
+                    }
+                    if (cityObjects.size() >= CITY_OBJECT_BATCH_SIZE) {
+                        cityObjectCount += cityObjects.size();
+                        pendingBatches.fork(cityObjects);
+                        cityObjects = new ArrayList<>(CITY_OBJECT_BATCH_SIZE);
+                    }
+                }
+                if (!cityObjects.isEmpty()) {
+                    cityObjectCount += cityObjects.size();
+                    pendingBatches.fork(cityObjects);
+                }
+            }
+            sceneTemps = pendingBatches.join();
+            log.info("[Load] Reading CityGML file : {} done ({} city objects)", input.getAbsolutePath(), cityObjectCount);
+        } catch (CityGMLContextException | CityGMLReadException e) {
+            log.error("[ERROR] Failed to read citygml file: {}", input.getName());
+            throw new RuntimeException(e);
+        }
+        return sceneTemps;
+    }
+
+    /**
+     * Converts a batch of city objects into one temp file.
+     */
+    private List<GaiaSceneTempGroup> convertCityObjects(List<AbstractCityObject> cityObjects, File input, File output) {
+        List<GaiaSceneTempGroup> sceneTemps = new ArrayList<>();
+        List<GaiaScene> scenes = new ArrayList<>();
+        DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
+        for (AbstractCityObject cityObject : cityObjects) {
+            for (List<GaiaSurfaceModel> surfaces : convertCityObject(cityObject)) {
+                if (surfaces.isEmpty()) {
+                    continue;
+                }
+                GaiaScene scene = createScene(input, surfaces, defaultSceneFactory);
+                if (scene != null) {
+                    scenes.add(scene);
+                }
+            }
+        }
+
+        if (!scenes.isEmpty()) {
+            String tempName = UUID.randomUUID() + "_" + input.getName() + "." + FormatType.TEMP.getExtension();
+            File tempFile = new File(output, tempName);
+
+            scenes.forEach((gaiaScene) -> {
+                gaiaScene.setOriginalPath(tempFile.toPath());
+            });
+            log.info("[{}] write temp : {}", tempName, scenes.size());
+            GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder().tempScene(scenes).tempFile(tempFile).build();
+            sceneTemp.minimize(tempFile);
+            sceneTemps.add(sceneTemp);
+        }
+        return sceneTemps;
     }
 
     protected List<GaiaScene> convert(File file) {
+        if (isTempFile(file)) {
+            GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder().tempFile(file).isMinimized(true).build();
+            sceneTemp.maximize();
+            return sceneTemp.getTempScene();
+        }
+
         List<GaiaScene> scenes = new ArrayList<>();
         try {
             CityGMLContext context = CityGMLContext.newInstance();
@@ -105,22 +195,7 @@ public class CityGmlConverter extends AbstractGeometryConverter implements Conve
                 List<AbstractCityObjectProperty> cityObjectMembers = cityModel.getCityObjectMembers();
                 for (AbstractCityObjectProperty cityObjectProperty : cityObjectMembers) {
                     AbstractCityObject cityObject = cityObjectProperty.getObject();
-
-                    List<SolidProperty> solidProperties = extractSolid(cityObject);
-                    for (SolidProperty solidProperty : solidProperties) {
-                        AbstractSolid solid = solidProperty.getObject();
-                        if (solid == null) {
-                            log.error("[ERROR] No solid found for city object: {}", cityObject.getId());
-                        } else {
-                            buildingSurfacesList.add(convertSolidSurfaceProperty(cityObject, solid));
-                        }
-                    }
-
-                    List<MultiSurfaceProperty> multiSurfaceProperties = extractMultiSurfaceProperty(cityObject);
-                    for (MultiSurfaceProperty multiSurfaceProperty : multiSurfaceProperties) {
-                        buildingSurfacesList.add(convertMultiSurfaceProperty(cityObject, multiSurfaceProperty));
-                    }
-
+                    buildingSurfacesList.addAll(convertCityObject(cityObject));
                 }
 
                 DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
@@ -129,133 +204,165 @@ public class CityGmlConverter extends AbstractGeometryConverter implements Conve
                     if (surfaces.isEmpty()) {
                         continue;
                     }
+                    GaiaScene scene = createScene(file, surfaces, defaultSceneFactory);
+                    if (scene != null) {
+                        scenes.add(scene);
+                    }
+                }
+            }
+            reader.close();
+        } catch (CityGMLContextException | CityGMLReadException e) {
+            log.error("[ERROR] Failed to read citygml file: {}", file.getName());
+            throw new RuntimeException(e);
+        }
 
-                    GaiaScene scene = defaultSceneFactory.createScene(file);
-                    GaiaNode rootNode = scene.getNodes().get(0);
+        return scenes;
+    }
 
-                    GaiaAttribute attribute = scene.getAttribute();
-                    //attribute.setAttributes(surfaces.getProperties());
+    private boolean isTempFile(File file) {
+        return file.getName().toLowerCase().endsWith("." + FormatType.TEMP.getExtension());
+    }
 
-                    GaiaBoundingBox globalBoundingBox = new GaiaBoundingBox();
-                    for (GaiaSurfaceModel buildingSurface : surfaces) {
-                        GaiaBoundingBox localBoundingBox = buildingSurface.getBoundingBox();
-                        globalBoundingBox.addBoundingBox(localBoundingBox);
-                    }
+    /**
+     * Surfaces of the solids and multi surfaces of the city object, one list per scene.
+     */
+    private List<List<GaiaSurfaceModel>> convertCityObject(AbstractCityObject cityObject) {
+        List<List<GaiaSurfaceModel>> buildingSurfacesList = new ArrayList<>();
+        List<SolidProperty> solidProperties = extractSolid(cityObject);
+        for (SolidProperty solidProperty : solidProperties) {
+            AbstractSolid solid = solidProperty.getObject();
+            if (solid == null) {
+                log.error("[ERROR] No solid found for city object: {}", cityObject.getId());
+            } else {
+                buildingSurfacesList.add(convertSolidSurfaceProperty(cityObject, solid));
+            }
+        }
 
-                    Vector3d center = globalBoundingBox.getCenter();
-                    Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(center);
-                    Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
-                    Matrix4d transformMatrixInv = new Matrix4d(transformMatrix).invert();
+        List<MultiSurfaceProperty> multiSurfaceProperties = extractMultiSurfaceProperty(cityObject);
+        for (MultiSurfaceProperty multiSurfaceProperty : multiSurfaceProperties) {
+            buildingSurfacesList.add(convertMultiSurfaceProperty(cityObject, multiSurfaceProperty));
+        }
+        return buildingSurfacesList;
+    }
 
-                    CoordinateReferenceSystem crs = options.getSourceCrs();
+    private GaiaScene createScene(File file, List<GaiaSurfaceModel> surfaces, DefaultSceneFactory defaultSceneFactory) {
+        GaiaScene scene = defaultSceneFactory.createScene(file);
+        GaiaNode rootNode = scene.getNodes().get(0);
 
-                    for (GaiaSurfaceModel buildingSurface : surfaces) {
-                        GaiaMaterial material = getMaterialByClassification(scene.getMaterials(), buildingSurface.getClassification());
+        GaiaAttribute attribute = scene.getAttribute();
+        //attribute.setAttributes(surfaces.getProperties());
 
-                        // Check if buildingSurface has holes
-                        List<List<Vector3d>> interiorPolygons = buildingSurface.getInteriorPositions();
-                        boolean hasHoles = interiorPolygons != null && !interiorPolygons.isEmpty();
+        GaiaBoundingBox globalBoundingBox = new GaiaBoundingBox();
+        for (GaiaSurfaceModel buildingSurface : surfaces) {
+            GaiaBoundingBox localBoundingBox = buildingSurface.getBoundingBox();
+            globalBoundingBox.addBoundingBox(localBoundingBox);
+        }
 
-                        GaiaNode node = new GaiaNode();
-                        node.setTransformMatrix(new Matrix4d().identity());
-                        GaiaMesh mesh = new GaiaMesh();
-                        node.getMeshes().add(mesh);
+        Vector3d center = globalBoundingBox.getCenter();
+        Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(center);
+        Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
+        Matrix4d transformMatrixInv = new Matrix4d(transformMatrix).invert();
 
-                        if (!hasHoles) {
-                            List<List<Vector3d>> polygons = new ArrayList<>();
-                            List<Vector3d> polygon = new ArrayList<>();
+        CoordinateReferenceSystem crs = options.getSourceCrs();
 
-                            if (buildingSurface.getExteriorPositions().size() < 3) {
-                                log.debug("Invalid Geometry : {}", buildingSurface.getId());
-                                continue;
-                            }
-                            for (Vector3d position : buildingSurface.getExteriorPositions()) {
-                                if (crs.getName().equals("EPSG:4978")) {
-                                    polygon.add(position);
-                                } else {
-                                    Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
-                                    Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
-                                    polygon.add(localPosition);
-                                }
-                            }
-                            polygons.add(polygon);
+        for (GaiaSurfaceModel buildingSurface : surfaces) {
+            GaiaMaterial material = getMaterialByClassification(scene.getMaterials(), buildingSurface.getClassification());
 
-                            GaiaPrimitive primitive = createPrimitiveFromPolygons(polygons);
+            // Check if buildingSurface has holes
+            List<List<Vector3d>> interiorPolygons = buildingSurface.getInteriorPositions();
+            boolean hasHoles = interiorPolygons != null && !interiorPolygons.isEmpty();
 
-                            primitive.setMaterialIndex(material.getId());
-                            if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
-                                log.debug("Invalid Geometry : {}", buildingSurface.getId());
-                                log.debug("Vertices count : {}", primitive.getVertices().size());
-                                log.debug("Surfaces count : {}", primitive.getSurfaces().size());
-                                continue;
-                            }
-                            mesh.getPrimitives().add(primitive);
-                            rootNode.getChildren().add(node);
-                        } else {
-                            // Has holes
-                            List<Vector3d> ExteriorPolygon = buildingSurface.getExteriorPositions();
-
-                            // convert points to local coordinates
-                            List<Vector3d> exteriorPolygonLocal = new ArrayList<>();
-                            for (Vector3d position : ExteriorPolygon) {
-                                if (crs.getName().equals("EPSG:4978")) {
-                                    exteriorPolygonLocal.add(position);
-                                } else {
-                                    Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
-                                    Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
-                                    exteriorPolygonLocal.add(localPosition);
-                                }
-                            }
+            GaiaNode node = new GaiaNode();
+            node.setTransformMatrix(new Matrix4d().identity());
+            GaiaMesh mesh = new GaiaMesh();
+            node.getMeshes().add(mesh);
 
-                            // interior points
-                            List<List<Vector3d>> interiorPolygonsLocal = new ArrayList<>();
-                            for (List<Vector3d> interiorPolygon : interiorPolygons) {
-                                List<Vector3d> interiorPolygonLocal = new ArrayList<>();
-                                for (Vector3d position : interiorPolygon) {
-                                    if (crs.getName().equals("EPSG:4978")) {
-                                        interiorPolygonLocal.add(position);
-                                    } else {
-                                        Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
-                                        Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
-                                        interiorPolygonLocal.add(localPosition);
-                                    }
-                                }
-                                interiorPolygonsLocal.add(interiorPolygonLocal);
-                            }
-                            GaiaPrimitive primitive = createSurfaceFromExteriorAndInteriorPolygons(exteriorPolygonLocal, interiorPolygonsLocal);
-                            if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
-                                log.debug("Invalid Geometry : {}", buildingSurface.getId());
-                                log.debug("Vertices count : {}", primitive.getVertices().size());
-                                log.debug("Surfaces count : {}", primitive.getSurfaces().size());
-                                continue;
-                            }
+            if (!hasHoles) {
+                List<List<Vector3d>> polygons = new ArrayList<>();
+                List<Vector3d> polygon = new ArrayList<>();
 
-                            primitive.setMaterialIndex(material.getId());
-                            mesh.getPrimitives().add(primitive);
-                            rootNode.getChildren().add(node);
-                        }
+                if (buildingSurface.getExteriorPositions().size() < 3) {
+                    log.debug("Invalid Geometry : {}", buildingSurface.getId());
+                    continue;
+                }
+                for (Vector3d position : buildingSurface.getExteriorPositions()) {
+                    if (crs.getName().equals("EPSG:4978")) {
+                        polygon.add(position);
+                    } else {
+                        Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
+                        Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
+                        polygon.add(localPosition);
                     }
+                }
+                polygons.add(polygon);
 
-                    Matrix4d rootTransformMatrix = new Matrix4d().identity();
-                    rootNode.setTransformMatrix(rootTransformMatrix);
+                GaiaPrimitive primitive = createPrimitiveFromPolygons(polygons);
 
-                    Vector3d degreeTranslation = scene.getTranslation();
-                    degreeTranslation.set(center);
+                primitive.setMaterialIndex(material.getId());
+                if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
+                    log.debug("Invalid Geometry : {}", buildingSurface.getId());
+                    log.debug("Vertices count : {}", primitive.getVertices().size());
+                    log.debug("Surfaces count : {}", primitive.getSurfaces().size());
+                    continue;
+                }
+                mesh.getPrimitives().add(primitive);
+                rootNode.getChildren().add(node);
+            } else {
+                // Has holes
+                List<Vector3d> ExteriorPolygon = buildingSurface.getExteriorPositions();
+
+                // convert points to local coordinates
+                List<Vector3d> exteriorPolygonLocal = new ArrayList<>();
+                for (Vector3d position : ExteriorPolygon) {
+                    if (crs.getName().equals("EPSG:4978")) {
+                        exteriorPolygonLocal.add(position);
+                    } else {
+                        Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
+                        Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
+                        exteriorPolygonLocal.add(localPosition);
+                    }
+                }
 
-                    if (rootNode.getChildren().size() <= 0) {
-                        log.debug("Invalid Scene : {}", rootNode.getName());
-                        continue;
+                // interior points
+                List<List<Vector3d>> interiorPolygonsLocal = new ArrayList<>();
+                for (List<Vector3d> interiorPolygon : interiorPolygons) {
+                    List<Vector3d> interiorPolygonLocal = new ArrayList<>();
+                    for (Vector3d position : interiorPolygon) {
+                        if (crs.getName().equals("EPSG:4978")) {
+                            interiorPolygonLocal.add(position);
+                        } else {
+                            Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
+                            Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
+                            interiorPolygonLocal.add(localPosition);
+                        }
                     }
-                    scenes.add(scene);
+                    interiorPolygonsLocal.add(interiorPolygonLocal);
                 }
+                GaiaPrimitive primitive = createSurfaceFromExteriorAndInteriorPolygons(exteriorPolygonLocal, interiorPolygonsLocal);
+                if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
+                    log.debug("Invalid Geometry : {}", buildingSurface.getId());
+                    log.debug("Vertices count : {}", primitive.getVertices().size());
+                    log.debug("Surfaces count : {}", primitive.getSurfaces().size());
+                    continue;
+                }
+
+                primitive.setMaterialIndex(material.getId());
+                mesh.getPrimitives().add(primitive);
+                rootNode.getChildren().add(node);
             }
-            reader.close();
-        } catch (CityGMLContextException | CityGMLReadException e) {
-            log.error("[ERROR] Failed to read citygml file: {}", file.getName());
-            throw new RuntimeException(e);
         }
 
-        return scenes;
+        Matrix4d rootTransformMatrix = new Matrix4d().identity();
+        rootNode.setTransformMatrix(rootTransformMatrix);
+
+        Vector3d degreeTranslation = scene.getTranslation();
+        degreeTranslation.set(center);
+
+        if (rootNode.getChildren().size() <= 0) {
+            log.debug("Invalid Scene : {}", rootNode.getName());
+            return null;
+        }
+        return scene;
     }
 
     private List<GaiaSurfaceModel> convertSolidSurfaceProperty(AbstractCityObject cityObject, AbstractSolid abstractSolid) {
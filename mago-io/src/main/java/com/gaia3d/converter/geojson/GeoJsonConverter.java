@@ -18,10 +18,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.geotools.api.feature.simple.SimpleFeature;
 import org.geotools.api.feature.type.FeatureType;
 import org.geotools.api.feature.type.PropertyDescriptor;
-import org.geotools.data.simple.SimpleFeatureCollection;
-import org.geotools.feature.FeatureIterator;
-import org.geotools.feature.simple.SimpleFeatureImpl;
-import org.geotools.geojson.feature.FeatureJSON;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 import org.locationtech.jts.geom.*;
@@ -29,20 +25,23 @@ import org.locationtech.proj4j.CRSFactory;
 import org.locationtech.proj4j.CoordinateReferenceSystem;
 import org.locationtech.proj4j.ProjCoordinate;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
 @RequiredArgsConstructor
 public class GeoJsonConverter extends AbstractGeometryConverter implements Converter {
-
     private final Parametric3DOptions parametricOptions;
 
+    @Override
+    protected boolean isEarcutTessellation() {
+        return parametricOptions.isEarcutTessellation();
+    }
+
     @Override
     public List<GaiaScene> load(String path) {
         return convert(new File(path));
@@ -58,14 +57,76 @@ public class GeoJsonConverter extends AbstractGeometryConverter implements Conve
         return convert(path.toFile());
     }
 
+    /**
+     * Streams the features of the file and converts them in batches on parallel workers,
+     * each batch is written to its own temp file, so only the batches in flight are kept in memory.
+     */
     @Override
     public List<GaiaSceneTempGroup> convertTemp(File input, File output) {
+        List<GaiaSceneTempGroup> sceneTemps;
+        boolean isDefaultCrs = parametricOptions.getSourceCrs().equals(new CRSFactory().createFromName("EPSG:3857"));
+        int batchSize = Math.max(1, parametricOptions.getExtrusionBatchSize());
+
+        log.info("[Load] Reading GeoJSON file : {}", input.getAbsolutePath());
+        // the crs of the file is kept local, the files are converted in parallel with the same options
+        AtomicReference<CoordinateReferenceSystem> sourceCrs = new AtomicReference<>(parametricOptions.getSourceCrs());
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input);
+             PendingBatches<SimpleFeature> pendingBatches = new PendingBatches<>(features -> convertFeatures(features, sourceCrs.get(), input, output))) {
+            if (reader.isSequence()) {
+                log.info(" - GeoJSON text sequence (one feature per line)");
+            }
+            long featureCount = 0;
+            List<SimpleFeature> features = new ArrayList<>(batchSize);
+            while (reader.hasNext()) {
+                SimpleFeature feature = reader.next();
+                if (featureCount++ == 0 && isDefaultCrs) {
+                    // the crs member precedes the features, so the streamed features carry it in their type
+                    var coordinateReferenceSystem = feature.getFeatureType().getCoordinateReferenceSystem();
+                    if (coordinateReferenceSystem != null) {
+                        CoordinateReferenceSystem crs = GlobeUtils.convertProj4jCrsFromGeotoolsCrs(coordinateReferenceSystem);
+                        log.info(" - Coordinate Reference System : {}", crs.getName());
+                        sourceCrs.set(crs);
+                    }
+                }
+                features.add(feature);
+                if (features.size() >= batchSize) {
+                    pendingBatches.fork(features);
+                    features = new ArrayList<>(batchSize);
+                }
+            }
+            if (!features.isEmpty()) {
+                pendingBatches.fork(features);
+            }
+            sceneTemps = pendingBatches.join();
+            log.info("[Load] Reading GeoJSON file : {} done ({} features)", input.getAbsolutePath(), featureCount);
+        } catch (IOException e) {
+            log.error("[ERROR] Failed to read GeoJSON file : {}", input.getAbsolutePath(), e);
+            throw new RuntimeException(e);
+        }
+        return sceneTemps;
+    }
+
+    /**
+     * Converts a batch of features into temp scene groups.
+     */
+    private List<GaiaSceneTempGroup> convertFeatures(List<SimpleFeature> features, CoordinateReferenceSystem sourceCrs, File input, File output) {
         List<GaiaSceneTempGroup> sceneTemps = new ArrayList<>();
-        GaiaExtruder gaiaExtruder = new GaiaExtruder();
         InnerRingRemover innerRingRemover = new InnerRingRemover();
+        List<GaiaExtrusionModel> buildings = new ArrayList<>();
+        List<GaiaPipeLineString> pipeLineStrings = new ArrayList<>();
+        List<List<GaiaSurfaceModel>> buildingSurfaceModels = new ArrayList<>();
+        for (SimpleFeature feature : features) {
+            readFeature(feature, sourceCrs, input, innerRingRemover, buildings, pipeLineStrings, buildingSurfaceModels);
+        }
+
+        convertExtrusionModels(buildings, sceneTemps, input, output);
+        convertPipeLineStrings(pipeLineStrings, sourceCrs, sceneTemps, input, output);
+        convertSurfacePolygons(buildingSurfaceModels, sceneTemps, input, output);
+        return sceneTemps;
+    }
 
+    private void readFeature(SimpleFeature feature, CoordinateReferenceSystem sourceCrs, File input, InnerRingRemover innerRingRemover, List<GaiaExtrusionModel> buildings, List<GaiaPipeLineString> pipeLineStrings, List<List<GaiaSurfaceModel>> buildingSurfaceModels) {
         List<AttributeFilter> attributeFilters = parametricOptions.getAttributeFilters();
-        boolean isDefaultCrs = parametricOptions.getSourceCrs().equals(new CRSFactory().createFromName("EPSG:3857"));
         boolean flipCoordinate = parametricOptions.isFlipCoordinate();
         String heightColumnName = parametricOptions.getHeightColumnName();
         String altitudeColumnName = parametricOptions.getAltitudeColumnName();
@@ -75,343 +136,304 @@ public class GeoJsonConverter extends AbstractGeometryConverter implements Conve
         double minimumHeightValue = parametricOptions.getMinimumHeightValue();
         double skirtHeight = parametricOptions.getSkirtHeight();
 
-        try (BufferedInputStream bufferedInputStream = new BufferedInputStream(Files.newInputStream(input.toPath()))) {
-            FeatureJSON geojson = new FeatureJSON();
-            log.info("[Load] Reading GeoJSON file : {}", input.getAbsolutePath());
-            SimpleFeatureCollection featureCollection = (SimpleFeatureCollection) geojson.readFeatureCollection(bufferedInputStream);
-            FeatureIterator<SimpleFeature> iterator = featureCollection.features();
-            log.info("[Load] Reading GeoJSON file : {} done", input.getAbsolutePath());
-
-            var coordinateReferenceSystem = featureCollection.getSchema().getCoordinateReferenceSystem();
-            if (isDefaultCrs && coordinateReferenceSystem != null) {
-                CoordinateReferenceSystem crs = GlobeUtils.convertProj4jCrsFromGeotoolsCrs(coordinateReferenceSystem);
-                log.info(" - Coordinate Reference System : {}", crs.getName());
-                parametricOptions.setSourceCrs(crs);
-            }
-
-            List<GaiaExtrusionModel> buildings = new ArrayList<>();
-            List<GaiaPipeLineString> pipeLineStrings = new ArrayList<>();
-            List<List<GaiaSurfaceModel>> buildingSurfaceModels = new ArrayList<>();
-            while (iterator.hasNext()) {
-                List<GaiaSurfaceModel> buildingSurfaces = new ArrayList<>();
-                SimpleFeatureImpl feature = (SimpleFeatureImpl) iterator.next();
-                Geometry geom = (Geometry) feature.getDefaultGeometry();
-
-                if (geom == null) {
-                    log.debug("Is Null Geometry : {}", feature.getID());
-                    continue;
-                }
+        List<GaiaSurfaceModel> buildingSurfaces = new ArrayList<>();
+        Geometry geom = (Geometry) feature.getDefaultGeometry();
 
-                if (!attributeFilters.isEmpty()) {
-                    boolean filterFlag = false;
-                    for (AttributeFilter attributeFilter : attributeFilters) {
-                        String columnName = attributeFilter.getAttributeName();
-                        String filterValue = attributeFilter.getAttributeValue();
-                        String attributeValue = castStringFromObject(feature.getAttribute(columnName), "null");
-                        if (filterValue.equals(attributeValue)) {
-                            filterFlag = true;
-                            break;
-                        }
-                    }
-                    if (!filterFlag) {
-                        continue;
-                    }
+        if (geom == null) {
+            log.debug("Is Null Geometry : {}", feature.getID());
+            return;
+        }
+
+        if (!attributeFilters.isEmpty()) {
+            boolean filterFlag = false;
+            for (AttributeFilter attributeFilter : attributeFilters) {
+                String columnName = attributeFilter.getAttributeName();
+                String filterValue = attributeFilter.getAttributeValue();
+                String attributeValue = castStringFromObject(feature.getAttribute(columnName), "null");
+                if (filterValue.equals(attributeValue)) {
+                    filterFlag = true;
+                    break;
                 }
+            }
+            if (!filterFlag) {
+                return;
+            }
+        }
 
-                List<Polygon> polygons = new ArrayList<>();
-                List<LineString> lineStrings = new ArrayList<>();
-                if (geom instanceof MultiPolygon) {
-                    int count = geom.getNumGeometries();
-                    for (int i = 0; i < count; i++) {
-                        Polygon polygon = (Polygon) geom.getGeometryN(i);
-                        polygons.add(polygon);
-                    }
-                } else if (geom instanceof Polygon) {
-                    polygons.add((Polygon) geom);
-                } else if (geom instanceof LineString) {
-                    lineStrings.add((LineString) geom);
-                } else if (geom instanceof MultiLineString) {
-                    int count = geom.getNumGeometries();
-                    for (int i = 0; i < count; i++) {
-                        LineString lineString = (LineString) geom.getGeometryN(i);
-                        lineStrings.add(lineString);
-                    }
+        List<Polygon> polygons = new ArrayList<>();
+        List<LineString> lineStrings = new ArrayList<>();
+        if (geom instanceof MultiPolygon) {
+            int count = geom.getNumGeometries();
+            for (int i = 0; i < count; i++) {
+                Polygon polygon = (Polygon) geom.getGeometryN(i);
+                polygons.add(polygon);
+            }
+        } else if (geom instanceof Polygon) {
+            polygons.add((Polygon) geom);
+        } else if (geom instanceof LineString) {
+            lineStrings.add((LineString) geom);
+        } else if (geom instanceof MultiLineString) {
+            int count = geom.getNumGeometries();
+            for (int i = 0; i < count; i++) {
+                LineString lineString = (LineString) geom.getGeometryN(i);
+                lineStrings.add(lineString);
+            }
+        } else {
+            log.debug("Is Not Supported Geometry Type : {}", geom.getGeometryType());
+            return;
+        }
+
+        Map<String, String> attributes = new HashMap<>();
+        FeatureType featureType = feature.getFeatureType();
+        Collection<PropertyDescriptor> featureDescriptors = featureType.getDescriptors();
+        AtomicInteger index = new AtomicInteger(0);
+        featureDescriptors.forEach(attributeDescriptor -> {
+            Object attribute = feature.getAttribute(index.getAndIncrement());
+            if (attribute instanceof Geometry) {
+                return;
+            }
+            String attributeString = castStringFromObject(attribute, "Null");
+            //log.debug("{} : {}", attributeDescriptor.getName(), attributeString);
+            attributes.put(attributeDescriptor.getName().getLocalPart(), attributeString);
+        });
+
+        for (LineString lineString : lineStrings) {
+            Coordinate[] coordinates = lineString.getCoordinates();
+            List<Vector3d> positions = new ArrayList<>();
+            if (coordinates.length < 2) {
+                log.warn("[WARN] Invalid LineString : {}", feature.getID());
+                continue;
+            }
+            for (Coordinate coordinate : coordinates) {
+                Point point = new GeometryFactory().createPoint(coordinate);
+                double x, y, z;
+                if (flipCoordinate) {
+                    x = point.getY();
+                    y = point.getX();
                 } else {
-                    log.debug("Is Not Supported Geometry Type : {}", geom.getGeometryType());
-                    continue;
+                    x = point.getX();
+                    y = point.getY();
+                }
+                z = point.getCoordinate().getZ();
+                if (Double.isNaN(z) || Double.isInfinite(z)) {
+                    z = 0.0d;
                 }
 
-                Map<String, String> attributes = new HashMap<>();
-                FeatureType featureType = feature.getFeatureType();
-                Collection<PropertyDescriptor> featureDescriptors = featureType.getDescriptors();
-                AtomicInteger index = new AtomicInteger(0);
-                featureDescriptors.forEach(attributeDescriptor -> {
-                    Object attribute = feature.getAttribute(index.getAndIncrement());
-                    if (attribute instanceof Geometry) {
-                        return;
-                    }
-                    String attributeString = castStringFromObject(attribute, "Null");
-                    //log.debug("{} : {}", attributeDescriptor.getName(), attributeString);
-                    attributes.put(attributeDescriptor.getName().getLocalPart(), attributeString);
-                });
+                Vector3d position = new Vector3d(x, y, z); // usually crs 3857
+                positions.add(position);
+            }
+            double diameter = getDiameter(feature, diameterColumnName);
 
-                for (LineString lineString : lineStrings) {
-                    Coordinate[] coordinates = lineString.getCoordinates();
-                    List<Vector3d> positions = new ArrayList<>();
-                    if (coordinates.length < 2) {
-                        log.warn("[WARN] Invalid LineString : {}", feature.getID());
-                        continue;
-                    }
-                    for (Coordinate coordinate : coordinates) {
-                        Point point = new GeometryFactory().createPoint(coordinate);
-                        double x, y, z;
-                        if (flipCoordinate) {
-                            x = point.getY();
-                            y = point.getX();
-                        } else {
-                            x = point.getX();
-                            y = point.getY();
-                        }
-                        z = point.getCoordinate().getZ();
-                        if (Double.isNaN(z) || Double.isInfinite(z)) {
-                            z = 0.0d;
-                        }
-
-                        Vector3d position = new Vector3d(x, y, z); // usually crs 3857
-                        positions.add(position);
+            GaiaPipeLineString pipeLineString = GaiaPipeLineString.builder().id(feature.getID()).profileType(PipeType.CIRCULAR).diameter(diameter).properties(attributes).positions(positions).build();
+            pipeLineString.setOriginalFilePath(input.getPath());
+            pipeLineStrings.add(pipeLineString);
+        }
+
+        for (Polygon polygon : polygons) {
+            LineString lineString = polygon.getExteriorRing();
+            Coordinate[] outerCoordinates = lineString.getCoordinates();
+
+            // check is 3d geometry
+            boolean is3d = false;
+            if (outerCoordinates.length >= 3) {
+                for (Coordinate coordinate : outerCoordinates) {
+                    if (!(Double.isNaN(coordinate.getZ()) || Double.isInfinite(coordinate.getZ()) || coordinate.getZ() == 0.0d)) {
+                        is3d = true;
+                        break;
                     }
-                    double diameter = getDiameter(feature, diameterColumnName);
+                }
+            }
 
-                    GaiaPipeLineString pipeLineString = GaiaPipeLineString.builder().id(feature.getID()).profileType(PipeType.CIRCULAR).diameter(diameter).properties(attributes).positions(positions).build();
-                    pipeLineString.setOriginalFilePath(input.getPath());
-                    pipeLineStrings.add(pipeLineString);
+            if (!is3d) {
+                if (!polygon.isValid()) {
+                    log.debug("Is Invalid Polygon. : {}", feature.getID());
+                    continue;
                 }
+            }
 
-                for (Polygon polygon : polygons) {
-                    LineString lineString = polygon.getExteriorRing();
-                    Coordinate[] outerCoordinates = lineString.getCoordinates();
-
-                    // check is 3d geometry
-                    boolean is3d = false;
-                    if (outerCoordinates.length >= 3) {
-                        for (Coordinate coordinate : outerCoordinates) {
-                            if (!(Double.isNaN(coordinate.getZ()) || Double.isInfinite(coordinate.getZ()) || coordinate.getZ() == 0.0d)) {
-                                is3d = true;
-                                break;
-                            }
-                        }
+            int innerRingCount = polygon.getNumInteriorRing();
+            List<Coordinate[]> innerCoordinates = new ArrayList<>();
+            List<List<Vector3d>> vec3InteriorPolygons = new ArrayList<>();
+            for (int i = 0; i < innerRingCount; i++) {
+                GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+                List<Vector3d> positions = new ArrayList<>();
+                LineString innerRing = polygon.getInteriorRingN(i);
+                Coordinate[] innerCoordinatesArray = innerRing.getCoordinates();
+                innerCoordinates.add(innerCoordinatesArray);
+                Coordinate[] interiorCoordinates = innerRing.getCoordinates();
+                for (Coordinate coordinate : interiorCoordinates) {
+                    double x, y, z;
+                    if (flipCoordinate) {
+                        x = coordinate.getY();
+                        y = coordinate.getX();
+                    } else {
+                        x = coordinate.getX();
+                        y = coordinate.getY();
                     }
+                    z = coordinate.getZ();
 
-                    if (!is3d) {
-                        if (!polygon.isValid()) {
-                            log.debug("Is Invalid Polygon. : {}", feature.getID());
-                            continue;
-                        }
+                    Vector3d position;
+                    if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
+                        ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
+                        ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
+                        position = new Vector3d(centerWgs84.x, centerWgs84.y, z);
+                    } else {
+                        position = new Vector3d(x, y, z);
                     }
+                    positions.add(position);
+                    boundingBox.addPoint(position);
+                }
+                vec3InteriorPolygons.add(positions);
+            }
 
-                    int innerRingCount = polygon.getNumInteriorRing();
-                    List<Coordinate[]> innerCoordinates = new ArrayList<>();
-                    List<List<Vector3d>> vec3InteriorPolygons = new ArrayList<>();
-                    for (int i = 0; i < innerRingCount; i++) {
-                        GaiaBoundingBox boundingBox = new GaiaBoundingBox();
-                        List<Vector3d> positions = new ArrayList<>();
-                        LineString innerRing = polygon.getInteriorRingN(i);
-                        Coordinate[] innerCoordinatesArray = innerRing.getCoordinates();
-                        innerCoordinates.add(innerCoordinatesArray);
-                        Coordinate[] interiorCoordinates = innerRing.getCoordinates();
-                        for (Coordinate coordinate : interiorCoordinates) {
-                            double x, y, z;
-                            if (flipCoordinate) {
-                                x = coordinate.getY();
-                                y = coordinate.getX();
-                            } else {
-                                x = coordinate.getX();
-                                y = coordinate.getY();
-                            }
-                            z = coordinate.getZ();
-
-                            Vector3d position;
-                            CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                            if (crs != null && !crs.getName().equals("EPSG:4326")) {
-                                ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
-                                ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
-                                position = new Vector3d(centerWgs84.x, centerWgs84.y, z);
-                            } else {
-                                position = new Vector3d(x, y, z);
-                            }
-                            positions.add(position);
-                            boundingBox.addPoint(position);
-                        }
-                        vec3InteriorPolygons.add(positions);
+            if (!is3d) {
+                outerCoordinates = innerRingRemover.removeAll(outerCoordinates, innerCoordinates);
+            }
+            GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+            List<Vector3d> positions = new ArrayList<>();
+
+            for (Coordinate coordinate : outerCoordinates) {
+                double x, y, z;
+                if (flipCoordinate) {
+                    x = coordinate.getY();
+                    y = coordinate.getX();
+                } else {
+                    x = coordinate.getX();
+                    y = coordinate.getY();
+                }
+                z = coordinate.getZ();
+
+                if (is3d) {
+                    Vector3d position;
+                    if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
+                        ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
+                        ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
+                        position = new Vector3d(centerWgs84.x, centerWgs84.y, z);
+                    } else {
+                        position = new Vector3d(x, y, z);
                     }
-
-                    if (!is3d) {
-                        outerCoordinates = innerRingRemover.removeAll(outerCoordinates, innerCoordinates);
+                    positions.add(position);
+                    boundingBox.addPoint(position);
+                } else {
+                    Vector3d position;
+                    if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
+                        ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
+                        ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
+                        position = new Vector3d(centerWgs84.x, centerWgs84.y, 0.0d);
+                    } else {
+                        position = new Vector3d(x, y, 0.0d);
                     }
-                    GaiaBoundingBox boundingBox = new GaiaBoundingBox();
-                    List<Vector3d> positions = new ArrayList<>();
-
-                    for (Coordinate coordinate : outerCoordinates) {
-                        double x, y, z;
-                        if (flipCoordinate) {
-                            x = coordinate.getY();
-                            y = coordinate.getX();
-                        } else {
-                            x = coordinate.getX();
-                            y = coordinate.getY();
-                        }
-                        z = coordinate.getZ();
-
-                        if (is3d) {
-                            Vector3d position;
-                            CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                            if (crs != null && !crs.getName().equals("EPSG:4326")) {
-                                ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
-                                ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
-                                position = new Vector3d(centerWgs84.x, centerWgs84.y, z);
-                            } else {
-                                position = new Vector3d(x, y, z);
-                            }
-                            positions.add(position);
-                            boundingBox.addPoint(position);
-                        } else {
-                            Vector3d position;
-                            CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                            if (crs != null && !crs.getName().equals("EPSG:4326")) {
-                                ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
-                                ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
-                                position = new Vector3d(centerWgs84.x, centerWgs84.y, 0.0d);
-                            } else {
-                                position = new Vector3d(x, y, 0.0d);
-                            }
-                            positions.add(position);
-                            boundingBox.addPoint(position);
-                        }
+                    positions.add(position);
+                    boundingBox.addPoint(position);
+                }
+            }
+
+            if (positions.size() >= 3) {
+                if (is3d) {
+                    GaiaSurfaceModel buildingSurface = GaiaSurfaceModel.builder()
+                            .id(feature.getID())
+                            .name(feature.getID())
+                            .boundingBox(boundingBox)
+                            .exteriorPositions(positions)
+                            .interiorPositions(vec3InteriorPolygons)
+                            .properties(attributes)
+                            .build();
+                    buildingSurfaces.add(buildingSurface);
+                } else {
+                    double height = getHeight(feature, heightColumnName, minimumHeightValue);
+                    double altitude = absoluteAltitudeValue;
+                    if (altitudeColumnName != null) {
+                        altitude = getAltitude(feature, altitudeColumnName);
                     }
 
-                    if (positions.size() >= 3) {
-                        if (is3d) {
-                            GaiaSurfaceModel buildingSurface = GaiaSurfaceModel.builder()
-                                    .id(feature.getID())
-                                    .name(feature.getID())
-                                    .boundingBox(boundingBox)
-                                    .exteriorPositions(positions)
-                                    .interiorPositions(vec3InteriorPolygons)
-                                    .properties(attributes)
-                                    .build();
-                            buildingSurfaces.add(buildingSurface);
-                        } else {
-                            double height = getHeight(feature, heightColumnName, minimumHeightValue);
-                            double altitude = absoluteAltitudeValue;
-                            if (altitudeColumnName != null) {
-                                altitude = getAltitude(feature, altitudeColumnName);
-                            }
-
-                            /* If the height is less than the altitude, swap the values. */
-                            if (height < altitude) {
-                                double temp = height;
-                                height = altitude;
-                                altitude = temp;
-                            }
-
-                            GaiaExtrusionModel building = GaiaExtrusionModel.builder()
-                                    .id(feature.getID())
-                                    .boundingBox(boundingBox)
-                                    .floorHeight(altitude)
-                                    .roofHeight(height + skirtHeight)
-                                    .positions(positions)
-                                    .properties(attributes)
-                                    .build();
-                            buildings.add(building);
-                        }
-                    } else {
-                        log.warn("[WARN] Invalid Geometry : {}", feature.getID());
+                    /* If the height is less than the altitude, swap the values. */
+                    if (height < altitude) {
+                        double temp = height;
+                        height = altitude;
+                        altitude = temp;
                     }
+
+                    GaiaExtrusionModel building = GaiaExtrusionModel.builder()
+                            .id(feature.getID())
+                            .boundingBox(boundingBox)
+                            .floorHeight(altitude)
+                            .roofHeight(height + skirtHeight)
+                            .positions(positions)
+                            .properties(attributes)
+                            .build();
+                    buildings.add(building);
                 }
-                buildingSurfaceModels.add(buildingSurfaces);
+            } else {
+                log.warn("[WARN] Invalid Geometry : {}", feature.getID());
             }
-            iterator.close();
-            DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
-
-            int sceneCount = 10000;
-            List<GaiaScene> scenes = new ArrayList<>();
-            for (GaiaExtrusionModel building : buildings) {
-                GaiaScene scene = defaultSceneFactory.createScene(input);
-                GaiaNode rootNode = scene.getNodes().get(0);
+        }
+        buildingSurfaceModels.add(buildingSurfaces);
+    }
 
-                GaiaAttribute gaiaAttribute = scene.getAttribute();
-                gaiaAttribute.setAttributes(building.getProperties());
-                gaiaAttribute.setNodeName(rootNode.getName());
+    private void convertExtrusionModels(List<GaiaExtrusionModel> buildings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+        GaiaExtruder gaiaExtruder = new GaiaExtruder();
+        DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
+        double skirtHeight = parametricOptions.getSkirtHeight();
 
-                Vector3d center = building.getBoundingBox().getCenter();
-                center.z = center.z - skirtHeight;
+        int sceneCount = Math.max(1, parametricOptions.getExtrusionBatchSize());
+        List<GaiaScene> scenes = new ArrayList<>();
+        for (GaiaExtrusionModel building : buildings) {
+            GaiaScene scene = defaultSceneFactory.createScene(input);
+            GaiaNode rootNode = scene.getNodes().get(0);
 
-                Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(center);
-                Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
-                Matrix4d transformMatrixInv = new Matrix4d(transformMatrix).invert();
+            GaiaAttribute gaiaAttribute = scene.getAttribute();
+            gaiaAttribute.setAttributes(building.getProperties());
+            gaiaAttribute.setNodeName(rootNode.getName());
 
-                List<Vector3d> localPositions = new ArrayList<>();
-                for (Vector3d position : building.getPositions()) {
-                    Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
-                    Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
-                    localPosition.z = 0.0d;
-                    localPositions.add(new Vector3dOnlyHashEquals(localPosition));
-                }
-                Collections.reverse(localPositions);
+            Vector3d center = building.getBoundingBox().getCenter();
+            center.z = center.z - skirtHeight;
 
-                List<GaiaExtrusionSurface> extrusionSurfaces = gaiaExtruder.extrude(localPositions, building.getRoofHeight(), building.getFloorHeight());
+            Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(center);
+            Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
+            Matrix4d transformMatrixInv = new Matrix4d(transformMatrix).invert();
 
-                GaiaNode node = new GaiaNode();
-                node.setTransformMatrix(new Matrix4d().identity());
-                GaiaMesh mesh = new GaiaMesh();
-                node.getMeshes().add(mesh);
+            List<Vector3d> localPositions = new ArrayList<>();
+            for (Vector3d position : building.getPositions()) {
+                Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(position);
+                Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv);
+                localPosition.z = 0.0d;
+                localPositions.add(new Vector3dOnlyHashEquals(localPosition));
+            }
+            Collections.reverse(localPositions);
 
-                GaiaPrimitive primitive = createPrimitiveFromGaiaExtrusionSurfaces(extrusionSurfaces);
-                if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
-                    log.debug("Invalid Geometry : {}", building.getId());
-                    log.debug("Vertices count : {}", primitive.getVertices().size());
-                    log.debug("Surfaces count : {}", primitive.getSurfaces().size());
-                    continue;
-                }
+            List<GaiaExtrusionSurface> extrusionSurfaces = gaiaExtruder.extrude(localPositions, building.getRoofHeight(), building.getFloorHeight());
 
-                primitive.setMaterialIndex(0);
-                mesh.getPrimitives().add(primitive);
+            GaiaNode node = new GaiaNode();
+            node.setTransformMatrix(new Matrix4d().identity());
+            GaiaMesh mesh = new GaiaMesh();
+            node.getMeshes().add(mesh);
+
+            GaiaPrimitive primitive = createPrimitiveFromGaiaExtrusionSurfaces(extrusionSurfaces);
+            if (primitive.getSurfaces().isEmpty() || primitive.getVertices().size() < 3) {
+                log.debug("Invalid Geometry : {}", building.getId());
+                log.debug("Vertices count : {}", primitive.getVertices().size());
+                log.debug("Surfaces count : {}", primitive.getSurfaces().size());
+                continue;
+            }
 
-                rootNode.getChildren().add(node);
+            primitive.setMaterialIndex(0);
+            mesh.getPrimitives().add(primitive);
 
-                Matrix4d rootTransformMatrix = new Matrix4d().identity();
-                rootNode.setTransformMatrix(rootTransformMatrix);
+            rootNode.getChildren().add(node);
 
-                Vector3d degreeTranslation = scene.getTranslation();
-                degreeTranslation.set(center);
+            Matrix4d rootTransformMatrix = new Matrix4d().identity();
+            rootNode.setTransformMatrix(rootTransformMatrix);
 
-                if (rootNode.getChildren().size() <= 0) {
-                    log.debug("Invalid Scene : {}", rootNode.getName());
-                    continue;
-                }
+            Vector3d degreeTranslation = scene.getTranslation();
+            degreeTranslation.set(center);
 
-                scenes.add(scene);
-                if (scenes.size() >= sceneCount) {
-                    String tempName = UUID.randomUUID() + "_" + input.getName();
-                    File tempFile = new File(output, tempName);
-
-                    scenes.forEach((gaiaScene) -> {
-                        gaiaScene.setOriginalPath(tempFile.toPath());
-                    });
-                    log.info("[{}] write temp : {}", tempName, scenes.size());
-                    GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder()
-                            .tempScene(scenes)
-                            .tempFile(tempFile).build();
-                    sceneTemp.minimize(tempFile);
-                    sceneTemps.add(sceneTemp);
-                    scenes.clear();
-                }
+            if (rootNode.getChildren().size() <= 0) {
+                log.debug("Invalid Scene : {}", rootNode.getName());
+                continue;
             }
 
-            convertPipeLineStrings(pipeLineStrings, sceneTemps, input, output);
-            convertSurfacePolygons(buildingSurfaceModels, sceneTemps, input, output);
-
-            if (!scenes.isEmpty()) {
+            scenes.add(scene);
+            if (scenes.size() >= sceneCount) {
                 String tempName = UUID.randomUUID() + "_" + input.getName();
                 File tempFile = new File(output, tempName);
 
@@ -424,12 +446,24 @@ public class GeoJsonConverter extends AbstractGeometryConverter implements Conve
                         .tempFile(tempFile).build();
                 sceneTemp.minimize(tempFile);
                 sceneTemps.add(sceneTemp);
+                scenes.clear();
             }
-        } catch (IOException e) {
-            log.error("[ERROR] Failed to read GeoJSON file : {}", input.getAbsolutePath(), e);
-            throw new RuntimeException(e);
         }
-        return sceneTemps;
+
+        if (!scenes.isEmpty()) {
+            String tempName = UUID.randomUUID() + "_" + input.getName();
+            File tempFile = new File(output, tempName);
+
+            scenes.forEach((gaiaScene) -> {
+                gaiaScene.setOriginalPath(tempFile.toPath());
+            });
+            log.info("[{}] write temp : {}", tempName, scenes.size());
+            GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder()
+                    .tempScene(scenes)
+                    .tempFile(tempFile).build();
+            sceneTemp.minimize(tempFile);
+            sceneTemps.add(sceneTemp);
+        }
     }
 
     @Override
@@ -546,7 +580,7 @@ public class GeoJsonConverter extends AbstractGeometryConverter implements Conve
     }
 
 
-    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, CoordinateReferenceSystem sourceCrs, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
         if (pipeLineStrings.isEmpty()) {
             return;
         }
@@ -559,10 +593,9 @@ public class GeoJsonConverter extends AbstractGeometryConverter implements Conve
             for (int j = 0; j < pointsCount; j++) {
                 Vector3d point = pipeLineString.getPositions().get(j);
                 //Vector3d position = new Vector3d(x, y, z);
-                CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                if (crs != null && !crs.getName().equals("EPSG:4326")) {
+                if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
                     ProjCoordinate projCoordinate = new ProjCoordinate(point.x, point.y, point.z);
-                    ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
+                    ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
 
                     double defaultHeight = 2.0;
                     double heightOffset = 0.0;
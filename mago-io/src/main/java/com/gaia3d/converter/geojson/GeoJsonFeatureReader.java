@@ -0,0 +1,222 @@
+package com.gaia3d.converter.geojson;
+
+import lombok.extern.slf4j.Slf4j;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.geotools.feature.FeatureIterator;
+import org.geotools.geojson.feature.FeatureJSON;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+
+/**
+ * Streaming reader of GeoJSON features.
+ * A FeatureCollection is parsed feature by feature instead of being materialized as a whole,
+ * GeoJSON text sequences (RFC 8142) are split at the record separators, so a record may span several lines,
+ * and newline-delimited GeoJSON is read one record per line.
+ */
+@Slf4j
+public class GeoJsonFeatureReader implements FeatureIterator<SimpleFeature> {
+    /**
+     * File extensions of GeoJSON text sequences and newline-delimited GeoJSON.
+     */
+    public static final List<String> SEQUENCE_EXTENSIONS = List.of("geojsonl", "geojsons", "geojsonseq", "jsonl", "ndjson");
+    private static final char RECORD_SEPARATOR = '\u001E';
+
+    private final File input;
+    private final BufferedReader reader;
+    private final FeatureJSON featureJSON = new FeatureJSON();
+    private final FeatureIterator<SimpleFeature> collectionIterator;
+    private final boolean recordSeparated;
+
+    private SimpleFeature nextFeature;
+    private long lineNumber = 0;
+
+    private GeoJsonFeatureReader(File input, boolean sequence) throws IOException {
+        this.input = input;
+        this.reader = Files.newBufferedReader(input.toPath(), StandardCharsets.UTF_8);
+        this.recordSeparated = startsWithRecordSeparator(reader);
+        if (sequence || recordSeparated || isSequence(reader)) {
+            this.collectionIterator = null;
+        } else {
+            this.collectionIterator = featureJSON.streamFeatureCollection(reader);
+        }
+    }
+
+    public static GeoJsonFeatureReader open(File input) throws IOException {
+        return new GeoJsonFeatureReader(input, isSequenceExtension(input));
+    }
+
+    public static boolean isSequenceExtension(File input) {
+        String name = input.getName();
+        int dot = name.lastIndexOf('.');
+        if (dot < 0) {
+            return false;
+        }
+        return SEQUENCE_EXTENSIONS.contains(name.substring(dot + 1).toLowerCase(Locale.ROOT));
+    }
+
+    public boolean isSequence() {
+        return collectionIterator == null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (collectionIterator != null) {
+            return collectionIterator.hasNext();
+        }
+        if (nextFeature == null) {
+            nextFeature = readNextRecord();
+        }
+        return nextFeature != null;
+    }
+
+    @Override
+    public SimpleFeature next() {
+        if (collectionIterator != null) {
+            return collectionIterator.next();
+        }
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        SimpleFeature feature = nextFeature;
+        nextFeature = null;
+        return feature;
+    }
+
+    @Override
+    public void close() {
+        if (collectionIterator != null) {
+            collectionIterator.close();
+        }
+        try {
+            reader.close();
+        } catch (IOException e) {
+            log.warn("[WARN] Failed to close GeoJSON file : {}", input.getAbsolutePath());
+        }
+    }
+
+    private SimpleFeature readNextRecord() {
+        try {
+            while (true) {
+                long recordLineNumber = lineNumber + 1;
+                String line = recordSeparated ? readSeparatedRecord() : readLine();
+                if (line == null) {
+                    return null;
+                }
+                String record = stripRecordSeparators(line);
+                if (record.isEmpty()) {
+                    continue;
+                }
+                try {
+                    SimpleFeature feature = featureJSON.readFeature(record);
+                    if (feature != null) {
+                        return feature;
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.warn("[WARN] Invalid GeoJSON record at line {} : {}", recordLineNumber, input.getAbsolutePath());
+                }
+            }
+        } catch (IOException e) {
+            log.error("[ERROR] Failed to read GeoJSON file : {}", input.getAbsolutePath(), e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private String readLine() throws IOException {
+        String line = reader.readLine();
+        if (line != null) {
+            lineNumber++;
+        }
+        return line;
+    }
+
+    /**
+     * Reads the text up to the next record separator, line feeds included.
+     */
+    private String readSeparatedRecord() throws IOException {
+        StringBuilder record = new StringBuilder();
+        int character;
+        while ((character = reader.read()) != -1) {
+            if (character == RECORD_SEPARATOR) {
+                if (!record.isEmpty()) {
+                    return record.toString();
+                }
+                continue;
+            }
+            if (character == '\n') {
+                lineNumber++;
+            }
+            record.append((char) character);
+        }
+        return record.isEmpty() ? null : record.toString();
+    }
+
+    /**
+     * Whether the first non-whitespace character is the record separator of a text sequence.
+     */
+    private static boolean startsWithRecordSeparator(BufferedReader reader) throws IOException {
+        int readAheadLimit = 64 * 1024;
+        reader.mark(readAheadLimit);
+        try {
+            int character;
+            int count = 0;
+            do {
+                character = reader.read();
+                count++;
+            } while (character != -1 && count < readAheadLimit && Character.isWhitespace(character));
+            return character == RECORD_SEPARATOR;
+        } finally {
+            reader.reset();
+        }
+    }
+
+    /**
+     * A text sequence starts with the record separator, a newline-delimited file with a single Feature on its first line.
+     */
+    private static boolean isSequence(BufferedReader reader) throws IOException {
+        int readAheadLimit = 64 * 1024;
+        reader.mark(readAheadLimit);
+        try {
+            int character;
+            int count = 0;
+            do {
+                character = reader.read();
+                count++;
+            } while (character != -1 && count < readAheadLimit && Character.isWhitespace(character));
+            if (character == RECORD_SEPARATOR) {
+                return true;
+            }
+            if (character != '{') {
+                return false;
+            }
+            // the first line of a newline-delimited file is a complete feature
+            StringBuilder firstLine = new StringBuilder("{");
+            while (count < readAheadLimit && (character = reader.read()) != -1 && character != '\n') {
+                firstLine.append((char) character);
+                count++;
+            }
+            String line = firstLine.toString().trim();
+            return character == '\n' && line.endsWith("}") && line.contains("\"Feature\"") && !line.contains("\"FeatureCollection\"");
+        } finally {
+            reader.reset();
+        }
+    }
+
+    private static String stripRecordSeparators(String line) {
+        int start = 0;
+        int end = line.length();
+        while (start < end && (line.charAt(start) == RECORD_SEPARATOR || Character.isWhitespace(line.charAt(start)))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(line.charAt(end - 1))) {
+            end--;
+        }
+        return line.substring(start, end);
+    }
+}
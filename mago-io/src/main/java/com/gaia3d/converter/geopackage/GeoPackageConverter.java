@@ -45,6 +45,11 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
 
     private final Parametric3DOptions parametricOptions;
 
+    @Override
+    protected boolean isEarcutTessellation() {
+        return parametricOptions.isEarcutTessellation();
+    }
+
     @Override
     public List<GaiaScene> load(String path) {
         return convert(new File(path));
@@ -66,7 +71,9 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
         InnerRingRemover innerRingRemover = new InnerRingRemover();
 
         List<AttributeFilter> attributeFilters = parametricOptions.getAttributeFilters();
-        boolean isDefaultCrs = parametricOptions.getSourceCrs().equals(new CRSFactory().createFromName("EPSG:3857"));
+        // the crs of the file is kept local, the files are converted in parallel with the same options
+        CoordinateReferenceSystem sourceCrs = parametricOptions.getSourceCrs();
+        boolean isDefaultCrs = sourceCrs.equals(new CRSFactory().createFromName("EPSG:3857"));
         boolean flipCoordinate = parametricOptions.isFlipCoordinate();
         String heightColumnName = parametricOptions.getHeightColumnName();
         String altitudeColumnName = parametricOptions.getAltitudeColumnName();
@@ -98,7 +105,7 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
                 if (isDefaultCrs && coordinateReferenceSystem != null) {
                     CoordinateReferenceSystem crs = GlobeUtils.convertProj4jCrsFromGeotoolsCrs(coordinateReferenceSystem);
                     log.info(" - Coordinate Reference System : {}", crs.getName());
-                    parametricOptions.setSourceCrs(crs);
+                    sourceCrs = crs;
                 }
 
                 Filter filter = Filter.INCLUDE;
@@ -246,10 +253,9 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
                             z = coordinate.getZ();
 
                             Vector3d position;
-                            CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                            if (crs != null && !crs.getName().equals("EPSG:4326")) {
+                            if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
                                 ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
-                                ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
+                                ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
                                 position = new Vector3d(centerWgs84.x, centerWgs84.y, 0.0d);
                             } else {
                                 position = new Vector3d(x, y, 0.0d);
@@ -281,8 +287,8 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
                     }
                 }
             }
-            convertPipeLineStrings(pipeLineStrings, sceneTemps, input, output);
-            convertExtrusionBuildings(buildings, sceneTemps, input, output);
+            convertPipeLineStrings(pipeLineStrings, sourceCrs, sceneTemps, input, output);
+            sceneTemps.addAll(convertInBatches(buildings, parametricOptions.getExtrusionBatchSize(), batch -> convertExtrusionBuildings(batch, input, output)));
 
             geoPackage.close();
         } catch (IOException e) {
@@ -299,11 +305,14 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
         return sceneTemp.getTempScene();
     }
 
-    private void convertExtrusionBuildings(List<GaiaExtrusionModel> buildings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+    /**
+     * Extrudes a batch of buildings into one temp file.
+     */
+    private List<GaiaSceneTempGroup> convertExtrusionBuildings(List<GaiaExtrusionModel> buildings, File input, File output) {
+        List<GaiaSceneTempGroup> sceneTemps = new ArrayList<>();
         double skirtHeight = parametricOptions.getSkirtHeight();
         GaiaExtruder gaiaExtruder = new GaiaExtruder();
 
-        int sceneCount = 10000;
         List<GaiaScene> scenes = new ArrayList<>();
 
         DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
@@ -360,19 +369,6 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
             degreeTranslation.set(center);
 
             scenes.add(scene);
-            if (scenes.size() >= sceneCount) {
-                String tempName = UUID.randomUUID() + "_" + input.getName();
-                File tempFile = new File(output, tempName);
-
-                scenes.forEach((gaiaScene) -> {
-                    gaiaScene.setOriginalPath(tempFile.toPath());
-                });
-                log.info("[{}] write temp : {}", tempName, scenes.size());
-                GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder().tempScene(scenes).tempFile(tempFile).build();
-                sceneTemp.minimize(tempFile);
-                sceneTemps.add(sceneTemp);
-                scenes.clear();
-            }
         }
         if (!scenes.isEmpty()) {
             String tempName = UUID.randomUUID() + "_" + input.getName();
@@ -386,9 +382,10 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
             sceneTemp.minimize(tempFile);
             sceneTemps.add(sceneTemp);
         }
+        return sceneTemps;
     }
 
-    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, CoordinateReferenceSystem sourceCrs, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
         if (pipeLineStrings.isEmpty()) {
             return;
         }
@@ -401,10 +398,9 @@ public class GeoPackageConverter extends AbstractGeometryConverter implements Co
             for (int j = 0; j < pointsCount; j++) {
                 Vector3d point = pipeLineString.getPositions().get(j);
                 //Vector3d position = new Vector3d(x, y, z);
-                CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                if (crs != null && !crs.getName().equals("EPSG:4326")) {
+                if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
                     ProjCoordinate projCoordinate = new ProjCoordinate(point.x, point.y, point.z);
-                    ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
+                    ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
 
                     double defaultHeight = 2.0;
                     double heightOffset = 0.0;
@@ -73,6 +73,47 @@ public class Quantization {
                 offsetX, offsetY, offsetZ, 1);
     }
 
+    /**
+     * Computes a quantization matrix from the bounds of the values, without scanning them again.
+     * The 8 corners of the bounds are transformed, so the result always contains every transformed value.
+     * It is the same as scanning the values only for translations and scales,
+     * with a rotation or a shear it can be larger than the scanned bounds and the quantization is coarser.
+     * @param originalMatrix The original transformation matrix.
+     * @param min The minimum x, y, z of the values.
+     * @param max The maximum x, y, z of the values.
+     * @return A quantization matrix that maps the input values to a normalized range.
+     */
+    public static Matrix4d computeQuantizationMatrix(Matrix4d originalMatrix, double[] min, double[] max) {
+        double minX = Float.MAX_VALUE;
+        double maxX = -Float.MAX_VALUE;
+        double minY = Float.MAX_VALUE;
+        double maxY = -Float.MAX_VALUE;
+        double minZ = Float.MAX_VALUE;
+        double maxZ = -Float.MAX_VALUE;
+
+        Vector3d transformed = new Vector3d();
+        for (int corner = 0; corner < 8; corner++) {
+            double x = (corner & 1) == 0 ? min[0] : max[0];
+            double y = (corner & 2) == 0 ? min[1] : max[1];
+            double z = (corner & 4) == 0 ? min[2] : max[2];
+            transformed.set(x, y, z).mulPosition(originalMatrix);
+
+            minX = Math.min(minX, transformed.x);
+            maxX = Math.max(maxX, transformed.x);
+            minY = Math.min(minY, transformed.y);
+            maxY = Math.max(maxY, transformed.y);
+            minZ = Math.min(minZ, transformed.z);
+            maxZ = Math.max(maxZ, transformed.z);
+        }
+
+        double maxRange = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        return new Matrix4d(
+                maxRange, 0, 0, 0,
+                0, maxRange, 0, 0,
+                0, 0, maxRange, 0,
+                minX, minY, minZ, 1);
+    }
+
     /**
      * Calculates the padded length for a given length.
      * @param length The length to be padded.
@@ -108,6 +149,22 @@ public class Quantization {
      * @return An array of quantized unsigned short values.
      */
     public static short[] quantizeUnsignedShorts(float[] values, Matrix4d originalMatrix, Matrix4d quantizationMatrix) {
+        short[] quantizedValues = new short[paddedLength(values.length)];
+        quantizeUnsignedShorts(values, originalMatrix, quantizationMatrix, quantizedValues, 0, values.length / 3);
+        return quantizedValues;
+    }
+
+    /**
+     * Quantize the vertices [fromVertex, toVertex) of the values into the padded target array.
+     * Different ranges can be quantized concurrently into the same target.
+     * @param values The array of float values to be quantized.
+     * @param originalMatrix The original transformation matrix.
+     * @param quantizationMatrix The quantization matrix used for quantization.
+     * @param quantizedValues The target array, at least paddedLength(values.length) long.
+     * @param fromVertex The first vertex to quantize.
+     * @param toVertex The vertex after the last one to quantize.
+     */
+    public static void quantizeUnsignedShorts(float[] values, Matrix4d originalMatrix, Matrix4d quantizationMatrix, short[] quantizedValues, int fromVertex, int toVertex) {
         int unsignedShortMax = 65535;
         short paddingValue = 0;
 
@@ -119,20 +176,14 @@ public class Quantization {
         float offsetY = (float) quantizationMatrix.m31();
         float offsetZ = (float) quantizationMatrix.m32();
 
-        int quantizedIndex = 0;
-        int paddedLength = paddedLength(values.length);
-        short[] quantizedValues = new short[paddedLength];
-        for (int i = 0; i < values.length; i += 3) {
-            float x = values[i];
-            float y = values[i + 1];
-            float z = values[i + 2];
-
-            Vector3d v = new Vector3d(x, y, z);
-            Vector3d transformed = v.mulPosition(originalMatrix, new Vector3d());
+        Vector3d transformed = new Vector3d();
+        int quantizedIndex = fromVertex * 4;
+        for (int i = fromVertex * 3; i < toVertex * 3; i += 3) {
+            transformed.set(values[i], values[i + 1], values[i + 2]).mulPosition(originalMatrix);
 
-            x = (float) transformed.x;
-            y = (float) transformed.y;
-            z = (float) transformed.z;
+            float x = (float) transformed.x;
+            float y = (float) transformed.y;
+            float z = (float) transformed.z;
 
             float qx = (x - offsetX) / scaleX;
             float qy = (y - offsetY) / scaleY;
@@ -147,6 +198,5 @@ public class Quantization {
             quantizedValues[quantizedIndex++] = convertSignedShortFromUnsignedShort(iz);
             quantizedValues[quantizedIndex++] = paddingValue;
         }
-        return quantizedValues;
     }
 }
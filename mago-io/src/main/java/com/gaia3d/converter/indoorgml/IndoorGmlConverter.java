@@ -35,6 +35,11 @@ public class IndoorGmlConverter extends AbstractGeometryConverter implements Con
 
     private final Parametric3DOptions options;
 
+    @Override
+    protected boolean isEarcutTessellation() {
+        return options.isEarcutTessellation();
+    }
+
     @Override
     public List<GaiaScene> load(String path) {
         return convert(new File(path));
@@ -44,6 +44,11 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
 
     private final Parametric3DOptions parametricOptions;
 
+    @Override
+    protected boolean isEarcutTessellation() {
+        return parametricOptions.isEarcutTessellation();
+    }
+
     @Override
     public List<GaiaScene> load(String path) {
         return convert(new File(path));
@@ -65,7 +70,9 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
         InnerRingRemover innerRingRemover = new InnerRingRemover();
 
         List<AttributeFilter> attributeFilters = parametricOptions.getAttributeFilters();
-        boolean isDefaultCrs = parametricOptions.getSourceCrs().equals(new CRSFactory().createFromName("EPSG:3857"));
+        // the crs of the file is kept local, the files are converted in parallel with the same options
+        CoordinateReferenceSystem sourceCrs = parametricOptions.getSourceCrs();
+        boolean isDefaultCrs = sourceCrs.equals(new CRSFactory().createFromName("EPSG:3857"));
         boolean flipCoordinate = parametricOptions.isFlipCoordinate();
         String heightColumnName = parametricOptions.getHeightColumnName();
         String altitudeColumnName = parametricOptions.getAltitudeColumnName();
@@ -103,7 +110,7 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
                     log.warn(" - Unable to convert Coordinate Reference System from Geotools to Proj4j.");
                 } else {
                     log.info(" - Coordinate Reference System : {}", crs.getName());
-                    parametricOptions.setSourceCrs(crs);
+                    sourceCrs = crs;
                 }
             }
 
@@ -233,10 +240,9 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
                         z = coordinate.getZ();
 
                         Vector3d position;
-                        CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                        if (crs != null && !crs.getName().equals("EPSG:4326")) {
+                        if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
                             ProjCoordinate projCoordinate = new ProjCoordinate(x, y, boundingBox.getMinZ());
-                            ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
+                            ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
                             position = new Vector3d(centerWgs84.x, centerWgs84.y, 0.0d);
                         } else {
                             position = new Vector3d(x, y, 0.0d);
@@ -272,8 +278,8 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
             shpFiles.dispose();
             dataStore.dispose();
 
-            convertPipeLineStrings(pipeLineStrings, sceneTemps, input, output);
-            convertExtrusionBuildings(buildings, sceneTemps, input, output);
+            convertPipeLineStrings(pipeLineStrings, sourceCrs, sceneTemps, input, output);
+            sceneTemps.addAll(convertInBatches(buildings, parametricOptions.getExtrusionBatchSize(), batch -> convertExtrusionBuildings(batch, input, output)));
         } catch (IOException e) {
             if (shpFiles != null) {shpFiles.dispose();}
             log.error("[ERROR] while reading shapefile", e);
@@ -288,11 +294,14 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
         return sceneTemp.getTempScene();
     }
 
-    private void convertExtrusionBuildings(List<GaiaExtrusionModel> buildings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+    /**
+     * Extrudes a batch of buildings into one temp file.
+     */
+    private List<GaiaSceneTempGroup> convertExtrusionBuildings(List<GaiaExtrusionModel> buildings, File input, File output) {
+        List<GaiaSceneTempGroup> sceneTemps = new ArrayList<>();
         double skirtHeight = parametricOptions.getSkirtHeight();
         GaiaExtruder gaiaExtruder = new GaiaExtruder();
 
-        int sceneCount = 10000;
         List<GaiaScene> scenes = new ArrayList<>();
 
         DefaultSceneFactory defaultSceneFactory = new DefaultSceneFactory();
@@ -348,19 +357,6 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
             degreeTranslation.set(center);
 
             scenes.add(scene);
-            if (scenes.size() >= sceneCount) {
-                String tempName = UUID.randomUUID() + "_" + input.getName();
-                File tempFile = new File(output, tempName);
-
-                scenes.forEach((gaiaScene) -> {
-                    gaiaScene.setOriginalPath(tempFile.toPath());
-                });
-                log.info("[{}] write temp : {}", tempName, scenes.size());
-                GaiaSceneTempGroup sceneTemp = GaiaSceneTempGroup.builder().tempScene(scenes).tempFile(tempFile).build();
-                sceneTemp.minimize(tempFile);
-                sceneTemps.add(sceneTemp);
-                scenes.clear();
-            }
         }
         if (!scenes.isEmpty()) {
             String tempName = UUID.randomUUID() + "_" + input.getName();
@@ -374,9 +370,10 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
             sceneTemp.minimize(tempFile);
             sceneTemps.add(sceneTemp);
         }
+        return sceneTemps;
     }
 
-    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
+    private void convertPipeLineStrings(List<GaiaPipeLineString> pipeLineStrings, CoordinateReferenceSystem sourceCrs, List<GaiaSceneTempGroup> sceneTemps, File input, File output) {
         if (pipeLineStrings.isEmpty()) {
             return;
         }
@@ -389,10 +386,9 @@ public class ShapeConverter extends AbstractGeometryConverter implements Convert
             for (int j = 0; j < pointsCount; j++) {
                 Vector3d point = pipeLineString.getPositions().get(j);
                 //Vector3d position = new Vector3d(x, y, z);
-                CoordinateReferenceSystem crs = parametricOptions.getSourceCrs();
-                if (crs != null && !crs.getName().equals("EPSG:4326")) {
+                if (sourceCrs != null && !sourceCrs.getName().equals("EPSG:4326")) {
                     ProjCoordinate projCoordinate = new ProjCoordinate(point.x, point.y, point.z);
-                    ProjCoordinate centerWgs84 = GlobeUtils.transform(crs, projCoordinate);
+                    ProjCoordinate centerWgs84 = GlobeUtils.transform(sourceCrs, projCoordinate);
 
                     double defaultHeight = 2.0;
                     double heightOffset = 0.0;
@@ -0,0 +1,125 @@
+package com.gaia3d.converter.geojson;
+
+import com.gaia3d.util.GlobeUtils;
+import org.geotools.api.feature.simple.SimpleFeature;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.proj4j.CoordinateReferenceSystem;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("default")
+class GeoJsonFeatureReaderTest {
+    private static final String RS = "\u001E";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void featureCollectionIsStreamed() throws IOException {
+        File input = write("collection.geojson", "{\"type\":\"FeatureCollection\",\"features\":[\n"
+                + feature(1) + ",\n" + feature(2) + ",\n" + feature(3) + "\n]}\n");
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertFalse(reader.isSequence());
+            assertEquals(List.of(1, 2, 3), readIds(reader));
+        }
+    }
+
+    @Test
+    void singleLineFeatureCollectionIsNotSequence() throws IOException {
+        File input = write("collection.geojson", "{\"type\":\"FeatureCollection\",\"features\":[" + feature(1) + "," + feature(2) + "]}\n");
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertFalse(reader.isSequence());
+            assertEquals(List.of(1, 2), readIds(reader));
+        }
+    }
+
+    @Test
+    void newlineDelimitedIsDetectedByContent() throws IOException {
+        // the extension is the one of a plain GeoJSON file, the first line decides
+        File input = write("features.geojson", feature(1) + "\n" + feature(2) + "\n\n" + feature(3) + "\n");
+        assertFalse(GeoJsonFeatureReader.isSequenceExtension(input));
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertTrue(reader.isSequence());
+            assertEquals(List.of(1, 2, 3), readIds(reader));
+        }
+    }
+
+    @Test
+    void recordSeparatorStartsSequence() throws IOException {
+        // RFC 8142, every record starts with the record separator and ends with a line feed
+        File input = write("features.geojson", "\n" + RS + feature(1) + "\n" + RS + feature(2) + "\n" + RS + RS + feature(3) + "\n");
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertTrue(reader.isSequence());
+            assertEquals(List.of(1, 2, 3), readIds(reader));
+        }
+    }
+
+    @Test
+    void recordSeparatedRecordsMaySpanLines() throws IOException {
+        // a pretty-printed record is still one record, up to the next record separator
+        String multiLine = feature(2).replace(",", ",\n  ").replace("{", "{\n  ");
+        File input = write("features.geojsonseq", RS + feature(1) + "\n" + RS + multiLine + "\n" + RS + feature(3) + "\n");
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertTrue(reader.isSequence());
+            assertEquals(List.of(1, 2, 3), readIds(reader));
+        }
+    }
+
+    @Test
+    void sequenceExtensionSkipsInvalidRecords() throws IOException {
+        File input = write("features.GeoJSONSeq", RS + feature(1) + "\n" + RS + "{\"type\":\"Feature\",\n" + RS + feature(2) + "\n");
+        assertTrue(GeoJsonFeatureReader.isSequenceExtension(input));
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertTrue(reader.isSequence());
+            assertEquals(List.of(1, 2), readIds(reader));
+            assertFalse(reader.hasNext());
+        }
+    }
+
+    @Test
+    void firstFeatureCarriesCrs() throws IOException {
+        // the crs member precedes the features, the streamed features carry it in their type
+        File input = write("collection.geojson", "{\"type\":\"FeatureCollection\","
+                + "\"crs\":{\"type\":\"name\",\"properties\":{\"name\":\"urn:ogc:def:crs:EPSG::5186\"}},"
+                + "\"features\":[\n" + feature(1) + ",\n" + feature(2) + "\n]}\n");
+        try (GeoJsonFeatureReader reader = GeoJsonFeatureReader.open(input)) {
+            assertTrue(reader.hasNext());
+            SimpleFeature first = reader.next();
+            var coordinateReferenceSystem = first.getFeatureType().getCoordinateReferenceSystem();
+            assertNotNull(coordinateReferenceSystem);
+            CoordinateReferenceSystem crs = GlobeUtils.convertProj4jCrsFromGeotoolsCrs(coordinateReferenceSystem);
+            assertNotNull(crs);
+            assertEquals("EPSG:5186", crs.getName());
+        }
+    }
+
+    private File write(String name, String content) throws IOException {
+        Path path = tempDir.resolve(name);
+        Files.writeString(path, content, StandardCharsets.UTF_8);
+        return path.toFile();
+    }
+
+    private static String feature(int id) {
+        return "{\"type\":\"Feature\",\"properties\":{\"id\":" + id + "},"
+                + "\"geometry\":{\"type\":\"Point\",\"coordinates\":[" + (200000 + id) + ",500000]}}";
+    }
+
+    private static List<Integer> readIds(GeoJsonFeatureReader reader) {
+        List<Integer> ids = new ArrayList<>();
+        while (reader.hasNext()) {
+            Object id = reader.next().getAttribute("id");
+            ids.add(((Number) id).intValue());
+        }
+        return ids;
+    }
+}
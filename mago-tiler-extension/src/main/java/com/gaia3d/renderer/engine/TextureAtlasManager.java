@@ -2,6 +2,7 @@ package com.gaia3d.renderer.engine;
 
 import com.gaia3d.basic.geometry.GaiaRectangle;
 import com.gaia3d.basic.geometry.modifier.topology.GaiaExtractor;
+import com.gaia3d.basic.geometry.packer.MaxRectsPacker;
 import com.gaia3d.basic.halfedge.CameraDirectionType;
 import com.gaia3d.basic.halfedge.HalfEdgeFace;
 import com.gaia3d.basic.halfedge.HalfEdgeScene;
@@ -19,243 +20,11 @@ import java.util.List;
 @Slf4j
 public class TextureAtlasManager {
 
-    public void doAtlasTextureProcessByPacker(List<TexturesAtlasData> texAtlasDatasList) {
-        // here calculates the batchedBoundaries of each textureScissorData
-        int textureScissorDatasCount = texAtlasDatasList.size();
-        log.info("[Tile][Photogrammetry][Atlas] doTextureAtlasProcess() : textureScissorDatasCount = " + textureScissorDatasCount);
-
-        TextureAtlasPacker guillotinePacker = new TextureAtlasPacker();
-
-        for (int i = 0; i < textureScissorDatasCount; i++) {
-            TexturesAtlasData textureScissorData = texAtlasDatasList.get(i);
-            if (!guillotinePacker.insert(textureScissorData)) {
-                log.info("[Tile][Photogrammetry][Atlas] doTextureAtlasProcess() : guillotinePacker.insert() failed.");
-            }
-        }
-    }
-
     public void doAtlasTextureProcess(List<TexturesAtlasData> texAtlasDatasList) {
-        // 1rst, sort the texAtlasData by width and height
-        List<TexturesAtlasData> texAtlasDataWidther = new ArrayList<>();
-        List<TexturesAtlasData> texAtlasDataHigher = new ArrayList<>();
-        int texAtlasDataCount = texAtlasDatasList.size();
-        for (int i = 0; i < texAtlasDataCount; i++) {
-            TexturesAtlasData texAtlasDataAux = texAtlasDatasList.get(i);
-            GaiaRectangle originalBoundary = texAtlasDataAux.getOriginalBoundary();
-
-            double w = originalBoundary.getWidth();
-            double h = originalBoundary.getHeight();
-            if (w > h) {
-                texAtlasDataWidther.add(texAtlasDataAux);
-            } else {
-                texAtlasDataHigher.add(texAtlasDataAux);
-            }
-        }
-
-        // now, sort each list by width and height
-        texAtlasDataWidther.sort((o1, o2) -> {
-            GaiaRectangle originalBoundary1 = o1.getOriginalBoundary();
-            GaiaRectangle originalBoundary2 = o2.getOriginalBoundary();
-            double w1 = originalBoundary1.getWidth();
-            double w2 = originalBoundary2.getWidth();
-            return Double.compare(w2, w1);
-        });
-
-        texAtlasDataHigher.sort((o1, o2) -> {
-            GaiaRectangle originalBoundary1 = o1.getOriginalBoundary();
-            GaiaRectangle originalBoundary2 = o2.getOriginalBoundary();
-            double h1 = originalBoundary1.getHeight();
-            double h2 = originalBoundary2.getHeight();
-            return Double.compare(h2, h1);
-        });
-
-        // make a unique atlasDataList alternating the texAtlasDataWidther and texAtlasDataHigher
-        texAtlasDatasList.clear();
-        int texAtlasDataWidtherCount = texAtlasDataWidther.size();
-        int texAtlasDataHigherCount = texAtlasDataHigher.size();
-        int texAtlasDataMaxCount = Math.max(texAtlasDataWidtherCount, texAtlasDataHigherCount);
-        for (int i = 0; i < texAtlasDataMaxCount; i++) {
-            if (i < texAtlasDataWidtherCount) {
-                texAtlasDatasList.add(texAtlasDataWidther.get(i));
-            }
-            if (i < texAtlasDataHigherCount) {
-                texAtlasDatasList.add(texAtlasDataHigher.get(i));
-            }
-        }
-
-        // now, make the atlas texture
-        GaiaRectangle beforeMosaicRectangle = new GaiaRectangle(0.0, 0.0, 0.0, 0.0);
-        List<GaiaRectangle> rectangleList = new ArrayList<>();
-
-        TreeMap<Double, List<GaiaRectangle>> maxXrectanglesMap = new TreeMap<>();
-
-        Vector2d bestPosition = new Vector2d();
-        List<TexturesAtlasData> currProcessTextureAtlasDates = new ArrayList<>();
-        texAtlasDataCount = texAtlasDatasList.size();
-        for (int i = 0; i < texAtlasDataCount; i++) {
-            TexturesAtlasData texAtlasDataAux = texAtlasDatasList.get(i);
-            GaiaRectangle originBoundary = texAtlasDataAux.getOriginalBoundary();
-
-            GaiaRectangle batchedBoundary = null;
-            if (i == 0) {
-                // the 1rst textureScissorData
-                batchedBoundary = new GaiaRectangle(0.0, 0.0, originBoundary.getWidthInt(), originBoundary.getHeightInt());
-                texAtlasDataAux.setBatchedBoundary(batchedBoundary);
-                beforeMosaicRectangle.copyFrom(batchedBoundary);
-            } else {
-                // 1rst, find the best position for image into atlas
-                bestPosition = this.getBestPositionMosaicInAtlas(currProcessTextureAtlasDates, texAtlasDataAux, bestPosition, beforeMosaicRectangle, rectangleList, maxXrectanglesMap);
-                batchedBoundary = new GaiaRectangle(bestPosition.x, bestPosition.y, bestPosition.x + originBoundary.getWidthInt(), bestPosition.y + originBoundary.getHeightInt());
-                texAtlasDataAux.setBatchedBoundary(batchedBoundary);
-                beforeMosaicRectangle.addBoundingRectangle(batchedBoundary);
-            }
-
-            rectangleList.add(batchedBoundary);
-            currProcessTextureAtlasDates.add(texAtlasDataAux);
-
-            // map
-            double maxX = batchedBoundary.getMaxX();
-
-            List<GaiaRectangle> list_rectanglesMaxX = maxXrectanglesMap.computeIfAbsent(maxX, k -> new ArrayList<>());
-            list_rectanglesMaxX.add(batchedBoundary);
-        }
-    }
-
-    private Vector2d getBestPositionMosaicInAtlas(List<TexturesAtlasData> currProcessTextureAtlasDates, TexturesAtlasData texAtlasDataToPutInMosaic,
-                                                  Vector2d resultVec, GaiaRectangle beforeMosaicRectangle, List<GaiaRectangle> list_rectangles, TreeMap<Double, List<GaiaRectangle>> map_maxXrectangles) {
-        if (resultVec == null) {
-            resultVec = new Vector2d();
-        }
-
-        double currPosX, currPosY;
-        double candidatePosX = 0.0, candidatePosY = 0.0;
-        double currMosaicPerimeter, candidateMosaicPerimeter;
-        candidateMosaicPerimeter = -1.0;
-        double error = 1.0 - 1e-6;
-
-        // Now, try to find the best positions to put our rectangle
-        int existentTexAtlasDataCount = currProcessTextureAtlasDates.size();
-        for (int i = 0; i < existentTexAtlasDataCount; i++) {
-            TexturesAtlasData existentTexAtlasData = currProcessTextureAtlasDates.get(i);
-            GaiaRectangle currRect = existentTexAtlasData.getBatchedBoundary();
-
-            // for each existent rectangles, there are 2 possibles positions: leftUp & rightDown
-            // in this 2 possibles positions we put our leftDownCorner of rectangle of "splitData_toPutInMosaic"
-
-            // If in some of two positions our rectangle intersects with any other rectangle, then discard
-            // If no intersects with others rectangles, then calculate the mosaic-perimeter.
-            // We choose the minor perimeter of the mosaic
-
-            double width = texAtlasDataToPutInMosaic.getOriginalBoundary().getWidthInt();
-            double height = texAtlasDataToPutInMosaic.getOriginalBoundary().getHeightInt();
-
-            // 1- leftUp corner
-            currPosX = currRect.getMinX();
-            currPosY = currRect.getMaxY();
-
-            // setup our rectangle
-            if (texAtlasDataToPutInMosaic.getBatchedBoundary() == null) {
-                texAtlasDataToPutInMosaic.setBatchedBoundary(new GaiaRectangle(0.0, 0.0, 0.0, 0.0));
-            }
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMinX(currPosX);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMinY(currPosY);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMaxX(currPosX + width);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMaxY(currPosY + height);
-
-            // put our rectangle into mosaic & check that no intersects with another rectangles
-            if (!this.intersectsRectangleAtlasingProcess(list_rectangles, texAtlasDataToPutInMosaic.getBatchedBoundary(), map_maxXrectangles)) {
-                GaiaRectangle afterMosaicRectangle = new GaiaRectangle(0.0, 0.0, 0.0, 0.0);
-                afterMosaicRectangle.copyFrom(beforeMosaicRectangle);
-                afterMosaicRectangle.addBoundingRectangle(texAtlasDataToPutInMosaic.getBatchedBoundary());
-
-                // calculate the perimeter of the mosaic
-                if (candidateMosaicPerimeter < 0.0) {
-                    candidateMosaicPerimeter = afterMosaicRectangle.getPerimeter();
-                    candidatePosX = currPosX;
-                    candidatePosY = currPosY;
-                } else {
-                    currMosaicPerimeter = afterMosaicRectangle.getPerimeter();
-                    if (candidateMosaicPerimeter >= currMosaicPerimeter * error) {
-                        candidateMosaicPerimeter = currMosaicPerimeter;
-                        candidatePosX = currPosX;
-                        candidatePosY = currPosY;
-                        break; // test delete**************************
-                    }
-                }
-            }
-
-            // 2- rightDown corner
-            currPosX = currRect.getMaxX();
-            currPosY = currRect.getMinY();
-
-            // setup our rectangle
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMinX(currPosX);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMinY(currPosY);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMaxX(currPosX + width);
-            texAtlasDataToPutInMosaic.getBatchedBoundary().setMaxY(currPosY + height);
-
-            // put our rectangle into mosaic & check that no intersects with another rectangles
-            if (!this.intersectsRectangleAtlasingProcess(list_rectangles, texAtlasDataToPutInMosaic.getBatchedBoundary(), map_maxXrectangles)) {
-                GaiaRectangle afterMosaicRectangle = new GaiaRectangle(0.0, 0.0, 0.0, 0.0);
-                afterMosaicRectangle.copyFrom(beforeMosaicRectangle);
-                afterMosaicRectangle.addBoundingRectangle(texAtlasDataToPutInMosaic.getBatchedBoundary());
-
-                // calculate the perimeter of the mosaic
-                if (candidateMosaicPerimeter < 0.0) {
-                    candidateMosaicPerimeter = afterMosaicRectangle.getPerimeter();
-                    candidatePosX = currPosX;
-                    candidatePosY = currPosY;
-                } else {
-                    currMosaicPerimeter = afterMosaicRectangle.getPerimeter();
-                    if (candidateMosaicPerimeter >= currMosaicPerimeter * error) {
-                        candidateMosaicPerimeter = currMosaicPerimeter;
-                        candidatePosX = currPosX;
-                        candidatePosY = currPosY;
-                        break; // test delete**************************
-                    }
-                }
-            }
-        }
-
-        resultVec.set(candidatePosX, candidatePosY);
-
-        return resultVec;
-    }
-
-    private boolean intersectsRectangleAtlasingProcess(List<GaiaRectangle> listRectangles, GaiaRectangle rectangle, TreeMap<Double, List<GaiaRectangle>> map_maxXrectangles) {
-        // this function returns true if the rectangle intersects with any existent rectangle of the listRectangles
-        boolean intersects = false;
-        double error = 10E-5;
-
-        double currRectMinX = rectangle.getMinX();
-
-        // check with map_maxXrectangles all rectangles that have maxX > currRectMinX
-        for (Map.Entry<Double, List<GaiaRectangle>> entry : map_maxXrectangles.tailMap(currRectMinX).entrySet()) {
-            List<GaiaRectangle> existentRectangles = entry.getValue();
-
-            int existentRectanglesCount = existentRectangles.size();
-            for (int i = 0; i < existentRectanglesCount; i++) {
-                GaiaRectangle existentRectangle = existentRectangles.get(i);
-                if (existentRectangle == rectangle) {
-                    continue;
-                }
-                if (existentRectangle.intersects(rectangle, error)) {
-                    return true;
-                }
-            }
-        }
-
-
-//        for (GaiaRectangle existentRectangle : listRectangles) {
-//            if (existentRectangle == rectangle) {
-//                continue;
-//            }
-//            if (existentRectangle.intersects(rectangle, error)) {
-//                intersects = true;
-//                break;
-//            }
-//        }
-        return intersects;
+        // here calculates the batchedBoundaries of each texAtlasData
+        log.debug("[Tile][Photogrammetry][Atlas] doAtlasTextureProcess() : texAtlasDatasCount = {}", texAtlasDatasList.size());
+        MaxRectsPacker packer = new MaxRectsPacker();
+        packer.pack(texAtlasDatasList, TexturesAtlasData::getOriginalBoundary, TexturesAtlasData::setBatchedBoundary);
     }
 
     public int getMaxWidth(List<TexturesAtlasData> compareImages) {
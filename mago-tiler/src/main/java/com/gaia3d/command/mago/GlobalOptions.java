@@ -1,7 +1,10 @@
 package com.gaia3d.command.mago;
 
 import com.gaia3d.TilerExtensionModule;
+import com.gaia3d.basic.exchangable.GaiaSetCache;
+import com.gaia3d.basic.model.GaiaTextureCache;
 import com.gaia3d.basic.types.FormatType;
+import com.gaia3d.basic.types.TempFormatType;
 import com.gaia3d.converter.AttributeFilter;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
@@ -18,12 +21,14 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Global options for Gaia3D Tiler.
@@ -110,6 +115,20 @@ public class GlobalOptions {
     private boolean isPhotogrammetry = false; // [Experimental] isPhotogrammetry mode flag
     private boolean isSplitByNode = false; // [Experimental] split by node flag
     private boolean isCurvatureCorrection = false; // [Experimental] curvature correction flag
+    private boolean isStreaming = false; // [Experimental] streaming pipeline flag
+    private TempFormatType tempFormat = TempFormatType.JAVA; // [Experimental] temporary file format
+    private long tempCacheSize = Runtime.getRuntime().maxMemory() / 8; // [Experimental] decoded temp file cache size in bytes
+    private long textureCacheSize = Runtime.getRuntime().maxMemory() / 8; // [Experimental] decoded texture cache size in bytes
+    private boolean isParallelIngest = false; // [Experimental] parallel point cloud ingestion flag
+    private boolean isResume = false; // [Experimental] resume from the run manifest flag
+    private int extrusionBatchSize = 10000; // [Experimental] extruded scenes per worker batch and temp file
+    private boolean isEarcutTessellation = false; // [Experimental] earcut polygon tessellation flag
+    private boolean isQuadricDecimation = false; // [Experimental] quadric error metric decimation flag
+    private boolean isBulkTiling = false; // [Experimental] bottom-up packed batched tile tree flag
+    private boolean isImplicitTiling = false; // [Experimental] quadtree implicit tileset output flag
+    private int tilesetSplitDepth = 0; // [Experimental] levels per external tileset file, 0 to disable
+    private int tilesetSplitCount = 0; // [Experimental] maximum tiles per external tileset file, 0 to disable
+    private String runFingerprint = null; // [Experimental] hash of the options affecting the tiling result
 
     /* 3.5 2D Data Column Options */
     private String heightColumn = null;
@@ -170,10 +189,16 @@ public class GlobalOptions {
             throw new IllegalArgumentException("Please enter the value of the output argument.");
         }
 
-        instance.setLeaveTemp(command.hasOption(ProcessOptions.LEAVE_TEMP.getLongName()));
+        instance.setResume(command.hasOption(ProcessOptions.RESUME.getLongName()));
+        // a resumed run reuses the temp files of the previous run
+        instance.setLeaveTemp(command.hasOption(ProcessOptions.LEAVE_TEMP.getLongName()) || instance.isResume());
         if (command.hasOption(ProcessOptions.TEMP_PATH.getLongName())) {
             String tempPath = command.getOptionValue(ProcessOptions.TEMP_PATH.getLongName());
             String sufix = java.util.UUID.randomUUID().toString();
+            if (instance.isResume()) {
+                // stable per output, so the next run finds the same temp directory
+                sufix = "resume-" + java.util.UUID.nameUUIDFromBytes(output.getAbsolutePath().getBytes(StandardCharsets.UTF_8));
+            }
             File tempFullPath = new File(tempPath, sufix);
             OptionsCorrector.checkExistOutput(tempFullPath);
             instance.setTempPath(tempFullPath.getAbsolutePath());
@@ -445,6 +470,78 @@ public class GlobalOptions {
             System.setProperty("java.util.concurrent.ForkJoinPool.common.parallelism", String.valueOf(threadCount));
         }
 
+        if (command.hasOption(ProcessOptions.TEMP_FORMAT.getLongName())) {
+            String tempFormatName = command.getOptionValue(ProcessOptions.TEMP_FORMAT.getLongName());
+            TempFormatType tempFormat = TempFormatType.fromName(tempFormatName);
+            if (tempFormat == null) {
+                log.error("[ERROR] Invalid temp format: {}", tempFormatName);
+                throw new IllegalArgumentException("Invalid temp format: " + tempFormatName);
+            }
+            instance.setTempFormat(tempFormat);
+        }
+        if (command.hasOption(ProcessOptions.TEMP_CACHE_SIZE.getLongName())) {
+            long tempCacheSizeMb = Long.parseLong(command.getOptionValue(ProcessOptions.TEMP_CACHE_SIZE.getLongName()));
+            if (tempCacheSizeMb < 0) {
+                log.error("[ERROR] Invalid temp cache size: {}", tempCacheSizeMb);
+                throw new IllegalArgumentException("Invalid temp cache size: " + tempCacheSizeMb);
+            }
+            instance.setTempCacheSize(tempCacheSizeMb * 1024 * 1024);
+        }
+        GaiaSetCache.getInstance().setMaximumWeight(instance.getTempCacheSize());
+        if (command.hasOption(ProcessOptions.TEXTURE_CACHE_SIZE.getLongName())) {
+            long textureCacheSizeMb = Long.parseLong(command.getOptionValue(ProcessOptions.TEXTURE_CACHE_SIZE.getLongName()));
+            if (textureCacheSizeMb < 0) {
+                log.error("[ERROR] Invalid texture cache size: {}", textureCacheSizeMb);
+                throw new IllegalArgumentException("Invalid texture cache size: " + textureCacheSizeMb);
+            }
+            instance.setTextureCacheSize(textureCacheSizeMb * 1024 * 1024);
+        }
+        GaiaTextureCache.getInstance().setMaximumWeight(instance.getTextureCacheSize());
+        instance.setParallelIngest(command.hasOption(ProcessOptions.PARALLEL_INGEST.getLongName()));
+        if (command.hasOption(ProcessOptions.EXTRUSION_BATCH_SIZE.getLongName())) {
+            int extrusionBatchSize = Integer.parseInt(command.getOptionValue(ProcessOptions.EXTRUSION_BATCH_SIZE.getLongName()));
+            if (extrusionBatchSize < 1) {
+                log.error("[ERROR] Invalid extrusion batch size: {}", extrusionBatchSize);
+                throw new IllegalArgumentException("Invalid extrusion batch size: " + extrusionBatchSize);
+            }
+            instance.setExtrusionBatchSize(extrusionBatchSize);
+        }
+        instance.setEarcutTessellation(command.hasOption(ProcessOptions.EARCUT_TESSELLATION.getLongName()));
+        instance.setQuadricDecimation(command.hasOption(ProcessOptions.QUADRIC_DECIMATION.getLongName()));
+        instance.setBulkTiling(command.hasOption(ProcessOptions.BULK_TILING.getLongName()));
+        instance.setImplicitTiling(command.hasOption(ProcessOptions.IMPLICIT_TILING.getLongName()));
+        if (instance.isImplicitTiling()) {
+            if (instance.getTilesVersion().equals("1.0")) {
+                log.error("[ERROR] Implicit tiling requires 3D Tiles version 1.1.");
+                throw new IllegalArgumentException("Implicit tiling requires 3D Tiles version 1.1.");
+            }
+            if (instance.isBulkTiling()) {
+                log.error("[ERROR] Implicit tiling can not be used with bulk tiling.");
+                throw new IllegalArgumentException("Implicit tiling can not be used with bulk tiling.");
+            }
+            if (instance.isClassicTransformMatrix()) {
+                // an implicit tileset has no tile transforms, the contents are placed by their own RTC centers
+                log.error("[ERROR] Implicit tiling can not be used with the classic transform matrix.");
+                throw new IllegalArgumentException("Implicit tiling can not be used with the classic transform matrix.");
+            }
+        }
+        if (command.hasOption(ProcessOptions.TILESET_SPLIT_DEPTH.getLongName())) {
+            int tilesetSplitDepth = Integer.parseInt(command.getOptionValue(ProcessOptions.TILESET_SPLIT_DEPTH.getLongName()));
+            if (tilesetSplitDepth < 0) {
+                log.error("[ERROR] Invalid tileset split depth: {}", tilesetSplitDepth);
+                throw new IllegalArgumentException("Invalid tileset split depth: " + tilesetSplitDepth);
+            }
+            instance.setTilesetSplitDepth(tilesetSplitDepth);
+        }
+        if (command.hasOption(ProcessOptions.TILESET_SPLIT_COUNT.getLongName())) {
+            int tilesetSplitCount = Integer.parseInt(command.getOptionValue(ProcessOptions.TILESET_SPLIT_COUNT.getLongName()));
+            if (tilesetSplitCount < 0) {
+                log.error("[ERROR] Invalid tileset split count: {}", tilesetSplitCount);
+                throw new IllegalArgumentException("Invalid tileset split count: " + tilesetSplitCount);
+            }
+            instance.setTilesetSplitCount(tilesetSplitCount);
+        }
+
         instance.printDebugOptions();
 
         TilerExtensionModule extensionModule = new TilerExtensionModule();
@@ -458,6 +555,10 @@ public class GlobalOptions {
         }
 
         instance.setCurvatureCorrection(command.hasOption(ProcessOptions.CURVATURE_CORRECTION.getLongName()));
+        instance.setStreaming(command.hasOption(ProcessOptions.STREAMING.getLongName()));
+        if (instance.isResume()) {
+            instance.setRunFingerprint(createRunFingerprint(command));
+        }
 
         if (instance.isUseQuantization()) {
             instance.setUseByteNormal(true);
@@ -465,6 +566,34 @@ public class GlobalOptions {
         }
     }
 
+    /**
+     * Hash of every given option except the ones that do not change the tiling result (paths of the run, threads, logging).
+     */
+    private static String createRunFingerprint(CommandLine command) {
+        Set<String> ignoredOptions = Set.of(
+                ProcessOptions.OUTPUT_PATH.getLongName(),
+                ProcessOptions.TEMP_PATH.getLongName(),
+                ProcessOptions.LOG_PATH.getLongName(),
+                ProcessOptions.QUIET.getLongName(),
+                ProcessOptions.LEAVE_TEMP.getLongName(),
+                ProcessOptions.RESUME.getLongName(),
+                ProcessOptions.MULTI_THREAD_COUNT.getLongName(),
+                ProcessOptions.DEBUG.getLongName(),
+                ProcessOptions.STREAMING.getLongName(),
+                ProcessOptions.TEMP_CACHE_SIZE.getLongName(),
+                ProcessOptions.TEXTURE_CACHE_SIZE.getLongName(),
+                ProcessOptions.PARALLEL_INGEST.getLongName());
+        List<String> options = new ArrayList<>();
+        for (org.apache.commons.cli.Option option : command.getOptions()) {
+            if (option.getLongOpt() != null && !ignoredOptions.contains(option.getLongOpt())) {
+                options.add(option.getLongOpt() + "=" + String.join(",", option.getValuesList()));
+            }
+        }
+        options.sort(String::compareTo);
+        options.add("tilerVersion=" + instance.getProgramInfo());
+        return java.util.UUID.nameUUIDFromBytes(String.join(";", options).getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     private static void initVersionInfo() {
         String javaVersion = System.getProperty("java.version");
         String javaVendor = System.getProperty("java.vendor");
@@ -545,6 +674,19 @@ public class GlobalOptions {
         log.info("Max Instance Size: {}", maxInstance);
         log.info("Max Node Depth: {}", maxNodeDepth);
         log.info("isPhotogrammetry: {}", isPhotogrammetry);
+        log.info("isStreaming: {}", isStreaming);
+        log.info("Temp Format: {}", tempFormat.getName());
+        log.info("Temp Cache Size: {} MB", tempCacheSize / (1024 * 1024));
+        log.info("Texture Cache Size: {} MB", textureCacheSize / (1024 * 1024));
+        log.info("isParallelIngest: {}", isParallelIngest);
+        log.info("isResume: {}", isResume);
+        log.info("Extrusion Batch Size: {}", extrusionBatchSize);
+        log.info("isEarcutTessellation: {}", isEarcutTessellation);
+        log.info("isQuadricDecimation: {}", isQuadricDecimation);
+        log.info("isBulkTiling: {}", isBulkTiling);
+        log.info("isImplicitTiling: {}", isImplicitTiling);
+        log.info("Tileset Split Depth: {}", tilesetSplitDepth);
+        log.info("Tileset Split Count: {}", tilesetSplitCount);
         Mago3DTilerMain.drawLine();
         log.info("PointCloud Ratio: {}", pointRatio);
         log.info("Point Cloud Horizontal Grid: {}", GlobalConstants.POINTSCLOUD_HORIZONTAL_GRID);
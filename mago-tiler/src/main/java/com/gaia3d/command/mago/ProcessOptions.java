@@ -88,6 +88,19 @@ public enum ProcessOptions {
     PHOTOGRAMMETRY("photogrammetry", "pg", false, false, "[Experimental] generate b3dm for photogrammetry model with GPU"),
     SPLIT_BY_NODE("splitByNode", "sbn", false, false, "[Experimental] Split tiles by nodes of scene."),
     CURVATURE_CORRECTION("curvatureCorrection", "cc", false, false, "[Experimental] Apply curvature correction for ellipsoid surface."),
+    STREAMING("streaming", "stm", false, false, "[Experimental] Overlap loading, pre-processing, tiling and post-processing stages (point cloud, photogrammetry and tree instance contents are post-processed after tiling)."),
+    TEMP_FORMAT("tempFormat", "tf", true, false, "[Experimental] Temporary file format [java, binary, binary-deflate] (Default: java)"),
+    TEMP_CACHE_SIZE("tempCacheSize", "tcs", true, false, "[Experimental] Memory size in MB for decoded temporary files shared by LOD contents, 0 to disable (Default: 1/8 of max heap)"),
+    TEXTURE_CACHE_SIZE("textureCacheSize", "txcs", true, false, "[Experimental] Memory size in MB for decoded texture images shared by post-process workers, 0 to disable (Default: 1/8 of max heap)"),
+    PARALLEL_INGEST("parallelIngest", "pi", false, false, "[Experimental] Decode, reproject and bucket point cloud files in parallel."),
+    RESUME("resume", "rs", false, false, "[Experimental] Reuse the unchanged inputs and tiles of a previous run recorded in the output run manifest, implies leaveTemp."),
+    EXTRUSION_BATCH_SIZE("extrusionBatchSize", "ebs", true, false, "[Experimental] Number of extruded 2D features converted by one worker and written to one temporary file (Default: 10000)"),
+    EARCUT_TESSELLATION("earcutTessellation", "et", false, false, "[Experimental] Tessellate 2D and 3D vector polygons with the array based earcut tessellator."),
+    QUADRIC_DECIMATION("quadricDecimation", "qd", false, false, "[Experimental] Decimate photogrammetry meshes by quadric error metrics in a single pass, keeping borders and texture seams."),
+    BULK_TILING("bulkTiling", "bt", false, false, "[Experimental] Build the batched tile tree bottom-up from Hilbert sorted objects packed under the maximum triangle count."),
+    IMPLICIT_TILING("implicitTiling", "imt", false, false, "[Experimental] Write batched tiles as a quadtree implicit tileset with subtree availability files (3D Tiles 1.1)."),
+    TILESET_SPLIT_DEPTH("tilesetSplitDepth", "tsd", true, false, "[Experimental] Split the tileset every given number of levels into external tileset_<nodeCode>.json files, 0 to disable (Default: 0)"),
+    TILESET_SPLIT_COUNT("tilesetSplitCount", "tsc", true, false, "[Experimental] Split the tileset into external tileset_<nodeCode>.json files of at most the given number of tiles, 0 to disable (Default: 0)"),
 
     /* Deprecated Options */
     MULTI_THREAD_COUNT("multiThreadCount", "mc", true, false, "[Deprecated] set thread count"),
@@ -9,6 +9,7 @@ import com.gaia3d.converter.kml.AttributeReader;
 import com.gaia3d.converter.kml.FastKmlReader;
 import com.gaia3d.converter.loader.BatchedFileLoader;
 import com.gaia3d.converter.parametric.ExtrusionTempGenerator;
+import com.gaia3d.converter.terrain.HeightSampler;
 import com.gaia3d.converter.Parametric3DOptions;
 import com.gaia3d.converter.citygml.CityGmlConverter;
 import com.gaia3d.converter.geojson.GeoJsonConverter;
@@ -22,7 +23,6 @@ import com.gaia3d.process.postprocess.PostProcess;
 import com.gaia3d.process.postprocess.batch.Batched3DModel;
 import com.gaia3d.process.postprocess.batch.Batched3DModelV2;
 import com.gaia3d.process.preprocess.*;
-import com.gaia3d.process.tileprocess.Pipeline;
 import com.gaia3d.process.tileprocess.TilingProcess;
 import com.gaia3d.process.tileprocess.tile.Batched3DModelTiler;
 import lombok.extern.slf4j.Slf4j;
@@ -71,7 +71,7 @@ public class BatchedModelProcessFlow implements ProcessFlow {
         preProcessors.add(new GaiaTransformBaker());
 
         preProcessors.add(new GaiaCoordinateExtractor());
-        preProcessors.add(new GaiaTranslator(geoTiffs, geoidTiffs));
+        preProcessors.add(new GaiaTranslator(new HeightSampler(geoTiffs, geoidTiffs)));
         preProcessors.add(new GaiaTexCoordCorrection());
         preProcessors.add(new GaiaTransformBaker());
 
@@ -91,7 +91,9 @@ public class BatchedModelProcessFlow implements ProcessFlow {
             postProcessors.add(new Batched3DModelV2());
         }
 
-        Pipeline processPipeline = new TilingPipeline(preProcessors, tilingProcess, postProcessors);
+        TilingPipeline processPipeline = new TilingPipeline(preProcessors, tilingProcess, postProcessors);
+        // every batched tile info is minimized to a temp file, so the run can be resumed
+        processPipeline.setResumable(true);
         processPipeline.process(fileLoader);
     }
 
@@ -111,6 +113,8 @@ public class BatchedModelProcessFlow implements ProcessFlow {
                 .minimumHeightValue(globalOptions.getMinimumHeight())
                 .skirtHeight(globalOptions.getSkirtHeight())
                 .flipCoordinate(globalOptions.isFlipCoordinate())
+                .extrusionBatchSize(globalOptions.getExtrusionBatchSize())
+                .earcutTessellation(globalOptions.isEarcutTessellation())
                 .build();
 
         Converter converter;
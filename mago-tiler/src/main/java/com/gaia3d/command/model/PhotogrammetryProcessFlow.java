@@ -9,6 +9,7 @@ import com.gaia3d.converter.kml.AttributeReader;
 import com.gaia3d.converter.kml.FastKmlReader;
 import com.gaia3d.converter.loader.BatchedFileLoader;
 import com.gaia3d.converter.parametric.ExtrusionTempGenerator;
+import com.gaia3d.converter.terrain.HeightSampler;
 import com.gaia3d.process.TilingPipeline;
 import com.gaia3d.process.postprocess.GaiaMaximizer;
 import com.gaia3d.process.postprocess.GaiaRelocator;
@@ -59,7 +60,7 @@ public class PhotogrammetryProcessFlow implements ProcessFlow {
         preProcessors.add(new GaiaScaler());
 
         preProcessors.add(new PhotogrammetryRotation());
-        preProcessors.add(new GaiaTranslationForPhotogrammetry(geoTiffs, geoidTiffs));
+        preProcessors.add(new GaiaTranslationForPhotogrammetry(new HeightSampler(geoTiffs, geoidTiffs)));
         PhotogrammetryMinimization gaiaMinimizer = new PhotogrammetryMinimization();
         preProcessors.add(gaiaMinimizer);
 
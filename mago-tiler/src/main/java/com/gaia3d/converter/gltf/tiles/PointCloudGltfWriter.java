@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.IntStream;
 
 /**
  * PointCloudGltfWriter is responsible for writing point cloud data to a GLB file format.
@@ -38,6 +39,8 @@ import java.util.Map;
  */
 @Slf4j
 public class PointCloudGltfWriter extends GltfWriter {
+    private static final int PARALLEL_QUANTIZATION_THRESHOLD = 64 * 1024;
+    private static final int QUANTIZATION_SLICE_SIZE = 16 * 1024;
 
     public PointCloudGltfWriter() {
         super();
@@ -224,8 +227,13 @@ public class PointCloudGltfWriter extends GltfWriter {
             originalTransformMatrix = new Matrix4d(otm[0], otm[1], otm[2], otm[3], otm[4], otm[5], otm[6], otm[7], otm[8], otm[9], otm[10], otm[11], otm[12], otm[13], otm[14], otm[15]);
         }
 
-        Matrix4d quantizationMatrix = Quantization.computeQuantizationMatrix(originalTransformMatrix, positions);
-        unsignedShortsPositions = Quantization.quantizeUnsignedShorts(positions, originalTransformMatrix, quantizationMatrix);
+        Matrix4d quantizationMatrix;
+        if (pointCloudBuffer.getPositionMin() != null && pointCloudBuffer.getPositionMax() != null) {
+            quantizationMatrix = Quantization.computeQuantizationMatrix(originalTransformMatrix, pointCloudBuffer.getPositionMin(), pointCloudBuffer.getPositionMax());
+        } else {
+            quantizationMatrix = Quantization.computeQuantizationMatrix(originalTransformMatrix, positions);
+        }
+        unsignedShortsPositions = quantizePositions(positions, originalTransformMatrix, quantizationMatrix);
         node.setMatrix(quantizationMatrix.get(new float[16]));
 
         short[] normals = pointCloudBuffer.getNormals();
@@ -246,9 +254,7 @@ public class PointCloudGltfWriter extends GltfWriter {
         int batchIdBufferViewId = nodeBuffer.getBatchIdBufferViewId();
 
         if (positionsBuffer != null) {
-            for (short position : unsignedShortsPositions) {
-                positionsBuffer.putShort(position);
-            }
+            positionsBuffer.asShortBuffer().put(unsignedShortsPositions);
         }
         if (normalsBuffer != null) {
             for (Short normal : normals) {
@@ -256,9 +262,7 @@ public class PointCloudGltfWriter extends GltfWriter {
             }
         }
         if (colorsBuffer != null) {
-            for (Byte color : colors) {
-                colorsBuffer.put(color);
-            }
+            colorsBuffer.put(colors);
         }
         if (batchIdBuffer != null) {
             for (Float batchId : batchIds) {
@@ -289,6 +293,25 @@ public class PointCloudGltfWriter extends GltfWriter {
         return nodeBuffer;
     }
 
+    /**
+     * Quantizes the positions into padded unsigned shorts, large tiles are quantized in slices on the common fork-join pool.
+     */
+    protected short[] quantizePositions(float[] positions, Matrix4d originalTransformMatrix, Matrix4d quantizationMatrix) {
+        int vertexCount = positions.length / 3;
+        short[] quantizedPositions = new short[Quantization.paddedLength(positions.length)];
+        if (vertexCount < PARALLEL_QUANTIZATION_THRESHOLD) {
+            Quantization.quantizeUnsignedShorts(positions, originalTransformMatrix, quantizationMatrix, quantizedPositions, 0, vertexCount);
+            return quantizedPositions;
+        }
+        int sliceCount = (vertexCount + QUANTIZATION_SLICE_SIZE - 1) / QUANTIZATION_SLICE_SIZE;
+        IntStream.range(0, sliceCount).parallel().forEach((slice) -> {
+            int fromVertex = slice * QUANTIZATION_SLICE_SIZE;
+            int toVertex = Math.min(vertexCount, fromVertex + QUANTIZATION_SLICE_SIZE);
+            Quantization.quantizeUnsignedShorts(positions, originalTransformMatrix, quantizationMatrix, quantizedPositions, fromVertex, toVertex);
+        });
+        return quantizedPositions;
+    }
+
     protected Buffer initBuffer(GlTF gltf) {
         Buffer buffer = null;
         if (gltf.getBuffers() == null) {
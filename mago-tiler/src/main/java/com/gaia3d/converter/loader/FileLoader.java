@@ -2,11 +2,13 @@ package com.gaia3d.converter.loader;
 
 import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.geojson.GeoJsonFeatureReader;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
 import org.apache.commons.io.FileUtils;
 import org.geotools.coverage.grid.GridCoverage2D;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.List;
 
 public interface FileLoader {
@@ -35,11 +37,18 @@ public interface FileLoader {
     }
 
     default String[] getExtensions(FormatType formatType) {
-        String[] extensions = new String[4];
-        extensions[0] = formatType.getExtension().toLowerCase();
-        extensions[1] = formatType.getExtension().toUpperCase();
-        extensions[2] = formatType.getSubExtension().toLowerCase();
-        extensions[3] = formatType.getSubExtension().toUpperCase();
-        return extensions;
+        List<String> extensions = new ArrayList<>();
+        extensions.add(formatType.getExtension().toLowerCase());
+        extensions.add(formatType.getExtension().toUpperCase());
+        extensions.add(formatType.getSubExtension().toLowerCase());
+        extensions.add(formatType.getSubExtension().toUpperCase());
+        if (formatType == FormatType.GEOJSON) {
+            // GeoJSON text sequences and newline-delimited GeoJSON
+            for (String extension : GeoJsonFeatureReader.SEQUENCE_EXTENSIONS) {
+                extensions.add(extension.toLowerCase());
+                extensions.add(extension.toUpperCase());
+            }
+        }
+        return extensions.toArray(new String[0]);
     }
 }
@@ -1,7 +1,7 @@
 package com.gaia3d.converter.loader;
 
 import com.gaia3d.command.mago.GlobalOptions;
-import com.gaia3d.converter.pointcloud.GaiaLasPoint;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
 import com.gaia3d.converter.pointcloud.GaiaPointCloud;
 import com.gaia3d.converter.pointcloud.LasConverter;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
@@ -29,12 +29,17 @@ public class PointCloudFileLoader implements FileLoader {
     private final LasConverter converter;
 
     public List<File> loadTemp(File tempPath, List<File> files) {
-        int fileCount = files.size();
-        int index = 0;
-        for (File file : files) {
-            log.info("[Load][{}/{}] Loading point cloud file: {}", ++index, fileCount, file.getAbsolutePath());
-            converter.convert(file);
-            log.info("[Load][{}/{}] Finished loading point cloud file: {}", index, fileCount, file.getAbsolutePath());
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        if (globalOptions.isParallelIngest()) {
+            converter.convertAll(files, globalOptions.getMultiThreadCount());
+        } else {
+            int fileCount = files.size();
+            int index = 0;
+            for (File file : files) {
+                log.info("[Load][{}/{}] Loading point cloud file: {}", ++index, fileCount, file.getAbsolutePath());
+                converter.convert(file);
+                log.info("[Load][{}/{}] Finished loading point cloud file: {}", index, fileCount, file.getAbsolutePath());
+            }
         }
         converter.close();
         converter.createShuffle();
@@ -45,7 +50,7 @@ public class PointCloudFileLoader implements FileLoader {
         return converter.readTempFileToGaiaPointCloud(input, tempFile);
     }
 
-    public List<GaiaLasPoint> loadPointCloud(File input) {
+    public GaiaPointBlock loadPointCloud(File input) {
         return converter.readTempFile(input);
     }
 
@@ -4,12 +4,14 @@ import com.gaia3d.basic.temp.GaiaSceneTempGroup;
 import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.Converter;
+import com.gaia3d.converter.citygml.CityGmlConverter;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -17,16 +19,35 @@ import java.util.stream.Collectors;
 public class ExtrusionTempGenerator {
     private final Converter converter;
 
+    /**
+     * Converts the 2D files (and the CityGML files, read in chunks) into temp files in parallel.
+     * A resumed run reads the CityGML files whole instead, the run manifest restores them per input file.
+     * The files and the feature batches the converters fork run in one pool of the thread count,
+     * so converting many small files and a few large ones keeps the same number of workers busy.
+     * The converter bounds the batches in flight across all the files to twice the thread count.
+     */
     public List<File> generate(File tempPath, List<File> fileList) {
         GlobalOptions options = GlobalOptions.getInstance();
         FormatType formatType = options.getInputFormat();
-        if (formatType.equals(FormatType.GEOJSON) || formatType.equals(FormatType.SHP) || formatType.equals(FormatType.GEO_PACKAGE)) {
-            List<GaiaSceneTempGroup> sceneList = new ArrayList<>();
-            for (File file : fileList) {
-                List<GaiaSceneTempGroup> tempList = converter.convertTemp(file, tempPath);
-                sceneList.addAll(tempList);
+        // the chunks are written to random temp files, which a resumed run could not match with its inputs
+        boolean isChunked = formatType.equals(FormatType.CITYGML) && converter instanceof CityGmlConverter && !options.isResume();
+        if (formatType.equals(FormatType.GEOJSON) || formatType.equals(FormatType.SHP) || formatType.equals(FormatType.GEO_PACKAGE) || isChunked) {
+            int threadCount = Math.max(1, options.getMultiThreadCount());
+            ForkJoinPool extrusionPool = new ForkJoinPool(threadCount);
+            try {
+                List<GaiaSceneTempGroup> sceneList = extrusionPool.submit(() -> fileList.parallelStream()
+                        .flatMap(file -> converter.convertTemp(file, tempPath).stream())
+                        .collect(Collectors.toList())).get();
+                return sceneList.stream().map(GaiaSceneTempGroup::getTempFile).collect(Collectors.toList());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                log.error("[ERROR] Failed to generate extrusion temp files.", e.getCause());
+                throw new RuntimeException(e.getCause());
+            } finally {
+                extrusionPool.shutdown();
             }
-            return sceneList.stream().map(GaiaSceneTempGroup::getTempFile).collect(Collectors.toList());
         } else {
             return fileList;
         }
@@ -24,33 +24,42 @@ public class BucketWriter implements Closeable {
     private final FileHandlePool fileHandlePool;
 
     public BucketWriter(Path tempRootDir) throws IOException {
-        this.fileHandlePool = new FileHandlePool(tempRootDir, 128);
+        this(tempRootDir, 128);
     }
 
-    public void addPoint(GaiaLasPoint point) throws IOException {
-        double[] position = point.getPosition();
-        double lon = position[0];
-        double lat = position[1];
-        int bucketId = computeBucketId(lon, lat);
+    public BucketWriter(Path tempRootDir, int maxOpenFiles) throws IOException {
+        this.fileHandlePool = new FileHandlePool(tempRootDir, maxOpenFiles);
+    }
+
+    public void addPoint(double x, double y, double z, int rgba, char intensity, short classification) throws IOException {
+        int bucketId = computeBucketId(x, y);
         BucketBuffer buffer = buffers.computeIfAbsent(bucketId, id -> new BucketBuffer());
+        if (buffer.offset + LasConverter.POINT_BLOCK_SIZE > buffer.buf.length) {
+            flushBuffer(bucketId, buffer);
+        }
+        GaiaPointBlock.encode(buffer.buf, buffer.offset, x, y, z, rgba, intensity, classification);
+        buffer.offset += LasConverter.POINT_BLOCK_SIZE;
+    }
 
-        byte[] pointBytes = BigEndianByteUtils.fromDoubles(position);
-        byte[] rgb = point.getRgb();
-        byte[] intensity = BigEndianByteUtils.fromChar(point.getIntensity());
-        byte[] classification = BigEndianByteUtils.fromShort(point.getClassification());
-        byte[] totalByte = new byte[LasConverter.POINT_BLOCK_SIZE];
-        System.arraycopy(pointBytes, 0, totalByte, 0, pointBytes.length);
-        System.arraycopy(rgb, 0, totalByte, pointBytes.length, rgb.length);
-        System.arraycopy(intensity, 0, totalByte, pointBytes.length + rgb.length, intensity.length);
-        System.arraycopy(classification, 0, totalByte, pointBytes.length + rgb.length + intensity.length, classification.length);
+    public void addPoints(GaiaPointBlock points) throws IOException {
+        for (int i = 0; i < points.size(); i++) {
+            addPoint(points.getX(i), points.getY(i), points.getZ(i), points.getRgba(i), points.getIntensity(i), points.getClassification(i));
+        }
+    }
 
+    /**
+     * Appends one encoded point record (see GaiaPointBlock.encode) to the bucket.
+     */
+    public void addRecord(int bucketId, byte[] records, int offset) throws IOException {
+        BucketBuffer buffer = buffers.computeIfAbsent(bucketId, id -> new BucketBuffer());
         if (buffer.offset + LasConverter.POINT_BLOCK_SIZE > buffer.buf.length) {
             flushBuffer(bucketId, buffer);
         }
-        writeBytes(buffer, totalByte);
+        System.arraycopy(records, offset, buffer.buf, buffer.offset, LasConverter.POINT_BLOCK_SIZE);
+        buffer.offset += LasConverter.POINT_BLOCK_SIZE;
     }
 
-    private int computeBucketId(double lon, double lat) {
+    int computeBucketId(double lon, double lat) {
         TileCoordinate tile = scheme.positionToTile(LasConverter.COARSE_LEVEL, lat, lon);
         return (tile.x & 0xFFFF) | ((tile.y & 0xFFFF) << 16);
     }
@@ -69,11 +78,6 @@ public class BucketWriter implements Closeable {
         buffer.offset = 0;
     }
 
-    private static void writeBytes(BucketBuffer buffer, byte[] bytes) {
-        System.arraycopy(bytes, 0, buffer.buf, buffer.offset, bytes.length);
-        buffer.offset += bytes.length;
-    }
-
     @Override
     public void close() throws IOException {
         for (Map.Entry<Integer, BucketBuffer> entry : buffers.entrySet()) {
@@ -0,0 +1,303 @@
+package com.gaia3d.converter.pointcloud;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Growable block of points stored as parallel primitive arrays.
+ * Replaces lists of GaiaLasPoint on the hot paths, a block of n points costs 7 arrays instead of n objects.
+ * The encoded record layout is the same as GaiaLasPoint.toBytes (big-endian, 32 bytes) :
+ * positions(24) + rgba(4) + intensity(2) + classification(2)
+ */
+public class GaiaPointBlock {
+    public static final int BYTES_SIZE = 32;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private double[] x;
+    private double[] y;
+    private double[] z;
+    private int[] rgba;
+    private char[] intensity;
+    private short[] classification;
+    private int size = 0;
+
+    public GaiaPointBlock() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public GaiaPointBlock(int capacity) {
+        allocate(Math.max(capacity, 0));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public double getX(int index) {
+        return x[index];
+    }
+
+    public double getY(int index) {
+        return y[index];
+    }
+
+    public double getZ(int index) {
+        return z[index];
+    }
+
+    public byte getR(int index) {
+        return (byte) (rgba[index] >>> 24);
+    }
+
+    public byte getG(int index) {
+        return (byte) (rgba[index] >>> 16);
+    }
+
+    public byte getB(int index) {
+        return (byte) (rgba[index] >>> 8);
+    }
+
+    public byte getA(int index) {
+        return (byte) rgba[index];
+    }
+
+    public int getRgba(int index) {
+        return rgba[index];
+    }
+
+    public char getIntensity(int index) {
+        return intensity[index];
+    }
+
+    public short getClassification(int index) {
+        return classification[index];
+    }
+
+    public void setPosition(int index, double px, double py, double pz) {
+        x[index] = px;
+        y[index] = py;
+        z[index] = pz;
+    }
+
+    public void add(double px, double py, double pz, byte r, byte g, byte b, byte a, char pIntensity, short pClassification) {
+        add(px, py, pz, packRgba(r, g, b, a), pIntensity, pClassification);
+    }
+
+    public void add(double px, double py, double pz, int pRgba, char pIntensity, short pClassification) {
+        ensureCapacity(size + 1);
+        x[size] = px;
+        y[size] = py;
+        z[size] = pz;
+        rgba[size] = pRgba;
+        intensity[size] = pIntensity;
+        classification[size] = pClassification;
+        size++;
+    }
+
+    /**
+     * Appends one point of another block.
+     */
+    public void add(GaiaPointBlock source, int index) {
+        add(source.x[index], source.y[index], source.z[index], source.rgba[index], source.intensity[index], source.classification[index]);
+    }
+
+    public void addAll(GaiaPointBlock source) {
+        addRange(source, 0, source.size);
+    }
+
+    /**
+     * Appends the points [from, to) of another block.
+     */
+    public void addRange(GaiaPointBlock source, int from, int to) {
+        int count = to - from;
+        if (count <= 0) {
+            return;
+        }
+        ensureCapacity(size + count);
+        System.arraycopy(source.x, from, x, size, count);
+        System.arraycopy(source.y, from, y, size, count);
+        System.arraycopy(source.z, from, z, size, count);
+        System.arraycopy(source.rgba, from, rgba, size, count);
+        System.arraycopy(source.intensity, from, intensity, size, count);
+        System.arraycopy(source.classification, from, classification, size, count);
+        size += count;
+    }
+
+    /**
+     * Copies the points [from, to) into a new block.
+     */
+    public GaiaPointBlock copyRange(int from, int to) {
+        GaiaPointBlock block = new GaiaPointBlock(Math.max(to - from, 0));
+        block.addRange(this, from, to);
+        return block;
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= x.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, x.length + (x.length >> 1));
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        z = Arrays.copyOf(z, newCapacity);
+        rgba = Arrays.copyOf(rgba, newCapacity);
+        intensity = Arrays.copyOf(intensity, newCapacity);
+        classification = Arrays.copyOf(classification, newCapacity);
+    }
+
+    public void trimToSize() {
+        if (size == x.length) {
+            return;
+        }
+        x = Arrays.copyOf(x, size);
+        y = Arrays.copyOf(y, size);
+        z = Arrays.copyOf(z, size);
+        rgba = Arrays.copyOf(rgba, size);
+        intensity = Arrays.copyOf(intensity, size);
+        classification = Arrays.copyOf(classification, size);
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Keeps the first points of the block, the arrays are not shrunk.
+     */
+    public void truncate(int newSize) {
+        if (newSize < size) {
+            size = Math.max(newSize, 0);
+        }
+    }
+
+    /**
+     * Removes the first points of the block, the following points are shifted in place and the arrays are not shrunk.
+     */
+    public void removeFirst(int count) {
+        if (count <= 0) {
+            return;
+        }
+        if (count >= size) {
+            size = 0;
+            return;
+        }
+        int remaining = size - count;
+        System.arraycopy(x, count, x, 0, remaining);
+        System.arraycopy(y, count, y, 0, remaining);
+        System.arraycopy(z, count, z, 0, remaining);
+        System.arraycopy(rgba, count, rgba, 0, remaining);
+        System.arraycopy(intensity, count, intensity, 0, remaining);
+        System.arraycopy(classification, count, classification, 0, remaining);
+        size = remaining;
+    }
+
+    /**
+     * Encodes the points [from, to) into the buffer, the buffer must be big-endian and have enough room.
+     */
+    public void writeTo(ByteBuffer buffer, int from, int to) {
+        for (int i = from; i < to; i++) {
+            buffer.putDouble(x[i]);
+            buffer.putDouble(y[i]);
+            buffer.putDouble(z[i]);
+            buffer.putInt(rgba[i]);
+            buffer.putChar(intensity[i]);
+            buffer.putShort(classification[i]);
+        }
+    }
+
+    /**
+     * Decodes count records from the buffer and appends them.
+     */
+    public void readFrom(ByteBuffer buffer, int count) {
+        ensureCapacity(size + count);
+        for (int i = 0; i < count; i++) {
+            x[size] = buffer.getDouble();
+            y[size] = buffer.getDouble();
+            z[size] = buffer.getDouble();
+            rgba[size] = buffer.getInt();
+            intensity[size] = buffer.getChar();
+            classification[size] = buffer.getShort();
+            size++;
+        }
+    }
+
+    /**
+     * Decodes every whole record of a byte array.
+     */
+    public static GaiaPointBlock fromBytes(byte[] bytes, int length) {
+        int count = length / BYTES_SIZE;
+        GaiaPointBlock block = new GaiaPointBlock(count);
+        block.readFrom(ByteBuffer.wrap(bytes, 0, count * BYTES_SIZE).order(ByteOrder.BIG_ENDIAN), count);
+        return block;
+    }
+
+    /**
+     * Encodes one point into target with the block layout.
+     */
+    public static void encode(byte[] target, int offset, double px, double py, double pz, int pRgba, char pIntensity, short pClassification) {
+        putLong(target, offset, Double.doubleToRawLongBits(px));
+        putLong(target, offset + 8, Double.doubleToRawLongBits(py));
+        putLong(target, offset + 16, Double.doubleToRawLongBits(pz));
+        putInt(target, offset + 24, pRgba);
+        target[offset + 28] = (byte) (pIntensity >> 8);
+        target[offset + 29] = (byte) pIntensity;
+        target[offset + 30] = (byte) (pClassification >> 8);
+        target[offset + 31] = (byte) pClassification;
+    }
+
+    public static int packRgba(byte r, byte g, byte b, byte a) {
+        return ((r & 0xFF) << 24) | ((g & 0xFF) << 16) | ((b & 0xFF) << 8) | (a & 0xFF);
+    }
+
+    public GaiaLasPoint toLasPoint(int index) {
+        return GaiaLasPoint.builder()
+                .x(x[index])
+                .y(y[index])
+                .z(z[index])
+                .r(getR(index))
+                .g(getG(index))
+                .b(getB(index))
+                .a(getA(index))
+                .intensity(intensity[index])
+                .classification(classification[index])
+                .build();
+    }
+
+    public List<GaiaLasPoint> toLasPoints() {
+        List<GaiaLasPoint> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(toLasPoint(i));
+        }
+        return points;
+    }
+
+    private void allocate(int capacity) {
+        x = new double[capacity];
+        y = new double[capacity];
+        z = new double[capacity];
+        rgba = new int[capacity];
+        intensity = new char[capacity];
+        classification = new short[capacity];
+    }
+
+    private static void putLong(byte[] target, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            target[offset + i] = (byte) value;
+            value >>= 8;
+        }
+    }
+
+    private static void putInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
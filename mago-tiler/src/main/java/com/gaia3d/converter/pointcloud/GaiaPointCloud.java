@@ -4,7 +4,6 @@ import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.joml.Vector3d;
 
 import java.io.*;
 import java.nio.file.Path;
@@ -18,13 +17,13 @@ import java.util.List;
 @Setter
 @Builder
 public class GaiaPointCloud {
-    //public final int CHUNK_SIZE = GaiaLasPoint.BYTES_SIZE * 20_000_000;
-    public final long CHUNK_SIZE = GaiaLasPoint.BYTES_SIZE * 40_000_000L;
+    //public final int CHUNK_SIZE = GaiaPointBlock.BYTES_SIZE * 20_000_000;
+    public final long CHUNK_SIZE = GaiaPointBlock.BYTES_SIZE * 40_000_000L;
 
     private String code = "A";
     private Path originalPath;
     private GaiaBoundingBox gaiaBoundingBox = new GaiaBoundingBox();
-    private List<GaiaLasPoint> lasPoints = new ArrayList<>();
+    private GaiaPointBlock points = new GaiaPointBlock();
     private long pointCount = 0;
     private File minimizedFile = null;
 
@@ -60,22 +59,22 @@ public class GaiaPointCloud {
     }
 
     public void clearPoints() {
-        if (lasPoints != null) {
-            lasPoints.clear();
-            lasPoints = null;
-        }
+        points = null;
     }
 
     public void removeMinimizedFile() {
         if (minimizedFile != null && minimizedFile.exists()) {
-            FileUtils.deleteQuietly(minimizedFile);
+            if (!FileUtils.deleteQuietly(minimizedFile)) {
+                // the chunk mappings may still be open on some platforms until they are collected
+                minimizedFile.deleteOnExit();
+            }
             minimizedFile = null;
         }
     }
 
     public long getPointCount() {
-        if (pointCount == 0 && lasPoints != null) {
-            pointCount = lasPoints.size();
+        if (pointCount == 0 && points != null) {
+            pointCount = points.size();
         }
         return pointCount;
     }
@@ -115,7 +114,7 @@ public class GaiaPointCloud {
 
     public List<GaiaPointCloud> getFullLeaves() {
         List<GaiaPointCloud> leaves = new ArrayList<>();
-        boolean hasPoints = (lasPoints != null && !lasPoints.isEmpty());
+        boolean hasPoints = (points != null && !points.isEmpty());
         boolean isFull = this.pointCount == this.limitPointCount;
         if (hasPoints && isFull) {
             leaves.add(this);
@@ -130,7 +129,7 @@ public class GaiaPointCloud {
 
     public List<GaiaPointCloud> getAllLeaves() {
         List<GaiaPointCloud> leaves = new ArrayList<>();
-        boolean hasPoints = (lasPoints != null && !lasPoints.isEmpty());
+        boolean hasPoints = (points != null && !points.isEmpty());
         if (hasPoints) {
             leaves.add(this);
         }
@@ -142,13 +141,13 @@ public class GaiaPointCloud {
         return leaves;
     }
 
-    public void setLasPoints(List<GaiaLasPoint> lasPoints) {
-        this.lasPoints = lasPoints;
-        this.pointCount = lasPoints.size();
+    public void setPoints(GaiaPointBlock points) {
+        this.points = points;
+        this.pointCount = points.size();
     }
 
     public void minimize(File minimizedFile) {
-        if (lasPoints == null || lasPoints.isEmpty()) {
+        if (points == null || points.isEmpty()) {
             // 비어 있으면 그냥 빈 파일 하나 만들어두고 끝내도 됨
             try {
                 if (!minimizedFile.exists()) {
@@ -164,57 +163,14 @@ public class GaiaPointCloud {
         }
 
         this.minimizedFile = minimizedFile;
-        this.pointCount = lasPoints.size();
-
-        // 한 번에 몇 개 포인트를 버퍼링할지 (튜닝 가능)
-        final int pointsPerBatch = 4096; // 예: 4096 * 32B ≈ 128KB
-        final int pointSize = GaiaLasPoint.BYTES_SIZE;
-        final int batchBufferSize = pointsPerBatch * pointSize;
-
-        byte[] batchBuffer = new byte[batchBufferSize];
-        int bufferOffset = 0; // batchBuffer 내 현재 위치
-
-        try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(minimizedFile), 1024 * 1024)) {
-            for (GaiaLasPoint point : lasPoints) {
-                byte[] pointBytes = point.toBytes();
-                if (bufferOffset + pointSize > batchBufferSize) {
-                    bos.write(batchBuffer, 0, bufferOffset);
-                    bufferOffset = 0;
-                }
-                System.arraycopy(pointBytes, 0, batchBuffer, bufferOffset, pointSize);
-                bufferOffset += pointSize;
-            }
+        this.pointCount = points.size();
 
-            if (bufferOffset > 0) {
-                bos.write(batchBuffer, 0, bufferOffset);
-            }
-
-            bos.flush();
+        try {
+            PointBlockFile.write(points, minimizedFile);
         } catch (IOException e) {
             log.error("Failed to minimize point cloud to file: {}", minimizedFile.getAbsolutePath(), e);
         } finally {
-            if (this.lasPoints != null) {
-                this.lasPoints.clear();
-                this.lasPoints = null;
-            }
-        }
-    }
-
-    @Deprecated
-    public void minimizeOld(File minimizedFile) {
-        this.minimizedFile = minimizedFile;
-        this.pointCount = lasPoints.size();
-        try (BufferedOutputStream bos = new BufferedOutputStream(new FileOutputStream(minimizedFile), 8192 * 8)) {
-            List<GaiaLasPoint> points = this.getLasPoints();
-            for (GaiaLasPoint point : points) {
-                byte[] pointBytes = point.toBytes();
-                bos.write(pointBytes);
-            }
-            bos.flush();
-            this.lasPoints.clear();
-            this.lasPoints = null;
-        } catch (IOException e) {
-            log.error("Failed to minimize point cloud to file: {}", minimizedFile.getAbsolutePath(), e);
+            this.points = null;
         }
     }
 
@@ -247,50 +203,16 @@ public class GaiaPointCloud {
             chunkSize = originalFileLength - offset;
         }
 
-        long chunkPointCount = chunkSize / GaiaLasPoint.BYTES_SIZE;
+        long chunkPointCount = chunkSize / GaiaPointBlock.BYTES_SIZE;
 
         GaiaPointCloud chunkPointCloud = new GaiaPointCloud();
         chunkPointCloud.setOriginalPath(this.originalPath);
         chunkPointCloud.setGaiaBoundingBox(this.gaiaBoundingBox);
         chunkPointCloud.setMinimizedFile(this.minimizedFile);
         chunkPointCloud.setCode("R");
-        /*try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(this.minimizedFile))) {
-            long totalPoints = this.pointCount;
-            bis.skip(offset);
-            List<GaiaLasPoint> points = new ArrayList<>();
-            for (long i = 0; i < chunkPointCount && (i + offset / GaiaLasPoint.BYTES_SIZE) < totalPoints; i++) {
-                byte[] pointBytes = new byte[GaiaLasPoint.BYTES_SIZE];
-                int bytesRead = bis.read(pointBytes);
-                if (bytesRead != GaiaLasPoint.BYTES_SIZE) {
-                    log.error("Unexpected end of file while reading point cloud chunk.");
-                    break;
-                }
-                GaiaLasPoint point = GaiaLasPoint.fromBytes(pointBytes);
-                points.add(point);
-            }
-            chunkPointCloud.setLasPoints(points);
-            chunkPointCloud.setPointCount(points.size());
-
-            if (points.size() != chunkPointCount) {
-                log.warn("Expected to read {} points, but only read {} points.", chunkPointCount, points.size());
-            }
-        } catch (IOException e) {
-            log.error("Failed to read point cloud chunk from file: {}", this.minimizedFile.getAbsolutePath(), e);
-        }*/
-        try (RandomAccessFile raf = new RandomAccessFile(this.minimizedFile, "r")) {
-            raf.seek(offset);
-            List<GaiaLasPoint> points = new ArrayList<>();
-            for (long i = 0; i < chunkPointCount && (i + offset / GaiaLasPoint.BYTES_SIZE) < (originalFileLength / GaiaLasPoint.BYTES_SIZE); i++) {
-                byte[] pointBytes = new byte[GaiaLasPoint.BYTES_SIZE];
-                int bytesRead = raf.read(pointBytes);
-                if (bytesRead != GaiaLasPoint.BYTES_SIZE) {
-                    log.error("Unexpected end of file while reading point cloud chunk.");
-                    break;
-                }
-                GaiaLasPoint point = GaiaLasPoint.fromBytes(pointBytes);
-                points.add(point);
-            }
-            chunkPointCloud.setLasPoints(points);
+        try {
+            GaiaPointBlock points = PointBlockFile.read(this.minimizedFile, offset, chunkPointCount);
+            chunkPointCloud.setPoints(points);
             chunkPointCloud.setPointCount(points.size());
 
             if (points.size() != chunkPointCount) {
@@ -309,45 +231,19 @@ public class GaiaPointCloud {
         }
 
         File file = this.minimizedFile;
-        long fileLength = file.length();
-        long totalPointsLong = fileLength / GaiaLasPoint.BYTES_SIZE;
-
-        if (totalPointsLong > Integer.MAX_VALUE) {
-            throw new IllegalStateException("Too many points to load into memory: " + totalPointsLong);
+        long totalPoints = file.length() / GaiaPointBlock.BYTES_SIZE;
+        if (totalPoints > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Too many points to load into memory: " + totalPoints);
         }
 
-        int totalPoints = (int) totalPointsLong;
-        final int pointSize = GaiaLasPoint.BYTES_SIZE;
-
-        List<GaiaLasPoint> points = new ArrayList<>(totalPoints > 0 ? totalPoints : 16);
-        byte[] pointBytes = new byte[pointSize];
-        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file), 1024 * 1024)) { // 1MB 버퍼
-
-            for (int i = 0; i < totalPoints; i++) {
-                int readTotal = 0;
-                while (readTotal < pointSize) {
-                    int r = bis.read(pointBytes, readTotal, pointSize - readTotal);
-                    if (r == -1) {
-                        log.error("Unexpected end of file while reading point cloud. readTotal={}, expected={}", readTotal, pointSize);
-                        break;
-                    }
-                    readTotal += r;
-                }
-                if (readTotal != pointSize) {
-                    // 파일이 손상 된 경우 - 일단 여기까지 읽은 포인트만 사용
-                    break;
-                }
-
-                GaiaLasPoint point = GaiaLasPoint.fromBytes(pointBytes);
-                points.add(point);
-            }
-
-            this.lasPoints = points;
+        try {
+            GaiaPointBlock points = PointBlockFile.read(file, 0, totalPoints);
+            this.points = points;
             this.pointCount = points.size();
 
-            bis.close();
-            if (deleteAfterMaximize) {
-                FileUtils.deleteQuietly(file);
+            if (deleteAfterMaximize && !FileUtils.deleteQuietly(file)) {
+                // the mapping may still be open on some platforms until it is collected
+                file.deleteOnExit();
             }
             this.minimizedFile = null;
         } catch (IOException e) {
@@ -355,42 +251,10 @@ public class GaiaPointCloud {
         }
     }
 
-    @Deprecated
-    public void maximizeOld(boolean deleteAfterMaximize) {
-        if (this.minimizedFile == null) {
-            log.warn("No minimized file to maximize.");
-            return;
-        }
-
-        long fileLength = this.minimizedFile.length();
-        long totalPoints = fileLength / GaiaLasPoint.BYTES_SIZE;
-        try (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(this.minimizedFile))) {
-            List<GaiaLasPoint> points = new ArrayList<>();
-            for (long i = 0; i < totalPoints; i++) {
-                byte[] pointBytes = new byte[GaiaLasPoint.BYTES_SIZE];
-                int bytesRead = bis.read(pointBytes);
-                if (bytesRead != GaiaLasPoint.BYTES_SIZE) {
-                    log.error("Unexpected end of file while reading point cloud.");
-                    break;
-                }
-                GaiaLasPoint point = GaiaLasPoint.fromBytes(pointBytes);
-                points.add(point);
-            }
-            this.lasPoints = points;
-            if (deleteAfterMaximize) {
-                FileUtils.deleteQuietly(this.minimizedFile);
-            }
-            this.minimizedFile = null;
-        } catch (IOException e) {
-            log.error("Failed to maximize point cloud from file: {}", this.minimizedFile.getAbsolutePath(), e);
-        }
-    }
-
     public void computeBoundingBox() {
         gaiaBoundingBox = new GaiaBoundingBox();
-        for (GaiaLasPoint vertex : lasPoints) {
-            Vector3d center = vertex.getVec3Position();
-            gaiaBoundingBox.addPoint(center);
+        for (int i = 0; i < points.size(); i++) {
+            gaiaBoundingBox.addPoint(points.getX(i), points.getY(i), points.getZ(i));
         }
     }
 
@@ -408,57 +272,57 @@ public class GaiaPointCloud {
         gaiaPointCloudA.setCode("A");
         gaiaPointCloudA.setOriginalPath(originalPath);
         gaiaPointCloudA.setParent(this);
-        ArrayList<GaiaLasPoint> verticesA = (ArrayList<GaiaLasPoint>) gaiaPointCloudA.getLasPoints();
-        verticesA.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesA = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudA.setPoints(verticesA);
 
         GaiaPointCloud gaiaPointCloudB = new GaiaPointCloud();
         gaiaPointCloudB.setCode("B");
         gaiaPointCloudB.setOriginalPath(originalPath);
         gaiaPointCloudB.setParent(this);
-        ArrayList<GaiaLasPoint> verticesB = (ArrayList<GaiaLasPoint>) gaiaPointCloudB.getLasPoints();
-        verticesB.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesB = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudB.setPoints(verticesB);
 
         GaiaPointCloud gaiaPointCloudC = new GaiaPointCloud();
         gaiaPointCloudC.setCode("C");
         gaiaPointCloudC.setOriginalPath(originalPath);
         gaiaPointCloudC.setParent(this);
-        ArrayList<GaiaLasPoint> verticesC = (ArrayList<GaiaLasPoint>) gaiaPointCloudC.getLasPoints();
-        verticesC.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesC = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudC.setPoints(verticesC);
 
         GaiaPointCloud gaiaPointCloudD = new GaiaPointCloud();
         gaiaPointCloudD.setCode("D");
         gaiaPointCloudD.setOriginalPath(originalPath);
         gaiaPointCloudD.setParent(this);
-        ArrayList<GaiaLasPoint> verticesD = (ArrayList<GaiaLasPoint>) gaiaPointCloudD.getLasPoints();
-        verticesD.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesD = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudD.setPoints(verticesD);
 
         GaiaPointCloud gaiaPointCloudE = new GaiaPointCloud();
         gaiaPointCloudE.setCode("E");
         gaiaPointCloudE.setOriginalPath(originalPath);
         gaiaPointCloudE.setParent(this);
-        ArrayList<GaiaLasPoint> verticesE = (ArrayList<GaiaLasPoint>) gaiaPointCloudE.getLasPoints();
-        verticesE.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesE = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudE.setPoints(verticesE);
 
         GaiaPointCloud gaiaPointCloudF = new GaiaPointCloud();
         gaiaPointCloudF.setCode("F");
         gaiaPointCloudF.setOriginalPath(originalPath);
         gaiaPointCloudF.setParent(this);
-        ArrayList<GaiaLasPoint> verticesF = (ArrayList<GaiaLasPoint>) gaiaPointCloudF.getLasPoints();
-        verticesF.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesF = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudF.setPoints(verticesF);
 
         GaiaPointCloud gaiaPointCloudG = new GaiaPointCloud();
         gaiaPointCloudG.setCode("G");
         gaiaPointCloudG.setOriginalPath(originalPath);
         gaiaPointCloudG.setParent(this);
-        ArrayList<GaiaLasPoint> verticesG = (ArrayList<GaiaLasPoint>) gaiaPointCloudG.getLasPoints();
-        verticesG.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesG = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudG.setPoints(verticesG);
 
         GaiaPointCloud gaiaPointCloudH = new GaiaPointCloud();
         gaiaPointCloudH.setCode("H");
         gaiaPointCloudH.setOriginalPath(originalPath);
         gaiaPointCloudH.setParent(this);
-        ArrayList<GaiaLasPoint> verticesH = (ArrayList<GaiaLasPoint>) gaiaPointCloudH.getLasPoints();
-        verticesH.ensureCapacity((int) estimatedPerChild);
+        GaiaPointBlock verticesH = new GaiaPointBlock((int) estimatedPerChild);
+        gaiaPointCloudH.setPoints(verticesH);
 
         double minX = gaiaBoundingBox.getMinX();
         double minY = gaiaBoundingBox.getMinY();
@@ -472,8 +336,7 @@ public class GaiaPointCloud {
         double midZ = (minZ + maxZ) / 2;
 
         // bit-mask octree indexing
-        @SuppressWarnings("unchecked")
-        List<GaiaLasPoint>[] bucketLists = new List[] {
+        GaiaPointBlock[] buckets = new GaiaPointBlock[] {
                 verticesA, // 000
                 verticesC, // 001 (y)
                 verticesB, // 010 (x)
@@ -484,55 +347,20 @@ public class GaiaPointCloud {
                 verticesH  // 111 (z|x|y)
         };
 
-        for (GaiaLasPoint vertex : this.getLasPoints()) {
-            double x = vertex.getX();
-            double y = vertex.getY();
-            double z = vertex.getZ();
+        GaiaPointBlock points = this.getPoints();
+        int size = points.size();
+        for (int i = 0; i < size; i++) {
+            double x = points.getX(i);
+            double y = points.getY(i);
+            double z = points.getZ(i);
 
             int idx = 0;
             if (z > midZ) idx |= 4;
             if (x > midX) idx |= 2;
             if (y > midY) idx |= 1;
 
-            bucketLists[idx].add(vertex);
-        }
-
-        /*for (GaiaLasPoint vertex : this.getLasPoints()) {
-            //Vector3d position = vertex.getVec3Position();
-            double x = vertex.getX();
-            double y = vertex.getY();
-            double z = vertex.getZ();
-
-            if (midZ < z) {
-                if (midX < x) {
-                    if (midY < y) {
-                        verticesH.add(vertex);
-                    } else {
-                        verticesF.add(vertex);
-                    }
-                } else {
-                    if (midY < y) {
-                        verticesG.add(vertex);
-                    } else {
-                        verticesE.add(vertex);
-                    }
-                }
-            } else {
-                if (midX < x) {
-                    if (midY < y) {
-                        verticesD.add(vertex);
-                    } else {
-                        verticesB.add(vertex);
-                    }
-                } else {
-                    if (midY < y) {
-                        verticesC.add(vertex);
-                    } else {
-                        verticesA.add(vertex);
-                    }
-                }
-            }
-        }*/
+            buckets[idx].add(points, i);
+        }
 
         GaiaBoundingBox adjustedBoxA = new GaiaBoundingBox();
         adjustedBoxA.setMinX(gaiaBoundingBox.getMinX());
@@ -542,8 +370,8 @@ public class GaiaPointCloud {
         adjustedBoxA.setMaxY(midY);
         adjustedBoxA.setMaxZ(midZ);
         gaiaPointCloudA.setGaiaBoundingBox(adjustedBoxA);
-        gaiaPointCloudA.setPointCount(gaiaPointCloudA.getLasPoints().size());
-        if (!gaiaPointCloudA.getLasPoints().isEmpty()) {
+        gaiaPointCloudA.setPointCount(verticesA.size());
+        if (!verticesA.isEmpty()) {
             pointClouds.add(gaiaPointCloudA);
             verticesA.trimToSize();
         }
@@ -556,8 +384,8 @@ public class GaiaPointCloud {
         adjustedBoxB.setMaxY(midY);
         adjustedBoxB.setMaxZ(midZ);
         gaiaPointCloudB.setGaiaBoundingBox(adjustedBoxB);
-        gaiaPointCloudB.setPointCount(gaiaPointCloudB.getLasPoints().size());
-        if (!gaiaPointCloudB.getLasPoints().isEmpty()) {
+        gaiaPointCloudB.setPointCount(verticesB.size());
+        if (!verticesB.isEmpty()) {
             pointClouds.add(gaiaPointCloudB);
             verticesB.trimToSize();
         }
@@ -570,8 +398,8 @@ public class GaiaPointCloud {
         adjustedBoxC.setMaxY(gaiaBoundingBox.getMaxY());
         adjustedBoxC.setMaxZ(midZ);
         gaiaPointCloudC.setGaiaBoundingBox(adjustedBoxC);
-        gaiaPointCloudC.setPointCount(gaiaPointCloudC.getLasPoints().size());
-        if (!gaiaPointCloudC.getLasPoints().isEmpty()) {
+        gaiaPointCloudC.setPointCount(verticesC.size());
+        if (!verticesC.isEmpty()) {
             pointClouds.add(gaiaPointCloudC);
             verticesC.trimToSize();
         }
@@ -584,8 +412,8 @@ public class GaiaPointCloud {
         adjustedBoxD.setMaxY(gaiaBoundingBox.getMaxY());
         adjustedBoxD.setMaxZ(midZ);
         gaiaPointCloudD.setGaiaBoundingBox(adjustedBoxD);
-        gaiaPointCloudD.setPointCount(gaiaPointCloudD.getLasPoints().size());
-        if (!gaiaPointCloudD.getLasPoints().isEmpty()) {
+        gaiaPointCloudD.setPointCount(verticesD.size());
+        if (!verticesD.isEmpty()) {
             pointClouds.add(gaiaPointCloudD);
             verticesD.trimToSize();
         }
@@ -598,8 +426,8 @@ public class GaiaPointCloud {
         adjustedBoxE.setMaxY(midY);
         adjustedBoxE.setMaxZ(gaiaBoundingBox.getMaxZ());
         gaiaPointCloudE.setGaiaBoundingBox(adjustedBoxE);
-        gaiaPointCloudE.setPointCount(gaiaPointCloudE.getLasPoints().size());
-        if (!gaiaPointCloudE.getLasPoints().isEmpty()) {
+        gaiaPointCloudE.setPointCount(verticesE.size());
+        if (!verticesE.isEmpty()) {
             pointClouds.add(gaiaPointCloudE);
             verticesE.trimToSize();
         }
@@ -612,8 +440,8 @@ public class GaiaPointCloud {
         adjustedBoxF.setMaxY(midY);
         adjustedBoxF.setMaxZ(gaiaBoundingBox.getMaxZ());
         gaiaPointCloudF.setGaiaBoundingBox(adjustedBoxF);
-        gaiaPointCloudF.setPointCount(gaiaPointCloudF.getLasPoints().size());
-        if (!gaiaPointCloudF.getLasPoints().isEmpty()) {
+        gaiaPointCloudF.setPointCount(verticesF.size());
+        if (!verticesF.isEmpty()) {
             pointClouds.add(gaiaPointCloudF);
             verticesF.trimToSize();
         }
@@ -626,8 +454,8 @@ public class GaiaPointCloud {
         adjustedBoxG.setMaxY(gaiaBoundingBox.getMaxY());
         adjustedBoxG.setMaxZ(gaiaBoundingBox.getMaxZ());
         gaiaPointCloudG.setGaiaBoundingBox(adjustedBoxG);
-        gaiaPointCloudG.setPointCount(gaiaPointCloudG.getLasPoints().size());
-        if (!gaiaPointCloudG.getLasPoints().isEmpty()) {
+        gaiaPointCloudG.setPointCount(verticesG.size());
+        if (!verticesG.isEmpty()) {
             pointClouds.add(gaiaPointCloudG);
             verticesG.trimToSize();
         }
@@ -640,14 +468,19 @@ public class GaiaPointCloud {
         adjustedBoxH.setMaxY(gaiaBoundingBox.getMaxY());
         adjustedBoxH.setMaxZ(gaiaBoundingBox.getMaxZ());
         gaiaPointCloudH.setGaiaBoundingBox(adjustedBoxH);
-        gaiaPointCloudH.setPointCount(gaiaPointCloudH.getLasPoints().size());
-        if (!gaiaPointCloudH.getLasPoints().isEmpty()) {
+        gaiaPointCloudH.setPointCount(verticesH.size());
+        if (!verticesH.isEmpty()) {
             pointClouds.add(gaiaPointCloudH);
             verticesH.trimToSize();
         }
         return pointClouds;
     }
 
+    /**
+     * Splits the points into a chunk of at most chunkSize points and the remainder.
+     * The points are moved into the returned point clouds, this point cloud keeps its point count but no points.
+     * The points are shuffled, so the chunk is taken from the end of the block.
+     */
     public List<GaiaPointCloud> divideChunkSize(int chunkSize) {
         List<GaiaPointCloud> pointClouds = new ArrayList<>();
 
@@ -662,15 +495,19 @@ public class GaiaPointCloud {
         remainderPointCloud.setOriginalPath(originalPath);
         remainderPointCloud.setGaiaBoundingBox(gaiaBoundingBox);
 
-        if (lasPoints.size() > chunkSize) {
-            chunkPointCloud.setLasPoints(new ArrayList<>(lasPoints.subList(0, chunkSize)));
-            remainderPointCloud.setLasPoints(new ArrayList<>(lasPoints.subList(chunkSize, lasPoints.size())));
+        // the chunk is the head of the points as before, only the chunk is copied and the remainder keeps the arrays of this point cloud
+        GaiaPointBlock block = points;
+        clearPoints();
+        if (block.size() > chunkSize) {
+            chunkPointCloud.setPoints(block.copyRange(0, chunkSize));
+            block.removeFirst(chunkSize);
+            remainderPointCloud.setPoints(block);
         } else {
-            chunkPointCloud.setLasPoints(new ArrayList<>(lasPoints.subList(0, lasPoints.size())));
+            chunkPointCloud.setPoints(block);
         }
 
-        chunkPointCloud.setPointCount(chunkPointCloud.getLasPoints().size());
-        remainderPointCloud.setPointCount(remainderPointCloud.getLasPoints().size());
+        chunkPointCloud.setPointCount(chunkPointCloud.getPoints().size());
+        remainderPointCloud.setPointCount(remainderPointCloud.getPoints().size());
         pointClouds.add(chunkPointCloud);
         pointClouds.add(remainderPointCloud);
         return pointClouds;
@@ -684,14 +521,14 @@ public class GaiaPointCloud {
     }
 
     public void combine(GaiaPointCloud other) {
-        if (other == null || other.getLasPoints() == null) {
+        if (other == null || other.getPoints() == null) {
             return;
         }
-        if (this.lasPoints == null) {
-            this.lasPoints = new ArrayList<>();
+        if (this.points == null) {
+            this.points = new GaiaPointBlock(other.getPoints().size());
         }
-        this.lasPoints.addAll(other.getLasPoints());
-        this.pointCount = this.lasPoints.size();
+        this.points.addAll(other.getPoints());
+        this.pointCount = this.points.size();
         GaiaBoundingBox otherBox = other.getGaiaBoundingBox();
         this.gaiaBoundingBox.addBoundingBox(otherBox);
     }
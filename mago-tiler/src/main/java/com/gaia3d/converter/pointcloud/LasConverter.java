@@ -2,14 +2,11 @@ package com.gaia3d.converter.pointcloud;
 
 import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.converter.pointcloud.shuffler.*;
+import com.gaia3d.converter.terrain.HeightSampler;
 import com.gaia3d.util.GlobeUtils;
 import com.github.mreutegg.laszip4j.*;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
-import org.geotools.api.geometry.Position;
-import org.geotools.coverage.grid.GridCoverage2D;
-import org.geotools.geometry.Position2D;
-import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.joml.Vector3d;
 import org.locationtech.proj4j.BasicCoordinateTransform;
 import org.locationtech.proj4j.CRSFactory;
@@ -19,7 +16,9 @@ import org.locationtech.proj4j.ProjCoordinate;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Path;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 
 @Slf4j
@@ -27,9 +26,16 @@ public class LasConverter {
     /* positions(24) + rgb(4) + intensity(2) + classification(2) = 32 bytes */
     public static final int COARSE_LEVEL = 13;
     public static final int POINT_BLOCK_SIZE = 32;
+    /* parallel ingestion : number of points in one decoded batch */
+    private static final int INGEST_BATCH_SIZE = 64 * 1024;
+    /* parallel ingestion : number of queued batches per thread */
+    private static final int INGEST_QUEUE_CAPACITY_PER_THREAD = 4;
+    private static final LasPointBatch END_OF_BATCHES = new LasPointBatch(0, null, false);
+    static final BucketRecords END_OF_RECORDS = new BucketRecords(0);
     private final LasConverterOptions options;
     private final BucketWriter bucketWriter;
     private final BucketReader bucketReader;
+    private volatile HeightSampler heightSampler;
 
     public LasConverter(LasConverterOptions options) {
         this.options = options;
@@ -42,6 +48,22 @@ public class LasConverter {
         }
     }
 
+    /**
+     * The coverages are loaded into the option lists after the converter is created, so the sampler is built on first use.
+     */
+    private HeightSampler getHeightSampler() {
+        HeightSampler sampler = heightSampler;
+        if (sampler == null) {
+            synchronized (this) {
+                if (heightSampler == null) {
+                    heightSampler = new HeightSampler(options.getGeoTiffs(), options.getGeoidTiffs());
+                }
+                sampler = heightSampler;
+            }
+        }
+        return sampler;
+    }
+
     public void convert(File file) {
         LASReader reader = new LASReader(file);
         LASHeader header = reader.getHeader();
@@ -87,10 +109,8 @@ public class LasConverter {
             progressInterval = 1;
         }
 
-        List<GridCoverage2D> geoTiffs = options.getGeoTiffs();
-        List<GridCoverage2D> geoidTiffs = options.getGeoidTiffs();
-        boolean hasTerrain = geoTiffs != null && !geoTiffs.isEmpty();
-        boolean hasGeoid = geoidTiffs != null && !geoidTiffs.isEmpty();
+        HeightSampler sampler = getHeightSampler();
+        boolean hasHeight = !sampler.isEmpty();
         long index = 0;
         for (LASPoint point : pointIterable) {
             if (index % volumeFilter != 0) {
@@ -121,26 +141,14 @@ public class LasConverter {
                 z = targetCoord.z;
             }
 
-            if (hasTerrain || hasGeoid) {
-                Vector3d cartographic = new Vector3d(x, y, z);
-                double terrainHeight = getTerrainHeightFromCartographic(geoTiffs, geoidTiffs, cartographic);
-                z += terrainHeight;
+            if (hasHeight) {
+                z += sampler.sample(x, y);
             }
 
             byte[] rgb = getRgbColor(point, hasRgbColor, isForce4ByteRGB);
-            GaiaLasPoint gaiaLasPoint = GaiaLasPoint.builder()
-                    .x(x)
-                    .y(y)
-                    .z(z)
-                    .r(rgb[0])
-                    .g(rgb[1])
-                    .b(rgb[2])
-                    .a((byte) 255)
-                    .intensity(point.getIntensity())
-                    .classification(point.getClassification())
-                    .build();
+            int rgba = GaiaPointBlock.packRgba(rgb[0], rgb[1], rgb[2], (byte) 255);
             try {
-                bucketWriter.addPoint(gaiaLasPoint);
+                bucketWriter.addPoint(x, y, z, rgba, point.getIntensity(), point.getClassification());
             } catch (IOException e) {
                 log.error("[ERROR] Failed to write point to bucket.", e);
                 throw new RuntimeException(e);
@@ -149,6 +157,327 @@ public class LasConverter {
         }
     }
 
+    /**
+     * Parallel ingestion of several files.
+     * Decoders (one per file) push batches of scaled points into a bounded queue,
+     * transform workers reproject and sample the terrain with their own transformer and coordinates,
+     * and encode the points for the bucket writer shards. Each shard owns the buckets with bucketId % shardCount
+     * and is written by a single thread, so the bucket files never have concurrent writers.
+     */
+    public void convertAll(List<File> files, int threadCount) {
+        int decoderCount = Math.max(1, Math.min(threadCount, files.size()));
+        int workerCount = Math.max(1, threadCount);
+        int shardCount = Math.max(1, threadCount / 2);
+        log.info("[Load] Parallel ingestion with {} decoders, {} transform workers and {} bucket writers.", decoderCount, workerCount, shardCount);
+
+        BlockingQueue<LasPointBatch> batchQueue = new ArrayBlockingQueue<>(workerCount * INGEST_QUEUE_CAPACITY_PER_THREAD);
+        List<BlockingQueue<BucketRecords>> recordQueues = new ArrayList<>(shardCount);
+        List<Queue<BucketRecords>> recordPools = new ArrayList<>(shardCount);
+        List<BucketWriter> shardWriters = new ArrayList<>(shardCount);
+        try {
+            for (int shard = 0; shard < shardCount; shard++) {
+                recordQueues.add(new ArrayBlockingQueue<>(INGEST_QUEUE_CAPACITY_PER_THREAD * 2));
+                recordPools.add(new ConcurrentLinkedQueue<>());
+                shardWriters.add(new BucketWriter(options.getTempDirectory(), Math.max(8, 128 / shardCount)));
+            }
+        } catch (IOException e) {
+            log.error("[ERROR] Failed to initialize BucketWriter.", e);
+            throw new RuntimeException(e);
+        }
+        AtomicBoolean failed = new AtomicBoolean(false);
+
+        ExecutorService writerService = Executors.newFixedThreadPool(shardCount);
+        ExecutorService workerService = Executors.newFixedThreadPool(workerCount);
+        ExecutorService decoderService = Executors.newFixedThreadPool(decoderCount);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int shard = 0; shard < shardCount; shard++) {
+                BucketWriter shardWriter = shardWriters.get(shard);
+                BlockingQueue<BucketRecords> recordQueue = recordQueues.get(shard);
+                Queue<BucketRecords> recordPool = recordPools.get(shard);
+                writers.add(writerService.submit(() -> writeRecords(recordQueue, recordPool, shardWriter, failed)));
+            }
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < workerCount; worker++) {
+                workers.add(workerService.submit(() -> transformBatches(batchQueue, recordQueues, recordPools, failed)));
+            }
+            List<Future<?>> decoders = new ArrayList<>();
+            int fileCount = files.size();
+            for (int index = 0; index < fileCount; index++) {
+                File file = files.get(index);
+                int finalIndex = index;
+                decoders.add(decoderService.submit(() -> {
+                    log.info("[Load][{}/{}] Loading point cloud file: {}", finalIndex + 1, fileCount, file.getAbsolutePath());
+                    try {
+                        decodeFile(file, batchQueue, failed);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        failed.set(true);
+                    } catch (RuntimeException e) {
+                        log.error("[ERROR] Failed to load point cloud file: {}", file.getAbsolutePath(), e);
+                        failed.set(true);
+                    }
+                    log.info("[Load][{}/{}] Finished loading point cloud file: {}", finalIndex + 1, fileCount, file.getAbsolutePath());
+                }));
+            }
+
+            awaitFutures(decoders);
+            for (int worker = 0; worker < workerCount; worker++) {
+                batchQueue.put(END_OF_BATCHES);
+            }
+            awaitFutures(workers);
+            for (BlockingQueue<BucketRecords> recordQueue : recordQueues) {
+                recordQueue.put(END_OF_RECORDS);
+            }
+            awaitFutures(writers);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            decoderService.shutdownNow();
+            workerService.shutdownNow();
+            writerService.shutdownNow();
+            for (BucketWriter shardWriter : shardWriters) {
+                try {
+                    shardWriter.close();
+                } catch (IOException e) {
+                    log.error("[ERROR] Failed to close BucketWriter.", e);
+                    failed.set(true);
+                }
+            }
+        }
+        if (failed.get()) {
+            throw new RuntimeException("Failed to ingest point cloud files.");
+        }
+    }
+
+    private void decodeFile(File file, BlockingQueue<LasPointBatch> batchQueue, AtomicBoolean failed) throws InterruptedException {
+        LASReader reader = new LASReader(file);
+        LASHeader header = reader.getHeader();
+        double xScaleFactor = header.getXScaleFactor();
+        double xOffset = header.getXOffset();
+        double yScaleFactor = header.getYScaleFactor();
+        double yOffset = header.getYOffset();
+        double zScaleFactor = header.getZScaleFactor();
+        double zOffset = header.getZOffset();
+
+        long pointRecords = header.getNumberOfPointRecords();
+        long legacyPointRecords = header.getLegacyNumberOfPointRecords();
+        long totalPointsSize = pointRecords == 0 ? legacyPointRecords : pointRecords;
+        byte recordFormatValue = header.getPointDataRecordFormat();
+        LasRecordFormat recordFormat = LasRecordFormat.fromFormatNumber(recordFormatValue);
+        boolean hasRgbColor = recordFormat != null && recordFormat.hasColor;
+        printHeaderInfo(header);
+
+        boolean isForce4ByteRGB = options.isForce4ByteRgb();
+        CoordinateReferenceSystem sourceCrs = getProjCRS(header, options.isForceCrs());
+        boolean needTransform = sourceCrs != null && !sourceCrs.equals(GlobeUtils.wgs84);
+
+        Vector3d translation = options.getTranslation();
+        boolean applyTranslation = translation.x != 0.0 || translation.y != 0.0 || translation.z != 0.0;
+
+        float percentage = options.getPointPercentage();
+        if (percentage < 1) {
+            percentage = 1;
+        } else if (percentage > 100) {
+            percentage = 100;
+        }
+        int volumeFilter = (int) Math.ceil(100.0 / percentage);
+
+        boolean showProgress = totalPointsSize >= 1000000;
+        long progressInterval = Math.max(1, totalPointsSize / 100);
+
+        LasPointBatch batch = new LasPointBatch(INGEST_BATCH_SIZE, sourceCrs, needTransform);
+        long index = 0;
+        try (CloseablePointIterable pointIterable = reader.getCloseablePoints()) {
+            for (LASPoint point : pointIterable) {
+                if (failed.get()) {
+                    return;
+                }
+                if (index % volumeFilter != 0) {
+                    index++;
+                    continue;
+                }
+                if (showProgress && index % progressInterval == 0) {
+                    int progress = (int) ((index * 100) / totalPointsSize);
+                    log.info("[Load] - Processing point {}/{} ({}%) : {}", index, totalPointsSize, progress, file.getName());
+                }
+                double x = point.getX() * xScaleFactor + xOffset;
+                double y = point.getY() * yScaleFactor + yOffset;
+                double z = point.getZ() * zScaleFactor + zOffset;
+                if (applyTranslation) {
+                    x += translation.x;
+                    y += translation.y;
+                    z += translation.z;
+                }
+                byte[] rgb = getRgbColor(point, hasRgbColor, isForce4ByteRGB);
+                batch.points.add(x, y, z, rgb[0], rgb[1], rgb[2], (byte) 255, point.getIntensity(), point.getClassification());
+                if (batch.isFull()) {
+                    batchQueue.put(batch);
+                    batch = new LasPointBatch(INGEST_BATCH_SIZE, sourceCrs, needTransform);
+                }
+                index++;
+            }
+        } catch (IOException e) {
+            log.error("[ERROR] Failed to close point cloud file: {}", file.getAbsolutePath(), e);
+        }
+        if (!batch.points.isEmpty()) {
+            batchQueue.put(batch);
+        }
+    }
+
+    private void transformBatches(BlockingQueue<LasPointBatch> batchQueue, List<BlockingQueue<BucketRecords>> recordQueues, List<Queue<BucketRecords>> recordPools, AtomicBoolean failed) {
+        // per-thread transformers and coordinates, proj4j transforms are not thread-safe
+        Map<CoordinateReferenceSystem, BasicCoordinateTransform> transformers = new HashMap<>();
+        ProjCoordinate sourceCoord = new ProjCoordinate();
+        ProjCoordinate targetCoord = new ProjCoordinate();
+        HeightSampler sampler = getHeightSampler();
+        boolean hasHeight = !sampler.isEmpty();
+        double[] longitudes = new double[0];
+        double[] latitudes = new double[0];
+        double[] heights = new double[0];
+        double[] terrainHeights = new double[0];
+        int[] bucketIds = new int[0];
+        int shardCount = recordQueues.size();
+        int[] shardSizes = new int[shardCount];
+        BucketRecords[] shardRecords = new BucketRecords[shardCount];
+        try {
+            while (true) {
+                LasPointBatch batch = batchQueue.take();
+                if (batch == END_OF_BATCHES) {
+                    return;
+                }
+                if (failed.get()) {
+                    continue; // drain, so the decoders never block
+                }
+                try {
+                    BasicCoordinateTransform transformer = batch.needTransform
+                            ? transformers.computeIfAbsent(batch.sourceCrs, crs -> new BasicCoordinateTransform(crs, GlobeUtils.wgs84))
+                            : null;
+                    GaiaPointBlock points = batch.points;
+                    int batchSize = points.size();
+                    if (longitudes.length != batchSize) {
+                        longitudes = new double[batchSize];
+                        latitudes = new double[batchSize];
+                        heights = new double[batchSize];
+                        terrainHeights = new double[batchSize];
+                        bucketIds = new int[batchSize];
+                    }
+                    for (int i = 0; i < batchSize; i++) {
+                        double x = points.getX(i);
+                        double y = points.getY(i);
+                        double z = points.getZ(i);
+                        if (transformer != null) {
+                            sourceCoord.x = x;
+                            sourceCoord.y = y;
+                            sourceCoord.z = z;
+                            transformer.transform(sourceCoord, targetCoord);
+                            x = targetCoord.x;
+                            y = targetCoord.y;
+                            z = targetCoord.z;
+                        }
+                        longitudes[i] = x;
+                        latitudes[i] = y;
+                        heights[i] = z;
+                    }
+                    if (hasHeight) {
+                        // the terrain and geoid heights of the whole batch in one pass over the raster tiles
+                        sampler.sample(longitudes, latitudes, terrainHeights);
+                        for (int i = 0; i < batchSize; i++) {
+                            heights[i] += terrainHeights[i];
+                        }
+                    }
+                    // count the points of each shard first, so the records are sized by the shard and not by the batch
+                    Arrays.fill(shardSizes, 0);
+                    for (int i = 0; i < batchSize; i++) {
+                        int bucketId = bucketWriter.computeBucketId(longitudes[i], latitudes[i]);
+                        bucketIds[i] = bucketId;
+                        shardSizes[Math.floorMod(bucketId, shardCount)]++;
+                    }
+                    for (int shard = 0; shard < shardCount; shard++) {
+                        shardRecords[shard] = shardSizes[shard] > 0 ? obtainRecords(recordPools.get(shard), shardSizes[shard]) : null;
+                    }
+                    for (int i = 0; i < batchSize; i++) {
+                        int bucketId = bucketIds[i];
+                        BucketRecords records = shardRecords[Math.floorMod(bucketId, shardCount)];
+                        records.add(bucketId, longitudes[i], latitudes[i], heights[i], points.getRgba(i), points.getIntensity(i), points.getClassification(i));
+                    }
+                    for (int shard = 0; shard < shardCount; shard++) {
+                        if (shardRecords[shard] != null) {
+                            recordQueues.get(shard).put(shardRecords[shard]);
+                            shardRecords[shard] = null;
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    log.error("[ERROR] Failed to transform point batch.", e);
+                    failed.set(true);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+        }
+    }
+
+    /**
+     * Takes records written by the shard writer back from the pool, the pool holds at most the records in flight of the shard.
+     */
+    private BucketRecords obtainRecords(Queue<BucketRecords> recordPool, int size) {
+        BucketRecords records = recordPool.poll();
+        if (records == null || records.capacity() < size) {
+            // a too small record is dropped, the pool keeps growing to the largest shard size
+            return new BucketRecords(size);
+        }
+        records.clear();
+        return records;
+    }
+
+    /**
+     * Writes the records of one shard until the end marker. After a failure, of this or another task,
+     * the queue is still drained so the transform workers never block on it.
+     */
+    void writeRecords(BlockingQueue<BucketRecords> recordQueue, Queue<BucketRecords> recordPool, BucketWriter shardWriter, AtomicBoolean failed) {
+        try {
+            while (true) {
+                BucketRecords records = recordQueue.take();
+                if (records == END_OF_RECORDS) {
+                    return;
+                }
+                if (failed.get()) {
+                    continue; // drain, so the transform workers never block
+                }
+                try {
+                    for (int i = 0; i < records.size; i++) {
+                        shardWriter.addRecord(records.bucketIds[i], records.bytes, i * POINT_BLOCK_SIZE);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    log.error("[ERROR] Failed to write point to bucket.", e);
+                    failed.set(true);
+                }
+                recordPool.offer(records);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failed.set(true);
+        }
+    }
+
+    private void awaitFutures(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("[ERROR] Point cloud ingestion task failed.", e.getCause());
+                if (e.getCause() instanceof RuntimeException runtimeException) {
+                    throw runtimeException;
+                } else if (e.getCause() instanceof Error error) {
+                    throw error;
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
     private byte[] getRgbColor(LASPoint point, boolean hasRGB, boolean force4ByteRGB) {
         if (hasRGB) {
             if (force4ByteRGB) {
@@ -311,9 +640,9 @@ public class LasConverter {
         }
     }
 
-    public List<GaiaLasPoint> readTempFile(File tempFile) {
+    public GaiaPointBlock readTempFile(File tempFile) {
         try {
-            return bucketReader.readFile(tempFile.toPath());
+            return bucketReader.readBlock(tempFile.toPath());
         } catch (IOException e) {
             log.error("[ERROR] Failed to read shuffled file: {}", tempFile.getAbsolutePath(), e);
             throw new RuntimeException(e);
@@ -356,51 +685,52 @@ public class LasConverter {
         return rgb;
     }
 
-    private double getTerrainHeightFromCartographic(List<GridCoverage2D> terrains, List<GridCoverage2D> geoids, Vector3d cartographic) {
-        Vector3d center = new Vector3d(cartographic.x, cartographic.y, 0.0);
-        Position position = new Position2D(DefaultGeographicCRS.WGS84, center.x, center.y);
-        double resultHeight = 0.0d;
-        if (terrains != null && !terrains.isEmpty()) {
-            for (GridCoverage2D coverage : terrains) {
-                double[] altitude = new double[1];
-                altitude[0] = 0.0d;
+    /**
+     * Scaled points of one file, stored as a point block to keep the batches cheap to queue.
+     */
+    private static class LasPointBatch {
+        private final CoordinateReferenceSystem sourceCrs;
+        private final boolean needTransform;
+        private final GaiaPointBlock points;
+        private final int capacity;
+
+        LasPointBatch(int capacity, CoordinateReferenceSystem sourceCrs, boolean needTransform) {
+            this.sourceCrs = sourceCrs;
+            this.needTransform = needTransform;
+            this.points = new GaiaPointBlock(capacity);
+            this.capacity = capacity;
+        }
 
-                try {
-                    coverage.evaluate(position, altitude);
-                } catch (Exception e) {
-                    log.debug("[DEBUG] Failed to load terrain height. Out of range");
-                }
+        boolean isFull() {
+            return points.size() >= capacity;
+        }
+    }
 
-                if (Double.isInfinite(altitude[0])) {
-                    log.debug("[DEBUG] Failed to load terrain height. Infinite value encountered");
-                } else if (Double.isNaN(altitude[0])) {
-                    log.debug("[DEBUG] Failed to load terrain height. NaN value encountered");
-                } else {
-                    resultHeight += altitude[0];
-                }
-            }
+    /**
+     * Encoded point blocks for one bucket writer shard.
+     */
+    static class BucketRecords {
+        private final int[] bucketIds;
+        private final byte[] bytes;
+        private int size = 0;
+
+        BucketRecords(int capacity) {
+            this.bucketIds = new int[capacity];
+            this.bytes = new byte[capacity * POINT_BLOCK_SIZE];
         }
 
-        if (geoids != null && !geoids.isEmpty()) {
-            for (GridCoverage2D coverage : geoids) {
-                double[] geoidHeight = new double[1];
-                geoidHeight[0] = 0.0d;
+        int capacity() {
+            return bucketIds.length;
+        }
 
-                try {
-                    coverage.evaluate(position, geoidHeight);
-                } catch (Exception e) {
-                    log.debug("[DEBUG] Failed to load geoid height. Out of range");
-                }
+        void clear() {
+            size = 0;
+        }
 
-                if (Double.isInfinite(geoidHeight[0])) {
-                    log.debug("[DEBUG] Failed to load geoid height. Infinite value encountered");
-                } else if (Double.isNaN(geoidHeight[0])) {
-                    log.debug("[DEBUG] Failed to load geoid height. NaN value encountered");
-                } else {
-                    resultHeight += geoidHeight[0];
-                }
-            }
+        void add(int bucketId, double x, double y, double z, int rgba, char intensity, short classification) {
+            bucketIds[size] = bucketId;
+            GaiaPointBlock.encode(bytes, size * POINT_BLOCK_SIZE, x, y, z, rgba, intensity, classification);
+            size++;
         }
-        return resultHeight;
     }
 }
@@ -0,0 +1,103 @@
+package com.gaia3d.converter.pointcloud;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Memory-mapped reader and writer for files of point records (see GaiaPointBlock, LasConverter.POINT_BLOCK_SIZE).
+ * Files are mapped in windows and the records are decoded straight from the mapping,
+ * so the page cache is used instead of intermediate stream buffers.
+ */
+@Slf4j
+public class PointBlockFile {
+    private static final int RECORD_SIZE = LasConverter.POINT_BLOCK_SIZE;
+    /* 256MB, a multiple of the record size */
+    private static final long MAP_WINDOW_SIZE = 256L * 1024 * 1024;
+
+    private PointBlockFile() {
+    }
+
+    public static long getPointCount(File file) {
+        return file.length() / RECORD_SIZE;
+    }
+
+    /**
+     * Reads up to pointCount records starting at the byte offset.
+     */
+    public static GaiaPointBlock read(File file, long offset, long pointCount) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long availablePoints = Math.max(0, (channel.size() - offset) / RECORD_SIZE);
+            long totalPoints = Math.min(pointCount, availablePoints);
+            if (totalPoints > Integer.MAX_VALUE) {
+                throw new IOException("Too many points to load into memory: " + totalPoints);
+            }
+            if (totalPoints < pointCount) {
+                log.warn("Point file {} has {} points after offset {}, expected {}.", file.getAbsolutePath(), totalPoints, offset, pointCount);
+            }
+
+            GaiaPointBlock points = new GaiaPointBlock((int) totalPoints);
+            long position = offset;
+            long remainPoints = totalPoints;
+            while (remainPoints > 0) {
+                int windowPoints = (int) Math.min(remainPoints, MAP_WINDOW_SIZE / RECORD_SIZE);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) windowPoints * RECORD_SIZE);
+                points.readFrom(window, windowPoints);
+                position += (long) windowPoints * RECORD_SIZE;
+                remainPoints -= windowPoints;
+            }
+            return points;
+        }
+    }
+
+    public static GaiaPointBlock readAll(File file) throws IOException {
+        return read(file, 0, getPointCount(file));
+    }
+
+    /**
+     * Computes the bounding box of every record without decoding the colors and attributes.
+     */
+    public static GaiaBoundingBox readBoundingBox(File file) throws IOException {
+        GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            long position = 0;
+            long remainPoints = channel.size() / RECORD_SIZE;
+            while (remainPoints > 0) {
+                int windowPoints = (int) Math.min(remainPoints, MAP_WINDOW_SIZE / RECORD_SIZE);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, (long) windowPoints * RECORD_SIZE);
+                for (int i = 0; i < windowPoints; i++) {
+                    int index = i * RECORD_SIZE;
+                    boundingBox.addPoint(window.getDouble(index), window.getDouble(index + 8), window.getDouble(index + 16));
+                }
+                position += (long) windowPoints * RECORD_SIZE;
+                remainPoints -= windowPoints;
+            }
+        }
+        return boundingBox;
+    }
+
+    /**
+     * Writes every point of the block, replacing the file.
+     */
+    public static void write(GaiaPointBlock points, File file) throws IOException {
+        long totalBytes = (long) points.size() * RECORD_SIZE;
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw"); FileChannel channel = raf.getChannel()) {
+            raf.setLength(totalBytes);
+            long position = 0;
+            int from = 0;
+            while (from < points.size()) {
+                int to = (int) Math.min(points.size(), from + MAP_WINDOW_SIZE / RECORD_SIZE);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, position, (long) (to - from) * RECORD_SIZE);
+                points.writeTo(window, from, to);
+                position += (long) (to - from) * RECORD_SIZE;
+                from = to;
+            }
+        }
+    }
+}
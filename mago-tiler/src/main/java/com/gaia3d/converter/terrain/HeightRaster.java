@@ -0,0 +1,172 @@
+package com.gaia3d.converter.terrain;
+
+import lombok.Getter;
+import org.geotools.api.metadata.spatial.PixelOrientation;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.crs.CoordinateReferenceSystem;
+import org.geotools.api.referencing.operation.MathTransform;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.coverage.GridSampleDimension;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.CRS;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+
+import java.awt.Rectangle;
+import java.awt.geom.AffineTransform;
+import java.awt.image.Raster;
+import java.awt.image.RenderedImage;
+
+/**
+ * Height raster of one coverage, sampled bilinearly between the pixel centers of its first band.
+ * Positions are lon/lat, they are transformed into the CRS of the coverage when it is not WGS84.
+ */
+class HeightRaster {
+    @Getter
+    private final int id;
+    private final RenderedImage image;
+    private final Rectangle imageBounds;
+    private final MathTransform lonLatToCrs;
+    private final MathTransform crsToGrid;
+    private final AffineTransform affineCrsToGrid;
+    private final double[] noDataValues;
+    @Getter
+    private final ReferencedEnvelope extent;
+    private final RasterTileCache tileCache;
+
+    HeightRaster(int id, GridCoverage2D coverage, RasterTileCache tileCache) throws FactoryException, TransformException {
+        this.id = id;
+        this.image = coverage.getRenderedImage();
+        this.imageBounds = new Rectangle(image.getMinX(), image.getMinY(), image.getWidth(), image.getHeight());
+        this.tileCache = tileCache;
+
+        CoordinateReferenceSystem crs = coverage.getCoordinateReferenceSystem2D();
+        MathTransform transform = null;
+        if (crs != null && !CRS.equalsIgnoreMetadata(DefaultGeographicCRS.WGS84, crs)) {
+            transform = CRS.findMathTransform(DefaultGeographicCRS.WGS84, crs, true);
+        }
+        this.lonLatToCrs = transform == null || transform.isIdentity() ? null : transform;
+
+        // integer grid coordinates are the pixel centers
+        this.crsToGrid = coverage.getGridGeometry().getCRSToGrid2D(PixelOrientation.CENTER);
+        this.affineCrsToGrid = crsToGrid instanceof AffineTransform affine ? affine : null;
+
+        GridSampleDimension sampleDimension = coverage.getSampleDimension(0);
+        this.noDataValues = sampleDimension != null ? sampleDimension.getNoDataValues() : null;
+
+        ReferencedEnvelope envelope = ReferencedEnvelope.reference(coverage.getEnvelope2D());
+        this.extent = lonLatToCrs == null ? envelope : envelope.transform(DefaultGeographicCRS.WGS84, true);
+    }
+
+    /**
+     * Bilinear height at the position, NaN outside of the raster or when the surrounding pixels have no data.
+     * Pixels without data are left out of the interpolation.
+     */
+    double sample(double lon, double lat, HeightSampler.Cursor cursor) {
+        double[] point = cursor.point;
+        point[0] = lon;
+        point[1] = lat;
+        try {
+            if (lonLatToCrs != null) {
+                lonLatToCrs.transform(point, 0, point, 0, 1);
+            }
+            if (affineCrsToGrid != null) {
+                affineCrsToGrid.transform(point, 0, point, 0, 1);
+            } else {
+                crsToGrid.transform(point, 0, point, 0, 1);
+            }
+        } catch (TransformException e) {
+            return Double.NaN;
+        }
+        double gridX = point[0];
+        double gridY = point[1];
+        int minX = imageBounds.x;
+        int minY = imageBounds.y;
+        int maxX = minX + imageBounds.width - 1;
+        int maxY = minY + imageBounds.height - 1;
+        if (!(gridX >= minX - 0.5 && gridY >= minY - 0.5 && gridX <= maxX + 0.5 && gridY <= maxY + 0.5)) {
+            return Double.NaN;
+        }
+
+        int column = (int) Math.floor(gridX);
+        int row = (int) Math.floor(gridY);
+        double fractionX = gridX - column;
+        double fractionY = gridY - row;
+        // the half pixel along the borders is clamped to the border pixels
+        int column0 = Math.max(minX, Math.min(maxX, column));
+        int column1 = Math.max(minX, Math.min(maxX, column + 1));
+        int row0 = Math.max(minY, Math.min(maxY, row));
+        int row1 = Math.max(minY, Math.min(maxY, row + 1));
+
+        double sum = 0.0d;
+        double weightSum = 0.0d;
+        float value = getValue(column0, row0, cursor);
+        if (!Float.isNaN(value)) {
+            double weight = (1.0d - fractionX) * (1.0d - fractionY);
+            sum += value * weight;
+            weightSum += weight;
+        }
+        value = getValue(column1, row0, cursor);
+        if (!Float.isNaN(value)) {
+            double weight = fractionX * (1.0d - fractionY);
+            sum += value * weight;
+            weightSum += weight;
+        }
+        value = getValue(column0, row1, cursor);
+        if (!Float.isNaN(value)) {
+            double weight = (1.0d - fractionX) * fractionY;
+            sum += value * weight;
+            weightSum += weight;
+        }
+        value = getValue(column1, row1, cursor);
+        if (!Float.isNaN(value)) {
+            double weight = fractionX * fractionY;
+            sum += value * weight;
+            weightSum += weight;
+        }
+        if (weightSum <= 0.0d) {
+            return Double.NaN;
+        }
+        return sum / weightSum;
+    }
+
+    /**
+     * Decodes the first band of the image tile, called by the cache while the raster is locked.
+     */
+    RasterTile decodeTile(int tileX, int tileY) {
+        Raster raster = image.getTile(tileX, tileY);
+        Rectangle bounds = raster.getBounds().intersection(imageBounds);
+        float[] data = raster.getSamples(bounds.x, bounds.y, bounds.width, bounds.height, 0, (float[]) null);
+        for (int i = 0; i < data.length; i++) {
+            if (isNoData(data[i])) {
+                data[i] = Float.NaN;
+            }
+        }
+        return new RasterTile(this, bounds.x, bounds.y, bounds.width, bounds.height, data);
+    }
+
+    private float getValue(int column, int row, HeightSampler.Cursor cursor) {
+        RasterTile tile = cursor.tile;
+        if (tile == null || !tile.contains(this, column, row)) {
+            int tileX = Math.floorDiv(column - image.getTileGridXOffset(), image.getTileWidth());
+            int tileY = Math.floorDiv(row - image.getTileGridYOffset(), image.getTileHeight());
+            tile = tileCache.get(this, tileX, tileY);
+            cursor.tile = tile;
+        }
+        return tile.get(column, row);
+    }
+
+    private boolean isNoData(float value) {
+        if (Float.isInfinite(value)) {
+            return true;
+        }
+        if (noDataValues != null) {
+            for (double noDataValue : noDataValues) {
+                if (value == (float) noDataValue) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
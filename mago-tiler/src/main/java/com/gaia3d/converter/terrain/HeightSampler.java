@@ -0,0 +1,114 @@
+package com.gaia3d.converter.terrain;
+
+import lombok.extern.slf4j.Slf4j;
+import org.geotools.api.referencing.FactoryException;
+import org.geotools.api.referencing.operation.TransformException;
+import org.geotools.coverage.grid.GridCoverage2D;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Samples terrain and geoid heights at lon/lat positions from the GeoTIFF coverages, without GridCoverage2D.evaluate.
+ * The covering raster is found through a grid index of the raster extents,
+ * the raster tiles are decoded lazily into float blocks kept in an LRU cache shared by the threads,
+ * and the height is interpolated bilinearly between the pixel centers.
+ * The sampled height is the terrain height plus the geoid height, each from the first covering raster with data (0 when uncovered).
+ */
+@Slf4j
+public class HeightSampler {
+    public static final long DEFAULT_CACHE_WEIGHT = 256L * 1024 * 1024;
+
+    private final RasterExtentIndex terrainIndex;
+    private final RasterExtentIndex geoidIndex;
+    private final RasterTileCache tileCache;
+    /* last decoded tile of each thread, consecutive positions mostly fall in the same tile */
+    private final ThreadLocal<Cursor> cursors = ThreadLocal.withInitial(Cursor::new);
+
+    public HeightSampler(List<GridCoverage2D> terrains, List<GridCoverage2D> geoids) {
+        this(terrains, geoids, DEFAULT_CACHE_WEIGHT);
+    }
+
+    public HeightSampler(List<GridCoverage2D> terrains, List<GridCoverage2D> geoids, long cacheWeight) {
+        this.tileCache = new RasterTileCache(cacheWeight);
+        List<HeightRaster> terrainRasters = createRasters(terrains, 0);
+        List<HeightRaster> geoidRasters = createRasters(geoids, terrainRasters.size());
+        this.terrainIndex = new RasterExtentIndex(terrainRasters);
+        this.geoidIndex = new RasterExtentIndex(geoidRasters);
+    }
+
+    public boolean isEmpty() {
+        return terrainIndex.isEmpty() && geoidIndex.isEmpty();
+    }
+
+    /**
+     * Terrain plus geoid height at the position.
+     */
+    public double sample(double lon, double lat) {
+        return sample(lon, lat, cursors.get());
+    }
+
+    /**
+     * Terrain plus geoid heights of the positions, written into out.
+     */
+    public void sample(double[] lon, double[] lat, double[] out) {
+        if (lon.length != lat.length || out.length < lon.length) {
+            throw new IllegalArgumentException("Mismatched position array lengths : " + lon.length + ", " + lat.length + ", " + out.length);
+        }
+        Cursor cursor = cursors.get();
+        for (int i = 0; i < lon.length; i++) {
+            out[i] = sample(lon[i], lat[i], cursor);
+        }
+    }
+
+    int getCachedTileCount() {
+        return tileCache.size();
+    }
+
+    private double sample(double lon, double lat, Cursor cursor) {
+        double height = 0.0d;
+        double terrainHeight = sampleFirst(terrainIndex, lon, lat, cursor);
+        if (!Double.isNaN(terrainHeight)) {
+            height += terrainHeight;
+        }
+        double geoidHeight = sampleFirst(geoidIndex, lon, lat, cursor);
+        if (!Double.isNaN(geoidHeight)) {
+            height += geoidHeight;
+        }
+        return height;
+    }
+
+    private double sampleFirst(RasterExtentIndex index, double lon, double lat, Cursor cursor) {
+        int[] candidates = index.query(lon, lat);
+        for (int candidate : candidates) {
+            double height = index.get(candidate).sample(lon, lat, cursor);
+            if (!Double.isNaN(height)) {
+                return height;
+            }
+        }
+        return Double.NaN;
+    }
+
+    private List<HeightRaster> createRasters(List<GridCoverage2D> coverages, int firstId) {
+        List<HeightRaster> rasters = new ArrayList<>();
+        if (coverages == null) {
+            return rasters;
+        }
+        for (GridCoverage2D coverage : coverages) {
+            try {
+                rasters.add(new HeightRaster(firstId + rasters.size(), coverage, tileCache));
+            } catch (FactoryException | TransformException e) {
+                log.warn("[WARN] Failed to transform the coverage into WGS84, skipped : {}", coverage.getName());
+            }
+        }
+        return rasters;
+    }
+
+    /**
+     * Per-thread sampling state, the last used tile and a point buffer.
+     */
+    static final class Cursor {
+        final double[] point = new double[2];
+        RasterTile tile;
+    }
+}
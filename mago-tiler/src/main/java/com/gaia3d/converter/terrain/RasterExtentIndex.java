@@ -0,0 +1,96 @@
+package com.gaia3d.converter.terrain;
+
+import org.geotools.geometry.jts.ReferencedEnvelope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Uniform grid over the lon/lat extents of the rasters.
+ * Each cell lists the rasters overlapping it in loading order, so a position only tries the rasters of its cell.
+ */
+class RasterExtentIndex {
+    private static final int MAX_GRID_SIZE = 64;
+    private static final int[] EMPTY = new int[0];
+
+    private final HeightRaster[] rasters;
+    private final int gridSize;
+    private final double minLon;
+    private final double minLat;
+    private final double maxLon;
+    private final double maxLat;
+    private final double cellWidth;
+    private final double cellHeight;
+    private final int[][] cells;
+
+    RasterExtentIndex(List<HeightRaster> rasterList) {
+        this.rasters = rasterList.toArray(new HeightRaster[0]);
+        double minLon = Double.POSITIVE_INFINITY;
+        double minLat = Double.POSITIVE_INFINITY;
+        double maxLon = Double.NEGATIVE_INFINITY;
+        double maxLat = Double.NEGATIVE_INFINITY;
+        for (HeightRaster raster : rasters) {
+            ReferencedEnvelope extent = raster.getExtent();
+            minLon = Math.min(minLon, extent.getMinX());
+            minLat = Math.min(minLat, extent.getMinY());
+            maxLon = Math.max(maxLon, extent.getMaxX());
+            maxLat = Math.max(maxLat, extent.getMaxY());
+        }
+        this.minLon = minLon;
+        this.minLat = minLat;
+        this.maxLon = maxLon;
+        this.maxLat = maxLat;
+        // about one raster per cell when the rasters tile the area
+        this.gridSize = Math.max(1, Math.min(MAX_GRID_SIZE, (int) Math.ceil(Math.sqrt(rasters.length))));
+        this.cellWidth = rasters.length > 0 ? Math.max((maxLon - minLon) / gridSize, Double.MIN_NORMAL) : 1.0d;
+        this.cellHeight = rasters.length > 0 ? Math.max((maxLat - minLat) / gridSize, Double.MIN_NORMAL) : 1.0d;
+
+        List<List<Integer>> cellLists = new ArrayList<>(gridSize * gridSize);
+        for (int i = 0; i < gridSize * gridSize; i++) {
+            cellLists.add(new ArrayList<>());
+        }
+        for (int index = 0; index < rasters.length; index++) {
+            ReferencedEnvelope extent = rasters[index].getExtent();
+            int minColumn = getColumn(extent.getMinX());
+            int maxColumn = getColumn(extent.getMaxX());
+            int minRow = getRow(extent.getMinY());
+            int maxRow = getRow(extent.getMaxY());
+            for (int row = minRow; row <= maxRow; row++) {
+                for (int column = minColumn; column <= maxColumn; column++) {
+                    cellLists.get(row * gridSize + column).add(index);
+                }
+            }
+        }
+        this.cells = new int[cellLists.size()][];
+        for (int i = 0; i < cells.length; i++) {
+            List<Integer> cellList = cellLists.get(i);
+            cells[i] = cellList.isEmpty() ? EMPTY : cellList.stream().mapToInt(Integer::intValue).toArray();
+        }
+    }
+
+    boolean isEmpty() {
+        return rasters.length == 0;
+    }
+
+    /**
+     * Indices of the rasters whose extent may contain the position, in loading order.
+     */
+    int[] query(double lon, double lat) {
+        if (!(lon >= minLon && lon <= maxLon && lat >= minLat && lat <= maxLat)) {
+            return EMPTY;
+        }
+        return cells[getRow(lat) * gridSize + getColumn(lon)];
+    }
+
+    HeightRaster get(int index) {
+        return rasters[index];
+    }
+
+    private int getColumn(double lon) {
+        return Math.max(0, Math.min(gridSize - 1, (int) ((lon - minLon) / cellWidth)));
+    }
+
+    private int getRow(double lat) {
+        return Math.max(0, Math.min(gridSize - 1, (int) ((lat - minLat) / cellHeight)));
+    }
+}
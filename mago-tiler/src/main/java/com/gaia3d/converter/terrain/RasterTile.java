@@ -0,0 +1,34 @@
+package com.gaia3d.converter.terrain;
+
+/**
+ * Decoded tile of a height raster, the first band as floats in row order (NaN for no data).
+ */
+final class RasterTile {
+    final HeightRaster raster;
+    final int minX;
+    final int minY;
+    final int width;
+    final int height;
+    final float[] data;
+
+    RasterTile(HeightRaster raster, int minX, int minY, int width, int height, float[] data) {
+        this.raster = raster;
+        this.minX = minX;
+        this.minY = minY;
+        this.width = width;
+        this.height = height;
+        this.data = data;
+    }
+
+    boolean contains(HeightRaster raster, int column, int row) {
+        return this.raster == raster && column >= minX && row >= minY && column < minX + width && row < minY + height;
+    }
+
+    float get(int column, int row) {
+        return data[(row - minY) * width + (column - minX)];
+    }
+
+    long getWeight() {
+        return (long) data.length * Float.BYTES;
+    }
+}
@@ -0,0 +1,74 @@
+package com.gaia3d.converter.terrain;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU cache of decoded raster tiles weighted by their float bytes, shared by the sampling threads.
+ * A tile is decoded once while its raster is locked, so concurrent misses of the same tile wait for the first decode.
+ */
+class RasterTileCache {
+    private final Object lock = new Object();
+    private final LinkedHashMap<TileKey, RasterTile> tiles = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maximumWeight;
+    private long weight = 0;
+
+    RasterTileCache(long maximumWeight) {
+        this.maximumWeight = Math.max(0, maximumWeight);
+    }
+
+    RasterTile get(HeightRaster raster, int tileX, int tileY) {
+        TileKey key = new TileKey(raster.getId(), tileX, tileY);
+        RasterTile tile = find(key);
+        if (tile != null) {
+            return tile;
+        }
+        synchronized (raster) {
+            // decoded by another thread while waiting for the raster
+            tile = find(key);
+            if (tile != null) {
+                return tile;
+            }
+            tile = raster.decodeTile(tileX, tileY);
+        }
+        put(key, tile);
+        return tile;
+    }
+
+    int size() {
+        synchronized (lock) {
+            return tiles.size();
+        }
+    }
+
+    private RasterTile find(TileKey key) {
+        synchronized (lock) {
+            return tiles.get(key);
+        }
+    }
+
+    private void put(TileKey key, RasterTile tile) {
+        long tileWeight = tile.getWeight();
+        synchronized (lock) {
+            if (tileWeight > maximumWeight) {
+                // too large to be kept, the threads still use it through their cursors
+                return;
+            }
+            RasterTile previous = tiles.put(key, tile);
+            if (previous != null) {
+                weight -= previous.getWeight();
+            }
+            weight += tileWeight;
+            Iterator<Map.Entry<TileKey, RasterTile>> iterator = tiles.entrySet().iterator();
+            while (weight > maximumWeight && iterator.hasNext()) {
+                Map.Entry<TileKey, RasterTile> eldest = iterator.next();
+                iterator.remove();
+                weight -= eldest.getValue().getWeight();
+            }
+        }
+    }
+
+    private record TileKey(int rasterId, int tileX, int tileY) {
+    }
+}
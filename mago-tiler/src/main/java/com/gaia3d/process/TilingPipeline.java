@@ -1,35 +1,45 @@
 package com.gaia3d.process;
 
+import com.gaia3d.basic.exchangable.GaiaSetCache;
+import com.gaia3d.basic.model.GaiaTextureCache;
+import com.gaia3d.basic.model.GaiaScene;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.loader.FileLoader;
+import com.gaia3d.process.manifest.RunManifest;
+import com.gaia3d.process.manifest.RunManifestTracker;
 import com.gaia3d.process.postprocess.PostProcess;
 import com.gaia3d.process.preprocess.PreProcess;
 import com.gaia3d.process.tileprocess.Pipeline;
 import com.gaia3d.process.tileprocess.Tiler;
 import com.gaia3d.process.tileprocess.TilingProcess;
 import com.gaia3d.process.tileprocess.tile.ContentInfo;
+import com.gaia3d.process.tileprocess.tile.DefaultTiler;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.concurrent.TimeUnit;
+import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.stream.Collectors;
 
 @Slf4j
 @RequiredArgsConstructor
 public class TilingPipeline implements Pipeline {
+    /* streaming mode : number of queued pre-process batches per thread */
+    private static final int QUEUE_CAPACITY_PER_THREAD = 4;
+    /* streaming mode : maximum number of tile infos in one pre-process batch */
+    private static final int PRE_PROCESS_BATCH_SIZE = 64;
+    private static final List<TileInfo> END_OF_STREAM = new ArrayList<>();
+
     private final List<PreProcess> preProcesses;
     private final TilingProcess tilingProcess;
     private final List<PostProcess> postProcesses;
@@ -37,6 +47,11 @@ public class TilingPipeline implements Pipeline {
     /* global options */
     private final GlobalOptions globalOptions = GlobalOptions.getInstance();
 
+    /* set by the flows whose pre-processed tile infos are fully described by their temp files (see RunManifestTracker) */
+    @Setter
+    private boolean resumable = false;
+    private RunManifestTracker manifestTracker;
+
     /* Tiling process info */
     private List<File> fileList;
     private List<TileInfo> tileInfos;
@@ -51,11 +66,26 @@ public class TilingPipeline implements Pipeline {
             readAllFiles(fileLoader);
             /* Pre-process */
             createTemp(fileLoader);
-            executePreProcesses(fileLoader);
-            /* Main-process */
-            executeTilingProcess();
-            /* Post-process */
-            executePostProcesses();
+            openRunManifest();
+            if (globalOptions.isStreaming()) {
+                /* Pre-process, Main-process and Post-process overlapped */
+                executeStreamingPreProcesses(fileLoader);
+                executeStreamingTilingProcess();
+            } else {
+                executePreProcesses(fileLoader);
+                /* Main-process */
+                executeTilingProcess();
+                /* Post-process */
+                executePostProcesses();
+            }
+            GaiaSetCache.getInstance().logStatistics();
+            GaiaSetCache.getInstance().clear();
+            GaiaTextureCache.getInstance().logStatistics();
+            GaiaTextureCache.getInstance().clear();
+            if (manifestTracker != null) {
+                manifestTracker.save();
+                manifestTracker.logStatistics();
+            }
             /* Delete temp files */
             deleteTemp();
         } catch (InterruptedException e) {
@@ -66,21 +96,31 @@ public class TilingPipeline implements Pipeline {
 
     private void readAllFiles(FileLoader fileLoader) {
         log.info("[Load] Start loading all files.");
-        fileList = fileLoader.loadFiles();
+        // sorted, so the tiling result does not depend on the directory listing order
+        fileList = new ArrayList<>(fileLoader.loadFiles());
+        fileList.sort(Comparator.comparing(File::getAbsolutePath));
         log.info("[Load] Finished loading {} files.", fileList.size());
     }
 
     private void executePreProcesses(FileLoader fileLoader) throws InterruptedException {
         log.info("[Pre] Start the pre-processing.");
-        tileInfos = new ArrayList<>();
 
         ExecutorService executorService = Executors.newFixedThreadPool(globalOptions.getMultiThreadCount());
         List<Runnable> tasks = new ArrayList<>();
         int fileCount = fileList.size();
         AtomicLong nodeCount = new AtomicLong(0);
+        /* each task owns one slot, the slots are merged in file order after all tasks are finished */
+        AtomicReferenceArray<List<TileInfo>> resultsByFile = new AtomicReferenceArray<>(fileCount);
         for (int count = 0; count < fileCount; count++) {
             File file = fileList.get(count);
             int finalCount = count;
+            List<TileInfo> restoredTileInfos = restoreTileInfos(file);
+            if (restoredTileInfos != null) {
+                log.info("[Pre][{}/{}] Reusing pre-processed file : {}", finalCount + 1, fileCount, file.getName());
+                resultsByFile.set(finalCount, restoredTileInfos);
+                nodeCount.addAndGet(restoredTileInfos.size());
+                continue;
+            }
             Runnable callableTask = () -> {
                 try {
                     List<TileInfo> loadedTileInfos = fileLoader.loadTileInfo(file);
@@ -90,6 +130,8 @@ public class TilingPipeline implements Pipeline {
                         return;
                     }
                     int infoLength = loadedTileInfos.size();
+                    List<TileInfo> localTileInfos = new ArrayList<>(infoLength);
+                    resultsByFile.set(finalCount, localTileInfos);
                     boolean manyTiles = infoLength > 100000;
                     int percentageStep = infoLength / 100;
                     nodeCount.addAndGet(infoLength);
@@ -108,9 +150,12 @@ public class TilingPipeline implements Pipeline {
                             for (PreProcess preProcessors : preProcesses) {
                                 preProcessors.run(tileInfo);
                             }
-                            tileInfos.add(tileInfo);
+                            localTileInfos.add(tileInfo);
                         }
                     }
+                    if (manifestTracker != null) {
+                        manifestTracker.recordInput(file, localTileInfos);
+                    }
                 } catch (RuntimeException e) {
                     log.error("[ERROR][PreProcess] : ", e);
                 }
@@ -119,8 +164,19 @@ public class TilingPipeline implements Pipeline {
         }
         executeThread(executorService, tasks);
 
+        tileInfos = new ArrayList<>((int) Math.min(Integer.MAX_VALUE, nodeCount.get()));
+        for (int index = 0; index < fileCount; index++) {
+            List<TileInfo> fileTileInfos = resultsByFile.get(index);
+            if (fileTileInfos != null) {
+                tileInfos.addAll(fileTileInfos);
+            }
+        }
+
         log.info("[Pre] Total Node Count {}", nodeCount);
         log.info("[Pre] End the pre-processing.");
+        if (manifestTracker != null) {
+            manifestTracker.save();
+        }
     }
 
     private void executeTilingProcess() throws FileNotFoundException {
@@ -130,6 +186,9 @@ public class TilingPipeline implements Pipeline {
         tileset = tiler.run(tileInfos);
         tiler.writeTileset(tileset);
         log.info("[Tile] End the tiling process.");
+        if (manifestTracker != null) {
+            manifestTracker.retainContents(tileset.findAllContentInfo());
+        }
     }
 
     private void executePostProcesses() throws InterruptedException {
@@ -146,37 +205,336 @@ public class TilingPipeline implements Pipeline {
         contentInfos.sort((c1, c2) -> c1.getNodeCode().length() - c2.getNodeCode().length());
         for (ContentInfo contentInfo : contentInfos) {
             Runnable callableTask = () -> {
+                log.info("[Post][{}/{}] post-process in progress : {}", count.getAndIncrement(), contentCount, contentInfo.getName());
+                runPostProcesses(contentInfo);
+            };
+            tasks.add(callableTask);
+        }
+        executeThread(executorService, tasks);
+        log.info("[Post] End the post-processing.");
+    }
+
+    private void runPostProcesses(ContentInfo contentInfo) {
+        RunManifest.ContentEntry contentEntry = null;
+        if (manifestTracker != null) {
+            contentEntry = manifestTracker.describeContent(contentInfo);
+            if (manifestTracker.isUpToDate(contentInfo, contentEntry)) {
+                log.info("[Post] Reusing unchanged content : {}", contentInfo.getName());
+                return;
+            }
+            manifestTracker.invalidateContent(contentInfo);
+        }
+        try {
+            List<TileInfo> tileInfos = contentInfo.getTileInfos();
+            List<TileInfo> tileInfosClone = tileInfos.stream()
+                    .map((childTileInfo) -> TileInfo.builder()
+                            .scene(childTileInfo.getScene())
+                            .tileTransformInfo(childTileInfo.getTileTransformInfo())
+                            .scenePath(childTileInfo.getScenePath())
+                            .tempPath(childTileInfo.getTempPath())
+                            .transformMatrix(childTileInfo.getTransformMatrix())
+                            .boundingBox(childTileInfo.getBoundingBox())
+                            .pointCloud(childTileInfo.getPointCloud())
+                            /*.pointCloudOld(childTileInfo.getPointCloudOld())*/
+                            .build())
+                    .collect(Collectors.toList());
+            contentInfo.setTileInfos(tileInfosClone);
+            for (PostProcess postProcessor : postProcesses) {
+                postProcessor.run(contentInfo);
+            }
+            contentInfo.deleteTexture();
+            tileInfosClone.clear();
+            if (manifestTracker != null) {
+                manifestTracker.recordContent(contentInfo, contentEntry);
+            }
+        } catch (RuntimeException e) {
+            log.error("[ERROR][PostProcess] : ", e);
+        }
+    }
+
+    /**
+     * Streaming pre-process.
+     * Loader threads push batches of loaded tile infos into a bounded queue (blocking when it is full),
+     * while pre-process workers drain it, so loading, the pre-process chain and the temp minimization overlap.
+     * Consecutive tile infos sharing the same scene always stay in one batch.
+     * The thread count is split between the loaders and the workers, with a single thread one of each is still needed.
+     */
+    private void executeStreamingPreProcesses(FileLoader fileLoader) throws InterruptedException {
+        log.info("[Pre] Start the streaming pre-processing.");
+        int threadCount = Math.max(1, globalOptions.getMultiThreadCount());
+        int fileCount = fileList.size();
+        int[] loaderAndWorkerCounts = splitStreamingThreads(threadCount, fileCount);
+        int loaderCount = loaderAndWorkerCounts[0];
+        int workerCount = loaderAndWorkerCounts[1];
+        log.info("[Pre] Streaming with {} loader threads and {} pre-process threads.", loaderCount, workerCount);
+        BlockingQueue<List<TileInfo>> queue = new ArrayBlockingQueue<>(workerCount * QUEUE_CAPACITY_PER_THREAD);
+        TileInfo[][] results = new TileInfo[fileCount][];
+        Set<TileInfo> failedTileInfos = ConcurrentHashMap.newKeySet();
+        AtomicLong nodeCount = new AtomicLong(0);
+
+        ExecutorService workerService = Executors.newFixedThreadPool(workerCount);
+        List<Future<?>> workers = new ArrayList<>();
+        for (int index = 0; index < workerCount; index++) {
+            workers.add(workerService.submit(() -> consumePreProcessBatches(queue, failedTileInfos)));
+        }
+
+        ExecutorService loaderService = Executors.newFixedThreadPool(loaderCount);
+        List<Future<?>> loaders = new ArrayList<>();
+        boolean[] restoredFiles = new boolean[fileCount];
+        for (int count = 0; count < fileCount; count++) {
+            File file = fileList.get(count);
+            int finalCount = count;
+            List<TileInfo> restoredTileInfos = restoreTileInfos(file);
+            if (restoredTileInfos != null) {
+                log.info("[Pre][{}/{}] Reusing pre-processed file : {}", finalCount + 1, fileCount, file.getName());
+                results[finalCount] = restoredTileInfos.toArray(new TileInfo[0]);
+                restoredFiles[finalCount] = true;
+                nodeCount.addAndGet(restoredTileInfos.size());
+                continue;
+            }
+            loaders.add(loaderService.submit(() -> {
                 try {
-                    log.info("[Post][{}/{}] post-process in progress : {}", count.getAndIncrement(), contentCount, contentInfo.getName());
-                    List<TileInfo> tileInfos = contentInfo.getTileInfos();
-                    List<TileInfo> tileInfosClone = tileInfos.stream()
-                            .map((childTileInfo) -> TileInfo.builder()
-                                    .scene(childTileInfo.getScene())
-                                    .tileTransformInfo(childTileInfo.getTileTransformInfo())
-                                    .scenePath(childTileInfo.getScenePath())
-                                    .tempPath(childTileInfo.getTempPath())
-                                    .transformMatrix(childTileInfo.getTransformMatrix())
-                                    .boundingBox(childTileInfo.getBoundingBox())
-                                    .pointCloud(childTileInfo.getPointCloud())
-                                    /*.pointCloudOld(childTileInfo.getPointCloudOld())*/
-                                    .build())
-                            .collect(Collectors.toList());
-                    contentInfo.setTileInfos(tileInfosClone);
-                    for (PostProcess postProcessor : postProcesses) {
-                        postProcessor.run(contentInfo);
+                    List<TileInfo> loadedTileInfos = fileLoader.loadTileInfo(file);
+                    log.info("[Pre][{}/{}] Loading file : {}", finalCount + 1, fileCount, file.getName());
+                    if (loadedTileInfos == null) {
+                        log.warn("[WARN][Pre][{}/{}] Failed to load file : {}.", finalCount + 1, fileCount, file.getName());
+                        return;
                     }
-                    contentInfo.deleteTexture();
-                    tileInfosClone.clear();
+                    producePreProcessBatches(queue, loadedTileInfos, results, finalCount);
+                    nodeCount.addAndGet(loadedTileInfos.size());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (RuntimeException e) {
-                    log.error("[ERROR][PostProcess] : ", e);
+                    log.error("[ERROR][PreProcess] : ", e);
                 }
-            };
-            tasks.add(callableTask);
+            }));
         }
-        executeThread(executorService, tasks);
+        awaitFutures(loaders);
+        loaderService.shutdown();
+        for (int index = 0; index < workerCount; index++) {
+            queue.put(END_OF_STREAM);
+        }
+        awaitFutures(workers);
+        workerService.shutdown();
+
+        tileInfos = new ArrayList<>();
+        for (int index = 0; index < fileCount; index++) {
+            TileInfo[] fileTileInfos = results[index];
+            if (fileTileInfos == null) {
+                continue;
+            }
+            List<TileInfo> fileResults = new ArrayList<>(fileTileInfos.length);
+            boolean failed = false;
+            for (TileInfo tileInfo : fileTileInfos) {
+                if (tileInfo == null) {
+                    continue;
+                }
+                if (failedTileInfos.contains(tileInfo)) {
+                    failed = true;
+                } else {
+                    fileResults.add(tileInfo);
+                }
+            }
+            tileInfos.addAll(fileResults);
+            // the workers of a file finish at different times, so the files are recorded once all of them are done
+            if (manifestTracker != null && !failed && !restoredFiles[index]) {
+                manifestTracker.recordInput(fileList.get(index), fileResults);
+            }
+        }
+        log.info("[Pre] Total Node Count {}", nodeCount);
+        log.info("[Pre] End the streaming pre-processing.");
+        if (manifestTracker != null) {
+            manifestTracker.save();
+        }
+    }
+
+    /**
+     * Loader and pre-process worker counts of the streaming pre-process, together the thread count (at least one of each).
+     * At most half of the threads load, and never more than the files.
+     */
+    static int[] splitStreamingThreads(int threadCount, int fileCount) {
+        int loaderCount = Math.max(1, Math.min(threadCount / 2, fileCount));
+        int workerCount = Math.max(1, threadCount - loaderCount);
+        return new int[]{loaderCount, workerCount};
+    }
+
+    private void producePreProcessBatches(BlockingQueue<List<TileInfo>> queue, List<TileInfo> loadedTileInfos, TileInfo[][] results, int fileIndex) throws InterruptedException {
+        int infoLength = loadedTileInfos.size();
+        TileInfo[] fileResults = new TileInfo[infoLength];
+        results[fileIndex] = fileResults;
+
+        List<TileInfo> batch = new ArrayList<>();
+        GaiaScene recentScene = null;
+        for (int index = 0; index < infoLength; index++) {
+            TileInfo tileInfo = loadedTileInfos.get(index);
+            if (tileInfo == null) {
+                continue;
+            }
+            tileInfo.setSerial(index + 1);
+            boolean sameScene = tileInfo.getScene() != null && tileInfo.getScene() == recentScene;
+            if (batch.size() >= PRE_PROCESS_BATCH_SIZE && !sameScene) {
+                queue.put(batch);
+                batch = new ArrayList<>();
+            }
+            recentScene = tileInfo.getScene();
+            // keeps the file order, so the result does not depend on which worker finishes first
+            fileResults[index] = tileInfo;
+            batch.add(tileInfo);
+        }
+        if (!batch.isEmpty()) {
+            queue.put(batch);
+        }
+    }
+
+    private void consumePreProcessBatches(BlockingQueue<List<TileInfo>> queue, Set<TileInfo> failedTileInfos) {
+        try {
+            while (true) {
+                List<TileInfo> batch = queue.take();
+                if (batch == END_OF_STREAM) {
+                    return;
+                }
+                for (TileInfo tileInfo : batch) {
+                    try {
+                        for (PreProcess preProcessors : preProcesses) {
+                            preProcessors.run(tileInfo);
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("[ERROR][PreProcess] : ", e);
+                        failedTileInfos.add(tileInfo);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Streaming tiling process.
+     * Content nodes are handed to the post-process pool as soon as the tiler has assigned their tile infos,
+     * content nodes that the tiler does not publish are post-processed after the tiling.
+     * The tilers publish a content before the contents of its children and the pool starts its tasks in submit order (FIFO),
+     * so a parent content is post-processed before its children, as in the sorted post-process of the batch mode.
+     * When the tiling fails, the queued post-processes are cancelled and the running ones are awaited before the error is rethrown.
+     * The contents written until then stay in the output without a tileset.json (and without a run manifest entry),
+     * so a failed run has to be repeated, as in the batch mode.
+     */
+    private void executeStreamingTilingProcess() throws InterruptedException {
+        log.info("[Tile] Start the tiling process.");
+        int threadCount = Math.max(1, globalOptions.getMultiThreadCount());
+        ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+        List<Future<?>> futures = Collections.synchronizedList(new ArrayList<>());
+        Set<ContentInfo> submitted = Collections.newSetFromMap(new ConcurrentHashMap<>());
+        AtomicInteger count = new AtomicInteger(1);
+
+        Tiler tiler = (Tiler) tilingProcess;
+        if (tiler instanceof DefaultTiler defaultTiler) {
+            defaultTiler.setContentConsumer((contentInfo) -> {
+                submitted.add(contentInfo);
+                futures.add(executorService.submit(() -> {
+                    log.info("[Post][{}] post-process in progress : {}", count.getAndIncrement(), contentInfo.getName());
+                    runPostProcesses(contentInfo);
+                }));
+            });
+        }
+        boolean isTiled = false;
+        try {
+            tileset = tiler.run(tileInfos);
+            log.info("[Tile] Writing tileset file.");
+            tiler.writeTileset(tileset);
+            isTiled = true;
+        } catch (FileNotFoundException e) {
+            log.error("[ERROR] :", e);
+            throw new RuntimeException(e);
+        } finally {
+            if (tiler instanceof DefaultTiler defaultTiler) {
+                defaultTiler.setContentConsumer(null);
+            }
+            if (!isTiled) {
+                log.error("[ERROR][Tile] Tiling failed, cancelling the queued post-processes.");
+                cancelFutures(executorService, futures);
+            }
+        }
+        log.info("[Tile] End the tiling process.");
+
+        contentInfos = tileset.findAllContentInfo();
+        if (manifestTracker != null) {
+            manifestTracker.retainContents(contentInfos);
+        }
+        int contentCount = contentInfos.size();
+        globalOptions.setTileCount(contentCount);
+        contentInfos.sort((c1, c2) -> c1.getNodeCode().length() - c2.getNodeCode().length());
+        for (ContentInfo contentInfo : contentInfos) {
+            if (submitted.contains(contentInfo)) {
+                continue;
+            }
+            futures.add(executorService.submit(() -> {
+                log.info("[Post][{}/{}] post-process in progress : {}", count.getAndIncrement(), contentCount, contentInfo.getName());
+                runPostProcesses(contentInfo);
+            }));
+        }
+        try {
+            awaitFutures(futures);
+        } catch (RuntimeException e) {
+            cancelFutures(executorService, futures);
+            throw e;
+        }
+        executorService.shutdown();
         log.info("[Post] End the post-processing.");
     }
 
+    private void awaitFutures(List<Future<?>> futures) throws InterruptedException {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                log.error("[ERROR] Failed to execute thread.", e);
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    /**
+     * Cancels the tasks not started yet and waits for the running ones, nothing is written after this returns.
+     */
+    private void cancelFutures(ExecutorService executorService, List<Future<?>> futures) {
+        synchronized (futures) {
+            for (Future<?> future : futures) {
+                future.cancel(false);
+            }
+        }
+        executorService.shutdown();
+        try {
+            while (!executorService.awaitTermination(2, TimeUnit.SECONDS)) {
+                log.info("[Post] Waiting for the running post-processes.");
+            }
+        } catch (InterruptedException e) {
+            executorService.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Resumed runs read the run manifest of the output directory, see RunManifestTracker.
+     */
+    private void openRunManifest() {
+        if (!globalOptions.isResume()) {
+            return;
+        }
+        if (!resumable) {
+            log.warn("[WARN][Resume] Resuming is not supported for this input type, the whole run is processed.");
+            return;
+        }
+        manifestTracker = RunManifestTracker.open(new File(globalOptions.getOutputPath()), globalOptions.getRunFingerprint());
+    }
+
+    private List<TileInfo> restoreTileInfos(File file) {
+        if (manifestTracker == null) {
+            return null;
+        }
+        return manifestTracker.restore(file);
+    }
+
     private void createTemp(FileLoader fileLoader) {
         /* create temp directory */
         File tempFile = new File(globalOptions.getTempPath());
@@ -0,0 +1,114 @@
+package com.gaia3d.process.manifest;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Record of a tiling run, written to the output directory as json.
+ * For each input file it keeps the content hash and the pre-processed tile infos (temp files, bounding boxes, transforms),
+ * and for each content (tile file) the inputs it was built from, so a later run can skip the unchanged parts.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class RunManifest {
+    public static final int VERSION = 1;
+
+    private int version = VERSION;
+    /* hash of the options affecting the result, a manifest of other options is not reused */
+    private String fingerprint;
+    /* absolute input path -> input */
+    private Map<String, InputEntry> inputs = new TreeMap<>();
+    /* node code -> content */
+    private Map<String, ContentEntry> contents = new TreeMap<>();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class InputEntry {
+        private String hash;
+        private long size;
+        private long lastModified;
+        /* files referenced by the input (e.g. models of a kml), checked by size and modification time */
+        private List<FileEntry> dependencies = new ArrayList<>();
+        private List<TileEntry> tiles = new ArrayList<>();
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class FileEntry {
+        private String path;
+        private long size;
+        private long lastModified;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TileEntry {
+        private int serial;
+        private String name;
+        private String tempPath;
+        private String scenePath;
+        private long triangleCount;
+        /* minX, minY, minZ, maxX, maxY, maxZ */
+        private double[] boundingBox;
+        /* column-major 4x4 */
+        private double[] transformMatrix;
+        private TransformEntry transform;
+        private AttributeEntry attribute;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class TransformEntry {
+        private String name;
+        private double[] position;
+        private String altitudeMode;
+        private double heading;
+        private double tilt;
+        private double roll;
+        private double scaleX;
+        private double scaleY;
+        private double scaleZ;
+        private String href;
+        private Map<String, String> properties;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class AttributeEntry {
+        private String identifier;
+        private String fileName;
+        private String nodeName;
+        private Map<String, String> attributes;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class ContentEntry {
+        /* hash of the node code, lod, transform and the tile infos of the content */
+        private String signature;
+        /* relative to the output directory */
+        private String file;
+        private List<String> inputs = new ArrayList<>();
+    }
+}
@@ -0,0 +1,450 @@
+package com.gaia3d.process.manifest;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.basic.model.GaiaAttribute;
+import com.gaia3d.basic.model.GaiaScene;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.kml.TileTransformInfo;
+import com.gaia3d.process.tileprocess.tile.ContentInfo;
+import com.gaia3d.process.tileprocess.tile.TileInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.joml.Matrix4d;
+import org.joml.Vector3d;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the run manifest of the output directory up to date during a resumable run.
+ * Unchanged inputs are restored from the manifest instead of being loaded and pre-processed,
+ * and contents whose signature did not change are not post-processed again.
+ * The manifest is saved periodically, so a crashed run can be resumed from the last save.
+ */
+@Slf4j
+public class RunManifestTracker {
+    public static final String MANIFEST_FILE_NAME = "run-manifest.json";
+    private static final long MINIMUM_SAVE_INTERVAL_MILLIS = 30 * 1000L;
+    /* a big manifest is saved less often, at most about 10% of the run time is spent saving */
+    private static final int SAVE_INTERVAL_FACTOR = 10;
+    private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+
+    private final File outputDirectory;
+    private final File manifestFile;
+    private final RunManifest previous;
+    private final RunManifest current;
+    private final ObjectMapper objectMapper;
+    private final Map<String, String> inputHashes = new ConcurrentHashMap<>();
+    /* input file of every restored or recorded tile info, by identity */
+    private final Map<TileInfo, String> inputsByTileInfo = Collections.synchronizedMap(new IdentityHashMap<>());
+    private final AtomicInteger restoredInputCount = new AtomicInteger();
+    private final AtomicInteger skippedContentCount = new AtomicInteger();
+    private long lastSaveMillis = System.currentTimeMillis();
+    private long saveIntervalMillis = MINIMUM_SAVE_INTERVAL_MILLIS;
+
+    private RunManifestTracker(File outputDirectory, RunManifest previous, String fingerprint) {
+        this.outputDirectory = outputDirectory;
+        this.manifestFile = new File(outputDirectory, MANIFEST_FILE_NAME);
+        this.previous = previous;
+        this.current = new RunManifest();
+        this.current.setFingerprint(fingerprint);
+        // contents stay valid until the new tileset says otherwise, see retainContents
+        this.current.getContents().putAll(previous.getContents());
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    }
+
+    /**
+     * Loads the manifest of the output directory, an unreadable manifest or one written with other options starts an empty run.
+     */
+    public static RunManifestTracker open(File outputDirectory, String fingerprint) {
+        File manifestFile = new File(outputDirectory, MANIFEST_FILE_NAME);
+        RunManifest previous = new RunManifest();
+        if (manifestFile.isFile()) {
+            try {
+                RunManifest loaded = new ObjectMapper().readValue(manifestFile, RunManifest.class);
+                if (loaded.getVersion() != RunManifest.VERSION) {
+                    log.warn("[WARN][Resume] Run manifest version {} is not supported, starting over.", loaded.getVersion());
+                } else if (!Objects.equals(loaded.getFingerprint(), fingerprint)) {
+                    log.warn("[WARN][Resume] Options differ from the previous run, starting over.");
+                } else {
+                    previous = loaded;
+                    log.info("[Resume] Loaded run manifest with {} inputs and {} contents.", loaded.getInputs().size(), loaded.getContents().size());
+                }
+            } catch (IOException e) {
+                log.warn("[WARN][Resume] Failed to read run manifest {}, starting over.", manifestFile.getAbsolutePath(), e);
+            }
+        } else {
+            log.info("[Resume] No run manifest in {}, starting a new run.", outputDirectory.getAbsolutePath());
+        }
+        return new RunManifestTracker(outputDirectory, previous, fingerprint);
+    }
+
+    /**
+     * Returns the pre-processed tile infos of an input recorded by the previous run,
+     * or null when the input, one of its referenced files or one of its temp files changed.
+     */
+    public List<TileInfo> restore(File file) {
+        String key = file.getAbsolutePath();
+        RunManifest.InputEntry entry = previous.getInputs().get(key);
+        if (entry == null) {
+            return null;
+        }
+        String hash = getInputHash(file);
+        if (!entry.getHash().equals(hash) || !isUnchanged(entry.getDependencies())) {
+            log.info("[Resume] Input changed : {}", file.getName());
+            deleteTempFiles(entry);
+            return null;
+        }
+
+        Path outputPath = outputDirectory.toPath();
+        List<TileInfo> tileInfos = new ArrayList<>(entry.getTiles().size());
+        for (RunManifest.TileEntry tile : entry.getTiles()) {
+            if (!Files.isRegularFile(Path.of(tile.getTempPath()))) {
+                log.info("[Resume] Temp file is missing, pre-processing again : {}", file.getName());
+                return null;
+            }
+            tileInfos.add(toTileInfo(tile, outputPath));
+        }
+        for (TileInfo tileInfo : tileInfos) {
+            inputsByTileInfo.put(tileInfo, key);
+        }
+        synchronized (this) {
+            current.getInputs().put(key, entry);
+        }
+        restoredInputCount.incrementAndGet();
+        return tileInfos;
+    }
+
+    /**
+     * Records the pre-processed tile infos of an input.
+     * Inputs whose tile infos are not fully described by their temp files are not recorded and are pre-processed on every run.
+     */
+    public void recordInput(File file, List<TileInfo> tileInfos) {
+        for (TileInfo tileInfo : tileInfos) {
+            if (!isRestorable(tileInfo)) {
+                return;
+            }
+        }
+        String key = file.getAbsolutePath();
+        RunManifest.InputEntry entry = new RunManifest.InputEntry();
+        entry.setHash(getInputHash(file));
+        entry.setSize(file.length());
+        entry.setLastModified(file.lastModified());
+
+        Set<String> dependencies = new TreeSet<>();
+        for (TileInfo tileInfo : tileInfos) {
+            entry.getTiles().add(toTileEntry(tileInfo));
+            Path scenePath = tileInfo.getScenePath();
+            if (scenePath != null && !scenePath.toAbsolutePath().toString().equals(key)) {
+                dependencies.add(scenePath.toAbsolutePath().toString());
+            }
+            inputsByTileInfo.put(tileInfo, key);
+        }
+        for (String dependency : dependencies) {
+            File dependencyFile = new File(dependency);
+            RunManifest.FileEntry fileEntry = new RunManifest.FileEntry();
+            fileEntry.setPath(dependency);
+            fileEntry.setSize(dependencyFile.length());
+            fileEntry.setLastModified(dependencyFile.lastModified());
+            entry.getDependencies().add(fileEntry);
+        }
+        synchronized (this) {
+            current.getInputs().put(key, entry);
+        }
+        saveIfDue();
+    }
+
+    /**
+     * Describes a content before it is post-processed, returns null when a tile info of the content is not recorded.
+     */
+    public RunManifest.ContentEntry describeContent(ContentInfo contentInfo) {
+        MessageDigest digest = createDigest();
+        update(digest, contentInfo.getNodeCode());
+        update(digest, contentInfo.getLod() == null ? "" : String.valueOf(contentInfo.getLod().getLevel()));
+        Matrix4d transformMatrix = contentInfo.getTransformMatrix();
+        if (transformMatrix != null) {
+            for (double value : transformMatrix.get(new double[16])) {
+                update(digest, Double.toString(value));
+            }
+        }
+
+        Set<String> inputs = new TreeSet<>();
+        for (TileInfo tileInfo : contentInfo.getTileInfos()) {
+            String input = inputsByTileInfo.get(tileInfo);
+            String inputHash = input == null ? null : inputHashes.get(input);
+            if (inputHash == null) {
+                return null;
+            }
+            inputs.add(input);
+            update(digest, inputHash);
+            update(digest, String.valueOf(tileInfo.getTempPath()));
+        }
+
+        RunManifest.ContentEntry entry = new RunManifest.ContentEntry();
+        entry.setSignature(HexFormat.of().formatHex(digest.digest()));
+        entry.setFile(getContentFile(contentInfo.getContentPath()));
+        entry.setInputs(new ArrayList<>(inputs));
+        return entry;
+    }
+
+    /**
+     * True when the previous run wrote the same content and its file still exists.
+     */
+    public synchronized boolean isUpToDate(ContentInfo contentInfo, RunManifest.ContentEntry entry) {
+        if (entry == null) {
+            return false;
+        }
+        RunManifest.ContentEntry recorded = current.getContents().get(contentInfo.getNodeCode());
+        boolean upToDate = recorded != null && recorded.getSignature().equals(entry.getSignature()) && new File(outputDirectory, recorded.getFile()).isFile();
+        if (upToDate) {
+            skippedContentCount.incrementAndGet();
+        }
+        return upToDate;
+    }
+
+    /**
+     * Forgets the previous file of a content that is written again.
+     */
+    public void invalidateContent(ContentInfo contentInfo) {
+        RunManifest.ContentEntry recorded;
+        synchronized (this) {
+            recorded = current.getContents().remove(contentInfo.getNodeCode());
+        }
+        if (recorded != null) {
+            FileUtils.deleteQuietly(new File(outputDirectory, recorded.getFile()));
+        }
+    }
+
+    public void recordContent(ContentInfo contentInfo, RunManifest.ContentEntry entry) {
+        if (entry == null || !new File(outputDirectory, entry.getFile()).isFile()) {
+            return;
+        }
+        synchronized (this) {
+            current.getContents().put(contentInfo.getNodeCode(), entry);
+        }
+        saveIfDue();
+    }
+
+    /**
+     * Removes the contents of the previous run that are not part of the new tileset, with their files.
+     */
+    public void retainContents(List<ContentInfo> contentInfos) {
+        Set<String> nodeCodes = new HashSet<>();
+        contentInfos.forEach((contentInfo) -> nodeCodes.add(contentInfo.getNodeCode()));
+        List<RunManifest.ContentEntry> removed = new ArrayList<>();
+        synchronized (this) {
+            Iterator<Map.Entry<String, RunManifest.ContentEntry>> iterator = current.getContents().entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<String, RunManifest.ContentEntry> entry = iterator.next();
+                if (!nodeCodes.contains(entry.getKey())) {
+                    removed.add(entry.getValue());
+                    iterator.remove();
+                }
+            }
+        }
+        for (RunManifest.ContentEntry entry : removed) {
+            log.info("[Resume] Deleting content of the previous run : {}", entry.getFile());
+            FileUtils.deleteQuietly(new File(outputDirectory, entry.getFile()));
+        }
+    }
+
+    public synchronized void save() {
+        long startMillis = System.currentTimeMillis();
+        File tempFile = new File(outputDirectory, MANIFEST_FILE_NAME + ".tmp");
+        try {
+            objectMapper.writeValue(tempFile, current);
+            try {
+                Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), manifestFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            log.error("[ERROR][Resume] Failed to write run manifest {}", manifestFile.getAbsolutePath(), e);
+        }
+        long endMillis = System.currentTimeMillis();
+        lastSaveMillis = endMillis;
+        saveIntervalMillis = Math.max(MINIMUM_SAVE_INTERVAL_MILLIS, (endMillis - startMillis) * SAVE_INTERVAL_FACTOR);
+    }
+
+    public void logStatistics() {
+        log.info("[Resume] Reused {} inputs and {} contents of the previous run.", restoredInputCount.get(), skippedContentCount.get());
+    }
+
+    private synchronized void saveIfDue() {
+        if (System.currentTimeMillis() - lastSaveMillis >= saveIntervalMillis) {
+            save();
+        }
+    }
+
+    private boolean isRestorable(TileInfo tileInfo) {
+        Path tempPath = tileInfo.getTempPath();
+        return tempPath != null && Files.isRegularFile(tempPath) && tileInfo.getBoundingBox() != null && tileInfo.getPointCloud() == null;
+    }
+
+    private boolean isUnchanged(List<RunManifest.FileEntry> files) {
+        for (RunManifest.FileEntry fileEntry : files) {
+            File file = new File(fileEntry.getPath());
+            if (!file.isFile() || file.length() != fileEntry.getSize() || file.lastModified() != fileEntry.getLastModified()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Content hash of an input file, the hash of the previous run is reused when the size and modification time did not change.
+     */
+    private String getInputHash(File file) {
+        return inputHashes.computeIfAbsent(file.getAbsolutePath(), (key) -> {
+            RunManifest.InputEntry entry = previous.getInputs().get(key);
+            if (entry != null && entry.getSize() == file.length() && entry.getLastModified() == file.lastModified()) {
+                return entry.getHash();
+            }
+            MessageDigest digest = createDigest();
+            byte[] buffer = new byte[HASH_BUFFER_SIZE];
+            try (InputStream inputStream = Files.newInputStream(file.toPath())) {
+                int read;
+                while ((read = inputStream.read(buffer)) > 0) {
+                    digest.update(buffer, 0, read);
+                }
+            } catch (IOException e) {
+                log.warn("[WARN][Resume] Failed to hash input file : {}", file.getAbsolutePath(), e);
+                return UUID.randomUUID().toString();
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        });
+    }
+
+    private void deleteTempFiles(RunManifest.InputEntry entry) {
+        for (RunManifest.TileEntry tile : entry.getTiles()) {
+            FileUtils.deleteQuietly(new File(tile.getTempPath()));
+        }
+    }
+
+    private String getContentFile(String contentPath) {
+        String extension = GlobalOptions.getInstance().getTilesVersion().equals("1.0") ? "b3dm" : "glb";
+        return "data/" + contentPath + "." + extension;
+    }
+
+    private RunManifest.TileEntry toTileEntry(TileInfo tileInfo) {
+        RunManifest.TileEntry tile = new RunManifest.TileEntry();
+        tile.setSerial(tileInfo.getSerial());
+        tile.setName(tileInfo.getName());
+        tile.setTempPath(tileInfo.getTempPath().toAbsolutePath().toString());
+        tile.setScenePath(tileInfo.getScenePath() == null ? null : tileInfo.getScenePath().toString());
+        tile.setTriangleCount(tileInfo.getTriangleCount());
+        GaiaBoundingBox boundingBox = tileInfo.getBoundingBox();
+        tile.setBoundingBox(new double[]{boundingBox.getMinX(), boundingBox.getMinY(), boundingBox.getMinZ(), boundingBox.getMaxX(), boundingBox.getMaxY(), boundingBox.getMaxZ()});
+        if (tileInfo.getTransformMatrix() != null) {
+            tile.setTransformMatrix(tileInfo.getTransformMatrix().get(new double[16]));
+        }
+
+        TileTransformInfo tileTransformInfo = tileInfo.getTileTransformInfo();
+        if (tileTransformInfo != null) {
+            RunManifest.TransformEntry transform = new RunManifest.TransformEntry();
+            transform.setName(tileTransformInfo.getName());
+            Vector3d position = tileTransformInfo.getPosition();
+            if (position != null) {
+                transform.setPosition(new double[]{position.x, position.y, position.z});
+            }
+            transform.setAltitudeMode(tileTransformInfo.getAltitudeMode());
+            transform.setHeading(tileTransformInfo.getHeading());
+            transform.setTilt(tileTransformInfo.getTilt());
+            transform.setRoll(tileTransformInfo.getRoll());
+            transform.setScaleX(tileTransformInfo.getScaleX());
+            transform.setScaleY(tileTransformInfo.getScaleY());
+            transform.setScaleZ(tileTransformInfo.getScaleZ());
+            transform.setHref(tileTransformInfo.getHref());
+            transform.setProperties(tileTransformInfo.getProperties());
+            tile.setTransform(transform);
+        }
+
+        GaiaScene scene = tileInfo.getScene();
+        if (scene != null && scene.getAttribute() != null) {
+            GaiaAttribute attribute = scene.getAttribute();
+            RunManifest.AttributeEntry attributeEntry = new RunManifest.AttributeEntry();
+            attributeEntry.setIdentifier(attribute.getIdentifier().toString());
+            attributeEntry.setFileName(attribute.getFileName());
+            attributeEntry.setNodeName(attribute.getNodeName());
+            attributeEntry.setAttributes(attribute.getAttributes());
+            tile.setAttribute(attributeEntry);
+        }
+        return tile;
+    }
+
+    private TileInfo toTileInfo(RunManifest.TileEntry tile, Path outputPath) {
+        double[] box = tile.getBoundingBox();
+        GaiaBoundingBox boundingBox = new GaiaBoundingBox(box[0], box[1], box[2], box[3], box[4], box[5]);
+        Matrix4d transformMatrix = tile.getTransformMatrix() == null ? null : new Matrix4d().set(tile.getTransformMatrix());
+
+        TileTransformInfo tileTransformInfo = null;
+        RunManifest.TransformEntry transform = tile.getTransform();
+        if (transform != null) {
+            double[] position = transform.getPosition();
+            tileTransformInfo = TileTransformInfo.builder()
+                    .name(transform.getName())
+                    .position(position == null ? null : new Vector3d(position[0], position[1], position[2]))
+                    .altitudeMode(transform.getAltitudeMode())
+                    .heading(transform.getHeading())
+                    .tilt(transform.getTilt())
+                    .roll(transform.getRoll())
+                    .scaleX(transform.getScaleX())
+                    .scaleY(transform.getScaleY())
+                    .scaleZ(transform.getScaleZ())
+                    .href(transform.getHref())
+                    .properties(transform.getProperties())
+                    .build();
+        }
+
+        // the minimized scene only keeps its attribute, the geometry is read from the temp file
+        GaiaScene scene = new GaiaScene();
+        RunManifest.AttributeEntry attributeEntry = tile.getAttribute();
+        if (attributeEntry != null) {
+            GaiaAttribute attribute = new GaiaAttribute();
+            attribute.setIdentifier(UUID.fromString(attributeEntry.getIdentifier()));
+            attribute.setFileName(attributeEntry.getFileName());
+            attribute.setNodeName(attributeEntry.getNodeName());
+            if (attributeEntry.getAttributes() != null) {
+                attribute.getAttributes().putAll(attributeEntry.getAttributes());
+            }
+            scene.setAttribute(attribute);
+        }
+
+        return TileInfo.builder()
+                .serial(tile.getSerial())
+                .name(tile.getName())
+                .scene(scene)
+                .tileTransformInfo(tileTransformInfo)
+                .transformMatrix(transformMatrix)
+                .boundingBox(boundingBox)
+                .scenePath(tile.getScenePath() == null ? null : Path.of(tile.getScenePath()))
+                .outputPath(outputPath)
+                .tempPath(Path.of(tile.getTempPath()))
+                .triangleCount(tile.getTriangleCount())
+                .build();
+    }
+
+    private static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
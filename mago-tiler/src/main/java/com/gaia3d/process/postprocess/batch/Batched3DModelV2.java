@@ -56,7 +56,6 @@ public class Batched3DModelV2 implements ContentModel {
 
         GaiaBatcher gaiaBatcher = new GaiaBatcher();
         GaiaSet batchedSet = gaiaBatcher.runBatching(contentInfo.getTileInfos(), contentInfo.getNodeCode(), contentInfo.getLod());
-        String nodeCode = contentInfo.getNodeCode();
 
         List<TileInfo> tileInfos = contentInfo.getTileInfos();
         int batchLength = tileInfos.size();
@@ -137,8 +136,11 @@ public class Batched3DModelV2 implements ContentModel {
             });
         });
 
-        String glbFileName = nodeCode + "." + MAGIC;
+        String glbFileName = contentInfo.getContentPath() + "." + MAGIC;
         File glbOutputFile = outputRoot.resolve(glbFileName).toFile();
+        if (!glbOutputFile.getParentFile().exists() && glbOutputFile.getParentFile().mkdirs()) {
+            log.debug("[Create][data] Created content directory : {}", glbOutputFile.getParentFile());
+        }
         if (globalOptions.isPhotogrammetry()) {
             scene.deleteNormals();
         }
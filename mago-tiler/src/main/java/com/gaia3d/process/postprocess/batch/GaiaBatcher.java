@@ -34,40 +34,60 @@ public class GaiaBatcher {
     private final List<String> textureList = new ArrayList<>();
     private final Map<String, List<String>> duplicateTextureGroup = new HashMap<>();
 
+    /**
+     * Points the dataSets to the first equal material.
+     * The materials are grouped by a content key (texture hashes or the diffuse color) in one pass,
+     * only materials with the same key are compared with areEqualMaterials.
+     */
     private void reassignMaterialsToGaiaBufferDataSetWithSameMaterial(List<GaiaBufferDataSet> dataSets, LevelOfDetail lod) {
-        int datasetsCount = dataSets.size();
-        Map<GaiaBufferDataSet, Boolean> visitedMap = new HashMap<>();
-        for (int i = 0; i < datasetsCount; i++) {
-            GaiaBufferDataSet dataSet = dataSets.get(i);
-            if (visitedMap.containsKey(dataSet)) {
-                continue;
-            }
-
+        Map<GaiaMaterial, GaiaMaterial> representativeMap = new IdentityHashMap<>();
+        Map<MaterialKey, List<GaiaMaterial>> representativesByKey = new HashMap<>();
+        for (GaiaBufferDataSet dataSet : dataSets) {
             int materialId = dataSet.getMaterialId();
             if (materialId < 0 || materialId >= batchedMaterials.size()) {
                 log.error("[ERROR] MaterialId is out of range");
                 continue;
             }
-            GaiaMaterial material = batchedMaterials.get(dataSet.getMaterialId());
-            for (int j = i + 1; j < datasetsCount; j++) {
-                GaiaBufferDataSet dataSet2 = dataSets.get(j);
-                GaiaMaterial material2 = batchedMaterials.get(dataSet2.getMaterialId());
-                if (visitedMap.containsKey(dataSet2)) {
-                    continue;
-                }
-                if (dataSet == dataSet2) {continue;}
-                if (material2 == material) {
-                    visitedMap.put(dataSet2, true); // set visited
-                    continue;
+            GaiaMaterial material = batchedMaterials.get(materialId);
+            GaiaMaterial representative = representativeMap.get(material);
+            if (representative == null) {
+                List<GaiaMaterial> candidates = representativesByKey.computeIfAbsent(createMaterialKey(material, lod), key -> new ArrayList<>());
+                for (GaiaMaterial candidate : candidates) {
+                    // full comparison only on equal keys
+                    if (areEqualMaterials(candidate, material, lod)) {
+                        representative = candidate;
+                        break;
+                    }
                 }
-                if (areEqualMaterials(material2, material, lod)) {
-                    dataSet2.setMaterialId(material.getId());
-                    visitedMap.put(dataSet2, true); // set visited
+                if (representative == null) {
+                    candidates.add(material);
+                    representative = material;
                 }
+                representativeMap.put(material, representative);
+            }
+            if (representative != material) {
+                dataSet.setMaterialId(representative.getId());
             }
         }
     }
 
+    /**
+     * Canonical key of a material. The textures are keyed by their exact pixel content,
+     * so textures differing in a few pixels are no longer merged by the tolerance of isEqualTexture.
+     */
+    private MaterialKey createMaterialKey(GaiaMaterial material, LevelOfDetail lod) {
+        Map<TextureType, List<GaiaTexture>> textureMap = material.getTextures();
+        List<GaiaTexture> diffuseTextures = textureMap.get(TextureType.DIFFUSE);
+        if (diffuseTextures == null || diffuseTextures.isEmpty()) {
+            return new MaterialKey(textureMap.size(), List.of(), new Vector4d(material.getDiffuseColor()));
+        }
+        List<Long> textureHashes = new ArrayList<>(diffuseTextures.size());
+        for (GaiaTexture texture : diffuseTextures) {
+            textureHashes.add(texture.getContentHash(lod));
+        }
+        return new MaterialKey(textureMap.size(), textureHashes, null);
+    }
+
     /**
      * compare two materials
      */
@@ -729,4 +749,10 @@ public class GaiaBatcher {
         }
         return dataSet;
     }
-}
\ No newline at end of file
+
+    /**
+     * Texture type count, the content hashes of the diffuse textures, and the diffuse color of the materials without them.
+     */
+    private record MaterialKey(int textureTypeCount, List<Long> diffuseTextureHashes, Vector4d diffuseColor) {
+    }
+}
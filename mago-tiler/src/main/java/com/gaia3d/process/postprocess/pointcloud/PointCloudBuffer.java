@@ -19,6 +19,10 @@ public class PointCloudBuffer {
     private char[] intensities;
     private short[] classifications;
 
+    // bounds of the positions, filled by PointCloudEncoder
+    private double[] positionMin;
+    private double[] positionMax;
+
     // int -> unsigned short
     public byte[] getQuantizedPositionBytes() {
         byte[] positionsBytes = new byte[quantizedPositions.length * 2];
@@ -0,0 +1,170 @@
+package com.gaia3d.process.postprocess.pointcloud;
+
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
+import com.gaia3d.util.GlobeUtils;
+import org.joml.Matrix4d;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Encodes point blocks into the attribute arrays of a point cloud tile in a single pass.
+ * Positions go through one fused geographic -> ECEF -> local (ENU, y-up) transform,
+ * colors through a sRGB -> linear lookup table,
+ * and tiles with many points are split into slices encoded on the common fork-join pool.
+ * The bounds of the local positions are collected on the way, so the glTF writer does not scan them again for quantization.
+ */
+public class PointCloudEncoder {
+    private static final int PARALLEL_THRESHOLD = 64 * 1024;
+    private static final int SLICE_SIZE = 16 * 1024;
+    private static final byte[] SRGB_TO_LINEAR = createSrgbToLinearTable();
+
+    /* row-major 3x4 affine matrix, localToEnu * inverse(enuToEcef) */
+    private final double m00, m01, m02, m03;
+    private final double m10, m11, m12, m13;
+    private final double m20, m21, m22, m23;
+
+    /**
+     * @param transformMatrixInv inverse of the ENU frame at the tile center (ECEF -> ENU)
+     * @param rotationMatrix rotation applied after the ENU transform (z-up -> y-up)
+     */
+    public PointCloudEncoder(Matrix4d transformMatrixInv, Matrix4d rotationMatrix) {
+        Matrix4d fused = new Matrix4d(rotationMatrix).mul(transformMatrixInv);
+        m00 = fused.m00(); m01 = fused.m10(); m02 = fused.m20(); m03 = fused.m30();
+        m10 = fused.m01(); m11 = fused.m11(); m12 = fused.m21(); m13 = fused.m31();
+        m20 = fused.m02(); m21 = fused.m12(); m22 = fused.m22(); m23 = fused.m32();
+    }
+
+    /**
+     * Encodes every point of the blocks in order, the batch id of a point is its index in the tile.
+     */
+    public PointCloudBuffer encode(List<GaiaPointBlock> blocks) {
+        int pointCount = 0;
+        for (GaiaPointBlock block : blocks) {
+            pointCount += block.size();
+        }
+
+        float[] positions = new float[pointCount * 3];
+        byte[] colors = new byte[pointCount * 4];
+        float[] batchIds = new float[pointCount];
+        char[] intensities = new char[pointCount];
+        short[] classifications = new short[pointCount];
+
+        List<Slice> slices = createSlices(blocks, pointCount < PARALLEL_THRESHOLD ? Integer.MAX_VALUE : SLICE_SIZE);
+        double[][] sliceBounds = new double[slices.size()][];
+        IntStream sliceIndices = IntStream.range(0, slices.size());
+        if (pointCount >= PARALLEL_THRESHOLD) {
+            sliceIndices = sliceIndices.parallel();
+        }
+        sliceIndices.forEach((sliceIndex) -> {
+            Slice slice = slices.get(sliceIndex);
+            sliceBounds[sliceIndex] = encodeSlice(slice, positions, colors, batchIds, intensities, classifications);
+        });
+
+        double[] min = {Double.MAX_VALUE, Double.MAX_VALUE, Double.MAX_VALUE};
+        double[] max = {-Double.MAX_VALUE, -Double.MAX_VALUE, -Double.MAX_VALUE};
+        for (double[] bounds : sliceBounds) {
+            for (int axis = 0; axis < 3; axis++) {
+                min[axis] = Math.min(min[axis], bounds[axis]);
+                max[axis] = Math.max(max[axis], bounds[axis + 3]);
+            }
+        }
+
+        PointCloudBuffer pointCloudBuffer = new PointCloudBuffer();
+        pointCloudBuffer.setPositions(positions);
+        pointCloudBuffer.setColors(colors);
+        pointCloudBuffer.setBatchIds(batchIds);
+        pointCloudBuffer.setIntensities(intensities);
+        pointCloudBuffer.setClassifications(classifications);
+        if (pointCount > 0) {
+            pointCloudBuffer.setPositionMin(min);
+            pointCloudBuffer.setPositionMax(max);
+        }
+        return pointCloudBuffer;
+    }
+
+    /**
+     * Converts an 8-bit sRGB channel value to an 8-bit linear value.
+     */
+    public static int srgbToLinear(byte sRGB) {
+        return SRGB_TO_LINEAR[sRGB & 0xFF] & 0xFF;
+    }
+
+    private double[] encodeSlice(Slice slice, float[] positions, byte[] colors, float[] batchIds, char[] intensities, short[] classifications) {
+        double minX = Double.MAX_VALUE, minY = Double.MAX_VALUE, minZ = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE, maxY = -Double.MAX_VALUE, maxZ = -Double.MAX_VALUE;
+
+        GaiaPointBlock points = slice.block;
+        double[] ecef = new double[3];
+        int index = slice.offset;
+        for (int i = slice.from; i < slice.to; i++, index++) {
+            // geographic -> ECEF into the reused slice array
+            GlobeUtils.geographicToCartesianWgs84(points.getX(i), points.getY(i), points.getZ(i), ecef);
+            double ex = ecef[0];
+            double ey = ecef[1];
+            double ez = ecef[2];
+
+            float x = (float) (m00 * ex + m01 * ey + m02 * ez + m03);
+            float y = (float) (m10 * ex + m11 * ey + m12 * ez + m13);
+            float z = (float) (m20 * ex + m21 * ey + m22 * ez + m23);
+            int positionIndex = index * 3;
+            positions[positionIndex] = x;
+            positions[positionIndex + 1] = y;
+            positions[positionIndex + 2] = z;
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+
+            int rgba = points.getRgba(i);
+            int colorIndex = index * 4;
+            colors[colorIndex] = SRGB_TO_LINEAR[rgba >>> 24];
+            colors[colorIndex + 1] = SRGB_TO_LINEAR[(rgba >>> 16) & 0xFF];
+            colors[colorIndex + 2] = SRGB_TO_LINEAR[(rgba >>> 8) & 0xFF];
+            colors[colorIndex + 3] = -1;
+
+            batchIds[index] = index;
+            intensities[index] = points.getIntensity(i);
+            classifications[index] = points.getClassification(i);
+        }
+        return new double[]{minX, minY, minZ, maxX, maxY, maxZ};
+    }
+
+    private List<Slice> createSlices(List<GaiaPointBlock> blocks, int sliceSize) {
+        List<Slice> slices = new ArrayList<>();
+        int offset = 0;
+        for (GaiaPointBlock block : blocks) {
+            for (int from = 0; from < block.size(); from += sliceSize) {
+                int to = (int) Math.min(block.size(), (long) from + sliceSize);
+                slices.add(new Slice(block, from, to, offset));
+                offset += to - from;
+            }
+        }
+        return slices;
+    }
+
+    private static byte[] createSrgbToLinearTable() {
+        byte[] table = new byte[256];
+        for (int sRGB = 0; sRGB < 256; sRGB++) {
+            float c = sRGB / 255.0f;
+            float linear;
+            if (c <= 0.04045f) {
+                linear = c / 12.92f;
+            } else {
+                linear = (float) Math.pow((c + 0.055f) / 1.055f, 2.4);
+            }
+            int linearByte = Math.round(linear * 255.0f);
+            table[sRGB] = (byte) Math.max(0, Math.min(255, linearByte));
+        }
+        return table;
+    }
+
+    /**
+     * Points [from, to) of a block, written from the tile index offset.
+     */
+    private record Slice(GaiaPointBlock block, int from, int to, int offset) {
+    }
+}
@@ -5,7 +5,7 @@ import com.fasterxml.jackson.core.json.JsonWriteFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.command.mago.GlobalOptions;
-import com.gaia3d.converter.pointcloud.GaiaLasPoint;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
 import com.gaia3d.converter.pointcloud.GaiaPointCloud;
 import com.gaia3d.process.postprocess.ComponentType;
 import com.gaia3d.process.postprocess.ContentModel;
@@ -95,36 +95,36 @@ public class PointCloudModel implements ContentModel {
         tileInfos.forEach((tileInfo) -> {
             GaiaPointCloud pointCloud = tileInfo.getPointCloud();
             pointCloud.maximize(false);
-            List<GaiaLasPoint> gaiaVertex = pointCloud.getLasPoints();
-            gaiaVertex.forEach((vertex) -> {
+            GaiaPointBlock points = pointCloud.getPoints();
+            Vector3d localPosition = new Vector3d();
+            for (int i = 0; i < points.size(); i++) {
                 int index = mainIndex.getAndIncrement();
-                if (index > vertexLength) {
+                if (index >= vertexLength) {
                     log.error("[ERROR] Index out of bound");
-                    return;
+                    break;
                 }
 
-                Vector3d wgs84Position = vertex.getVec3Position();
-                Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(wgs84Position);
-                Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv, new Vector3d());
-                localPosition.mulPosition(rotationMatrix4d, localPosition);
+                double[] positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(points.getX(i), points.getY(i), points.getZ(i));
+                localPosition.set(positionWorldCoordinate[0], positionWorldCoordinate[1], positionWorldCoordinate[2]);
+                localPosition.mulPosition(transformMatrixInv);
+                localPosition.mulPosition(rotationMatrix4d);
 
                 float x = (float) localPosition.x;
                 float y = (float) -localPosition.z;
                 float z = (float) localPosition.y;
-                quantizedVolume.addPoint(new Vector3d(x, y, z));
+                quantizedVolume.addPoint(x, y, z);
 
                 positions[positionIndex.getAndIncrement()] = x;
                 positions[positionIndex.getAndIncrement()] = y;
                 positions[positionIndex.getAndIncrement()] = z;
 
-                byte[] color = vertex.getRgb();
-                colors[colorIndex.getAndIncrement()] = color[0];
-                colors[colorIndex.getAndIncrement()] = color[1];
-                colors[colorIndex.getAndIncrement()] = color[2];
+                colors[colorIndex.getAndIncrement()] = points.getR(i);
+                colors[colorIndex.getAndIncrement()] = points.getG(i);
+                colors[colorIndex.getAndIncrement()] = points.getB(i);
 
-                intensity[index] = vertex.getIntensity();
-                classification[index] = vertex.getClassification();
-            });
+                intensity[index] = points.getIntensity(i);
+                classification[index] = points.getClassification(i);
+            }
             pointCloud.clearPoints();
         });
 
@@ -4,7 +4,7 @@ import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.basic.model.GaiaVertex;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.gltf.tiles.PointCloudGltfWriter;
-import com.gaia3d.converter.pointcloud.GaiaLasPoint;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
 import com.gaia3d.converter.pointcloud.GaiaPointCloud;
 import com.gaia3d.process.postprocess.ContentModel;
 import com.gaia3d.process.postprocess.batch.GaiaBatchTable;
@@ -24,8 +24,8 @@ import org.locationtech.proj4j.ProjCoordinate;
 
 import java.io.File;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.concurrent.atomic.AtomicInteger;
 
 @Slf4j
 @RequiredArgsConstructor
@@ -50,21 +50,11 @@ public class PointCloudModelV2 implements ContentModel {
         List<TileInfo> tileInfos = contentInfo.getTileInfos();
 
         GaiaBoundingBox boundingBox = new GaiaBoundingBox();
-        AtomicInteger vertexCount = new AtomicInteger();
         tileInfos.forEach((tileInfo) -> {
             GaiaPointCloud pointCloud = tileInfo.getPointCloud();
-            vertexCount.addAndGet((int) pointCloud.getPointCount());
             boundingBox.addBoundingBox(pointCloud.getGaiaBoundingBox());
         });
 
-        int vertexLength = vertexCount.get();
-        float[] batchIds = new float[vertexLength];
-        float[] positions = new float[vertexLength * 3];
-        int[] quantizedPositions = new int[vertexLength * 3];
-        byte[] colors = new byte[vertexLength * 4];
-        char[] intensity = new char[vertexLength];
-        short[] classification = new short[vertexLength];
-
         Vector3d center = boundingBox.getCenter();
         Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(center);
         Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
@@ -77,59 +67,19 @@ public class PointCloudModelV2 implements ContentModel {
         xRotationMatrix3d.mul(rotationMatrix3d, rotationMatrix3d);
         Matrix4d rotationMatrix4d = new Matrix4d(rotationMatrix3d);
 
-        //GaiaBoundingBox quantizedVolume = new GaiaBoundingBox();
-        AtomicInteger mainIndex = new AtomicInteger();
-        AtomicInteger positionIndex = new AtomicInteger();
-        AtomicInteger colorIndex = new AtomicInteger();
-
+        List<GaiaPointBlock> pointBlocks = new ArrayList<>();
         tileInfos.forEach((tileInfo) -> {
             GaiaPointCloud pointCloud = tileInfo.getPointCloud();
             pointCloud.maximize(true);
-
-            List<GaiaLasPoint> gaiaVertex = pointCloud.getLasPoints();
-            gaiaVertex.forEach((vertex) -> {
-                int index = mainIndex.getAndIncrement();
-                if (index > vertexLength) {
-                    log.error("[ERROR] Index out of bound");
-                    return;
-                }
-
-                batchIds[index] = index;
-
-                Vector3d wgs84Position = vertex.getVec3Position();
-                Vector3d positionWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(wgs84Position);
-                Vector3d localPosition = positionWorldCoordinate.mulPosition(transformMatrixInv, new Vector3d());
-                localPosition.mulPosition(rotationMatrix4d, localPosition);
-
-                float x = (float) localPosition.x;
-                float y = (float) localPosition.y;
-                float z = (float) localPosition.z;
-
-                positions[positionIndex.getAndIncrement()] = x;
-                positions[positionIndex.getAndIncrement()] = y;
-                positions[positionIndex.getAndIncrement()] = z;
-
-                byte[] color = vertex.getRgb();
-                color[0] = (byte) srgbToLinearByte(signedByteToUnsignedByte(color[0]));
-                color[1] = (byte) srgbToLinearByte(signedByteToUnsignedByte(color[1]));
-                color[2] = (byte) srgbToLinearByte(signedByteToUnsignedByte(color[2]));
-                colors[colorIndex.getAndIncrement()] = color[0];
-                colors[colorIndex.getAndIncrement()] = color[1];
-                colors[colorIndex.getAndIncrement()] = color[2];
-                colors[colorIndex.getAndIncrement()] = -1;
-
-                intensity[index] = vertex.getIntensity();
-                classification[index] = vertex.getClassification();
-            });
+            if (pointCloud.getPoints() != null) {
+                pointBlocks.add(pointCloud.getPoints());
+            }
             pointCloud.clearPoints();
         });
-
-        PointCloudBuffer pointCloudBuffer = new PointCloudBuffer();
-        pointCloudBuffer.setPositions(positions);
-        pointCloudBuffer.setColors(colors);
-        pointCloudBuffer.setIntensities(intensity);
-        pointCloudBuffer.setClassifications(classification);
-        pointCloudBuffer.setBatchIds(batchIds);
+        PointCloudEncoder encoder = new PointCloudEncoder(transformMatrixInv, rotationMatrix4d);
+        PointCloudBuffer pointCloudBuffer = encoder.encode(pointBlocks);
+        pointBlocks.clear();
+        int vertexLength = pointCloudBuffer.getBatchIds().length;
 
         GaiaFeatureTable featureTable = new GaiaFeatureTable();
         featureTable.setPointsLength(vertexLength);
@@ -154,16 +104,4 @@ public class PointCloudModelV2 implements ContentModel {
         this.gltfWriter.writeGlb(pointCloudBuffer, featureTable, batchTable, glbOutputFile);
         return contentInfo;
     }
-
-    private int srgbToLinearByte(int sRGB) {
-        float c = sRGB / 255.0f;
-        float linear;
-        if (c <= 0.04045f) {linear = c / 12.92f;} else {linear = (float) Math.pow((c + 0.055f) / 1.055f, 2.4);}
-        int linearByte = Math.round(linear * 255.0f);
-        return Math.max(0, Math.min(255, linearByte));
-    }
-
-    private int signedByteToUnsignedByte(int signedByte) {
-        return signedByte < 0 ? signedByte + 256 : signedByte;
-    }
 }
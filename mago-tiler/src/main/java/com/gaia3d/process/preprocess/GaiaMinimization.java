@@ -31,17 +31,7 @@ public class GaiaMinimization implements PreProcess {
         if (scene != null) {
             GaiaSet tempSet = GaiaSet.fromGaiaScene(scene);
 
-            if (lodList.isEmpty()) {
-                GlobalOptions globalOptions = GlobalOptions.getInstance();
-                int minimumLod = globalOptions.getMinLod();
-                int maximumLod = globalOptions.getMaxLod();
-                for (int index = minimumLod; index <= maximumLod; index++) {
-                    LevelOfDetail lod = LevelOfDetail.getByLevel(index);
-                    lodList.add(lod);
-                }
-            }
-
-            Path tempPath = tempSet.writeFileWithLod(tileInfo.getTempPath(), tileInfo.getSerial(), lodList);
+            Path tempPath = tempSet.writeFileWithLod(tileInfo.getTempPath(), tileInfo.getSerial(), getLodList(), GlobalOptions.getInstance().getTempFormat());
             tileInfo.setTempPath(tempPath);
             tempSet.clear();
             tempSet = null;
@@ -49,4 +39,17 @@ public class GaiaMinimization implements PreProcess {
             scene = null;
         }
     }
+
+    private synchronized List<LevelOfDetail> getLodList() {
+        if (lodList.isEmpty()) {
+            GlobalOptions globalOptions = GlobalOptions.getInstance();
+            int minimumLod = globalOptions.getMinLod();
+            int maximumLod = globalOptions.getMaxLod();
+            for (int index = minimumLod; index <= maximumLod; index++) {
+                LevelOfDetail lod = LevelOfDetail.getByLevel(index);
+                lodList.add(lod);
+            }
+        }
+        return lodList;
+    }
 }
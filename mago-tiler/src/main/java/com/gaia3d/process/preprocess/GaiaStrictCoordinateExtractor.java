@@ -6,6 +6,7 @@ import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.kml.TileTransformInfo;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
+import com.gaia3d.util.CoordinateTransformService;
 import com.gaia3d.util.GlobeUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -160,18 +161,24 @@ public class GaiaStrictCoordinateExtractor implements PreProcess {
                     for (GaiaPrimitive primitive : primitives) {
                         List<GaiaVertex> vertices = primitive.getVertices();
                         if (vertices != null && !vertices.isEmpty()) {
-                            for (GaiaVertex vertex : vertices) {
-                                Vector3d pos = new Vector3d(vertex.getPosition());
+                            int vertexCount = vertices.size();
+                            double[] positions = new double[vertexCount * 3];
+                            Vector3d pos = new Vector3d();
+                            for (int i = 0; i < vertexCount; i++) {
+                                pos.set(vertices.get(i).getPosition());
                                 pos.add(offset);
                                 transformMatrix.transformPosition(pos); // CRS coords
+                                positions[i * 3] = pos.x;
+                                positions[i * 3 + 1] = pos.y;
+                                positions[i * 3 + 2] = pos.z;
+                            }
 
-                                // calculate the geoCoords of the "pos"
-                                ProjCoordinate vertexSource = new ProjCoordinate(pos.x, pos.y, pos.z);
-                                ProjCoordinate vertexWgs84 = GlobeUtils.transform(crs, vertexSource);
+                            // calculate the geoCoords of the positions and their posWC in one pass
+                            CoordinateTransformService.getInstance().transformToCartesianWgs84(crs, positions, vertexCount);
 
-                                // calculate the posWC of the "vertexWgs84"
-                                double[] posWC = GlobeUtils.geographicToCartesianWgs84(vertexWgs84.x, vertexWgs84.y, vertexSource.z);
-                                Vector3d posWCVector = new Vector3d(posWC[0], posWC[1], posWC[2]);
+                            for (int i = 0; i < vertexCount; i++) {
+                                GaiaVertex vertex = vertices.get(i);
+                                Vector3d posWCVector = new Vector3d(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
                                 Vector3d posLC = globalTMatrixInv.transformPosition(posWCVector);
 
                                 localBoundingBox.addPoint(posLC);
@@ -5,14 +5,12 @@ import com.gaia3d.basic.model.*;
 import com.gaia3d.basic.types.FormatType;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.kml.TileTransformInfo;
+import com.gaia3d.converter.terrain.HeightSampler;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
+import com.gaia3d.util.CoordinateTransformService;
 import com.gaia3d.util.GlobeUtils;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.geotools.api.geometry.Position;
-import org.geotools.coverage.grid.GridCoverage2D;
-import org.geotools.geometry.Position2D;
-import org.geotools.referencing.crs.DefaultGeographicCRS;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 import org.locationtech.proj4j.CoordinateReferenceSystem;
@@ -23,8 +21,7 @@ import java.util.List;
 @Slf4j
 @AllArgsConstructor
 public class GaiaTranslationForPhotogrammetry implements PreProcess {
-    private final List<GridCoverage2D> terrains;
-    private final List<GridCoverage2D> geoids;
+    private final HeightSampler heightSampler;
 
     @Override
     public TileInfo run(TileInfo tileInfo) {
@@ -131,18 +128,24 @@ public class GaiaTranslationForPhotogrammetry implements PreProcess {
                     for (GaiaPrimitive primitive : primitives) {
                         List<GaiaVertex> vertices = primitive.getVertices();
                         if (vertices != null && !vertices.isEmpty()) {
-                            for (GaiaVertex vertex : vertices) {
-                                Vector3d pos = new Vector3d(vertex.getPosition());
+                            int vertexCount = vertices.size();
+                            double[] positions = new double[vertexCount * 3];
+                            Vector3d pos = new Vector3d();
+                            for (int i = 0; i < vertexCount; i++) {
+                                pos.set(vertices.get(i).getPosition());
                                 pos.add(offset);
                                 transformMatrix.transformPosition(pos); // CRS coords
+                                positions[i * 3] = pos.x;
+                                positions[i * 3 + 1] = pos.y;
+                                positions[i * 3 + 2] = pos.z;
+                            }
 
-                                // calculate the geoCoords of the "pos"
-                                ProjCoordinate vertexSource = new ProjCoordinate(pos.x, pos.y, pos.z);
-                                ProjCoordinate vertexWgs84 = GlobeUtils.transform(crs, vertexSource);
+                            // calculate the geoCoords of the positions and their posWC in one pass
+                            CoordinateTransformService.getInstance().transformToCartesianWgs84(crs, positions, vertexCount);
 
-                                // calculate the posWC of the "vertexWgs84"
-                                double[] posWC = GlobeUtils.geographicToCartesianWgs84(vertexWgs84.x, vertexWgs84.y, vertexSource.z);
-                                Vector3d posWCVector = new Vector3d(posWC[0], posWC[1], posWC[2]);
+                            for (int i = 0; i < vertexCount; i++) {
+                                GaiaVertex vertex = vertices.get(i);
+                                Vector3d posWCVector = new Vector3d(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]);
                                 Vector3d posLC = globalTMatrixInv.transformPosition(posWCVector);
 
                                 resultBBoxLC.addPoint(posLC);
@@ -228,50 +231,6 @@ public class GaiaTranslationForPhotogrammetry implements PreProcess {
     }
 
     private double getTerrainHeightFromCartographic(Vector3d cartographic) {
-        Vector3d center = new Vector3d(cartographic.x, cartographic.y, 0.0);
-        Position position = new Position2D(DefaultGeographicCRS.WGS84, center.x, center.y);
-        double resultHeight = 0.0d;
-        if (terrains != null && !terrains.isEmpty()) {
-            for (GridCoverage2D coverage : terrains) {
-                double[] altitude = new double[1];
-                altitude[0] = 0.0d;
-
-                try {
-                    coverage.evaluate(position, altitude);
-                } catch (Exception e) {
-                    log.debug("[DEBUG] Failed to load terrain height. Out of range");
-                }
-
-                if (Double.isInfinite(altitude[0])) {
-                    log.debug("[DEBUG] Failed to load terrain height. Infinite value encountered");
-                } else if (Double.isNaN(altitude[0])) {
-                    log.debug("[DEBUG] Failed to load terrain height. NaN value encountered");
-                } else {
-                    resultHeight += altitude[0];
-                }
-            }
-        }
-
-        if (geoids != null && !geoids.isEmpty()) {
-            for (GridCoverage2D coverage : geoids) {
-                double[] geoidHeight = new double[1];
-                geoidHeight[0] = 0.0d;
-
-                try {
-                    coverage.evaluate(position, geoidHeight);
-                } catch (Exception e) {
-                    log.debug("[DEBUG] Failed to load geoid height. Out of range");
-                }
-
-                if (Double.isInfinite(geoidHeight[0])) {
-                    log.debug("[DEBUG] Failed to load geoid height. Infinite value encountered");
-                } else if (Double.isNaN(geoidHeight[0])) {
-                    log.debug("[DEBUG] Failed to load geoid height. NaN value encountered");
-                } else {
-                    resultHeight += geoidHeight[0];
-                }
-            }
-        }
-        return resultHeight;
+        return heightSampler.sample(cartographic.x, cartographic.y);
     }
 }
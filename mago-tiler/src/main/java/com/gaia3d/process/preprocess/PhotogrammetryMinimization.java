@@ -5,6 +5,7 @@ import com.gaia3d.basic.geometry.modifier.topology.GaiaSceneCleaner;
 import com.gaia3d.basic.geometry.modifier.topology.GaiaWelder;
 import com.gaia3d.basic.geometry.modifier.topology.GaiaWeldOptions;
 import com.gaia3d.basic.model.GaiaScene;
+import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.process.tileprocess.tile.TileInfo;
 import lombok.extern.slf4j.Slf4j;
 
@@ -40,7 +41,7 @@ public class PhotogrammetryMinimization implements PreProcess {
             log.info("[Pre][Photogrammetry] Minimize GaiaScene LOD 0 , Path : {}", tileInfo.getTempPath());
 
             GaiaSet tempSetLod0 = GaiaSet.fromGaiaScene(scene);
-            Path tempPathLod0 = tempSetLod0.writeFile(tileInfo.getTempPath(), tileInfo.getSerial());
+            Path tempPathLod0 = tempSetLod0.writeFile(tileInfo.getTempPath(), tileInfo.getSerial(), GlobalOptions.getInstance().getTempFormat());
             tileInfo.setTempPath(tempPathLod0);
             tempSetLod0.clear();
             tempSetLod0 = null;
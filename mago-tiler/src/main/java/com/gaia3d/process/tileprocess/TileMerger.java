@@ -6,6 +6,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV2;
 import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
@@ -74,7 +75,7 @@ public class TileMerger {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
 
         try {
-            objectMapper.writeValue(tilesetPath, tileset);
+            TilesetWriter.of(objectMapper).write(tileset, tilesetPath);
             log.info("[Merge] Tileset.json is written to {}", tilesetPath);
         } catch (IOException e) {
             log.error("[ERROR] Failed to write tileset.json.", e);
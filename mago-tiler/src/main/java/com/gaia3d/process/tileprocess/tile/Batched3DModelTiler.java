@@ -10,33 +10,47 @@ import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.process.tileprocess.Tiler;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.implicit.ImplicitTileCoordinate;
+import com.gaia3d.process.tileprocess.tile.tileset.implicit.ImplicitTilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Content;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
 import com.gaia3d.util.DecimalUtils;
+import com.gaia3d.util.SpaceFillingCurveUtils;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 import org.locationtech.proj4j.CoordinateReferenceSystem;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @SuppressWarnings("ALL")
 @Slf4j
 @NoArgsConstructor
 public class Batched3DModelTiler extends DefaultTiler implements Tiler {
+    /* Children per logical node of the bulk packed tree, same as the quadrants of distributeScene */
+    static final int BULK_FAN_OUT = 4;
+    /* Hilbert grid order, the keys stay under 2^30 so the object index fits in the lower 32 bits */
+    private static final int HILBERT_ORDER = 15;
 
     public final GlobalOptions globalOptions = GlobalOptions.getInstance();
+    /* Bounding volume of the implicit root tile, the quadrants of every level are halves of it */
+    private BoundingVolume implicitRootVolume;
 
     @Override
     public Tileset run(List<TileInfo> tileInfos) {
@@ -65,7 +79,14 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
         root.setGeometricError(geometricError);
 
         try {
-            createNode(root, tileInfos, 0);
+            if (globalOptions.isImplicitTiling()) {
+                implicitRootVolume = root.getBoundingVolume();
+                createImplicitNode(root, tileInfos, 0);
+            } else if (globalOptions.isBulkTiling()) {
+                createBulkNodes(root, tileInfos);
+            } else {
+                createNode(root, tileInfos, 0);
+            }
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new RuntimeException(e);
@@ -104,6 +125,12 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
         }
 
         Path outputPath = new File(globalOptions.getOutputPath()).toPath();
+        if (globalOptions.isImplicitTiling()) {
+            ImplicitTilesetWriter implicitTilesetWriter = new ImplicitTilesetWriter(ImplicitTilesetWriter.DEFAULT_SUBTREE_LEVELS);
+            File tilesetFile = implicitTilesetWriter.write(tileset, outputPath);
+            globalOptions.setTilesetSize(tilesetFile.length());
+            return;
+        }
         File tilesetFile = outputPath.resolve("tileset.json").toFile();
         ObjectMapper objectMapper = new ObjectMapper();
         if (!globalOptions.isDebug()) {
@@ -112,11 +139,10 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tilesetFile))) {
-            String result = objectMapper.writeValueAsString(tileset);
+        try {
             log.info("[Tile][Tileset] write 'tileset.json' file.");
-            writer.write(result);
-            globalOptions.setTilesetSize(result.length());
+            long tilesetSize = TilesetWriter.of(objectMapper).write(tileset, tilesetFile);
+            globalOptions.setTilesetSize(tilesetSize);
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new TileProcessingException(e.getMessage());
@@ -192,28 +218,287 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
         }
     }
 
+    /**
+     * Implicit tiling variant of createNode, the objects are split by the exact quadrants of the implicit tile
+     * (not of their own bounds) and the index of a child is the Morton index of its quadrant,
+     * so every node code maps to a level and x, y of the quadtree.
+     */
+    private void createImplicitNode(Node parentNode, List<TileInfo> tileInfos, int nodeDepth) throws IOException {
+        boolean refineAdd = globalOptions.isRefineAdd();
+        long triangleLimit = globalOptions.getMaxTriangles();
+        long totalTriangleCount = tileInfos.stream().mapToLong(TileInfo::getTriangleCount).sum();
+        List<List<TileInfo>> childrenScenes = distributeImplicitScene(parentNode, tileInfos);
+        if (nodeDepth > globalOptions.getMaxNodeDepth()) {
+            log.warn("[WARN][Tile] Node depth limit exceeded : {}", nodeDepth);
+            for (int index = 0; index < childrenScenes.size(); index++) {
+                Node childNode = createContentNode(parentNode, childrenScenes.get(index), index);
+                if (childNode != null) {
+                    parentNode.getChildren().add(childNode);
+                }
+            }
+            return;
+        }
+
+        boolean isLogical = tileInfos.size() > 1 && totalTriangleCount > triangleLimit;
+        for (int index = 0; index < childrenScenes.size(); index++) {
+            List<TileInfo> childTileInfos = childrenScenes.get(index);
+            if (isLogical) {
+                Node childNode = createLogicalNode(parentNode, childTileInfos, index);
+                if (childNode != null) {
+                    parentNode.getChildren().add(childNode);
+                    createImplicitNode(childNode, childTileInfos, nodeDepth + 1);
+                }
+            } else {
+                Node childNode = createContentNode(parentNode, childTileInfos, index);
+                if (childNode != null) {
+                    parentNode.getChildren().add(childNode);
+                    Content content = childNode.getContent();
+                    if (content != null && refineAdd) {
+                        ContentInfo contentInfo = content.getContentInfo();
+                        createImplicitNode(childNode, contentInfo.getRemainTileInfos(), nodeDepth + 1);
+                    } else {
+                        createImplicitNode(childNode, childTileInfos, nodeDepth + 1);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Splits the objects by the quadrant of the implicit tile of the node containing their center,
+     * the list index is the Morton index of the quadrant (x in bit 0, y in bit 1).
+     * An object may stick out of its quadrant, the bounding volumes of the nodes cover their objects
+     * and are written as tile metadata by the ImplicitTilesetWriter.
+     */
+    private List<List<TileInfo>> distributeImplicitScene(Node parentNode, List<TileInfo> tileInfos) {
+        List<List<TileInfo>> result = new ArrayList<>();
+        for (int quadrant = 0; quadrant < 4; quadrant++) {
+            result.add(new ArrayList<>());
+        }
+        ImplicitTileCoordinate coordinate = ImplicitTileCoordinate.fromNodeCode(parentNode.getNodeCode());
+        double minX;
+        double minY;
+        double sizeX;
+        double sizeY;
+        boolean isCartesian = isCartesianCrs();
+        if (isCartesian) {
+            double[] box = implicitRootVolume.getBox();
+            minX = box[0] - box[3];
+            minY = box[1] - box[7];
+            sizeX = box[3] * 2;
+            sizeY = box[7] * 2;
+        } else {
+            double[] region = implicitRootVolume.getRegion();
+            minX = region[0];
+            minY = region[1];
+            sizeX = region[2] - region[0];
+            sizeY = region[3] - region[1];
+        }
+        double tileCount = 1L << coordinate.level();
+        double midX = minX + sizeX * (coordinate.x() + 0.5) / tileCount;
+        double midY = minY + sizeY * (coordinate.y() + 0.5) / tileCount;
+        for (TileInfo tileInfo : tileInfos) {
+            Vector3d center;
+            if (isCartesian) {
+                center = calcCartesianBoundingBox(tileInfo).getCenter();
+            } else {
+                // the region is in radians
+                center = calcCartographicBoundingBox(tileInfo).getCenter();
+                center.set(Math.toRadians(center.x), Math.toRadians(center.y), center.z);
+            }
+            int quadrant = (center.x < midX ? 0 : 1) | (center.y < midY ? 0 : 2);
+            result.get(quadrant).add(tileInfo);
+        }
+        return result;
+    }
+
+    /**
+     * Builds the logical nodes bottom-up instead of splitting the objects by quadrants at each depth.
+     * The tile bounds of the objects are computed once, the objects are sorted by the Hilbert key of their centers
+     * and consecutive objects are packed into leaves under the maximum triangle count.
+     * The leaves are grouped by BULK_FAN_OUT per level up to the root, so the tree is balanced,
+     * and the content nodes under the leaves are created in parallel.
+     */
+    private void createBulkNodes(Node root, List<TileInfo> tileInfos) throws IOException {
+        int objectCount = tileInfos.size();
+        long triangleLimit = globalOptions.getMaxTriangles();
+        boolean isCartesian = isCartesianCrs();
+
+        double[] bounds = new double[objectCount * 6];
+        long[] triangleCounts = new long[objectCount];
+        double[] geometricErrors = new double[objectCount];
+        IntStream.range(0, objectCount).parallel().forEach(index -> {
+            TileInfo tileInfo = tileInfos.get(index);
+            GaiaBoundingBox boundingBox = isCartesian ? calcCartesianBoundingBox(tileInfo) : calcCartographicBoundingBox(tileInfo);
+            int offset = index * 6;
+            bounds[offset] = boundingBox.getMinX();
+            bounds[offset + 1] = boundingBox.getMinY();
+            bounds[offset + 2] = boundingBox.getMinZ();
+            bounds[offset + 3] = boundingBox.getMaxX();
+            bounds[offset + 4] = boundingBox.getMaxY();
+            bounds[offset + 5] = boundingBox.getMaxZ();
+            triangleCounts[index] = tileInfo.getTriangleCount();
+            geometricErrors[index] = tileInfo.getBoundingBox().getLongestDistance();
+        });
+
+        long totalTriangleCount = Arrays.stream(triangleCounts).sum();
+        if (objectCount <= 1 || totalTriangleCount <= triangleLimit) {
+            createNode(root, tileInfos, 0);
+            return;
+        }
+
+        int[] order = sortByHilbertKey(bounds, objectCount);
+        List<PackedNode> level = packBulkNodes(order, bounds, triangleCounts, geometricErrors, triangleLimit);
+
+        List<BulkLeaf> bulkLeaves = new ArrayList<>();
+        for (int index = 0; index < level.size(); index++) {
+            createBulkNode(root, level.get(index), index, 1, tileInfos, order, bulkLeaves);
+        }
+
+        int threadCount = Math.max(1, globalOptions.getMultiThreadCount());
+        ForkJoinPool tilingPool = new ForkJoinPool(threadCount);
+        try {
+            tilingPool.submit(() -> bulkLeaves.parallelStream().forEach(bulkLeaf -> {
+                try {
+                    createNode(bulkLeaf.node(), bulkLeaf.tileInfos(), bulkLeaf.nodeDepth());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof UncheckedIOException uncheckedIOException) {
+                throw uncheckedIOException.getCause();
+            }
+            throw new RuntimeException(e.getCause());
+        } finally {
+            tilingPool.shutdown();
+        }
+    }
+
+    /**
+     * Packs the objects in the given order into leaves under the triangle limit
+     * and groups the leaves by BULK_FAN_OUT per level, returns the top level of at most BULK_FAN_OUT nodes.
+     */
+    static List<PackedNode> packBulkNodes(int[] order, double[] bounds, long[] triangleCounts, double[] geometricErrors, long triangleLimit) {
+        // leaves, consecutive objects of the curve under the triangle limit
+        List<PackedNode> level = new ArrayList<>();
+        PackedNode leaf = null;
+        for (int position = 0; position < order.length; position++) {
+            int index = order[position];
+            if (leaf != null && leaf.triangleCount + triangleCounts[index] > triangleLimit) {
+                level.add(leaf);
+                leaf = null;
+            }
+            if (leaf == null) {
+                leaf = new PackedNode(position);
+            }
+            leaf.addObject(bounds, index, triangleCounts[index], geometricErrors[index]);
+        }
+        if (leaf != null) {
+            level.add(leaf);
+        }
+        log.info("[Tile][BulkNode] Packed {} objects into {} leaves.", order.length, level.size());
+
+        // upper levels, BULK_FAN_OUT consecutive nodes per parent
+        while (level.size() > BULK_FAN_OUT) {
+            List<PackedNode> parentLevel = new ArrayList<>();
+            for (int start = 0; start < level.size(); start += BULK_FAN_OUT) {
+                List<PackedNode> children = level.subList(start, Math.min(start + BULK_FAN_OUT, level.size()));
+                PackedNode parent = new PackedNode(children.get(0).start);
+                children.forEach(parent::addChild);
+                parentLevel.add(parent);
+            }
+            level = parentLevel;
+        }
+        return level;
+    }
+
+    private void createBulkNode(Node parentNode, PackedNode packedNode, int index, int nodeDepth, List<TileInfo> tileInfos, int[] order, List<BulkLeaf> bulkLeaves) {
+        double geometricError = clampGeometricError(packedNode.maxGeometricError);
+        Node childNode = createLogicalNode(parentNode, packedNode.boundingBox, geometricError, index, packedNode.objectCount());
+        parentNode.getChildren().add(childNode);
+        if (packedNode.children.isEmpty()) {
+            List<TileInfo> leafTileInfos = new ArrayList<>(packedNode.objectCount());
+            for (int position = packedNode.start; position < packedNode.end; position++) {
+                leafTileInfos.add(tileInfos.get(order[position]));
+            }
+            bulkLeaves.add(new BulkLeaf(childNode, leafTileInfos, nodeDepth));
+        } else {
+            for (int childIndex = 0; childIndex < packedNode.children.size(); childIndex++) {
+                createBulkNode(childNode, packedNode.children.get(childIndex), childIndex, nodeDepth + 1, tileInfos, order, bulkLeaves);
+            }
+        }
+    }
+
+    /**
+     * Object indices ordered by the Hilbert key of their XY centers in the grid over all centers.
+     */
+    static int[] sortByHilbertKey(double[] bounds, int objectCount) {
+        double minX = Double.MAX_VALUE;
+        double minY = Double.MAX_VALUE;
+        double maxX = -Double.MAX_VALUE;
+        double maxY = -Double.MAX_VALUE;
+        for (int index = 0; index < objectCount; index++) {
+            int offset = index * 6;
+            double centerX = (bounds[offset] + bounds[offset + 3]) * 0.5;
+            double centerY = (bounds[offset + 1] + bounds[offset + 4]) * 0.5;
+            minX = Math.min(minX, centerX);
+            minY = Math.min(minY, centerY);
+            maxX = Math.max(maxX, centerX);
+            maxY = Math.max(maxY, centerY);
+        }
+        int cellCount = (1 << HILBERT_ORDER) - 1;
+        double scaleX = maxX > minX ? cellCount / (maxX - minX) : 0.0d;
+        double scaleY = maxY > minY ? cellCount / (maxY - minY) : 0.0d;
+        double originX = minX;
+        double originY = minY;
+
+        long[] keys = new long[objectCount];
+        IntStream.range(0, objectCount).parallel().forEach(index -> {
+            int offset = index * 6;
+            double centerX = (bounds[offset] + bounds[offset + 3]) * 0.5;
+            double centerY = (bounds[offset + 1] + bounds[offset + 4]) * 0.5;
+            int cellX = (int) ((centerX - originX) * scaleX);
+            int cellY = (int) ((centerY - originY) * scaleY);
+            keys[index] = (SpaceFillingCurveUtils.hilbertIndex(HILBERT_ORDER, cellX, cellY) << 32) | index;
+        });
+        Arrays.parallelSort(keys);
+
+        int[] order = new int[objectCount];
+        for (int position = 0; position < objectCount; position++) {
+            order[position] = (int) keys[position];
+        }
+        return order;
+    }
+
+    private boolean isCartesianCrs() {
+        CoordinateReferenceSystem sourceCrs = globalOptions.getSourceCrs();
+        return sourceCrs != null && sourceCrs.getName().equals("EPSG:4978");
+    }
+
     private Node createLogicalNode(Node parentNode, List<TileInfo> tileInfos, int index) {
         if (tileInfos.isEmpty()) {
             return null;
         }
+        double geometricError = calcGeometricError(tileInfos);
+        GaiaBoundingBox boundingBox = isCartesianCrs() ? calcCartesianBoundingBox(tileInfos) : calcCartographicBoundingBox(tileInfos);
+        return createLogicalNode(parentNode, boundingBox, geometricError, index, tileInfos.size());
+    }
+
+    private Node createLogicalNode(Node parentNode, GaiaBoundingBox boundingBox, double geometricError, int index, int objectCount) {
         String nodeCode = parentNode.getNodeCode();
         nodeCode = nodeCode + index;
-        log.info("[Tile][LogicalNode][" + nodeCode + "][OBJECT{}]", tileInfos.size());
-
-        double geometricError = calcGeometricError(tileInfos);
+        log.info("[Tile][LogicalNode][" + nodeCode + "][OBJECT{}]", objectCount);
 
         BoundingVolume boundingVolume;
-        GaiaBoundingBox boundingBox = null;
         Matrix4d transformMatrix = null;
-
-        Node root = createRoot();
-        CoordinateReferenceSystem sourceCrs = globalOptions.getSourceCrs();
-        if (sourceCrs != null && sourceCrs.getName().equals("EPSG:4978")) {
-            boundingBox = calcCartesianBoundingBox(tileInfos);
+        if (isCartesianCrs()) {
             transformMatrix = getTransformMatrixFromCartesian(boundingBox);
             boundingVolume = new BoundingVolume(boundingBox, BoundingVolume.BoundingVolumeType.BOX);
         } else {
-            boundingBox = calcCartographicBoundingBox(tileInfos);
             transformMatrix = getTransformMatrixFromCartographic(boundingBox);
             boundingVolume = new BoundingVolume(boundingBox, BoundingVolume.BoundingVolumeType.REGION);
         }
@@ -320,18 +605,22 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
             contentInfo.setLod(lod);
             contentInfo.setBoundingBox(boundingBox);
             contentInfo.setNodeCode(nodeCode);
+            if (globalOptions.isImplicitTiling()) {
+                contentInfo.setContentPath(ImplicitTileCoordinate.fromNodeCode(nodeCode).toPath());
+            }
             contentInfo.setTileInfos(resultInfos);
             contentInfo.setRemainTileInfos(remainInfos);
             contentInfo.setTransformMatrix(transformMatrix);
 
             Content content = new Content();
             if (globalOptions.getTilesVersion().equals("1.0")) {
-                content.setUri("data/" + nodeCode + ".b3dm");
+                content.setUri("data/" + contentInfo.getContentPath() + ".b3dm");
             } else {
-                content.setUri("data/" + nodeCode + ".glb");
+                content.setUri("data/" + contentInfo.getContentPath() + ".glb");
             }
             content.setContentInfo(contentInfo);
             childNode.setContent(content);
+            publishContent(contentInfo);
         } else {
             log.debug("[Tile][ContentNode][{}] No Contents", nodeCode);
         }
@@ -353,4 +642,46 @@ public class Batched3DModelTiler extends DefaultTiler implements Tiler {
             return maxLod;
         }
     }
+
+    /**
+     * Node of the bulk packed tree, covering the objects at [start, end) of the Hilbert order.
+     */
+    @Getter
+    static class PackedNode {
+        private final GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+        private final List<PackedNode> children = new ArrayList<>();
+        private final int start;
+        private int end;
+        private long triangleCount = 0;
+        private double maxGeometricError = 0.0d;
+
+        private PackedNode(int start) {
+            this.start = start;
+            this.end = start;
+        }
+
+        private int objectCount() {
+            return end - start;
+        }
+
+        private void addObject(double[] bounds, int index, long objectTriangleCount, double geometricError) {
+            int offset = index * 6;
+            boundingBox.addPoint(bounds[offset], bounds[offset + 1], bounds[offset + 2]);
+            boundingBox.addPoint(bounds[offset + 3], bounds[offset + 4], bounds[offset + 5]);
+            triangleCount += objectTriangleCount;
+            maxGeometricError = Math.max(maxGeometricError, geometricError);
+            end++;
+        }
+
+        private void addChild(PackedNode child) {
+            children.add(child);
+            boundingBox.addBoundingBox(child.boundingBox);
+            triangleCount += child.triangleCount;
+            maxGeometricError = Math.max(maxGeometricError, child.maxGeometricError);
+            end = child.end;
+        }
+    }
+
+    private record BulkLeaf(Node node, List<TileInfo> tileInfos, int nodeDepth) {
+    }
 }
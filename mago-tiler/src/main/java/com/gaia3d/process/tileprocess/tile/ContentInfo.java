@@ -16,6 +16,8 @@ import java.util.List;
 public class ContentInfo {
     private String name;
     private String nodeCode;
+    /* Path of the content file under the data directory without the extension, the node code unless set */
+    private String contentPath;
     private LevelOfDetail lod;
     private List<TileInfo> tileInfos;
     private List<TileInfo> tempTileInfos;
@@ -24,6 +26,10 @@ public class ContentInfo {
     private GaiaSet batchedSet;
     private Matrix4d transformMatrix;
 
+    public String getContentPath() {
+        return contentPath != null ? contentPath : nodeCode;
+    }
+
     public void deleteTexture() {
         for (TileInfo tileInfo : tileInfos) {
             GaiaSet set = tileInfo.getSet();
@@ -8,64 +8,86 @@ import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.converter.kml.TileTransformInfo;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
 import com.gaia3d.util.GlobeUtils;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 @Slf4j
 public abstract class DefaultTiler {
 
+    /* Receives content infos as soon as their tile infos are assigned (streaming mode) */
+    @Setter
+    protected Consumer<ContentInfo> contentConsumer;
+
+    /**
+     * Publishes a content node to the streaming post-process.
+     * A content has to be published before the contents of its children (pre-order),
+     * the pipeline starts the post-processes in publish order, so parents are still processed before their children.
+     */
+    protected void publishContent(ContentInfo contentInfo) {
+        if (contentConsumer != null) {
+            contentConsumer.accept(contentInfo);
+        }
+    }
+
     protected double calcGeometricError(List<TileInfo> tileInfos) {
-        GlobalOptions globalOptions = GlobalOptions.getInstance();
-        double minimumGeometricError = globalOptions.getMinGeometricError();
-        double maximumGeometricError = globalOptions.getMaxGeometricError();
         double calculatedGeometricError = tileInfos.stream().mapToDouble(tileInfo -> {
             GaiaBoundingBox boundingBox = tileInfo.getBoundingBox();
             return boundingBox.getLongestDistance();
         }).max().orElse(0.0d);
+        return clampGeometricError(calculatedGeometricError);
+    }
+
+    protected double clampGeometricError(double calculatedGeometricError) {
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        double minimumGeometricError = globalOptions.getMinGeometricError();
+        double maximumGeometricError = globalOptions.getMaxGeometricError();
         return Math.min(Math.max(minimumGeometricError, calculatedGeometricError), maximumGeometricError);
     }
 
     protected GaiaBoundingBox calcCartographicBoundingBox(List<TileInfo> tileInfos) {
         GaiaBoundingBox boundingBox = new GaiaBoundingBox();
-        tileInfos.forEach(tileInfo -> {
-            TileTransformInfo tileTransformInfo = tileInfo.getTileTransformInfo();
-            Vector3d position = tileTransformInfo.getPosition();
-            GaiaBoundingBox localBoundingBox = tileInfo.getBoundingBox();
-            // rotate
-            localBoundingBox = localBoundingBox.convertLocalToLonlatBoundingBox(position);
-            boundingBox.addBoundingBox(localBoundingBox);
-        });
+        tileInfos.forEach(tileInfo -> boundingBox.addBoundingBox(calcCartographicBoundingBox(tileInfo)));
         return boundingBox;
     }
 
+    protected GaiaBoundingBox calcCartographicBoundingBox(TileInfo tileInfo) {
+        TileTransformInfo tileTransformInfo = tileInfo.getTileTransformInfo();
+        Vector3d position = tileTransformInfo.getPosition();
+        GaiaBoundingBox localBoundingBox = tileInfo.getBoundingBox();
+        // rotate
+        return localBoundingBox.convertLocalToLonlatBoundingBox(position);
+    }
+
     protected GaiaBoundingBox calcCartesianBoundingBox(List<TileInfo> tileInfos) {
         GaiaBoundingBox boundingBox = new GaiaBoundingBox();
-        tileInfos.forEach(tileInfo -> {
-            TileTransformInfo tileTransformInfo = tileInfo.getTileTransformInfo();
-            Vector3d cartesian = tileTransformInfo.getPosition();
-            //Vector3d cartesian = GlobeUtils.cartesianToGeographicWgs84(cartographic);
-
-            Matrix4d transformMatrix = new Matrix4d().identity();
-            transformMatrix.setTranslation(cartesian);
-            GaiaBoundingBox localBoundingBox = tileInfo.getBoundingBox();
-            localBoundingBox = localBoundingBox.multiplyMatrix4d(transformMatrix);
-            boundingBox.addBoundingBox(localBoundingBox);
-        });
+        tileInfos.forEach(tileInfo -> boundingBox.addBoundingBox(calcCartesianBoundingBox(tileInfo)));
         return boundingBox;
     }
 
+    protected GaiaBoundingBox calcCartesianBoundingBox(TileInfo tileInfo) {
+        TileTransformInfo tileTransformInfo = tileInfo.getTileTransformInfo();
+        Vector3d cartesian = tileTransformInfo.getPosition();
+        //Vector3d cartesian = GlobeUtils.cartesianToGeographicWgs84(cartographic);
+
+        Matrix4d transformMatrix = new Matrix4d().identity();
+        transformMatrix.setTranslation(cartesian);
+        GaiaBoundingBox localBoundingBox = tileInfo.getBoundingBox();
+        return localBoundingBox.multiplyMatrix4d(transformMatrix);
+    }
+
     protected void rotateX90(Matrix4d matrix) {
         Matrix4d rotationMatrix = new Matrix4d();
         rotationMatrix.identity();
@@ -123,11 +145,9 @@ public abstract class DefaultTiler {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tilesetFile))) {
-            String result = objectMapper.writeValueAsString(tileset);
+        try {
             log.info("[Tile][Tileset] write 'tileset.json' file.");
-            writer.write(result);
-            //globalOptions.setTilesetSize(result.length());
+            TilesetWriter.of(objectMapper).write(tileset, tilesetFile);
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new TileProcessingException(e.getMessage());
@@ -11,6 +11,7 @@ import com.gaia3d.command.mago.GlobalOptions;
 import com.gaia3d.process.tileprocess.Tiler;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV2;
 import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
@@ -21,9 +22,7 @@ import lombok.NoArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4d;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -109,11 +108,10 @@ public class Instanced3DModelTiler extends DefaultTiler implements Tiler {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tilesetFile))) {
-            String result = objectMapper.writeValueAsString(tileset);
+        try {
             log.info("[Tile][Tileset] write 'tileset.json' file.");
-            writer.write(result);
-            globalOptions.setTilesetSize(result.length());
+            long tilesetSize = TilesetWriter.of(objectMapper).write(tileset, tilesetFile);
+            globalOptions.setTilesetSize(tilesetSize);
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new TileProcessingException(e.getMessage());
@@ -331,6 +329,7 @@ public class Instanced3DModelTiler extends DefaultTiler implements Tiler {
             }
             content.setContentInfo(contentInfo);
             childNode.setContent(content);
+            publishContent(contentInfo);
         } else {
             log.warn("[WARN][Tile][ContentNode][{}] No content", nodeCode);
         }
@@ -30,6 +30,7 @@ import com.gaia3d.converter.kml.TileTransformInfo;
 import com.gaia3d.process.tileprocess.Tiler;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV2;
 import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
@@ -153,6 +154,13 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
                 screenPixelsForMeter = screenPixelsForMeterLod1 / 4.0;
             }
 
+            if (globalOptions.isQuadricDecimation()) {
+                // single pass collapses down to a fraction of the triangles, bounded by the hedge length of the lod
+                decimateParameters.setDecimateType(DecimateType.QUADRIC);
+                decimateParameters.setTargetTriangleRatio(1.0 / Math.pow(2.0, Math.min(d, 3)));
+                decimateParameters.setMaxQuadricError(decimateParameters.getHedgeMinLength());
+            }
+
             // decimate and cut scenes
             decimateParameters.setLod(d);
             currDepth = projectMaxDepthIdx - lod;
@@ -166,6 +174,7 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
         }
 
         // net surfaces with boxTextures
+        decimateParameters.setDecimateType(DecimateType.ANGLE_LENGTH);
         ReMeshParameters reMeshParams = new ReMeshParameters();
         for (int d = 3; d <= projectMaxDepthIdx; d++) {
             lod = d;
@@ -800,7 +809,7 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
             GaiaScene gaiaScene = HalfEdgeUtils.gaiaSceneFromHalfEdgeScene(halfEdgeScene);
             GaiaSet gaiaSet = GaiaSet.fromGaiaScene(gaiaScene);
             Path netSetPath = Paths.get(netSetFolderPathString, "netSet_nodeDepth_" + nodeDepth + "_" + i + ".tmp");
-            gaiaSet.writeFileInThePath(netSetPath);
+            gaiaSet.writeFileInThePath(netSetPath, globalOptions.getTempFormat());
 
             List<GaiaNode> gaiaNodes = gaiaScene.getNodes();
             for (GaiaNode gaiaNode : gaiaNodes) {
@@ -974,7 +983,7 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
                     log.debug("gaiaSetCut folder created.");
                 }
                 boolean copyTexturesToNewPath = false;
-                Path tempPathLod = gaiaSetCut.writeFileForPR(gaiaSetCutFolderPath, copyTexturesToNewPath);
+                Path tempPathLod = gaiaSetCut.writeFileForPR(gaiaSetCutFolderPath, copyTexturesToNewPath, globalOptions.getTempFormat());
 
                 // save material atlas textures
                 Path parentPath = gaiaSetCutFolderPath;
@@ -1182,7 +1191,7 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
             GaiaScene gaiaScene = HalfEdgeUtils.gaiaSceneFromHalfEdgeScene(halfEdgeScene);
             GaiaSet gaiaSet = GaiaSet.fromGaiaScene(gaiaScene);
             Path netSetPath = Paths.get(netSetFolderPathString + File.separator + "netSet_nodeDepth_" + nodeDepth + "_" + i + ".tmp");
-            gaiaSet.writeFileInThePath(netSetPath);
+            gaiaSet.writeFileInThePath(netSetPath, globalOptions.getTempFormat());
 
             List<GaiaNode> gaiaNodes = gaiaScene.getNodes();
             for (GaiaNode gaiaNode : gaiaNodes) {
@@ -1726,7 +1735,7 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
             }
 
             boolean copyTexturesToNewPath = false;
-            Path tempPathLod = gaiaSetCut.writeFileForPR(gaiaSetCutFolderPath, copyTexturesToNewPath);
+            Path tempPathLod = gaiaSetCut.writeFileForPR(gaiaSetCutFolderPath, copyTexturesToNewPath, globalOptions.getTempFormat());
 
             /// //////////////////////////////////////////////////////////////////////////////////////
 
@@ -1782,11 +1791,10 @@ public class PhotogrammetryTiler extends DefaultTiler implements Tiler {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         //objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         //objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tilesetFile))) {
-            String result = objectMapper.writeValueAsString(tileset);
+        try {
             log.info("[Tile][Tileset] write 'tileset.json' file.");
-            writer.write(result);
-            globalOptions.setTilesetSize(result.length());
+            long tilesetSize = TilesetWriter.of(objectMapper).write(tileset, tilesetFile);
+            globalOptions.setTilesetSize(tilesetSize);
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new TileProcessingException(e.getMessage());
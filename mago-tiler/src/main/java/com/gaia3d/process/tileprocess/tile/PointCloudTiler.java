@@ -7,36 +7,51 @@ import com.gaia3d.basic.exception.TileProcessingException;
 import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.basic.types.LevelOfDetail;
 import com.gaia3d.command.mago.GlobalOptions;
-import com.gaia3d.converter.pointcloud.GaiaLasPoint;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
 import com.gaia3d.converter.pointcloud.GaiaPointCloud;
 import com.gaia3d.process.tileprocess.Tiler;
 import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
 import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV2;
 import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Content;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
 import com.gaia3d.util.GlobeUtils;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4d;
 import org.joml.Vector3d;
 
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
 
 @Slf4j
-@RequiredArgsConstructor
 public class PointCloudTiler extends DefaultTiler implements Tiler {
     private final int MAXIMUM_DEPTH = 20;
     private final float POINT_EXPANSION_FACTOR = 3.0f;
+    /* fraction of the heap that the octant copies of concurrent distributions may hold */
+    private static final int SUBTREE_MEMORY_FRACTION = 4;
+    /* number of points that may be copied into octants at the same time */
+    private final int budgetPoints;
     private GaiaBoundingBox globalFitBoundingBox = null;
+    private ForkJoinPool subtreePool = null;
+    private Semaphore subtreeBudget = null;
+
+    public PointCloudTiler() {
+        this(Runtime.getRuntime().maxMemory() / SUBTREE_MEMORY_FRACTION / GaiaPointBlock.BYTES_SIZE);
+    }
+
+    PointCloudTiler(long budgetPoints) {
+        this.budgetPoints = (int) Math.max(1, Math.min(Integer.MAX_VALUE, budgetPoints));
+    }
 
     @Override
     public Tileset run(List<TileInfo> tileInfos) {
@@ -108,11 +123,10 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
         objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(tilesetFile))) {
-            String result = objectMapper.writeValueAsString(tileset);
+        try {
             log.info("[Tile][Tileset] write 'tileset.json' file.");
-            writer.write(result);
-            globalOptions.setTilesetSize(result.length());
+            long tilesetSize = TilesetWriter.of(objectMapper).write(tileset, tilesetFile);
+            globalOptions.setTilesetSize(tilesetSize);
         } catch (IOException e) {
             log.error("[ERROR] :", e);
             throw new TileProcessingException(e.getMessage());
@@ -173,9 +187,23 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
         List<GaiaPointCloud> pointClouds = tileInfos.stream()
                 .map(TileInfo::getPointCloud)
                 .toList();
+        int rootPointLimit = globalOptions.getMaximumPointPerTile() / 32;
+        int threadCount = Math.max(1, globalOptions.getMultiThreadCount());
+        subtreeBudget = new Semaphore(budgetPoints);
+        subtreePool = new ForkJoinPool(threadCount);
+        log.info("[Tile] Building subtrees with {} threads, distribution point budget : {}", threadCount, budgetPoints);
+        try {
+            createRootNodes(parentNode, pointClouds, rootPointLimit);
+        } finally {
+            subtreePool.shutdown();
+            subtreePool = null;
+            subtreeBudget = null;
+        }
+    }
+
+    private void createRootNodes(Node parentNode, List<GaiaPointCloud> pointClouds, int rootPointLimit) {
         int index = 0;
         int maximumIndex = pointClouds.size();
-        int rootPointLimit = globalOptions.getMaximumPointPerTile() / 32;
         for (GaiaPointCloud pointCloud : pointClouds) {
             GaiaBoundingBox box = pointCloud.getGaiaBoundingBox();
             box = toCube(box);
@@ -184,12 +212,13 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
             log.info("[Tile][{}/{}] original Point Count : {}", (index + 1), maximumIndex, pointCloud.getPointCount());
             pointCloud.setCode((index++) + "");
             long chunkSize = pointCloud.CHUNK_SIZE;
-            long chunkPointCount = chunkSize / GaiaLasPoint.BYTES_SIZE;
+            long chunkPointCount = chunkSize / GaiaPointBlock.BYTES_SIZE;
             int chunkCount = pointCloud.getChunkCount(chunkSize);
             log.info("[Tile][{}/{}] Chunk Size : {} bytes, Chunk Capacity : {}, Chunk Total Count : {}", index, maximumIndex, chunkSize, chunkPointCount, chunkCount);
             long offset = 0;
 
             GaiaPointCloud rootTile = null;
+            int nodeIndex = index;
             for (int i = 0; i < chunkCount; i++) {
                 log.info("[Tile][{}/{}][Chunk {}/{}] Reading Chunk at Offset : {}", index, maximumIndex, (i + 1), chunkCount, offset);
                 GaiaPointCloud chunk = pointCloud.readChunk(chunkSize, offset);
@@ -197,11 +226,13 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
 
                 if (rootTile == null) {
                     log.info("[Tile][{}/{}][Chunk {}/{}] Creating Root Node", index, maximumIndex, (i + 1), chunkCount);
-                    rootTile = createNode(index, parentNode, null, chunk, rootPointLimit, 0);
+                    rootTile = subtreePool.invoke(ForkJoinTask.adapt(() -> createNode(nodeIndex, parentNode, null, chunk, rootPointLimit, 0)));
                 } else {
                     Node firstChildNode = parentNode.getChildren().getLast();
+                    GaiaPointCloud expandedTile = rootTile;
                     log.info("[Tile][{}/{}][Chunk {}/{}] Expanding Root Node", index, maximumIndex, (i + 1), chunkCount);
-                    expandNode(index, firstChildNode, rootTile, chunk, rootPointLimit, 0);
+                    Subtree created = subtreePool.invoke(ForkJoinTask.adapt(() -> expandNode(nodeIndex, firstChildNode, expandedTile, chunk, rootPointLimit, 0)));
+                    attachSubtree(firstChildNode, expandedTile, created);
                 }
 
                 //log.info("[Tile][{}/{}][{}/{}][Chunk {}/{}]", index, maximumIndex, index, maximumIndex, (i + 1), chunkCount);
@@ -245,7 +276,11 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
         }
     }
 
-    private void expandNode(int index, Node parentNode, GaiaPointCloud parent, GaiaPointCloud target, int pointLimit, int depth) {
+    /**
+     * Merges the target points into the existing subtree.
+     * Returns the new subtree when no node with the target code exists yet, the caller attaches it.
+     */
+    private Subtree expandNode(int index, Node parentNode, GaiaPointCloud parent, GaiaPointCloud target, int pointLimit, int depth) {
         GlobalOptions globalOptions = GlobalOptions.getInstance();
 
         Node currentNode = parentNode.getChildren().stream().filter(node -> node.getNodeCode().equals(parentNode.getNodeCode() + target.getCode()))
@@ -256,31 +291,28 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
                 .findFirst()
                 .orElse(null);
 
+        int newPointLimit = (int) (pointLimit * POINT_EXPANSION_FACTOR);
+        if (newPointLimit > globalOptions.getMaximumPointPerTile()) {
+            newPointLimit = globalOptions.getMaximumPointPerTile();
+        }
+        int newDepth = depth + 1;
+
         if (parent.getCode().equals("R") && target.getCode().equals("R")) {
-            currentNode = parentNode;
-            currentPointCloud = parent;
+            Node rootNode = parentNode;
             GaiaBoundingBox cubeBoundingBox = target.getGaiaBoundingBox();
             target.setGaiaBoundingBox(cubeBoundingBox);
-            List<GaiaPointCloud> distributes = target.distribute();
-
-            for (GaiaPointCloud distribute : distributes) {
-                if (distribute.getPointCount() < 1) {
-                    continue;
-                }
+            List<GaiaPointCloud> distributes = distributeInBudget(target);
 
-                int newPointLimit = (int) (pointLimit * POINT_EXPANSION_FACTOR);
-                if (newPointLimit > globalOptions.getMaximumPointPerTile()) {
-                    newPointLimit = globalOptions.getMaximumPointPerTile();
-                }
-
-                int newDepth = depth + 1;
+            int finalPointLimit = newPointLimit;
+            List<Subtree> created = buildSiblings(distributes, distribute -> {
                 if (newDepth < MAXIMUM_DEPTH) {
-                    expandNode(index, currentNode, currentPointCloud, distribute, newPointLimit, newDepth);
-                } else {
-                    log.warn("[warn] Maximum depth reached when expanding node: {}", currentNode.getNodeCode());
+                    return expandNode(index, rootNode, parent, distribute, finalPointLimit, newDepth);
                 }
-            }
-            return;
+                log.warn("[warn] Maximum depth reached when expanding node: {}", rootNode.getNodeCode());
+                return null;
+            });
+            created.forEach(subtree -> attachSubtree(rootNode, parent, subtree));
+            return null;
         }
 
         if ((currentNode == null) != (currentPointCloud == null)) {
@@ -288,82 +320,70 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
         }
 
         boolean hasMatchedNodeAndPointCloud = currentNode != null;
-        if (hasMatchedNodeAndPointCloud) {
-            GaiaBoundingBox cubeBoundingBox = currentPointCloud.getGaiaBoundingBox();
-            GaiaBoundingBox fitBoundingBox = calcFitBoundingBox(cubeBoundingBox);
-            double dimensionRatio = calcDimensionRatio(fitBoundingBox, cubeBoundingBox);
-            int chunkPointLimit = (int) (pointLimit * dimensionRatio);
-            if (chunkPointLimit < 1) {
-                chunkPointLimit = 1;
-            }
-
-            List<GaiaPointCloud> divided;
-            long remainPointCount = currentPointCloud.getLimitPointCount() - currentPointCloud.getPointCount();
-            GaiaPointCloud remainPointCloud = null;
-            if (remainPointCount > 0) {
-                divided = target.divideChunkSize((int) remainPointCount);
-                if (currentPointCloud.getLasPoints() == null || currentPointCloud.getLasPoints().isEmpty()) {
-                    currentPointCloud.maximize(true);
-                }
-                long currentPointCount = currentPointCloud.getPointCount();
+        if (!hasMatchedNodeAndPointCloud) {
+            return createSubtree(index, parentNode, parent, target, pointLimit, depth);
+        }
 
-                GaiaPointCloud newSelfPointCloud = divided.getFirst();
-                currentPointCloud.combine(newSelfPointCloud);
+        List<GaiaPointCloud> divided;
+        long remainPointCount = currentPointCloud.getLimitPointCount() - currentPointCloud.getPointCount();
+        GaiaPointCloud remainPointCloud = null;
+        if (remainPointCount > 0) {
+            divided = target.divideChunkSize((int) remainPointCount);
+            if (currentPointCloud.getPoints() == null || currentPointCloud.getPoints().isEmpty()) {
+                currentPointCloud.maximize(true);
+            }
+            long currentPointCount = currentPointCloud.getPointCount();
 
-                if (currentPointCount + newSelfPointCloud.getPointCount() != currentPointCloud.getPointCount()) {
-                    throw new TileProcessingException("Point count mismatch after combining point clouds.");
-                }
+            GaiaPointCloud newSelfPointCloud = divided.getFirst();
+            currentPointCloud.combine(newSelfPointCloud);
 
-                String tempSubPath = currentPointCloud.createFullCodePath();
-                File tempPath = new File(GlobalOptions.getInstance().getTempPath(), tempSubPath);
-                if (!tempPath.exists()) {
-                    boolean created = tempPath.mkdirs();
-                    if (!created) {
-                        log.error("[ERROR] :Failed to create temp directory: {}", tempPath.getAbsolutePath());
-                        throw new TileProcessingException("Failed to create temp directory: " + tempPath.getAbsolutePath());
-                    }
-                }
-                File tempFile = new File(tempPath, UUID.randomUUID().toString());
-                currentPointCloud.minimize(tempFile);
-                remainPointCloud = divided.getLast();
-            } else {
-                remainPointCloud = target;
+            if (currentPointCount + newSelfPointCloud.getPointCount() != currentPointCloud.getPointCount()) {
+                throw new TileProcessingException("Point count mismatch after combining point clouds.");
             }
 
-            if (remainPointCloud != null && remainPointCloud.getPointCount() > 0) {
-                List<GaiaPointCloud> distributes = remainPointCloud.distribute();
+            File tempFile = createTempFile(currentPointCloud);
+            currentPointCloud.minimize(tempFile);
+            remainPointCloud = divided.getLast();
+        } else {
+            remainPointCloud = target;
+        }
+
+        if (remainPointCloud != null && remainPointCloud.getPointCount() > 0) {
+            List<GaiaPointCloud> distributes = distributeInBudget(remainPointCloud);
 
-                long totalDistributedPoints = distributes.stream()
-                        .mapToLong(GaiaPointCloud::getPointCount)
-                        .sum();
-                if (totalDistributedPoints != remainPointCloud.getPointCount()) {
-                    throw new TileProcessingException("Point count mismatch after distributing point cloud.");
-                }
+            long totalDistributedPoints = distributes.stream()
+                    .mapToLong(GaiaPointCloud::getPointCount)
+                    .sum();
+            if (totalDistributedPoints != remainPointCloud.getPointCount()) {
+                throw new TileProcessingException("Point count mismatch after distributing point cloud.");
+            }
 
-                for (GaiaPointCloud distribute : distributes) {
-                    if (distribute.getPointCount() < 1) {
-                        continue;
-                    }
-
-                    int newPointLimit = (int) (pointLimit * POINT_EXPANSION_FACTOR);
-                    if (newPointLimit > globalOptions.getMaximumPointPerTile()) {
-                        newPointLimit = globalOptions.getMaximumPointPerTile();
-                    }
-
-                    int newDepth = depth + 1;
-                    if (newDepth < MAXIMUM_DEPTH) {
-                        expandNode(index, currentNode, currentPointCloud, distribute, newPointLimit, newDepth);
-                    } else {
-                        log.warn("[warn] Maximum depth reached when expanding node: {}", currentNode.getNodeCode());
-                    }
+            Node matchedNode = currentNode;
+            GaiaPointCloud matchedPointCloud = currentPointCloud;
+            int finalPointLimit = newPointLimit;
+            List<Subtree> created = buildSiblings(distributes, distribute -> {
+                if (newDepth < MAXIMUM_DEPTH) {
+                    return expandNode(index, matchedNode, matchedPointCloud, distribute, finalPointLimit, newDepth);
                 }
-            }
-        } else {
-            createNode(index, parentNode, parent, target, pointLimit, depth);
+                log.warn("[warn] Maximum depth reached when expanding node: {}", matchedNode.getNodeCode());
+                return null;
+            });
+            created.forEach(subtree -> attachSubtree(matchedNode, matchedPointCloud, subtree));
         }
+        return null;
     }
 
     private GaiaPointCloud createNode(int index, Node parentNode, GaiaPointCloud parent, GaiaPointCloud pointCloud, int pointLimit, int depth) {
+        Subtree subtree = createSubtree(index, parentNode, parent, pointCloud, pointLimit, depth);
+        attachSubtree(parentNode, parent, subtree);
+        return subtree.pointCloud();
+    }
+
+    /**
+     * Builds the node of the point cloud and its descendants without attaching it to the parent,
+     * so sibling subtrees can be built concurrently.
+     */
+    private Subtree createSubtree(int index, Node parentNode, GaiaPointCloud parent, GaiaPointCloud pointCloud, int pointLimit, int depth) {
         GlobalOptions globalOptions = GlobalOptions.getInstance();
         GaiaBoundingBox cubeBoundingBox = pointCloud.getGaiaBoundingBox();
         //GaiaBoundingBox fitBoundingBox = calcFitBoundingBox(pointCloud);
@@ -378,15 +398,11 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
         List<GaiaPointCloud> divided = pointCloud.divideChunkSize(chunkPointLimit);
         GaiaPointCloud selfPointCloud = divided.getFirst();
         selfPointCloud.setParent(parent);
-        if (parent != null) {
-            parent.addChild(selfPointCloud);
-        }
 
         Matrix4d transformMatrix = getTransformMatrixFromCartographic(fitBoundingBox);
         rotateX90(transformMatrix);
         double calculatedGeometricError = calcChildrenGeometricError(cubeBoundingBox, pointLimit);
         Node childNode = createChildNode(index, parent, parentNode, transformMatrix, selfPointCloud, cubeBoundingBox, fitBoundingBox, calculatedGeometricError);
-        parentNode.getChildren().add(childNode);
 
         if (divided.getFirst().getPointCount() + divided.getLast().getPointCount() != pointCloud.getPointCount()) {
             throw new TileProcessingException("Point count mismatch after dividing point cloud.");
@@ -394,27 +410,99 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
 
         GaiaPointCloud remainPointCloud = divided.getLast();
         if (remainPointCloud.getPointCount() > 0) {
-            List<GaiaPointCloud> distributes = remainPointCloud.distribute();
+            List<GaiaPointCloud> distributes = distributeInBudget(remainPointCloud);
 
-            for (GaiaPointCloud distribute : distributes) {
-                if (distribute.getPointCount() < 1) {
-                    continue;
+            int newPointLimit = (int) (pointLimit * 2.0f);
+            if (newPointLimit > globalOptions.getMaximumPointPerTile()) {
+                newPointLimit = globalOptions.getMaximumPointPerTile();
+            }
+            int newDepth = depth + 1;
+            int finalPointLimit = newPointLimit;
+            List<Subtree> created = buildSiblings(distributes, distribute -> {
+                if (newDepth < MAXIMUM_DEPTH) {
+                    return createSubtree(index, childNode, selfPointCloud, distribute, finalPointLimit, newDepth);
                 }
+                log.warn("[warn] Maximum depth reached when expanding node: {}", childNode.getNodeCode());
+                return null;
+            });
+            created.forEach(subtree -> attachSubtree(childNode, selfPointCloud, subtree));
+        }
+        return new Subtree(childNode, selfPointCloud);
+    }
 
-                int newPointLimit = (int) (pointLimit * 2.0f);
-                if (newPointLimit > globalOptions.getMaximumPointPerTile()) {
-                    newPointLimit = globalOptions.getMaximumPointPerTile();
-                }
+    private void attachSubtree(Node parentNode, GaiaPointCloud parent, Subtree subtree) {
+        if (subtree == null) {
+            return;
+        }
+        parentNode.getChildren().add(subtree.node());
+        if (parent != null) {
+            parent.addChild(subtree.pointCloud());
+        }
+    }
 
-                int newDepth = depth + 1;
-                if (newDepth < MAXIMUM_DEPTH) {
-                    createNode(index, childNode, selfPointCloud, distribute, newPointLimit, newDepth);
-                } else {
-                    log.warn("[warn] Maximum depth reached when expanding node: {}", childNode.getNodeCode());
-                }
+    /**
+     * Splits the points into octants and releases them.
+     * The copies are taken from the point budget before they are materialized and given back once the source points are released,
+     * so concurrent subtrees never hold more than the budget in octant copies on top of their own points.
+     */
+    private List<GaiaPointCloud> distributeInBudget(GaiaPointCloud pointCloud) {
+        if (subtreeBudget == null) {
+            List<GaiaPointCloud> distributes = pointCloud.distribute();
+            pointCloud.clearPoints();
+            return distributes;
+        }
+        // a point cloud bigger than the whole budget is distributed alone
+        int permits = (int) Math.min(budgetPoints, pointCloud.getPointCount());
+        try {
+            subtreeBudget.acquire(permits);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TileProcessingException("Interrupted while waiting for the point budget.");
+        }
+        try {
+            List<GaiaPointCloud> distributes = pointCloud.distribute();
+            pointCloud.clearPoints();
+            return distributes;
+        } finally {
+            subtreeBudget.release(permits);
+        }
+    }
+
+    /**
+     * Builds the subtrees of sibling octants, forking every octant but the last one which is built on the current thread.
+     * The points of the octants are already materialized, the memory is bounded by distributeInBudget.
+     * The results keep the order of the distributed point clouds, so the tileset does not depend on the thread count.
+     */
+    private List<Subtree> buildSiblings(List<GaiaPointCloud> distributes, Function<GaiaPointCloud, Subtree> builder) {
+        List<GaiaPointCloud> targets = distributes.stream()
+                .filter(distribute -> distribute.getPointCount() > 0)
+                .toList();
+        int size = targets.size();
+        List<ForkJoinTask<Subtree>> forked = new ArrayList<>(size);
+        Subtree[] results = new Subtree[size];
+        for (int i = 0; i < size; i++) {
+            GaiaPointCloud target = targets.get(i);
+            boolean canFork = i < size - 1 && ForkJoinTask.inForkJoinPool();
+            if (canFork) {
+                forked.add(ForkJoinTask.adapt(() -> builder.apply(target)).fork());
+            } else {
+                forked.add(null);
+                results[i] = builder.apply(target);
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            ForkJoinTask<Subtree> task = forked.get(i);
+            if (task != null) {
+                results[i] = task.join();
+            }
+        }
+        List<Subtree> subtrees = new ArrayList<>(size);
+        for (Subtree result : results) {
+            if (result != null) {
+                subtrees.add(result);
             }
         }
-        return selfPointCloud;
+        return subtrees;
     }
 
     private Node createChildNode(int index, GaiaPointCloud parent, Node parentNode, Matrix4d transformMatrix, GaiaPointCloud pointCloud, GaiaBoundingBox cubeBoundingBox, GaiaBoundingBox fitBoundingBox, double calculatedGeometricError) {
@@ -479,9 +567,10 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
 
     /*private GaiaBoundingBox calcRealFitBoundingBox(GaiaPointCloud pointCloud) {
         GaiaBoundingBox fitBoundingBox = new GaiaBoundingBox();
-        pointCloud.getLasPoints().forEach(point -> {
-            fitBoundingBox.addPoint(point.getPosition());
-        });
+        GaiaPointBlock points = pointCloud.getPoints();
+        for (int i = 0; i < points.size(); i++) {
+            fitBoundingBox.addPoint(points.getX(i), points.getY(i), points.getZ(i));
+        }
         return fitBoundingBox;
     }*/
 
@@ -540,18 +629,27 @@ public class PointCloudTiler extends DefaultTiler implements Tiler {
                 .mapToLong(GaiaPointCloud::getPointCount)
                 .sum();
         log.debug("[Tile][{}/{}][Minimize][TotalPointClouds:{}][TotalPoints:{}]", index, maximumIndex, size, totalPoints);
-        allPointClouds.forEach(pointCloud -> {
-            String tempSubPath = pointCloud.createFullCodePath();
-            File tempPath = new File(GlobalOptions.getInstance().getTempPath(), tempSubPath);
-            if (!tempPath.exists()) {
-                boolean created = tempPath.mkdirs();
-                if (!created) {
-                    log.error("[ERROR] :Failed to create temp directory: {}", tempPath.getAbsolutePath());
-                    throw new TileProcessingException("Failed to create temp directory: " + tempPath.getAbsolutePath());
-                }
-            }
-            File tempFile = new File(tempPath, UUID.randomUUID().toString());
+        // every leaf is written to its own file
+        subtreePool.invoke(ForkJoinTask.adapt(() -> allPointClouds.parallelStream().forEach(pointCloud -> {
+            File tempFile = createTempFile(pointCloud);
             pointCloud.minimize(tempFile);
-        });
+        })));
+    }
+
+    private File createTempFile(GaiaPointCloud pointCloud) {
+        String tempSubPath = pointCloud.createFullCodePath();
+        File tempPath = new File(GlobalOptions.getInstance().getTempPath(), tempSubPath);
+        if (!tempPath.exists()) {
+            boolean created = tempPath.mkdirs();
+            // another thread may have created the same directory
+            if (!created && !tempPath.isDirectory()) {
+                log.error("[ERROR] :Failed to create temp directory: {}", tempPath.getAbsolutePath());
+                throw new TileProcessingException("Failed to create temp directory: " + tempPath.getAbsolutePath());
+            }
+        }
+        return new File(tempPath, UUID.randomUUID().toString());
+    }
+
+    private record Subtree(Node node, GaiaPointCloud pointCloud) {
     }
-}
\ No newline at end of file
+}
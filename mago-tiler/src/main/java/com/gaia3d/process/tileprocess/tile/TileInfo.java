@@ -1,6 +1,7 @@
 package com.gaia3d.process.tileprocess.tile;
 
 import com.gaia3d.basic.exchangable.GaiaSet;
+import com.gaia3d.basic.exchangable.GaiaSetCache;
 import com.gaia3d.basic.geometry.GaiaBoundingBox;
 import com.gaia3d.basic.model.GaiaNode;
 import com.gaia3d.basic.model.GaiaScene;
@@ -54,6 +55,7 @@ public class TileInfo {
 
     /**
      * Load the minimized scene file and create a GaiaSet object.
+     * The decoded file is shared through the GaiaSetCache, this tile info receives its own view.
      */
     public void maximize() {
         if (this.tempPath == null) {
@@ -68,7 +70,7 @@ public class TileInfo {
             this.set = null;
         }
         try {
-            this.set = GaiaSet.readFile(this.tempPath);
+            this.set = GaiaSetCache.getInstance().get(this.tempPath);
         } catch (IOException e) {
             log.error("[ERROR] Failed to read the temp file: {}", this.tempPath);
         }
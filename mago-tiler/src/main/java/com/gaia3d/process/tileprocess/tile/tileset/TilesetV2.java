@@ -8,6 +8,7 @@ import com.gaia3d.process.tileprocess.tile.tileset.asset.AssetV1;
 import com.gaia3d.process.tileprocess.tile.tileset.extension.Extension3DTilesContentGltf;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
 import com.gaia3d.process.tileprocess.tile.tileset.node.Properties;
+import com.gaia3d.process.tileprocess.tile.tileset.schema.Schema;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
@@ -26,6 +27,7 @@ public class TilesetV2 extends Tileset {
     private double geometricError = 0.0d;
     private Node root;
     private Properties properties;
+    private Schema schema;
 
     private List<String> extensionsUsed = new ArrayList<>();
     private List<String> extensionsRequired = new ArrayList<>();
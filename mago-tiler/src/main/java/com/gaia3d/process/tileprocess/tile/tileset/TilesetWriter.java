@@ -0,0 +1,191 @@
+package com.gaia3d.process.tileprocess.tile.tileset;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Content;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.output.CountingOutputStream;
+
+import java.io.*;
+import java.util.*;
+
+/**
+ * Streams a tileset into tileset.json through a JsonGenerator instead of building the whole document as one String.
+ * The tree can be split into external tileset_<nodeCode>.json files referenced by content URIs:
+ * every splitDepth levels below the root of a file, and at the largest subtrees with children holding at most splitCount tiles.
+ * The split tree is written from shallow copies, the nodes of the tileset are not modified.
+ */
+@Slf4j
+public class TilesetWriter {
+    private final ObjectMapper objectMapper;
+    private final int splitDepth;
+    private final int splitCount;
+
+    private Map<Node, Integer> subtreeCounts;
+
+    public TilesetWriter(ObjectMapper objectMapper, int splitDepth, int splitCount) {
+        this.objectMapper = objectMapper;
+        this.splitDepth = Math.max(0, splitDepth);
+        this.splitCount = Math.max(0, splitCount);
+    }
+
+    /**
+     * Writer with the split options of the command line.
+     */
+    public static TilesetWriter of(ObjectMapper objectMapper) {
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        return new TilesetWriter(objectMapper, globalOptions.getTilesetSplitDepth(), globalOptions.getTilesetSplitCount());
+    }
+
+    public boolean isSplit() {
+        return splitDepth > 0 || splitCount > 0;
+    }
+
+    /**
+     * Writes the tileset and its external tilesets next to it, returns the byte size of the tileset file.
+     */
+    public long write(Tileset tileset, File tilesetFile) throws IOException {
+        Node root = tileset.getRoot();
+        if (!isSplit() || root == null) {
+            return writeFile(tileset, tilesetFile);
+        }
+        if (splitCount > 0) {
+            subtreeCounts = new IdentityHashMap<>();
+            countNodes(root);
+        }
+
+        Deque<ExternalTileset> externalTilesets = new ArrayDeque<>();
+        String rootName = root.getNodeCode() != null ? root.getNodeCode() : "R";
+        Node rootView = createView(root, rootName, 0, false, externalTilesets);
+        long tilesetSize = writeFile(createTileset(tileset, rootView, tileset.getGeometricError()), tilesetFile);
+
+        File directory = tilesetFile.getAbsoluteFile().getParentFile();
+        int externalCount = 0;
+        while (!externalTilesets.isEmpty()) {
+            ExternalTileset externalTileset = externalTilesets.poll();
+            Node externalRoot = externalTileset.node();
+            // the transform of the tile stays on the referencing tile
+            Node externalRootView = createView(externalRoot, externalTileset.name(), 0, true, externalTilesets);
+            File externalFile = new File(directory, externalTileset.fileName());
+            writeFile(createTileset(tileset, externalRootView, externalRoot.getGeometricError()), externalFile);
+            externalCount++;
+        }
+        log.info("[Tile][Tileset] write {} external tileset files.", externalCount);
+        subtreeCounts = null;
+        return tilesetSize;
+    }
+
+    private long writeFile(Tileset tileset, File file) throws IOException {
+        CountingOutputStream countingOutputStream = new CountingOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(countingOutputStream, JsonEncoding.UTF8)) {
+            objectMapper.writeValue(generator, tileset);
+        } finally {
+            countingOutputStream.close();
+        }
+        return countingOutputStream.getByteCount();
+    }
+
+    /**
+     * The node itself when nothing below it is split, otherwise a copy whose split children are replaced by references.
+     */
+    private Node createView(Node node, String name, int depth, boolean isExternalRoot, Deque<ExternalTileset> externalTilesets) {
+        List<Node> children = node.getChildren();
+        List<Node> viewChildren = null;
+        boolean isChanged = isExternalRoot && node.getTransform() != null;
+        if (children != null && !children.isEmpty()) {
+            viewChildren = new ArrayList<>(children.size());
+            for (int index = 0; index < children.size(); index++) {
+                Node child = children.get(index);
+                String childName = child.getNodeCode() != null ? child.getNodeCode() : name + "_" + index;
+                Node viewChild;
+                if (isSplitNode(node, child, depth + 1)) {
+                    ExternalTileset externalTileset = new ExternalTileset(child, childName);
+                    externalTilesets.add(externalTileset);
+                    viewChild = createReference(child, externalTileset.fileName());
+                } else {
+                    viewChild = createView(child, childName, depth + 1, false, externalTilesets);
+                }
+                isChanged |= viewChild != child;
+                viewChildren.add(viewChild);
+            }
+        }
+        if (!isChanged) {
+            return node;
+        }
+        Node view = copyNode(node, viewChildren != null ? viewChildren : children);
+        if (isExternalRoot) {
+            view.setTransform(null);
+        }
+        return view;
+    }
+
+    private boolean isSplitNode(Node parent, Node child, int depth) {
+        if (child.getChildren() == null || child.getChildren().isEmpty()) {
+            return false;
+        }
+        if (splitDepth > 0 && depth == splitDepth) {
+            return true;
+        }
+        if (splitCount > 0) {
+            // the largest subtrees fitting in the count, the tiles above them stay in the parent file
+            int childCount = subtreeCounts.getOrDefault(child, 0);
+            int parentCount = subtreeCounts.getOrDefault(parent, 0);
+            return childCount <= splitCount && parentCount > splitCount;
+        }
+        return false;
+    }
+
+    /**
+     * Tile in the parent file referencing the external tileset, in place of the split node.
+     */
+    private Node createReference(Node node, String fileName) {
+        Content content = new Content();
+        content.setUri(fileName);
+        Node reference = copyNode(node, null);
+        reference.setContent(content);
+        return reference;
+    }
+
+    private Node copyNode(Node node, List<Node> children) {
+        Node copy = new Node();
+        copy.setNodeCode(node.getNodeCode());
+        copy.setBoundingVolume(node.getBoundingVolume());
+        copy.setRefine(node.getRefine());
+        copy.setGeometricError(node.getGeometricError());
+        copy.setTransform(node.getTransform());
+        copy.setContent(node.getContent());
+        copy.setImplicitTiling(node.getImplicitTiling());
+        copy.setChildren(children);
+        return copy;
+    }
+
+    private Tileset createTileset(Tileset tileset, Node root, double geometricError) {
+        Tileset result = tileset instanceof TilesetV2 ? new TilesetV2() : new Tileset();
+        result.setAsset(tileset.getAsset());
+        result.setProperties(tileset.getProperties());
+        result.setGeometricError(geometricError);
+        result.setRoot(root);
+        return result;
+    }
+
+    private int countNodes(Node node) {
+        int count = 1;
+        List<Node> children = node.getChildren();
+        if (children != null) {
+            for (Node child : children) {
+                count += countNodes(child);
+            }
+        }
+        subtreeCounts.put(node, count);
+        return count;
+    }
+
+    private record ExternalTileset(Node node, String name) {
+        private String fileName() {
+            return "tileset_" + name + ".json";
+        }
+    }
+}
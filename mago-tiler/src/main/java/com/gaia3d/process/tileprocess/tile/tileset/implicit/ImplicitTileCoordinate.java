@@ -0,0 +1,38 @@
+package com.gaia3d.process.tileprocess.tile.tileset.implicit;
+
+/**
+ * Level and x, y index of a tile in a quadtree implicit tileset.
+ * In implicit tiling mode every digit of a node code is the Morton index of the quadrant (x in bit 0, y in bit 1),
+ * so the coordinate follows from the node code alone ('R' and 'C' are skipped).
+ */
+public record ImplicitTileCoordinate(int level, int x, int y) {
+
+    public static ImplicitTileCoordinate fromNodeCode(String nodeCode) {
+        int level = 0;
+        int x = 0;
+        int y = 0;
+        for (int index = 0; index < nodeCode.length(); index++) {
+            char character = nodeCode.charAt(index);
+            if (character < '0' || character > '3') {
+                continue;
+            }
+            int quadrant = character - '0';
+            x = (x << 1) | (quadrant & 1);
+            y = (y << 1) | (quadrant >> 1);
+            level++;
+        }
+        return new ImplicitTileCoordinate(level, x, y);
+    }
+
+    public ImplicitTileCoordinate getAncestor(int ancestorLevel) {
+        int shift = level - ancestorLevel;
+        return new ImplicitTileCoordinate(ancestorLevel, x >> shift, y >> shift);
+    }
+
+    /**
+     * Path of the tile in the {level}/{x}/{y} templates.
+     */
+    public String toPath() {
+        return level + "/" + x + "/" + y;
+    }
+}
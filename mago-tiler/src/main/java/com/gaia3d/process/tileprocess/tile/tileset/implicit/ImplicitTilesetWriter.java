@@ -0,0 +1,267 @@
+package com.gaia3d.process.tileprocess.tile.tileset.implicit;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.json.JsonWriteFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.basic.exception.TileProcessingException;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetV2;
+import com.gaia3d.process.tileprocess.tile.tileset.TilesetWriter;
+import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Content;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
+import com.gaia3d.process.tileprocess.tile.tileset.schema.ClassProperty;
+import com.gaia3d.process.tileprocess.tile.tileset.schema.Schema;
+import com.gaia3d.process.tileprocess.tile.tileset.schema.SchemaClass;
+import com.gaia3d.util.SpaceFillingCurveUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.*;
+
+/**
+ * Writes a tile tree built with quadrant node codes as a quadtree implicit tileset.
+ * tileset.json only holds the root tile with the content and subtree templates,
+ * the availability of the tiles and contents is written as bitstreams in .subtree files of subtreeLevels levels each.
+ * The objects are split by their centers, so they may stick out of the implied quadrant of their tile,
+ * the bounding volume of every tile node is written as tile metadata (TILE_BOUNDING_REGION or TILE_BOUNDING_BOX)
+ * which overrides the implied one.
+ */
+@Slf4j
+@RequiredArgsConstructor
+public class ImplicitTilesetWriter {
+    public static final int DEFAULT_SUBTREE_LEVELS = 6;
+    private static final String CONTENT_URI = "data/{level}/{x}/{y}.glb";
+    private static final String SUBTREE_URI = "subtrees/{level}/{x}/{y}.subtree";
+    private static final int SUBTREE_MAGIC = 0x74627573; // "subt"
+    private static final int SUBTREE_VERSION = 1;
+    private static final int SUBTREE_HEADER_LENGTH = 24;
+    private static final String SCHEMA_ID = "mago3DTilerImplicit";
+    private static final String TILE_CLASS = "tile";
+    private static final String BOUNDING_VOLUME_PROPERTY = "boundingVolume";
+
+    private final int subtreeLevels;
+
+    /**
+     * Writes the subtrees and tileset.json into the output path and returns the tileset.json file.
+     */
+    public File write(Tileset tileset, Path outputPath) {
+        Node root = tileset.getRoot();
+        Map<ImplicitTileCoordinate, SubtreeAvailability> subtrees = new HashMap<>();
+        boolean isRegion = root.getBoundingVolume().getRegion() != null;
+        int maxLevel = collectAvailability(root, isRegion, subtrees);
+        int availableLevels = maxLevel + 1;
+        log.info("[Tile][Implicit] {} levels, {} subtrees of {} levels.", availableLevels, subtrees.size(), subtreeLevels);
+
+        ObjectMapper subtreeMapper = new ObjectMapper();
+        subtreeMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        Path subtreesPath = outputPath.resolve("subtrees");
+        for (Map.Entry<ImplicitTileCoordinate, SubtreeAvailability> entry : subtrees.entrySet()) {
+            ImplicitTileCoordinate coordinate = entry.getKey();
+            File subtreeFile = subtreesPath.resolve(coordinate.toPath() + ".subtree").toFile();
+            try {
+                writeSubtree(subtreeMapper, subtreeFile, entry.getValue());
+            } catch (IOException e) {
+                log.error("[ERROR] Failed to write subtree file : {}", subtreeFile.getAbsolutePath(), e);
+                throw new TileProcessingException(e.getMessage());
+            }
+        }
+
+        Content content = new Content();
+        content.setUri(CONTENT_URI);
+
+        ImplicitTiling.Subtrees subtreesTemplate = new ImplicitTiling.Subtrees();
+        subtreesTemplate.setUri(SUBTREE_URI);
+        ImplicitTiling implicitTiling = new ImplicitTiling();
+        implicitTiling.setSubtreeLevels(subtreeLevels);
+        implicitTiling.setAvailableLevels(availableLevels);
+        implicitTiling.setSubtrees(subtreesTemplate);
+
+        // the geometric error of every level is half of its parent level
+        Node implicitRoot = new Node();
+        implicitRoot.setBoundingVolume(root.getBoundingVolume());
+        implicitRoot.setGeometricError(root.getGeometricError());
+        implicitRoot.setRefine(GlobalOptions.getInstance().isRefineAdd() ? Node.RefineType.ADD : Node.RefineType.REPLACE);
+        implicitRoot.setContent(content);
+        implicitRoot.setImplicitTiling(implicitTiling);
+
+        TilesetV2 implicitTileset = new TilesetV2();
+        implicitTileset.setGeometricError(tileset.getGeometricError());
+        implicitTileset.setRoot(implicitRoot);
+        implicitTileset.setSchema(createSchema(isRegion));
+
+        File tilesetFile = outputPath.resolve("tileset.json").toFile();
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.getFactory().configure(JsonWriteFeature.ESCAPE_NON_ASCII.mappedFeature(), true);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
+        try {
+            log.info("[Tile][Tileset] write implicit 'tileset.json' file.");
+            // the root tile is the whole tree, nothing to split
+            new TilesetWriter(objectMapper, 0, 0).write(implicitTileset, tilesetFile);
+        } catch (IOException e) {
+            log.error("[ERROR] :", e);
+            throw new TileProcessingException(e.getMessage());
+        }
+        return tilesetFile;
+    }
+
+    /**
+     * Marks the node and its descendants available in their subtrees, returns the deepest level.
+     */
+    private int collectAvailability(Node node, boolean isRegion, Map<ImplicitTileCoordinate, SubtreeAvailability> subtrees) {
+        ImplicitTileCoordinate coordinate = ImplicitTileCoordinate.fromNodeCode(node.getNodeCode());
+        int subtreeLevel = coordinate.level() / subtreeLevels * subtreeLevels;
+        ImplicitTileCoordinate subtreeRoot = coordinate.getAncestor(subtreeLevel);
+        SubtreeAvailability availability = subtrees.computeIfAbsent(subtreeRoot, key -> new SubtreeAvailability());
+
+        int relativeLevel = coordinate.level() - subtreeLevel;
+        int tileIndex = getTileIndex(relativeLevel, coordinate.x() - (subtreeRoot.x() << relativeLevel), coordinate.y() - (subtreeRoot.y() << relativeLevel));
+        availability.tiles.set(tileIndex);
+        BoundingVolume boundingVolume = node.getBoundingVolume();
+        availability.boundingVolumes.put(tileIndex, isRegion ? boundingVolume.getRegion() : boundingVolume.getBox());
+        Content content = node.getContent();
+        if (content != null && content.getContentInfo() != null) {
+            availability.contents.set(tileIndex);
+        }
+        if (subtreeLevel > 0 && relativeLevel == 0) {
+            ImplicitTileCoordinate parentSubtreeRoot = coordinate.getAncestor(subtreeLevel - subtreeLevels);
+            SubtreeAvailability parentAvailability = subtrees.computeIfAbsent(parentSubtreeRoot, key -> new SubtreeAvailability());
+            int childIndex = (int) SpaceFillingCurveUtils.mortonIndex(coordinate.x() - (parentSubtreeRoot.x() << subtreeLevels), coordinate.y() - (parentSubtreeRoot.y() << subtreeLevels));
+            parentAvailability.childSubtrees.set(childIndex);
+        }
+
+        int maxLevel = coordinate.level();
+        List<Node> children = node.getChildren();
+        if (children != null) {
+            for (Node child : children) {
+                maxLevel = Math.max(maxLevel, collectAvailability(child, isRegion, subtrees));
+            }
+        }
+        return maxLevel;
+    }
+
+    /**
+     * Bit index of the tile in the subtree, the levels are concatenated and each level is in Morton order.
+     */
+    private int getTileIndex(int relativeLevel, int x, int y) {
+        int levelOffset = (int) (((1L << (2 * relativeLevel)) - 1) / 3);
+        return levelOffset + (int) SpaceFillingCurveUtils.mortonIndex(x, y);
+    }
+
+    private void writeSubtree(ObjectMapper subtreeMapper, File subtreeFile, SubtreeAvailability availability) throws IOException {
+        int tileCount = getTileIndex(subtreeLevels, 0, 0);
+        int childSubtreeCount = 1 << (2 * subtreeLevels);
+
+        ByteArrayOutputStream binary = new ByteArrayOutputStream();
+        List<Subtree.BufferView> bufferViews = new ArrayList<>();
+        Subtree subtree = new Subtree();
+        subtree.setTileAvailability(createAvailability(availability.tiles, tileCount, binary, bufferViews));
+        subtree.setContentAvailability(List.of(createAvailability(availability.contents, tileCount, binary, bufferViews)));
+        subtree.setChildSubtreeAvailability(createAvailability(availability.childSubtrees, childSubtreeCount, binary, bufferViews));
+        subtree.setPropertyTables(List.of(createBoundingVolumeTable(availability.boundingVolumes, binary, bufferViews)));
+        subtree.setTileMetadata(0);
+        if (!bufferViews.isEmpty()) {
+            subtree.setBuffers(List.of(new Subtree.Buffer(binary.size())));
+            subtree.setBufferViews(bufferViews);
+        }
+
+        byte[] json = padJson(subtreeMapper.writeValueAsBytes(subtree));
+        byte[] binaryBytes = binary.toByteArray();
+        ByteBuffer header = ByteBuffer.allocate(SUBTREE_HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(SUBTREE_MAGIC);
+        header.putInt(SUBTREE_VERSION);
+        header.putLong(json.length);
+        header.putLong(binaryBytes.length);
+
+        File parent = subtreeFile.getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Failed to create subtree directory : " + parent.getAbsolutePath());
+        }
+        try (OutputStream outputStream = new BufferedOutputStream(new FileOutputStream(subtreeFile))) {
+            outputStream.write(header.array());
+            outputStream.write(json);
+            outputStream.write(binaryBytes);
+        }
+    }
+
+    /**
+     * A constant when none or all of the bits are set, otherwise a bitstream appended to the binary chunk (8-byte aligned).
+     */
+    private Subtree.Availability createAvailability(BitSet bits, int bitCount, ByteArrayOutputStream binary, List<Subtree.BufferView> bufferViews) {
+        Subtree.Availability availability = new Subtree.Availability();
+        int availableCount = bits.cardinality();
+        if (availableCount == 0 || availableCount == bitCount) {
+            availability.setConstant(availableCount == 0 ? 0 : 1);
+            return availability;
+        }
+        // BitSet stores bit i in byte i / 8 at bit i % 8, the bitstream layout of subtrees
+        byte[] bytes = Arrays.copyOf(bits.toByteArray(), (bitCount + 7) / 8);
+        bufferViews.add(new Subtree.BufferView(0, binary.size(), bytes.length));
+        binary.writeBytes(bytes);
+        while (binary.size() % 8 != 0) {
+            binary.write(0);
+        }
+        availability.setBitstream(bufferViews.size() - 1);
+        availability.setAvailableCount((long) availableCount);
+        return availability;
+    }
+
+    /**
+     * The bounding volumes of the available tiles in the order of their bits, as FLOAT64 arrays.
+     */
+    private Subtree.PropertyTable createBoundingVolumeTable(SortedMap<Integer, double[]> boundingVolumes, ByteArrayOutputStream binary, List<Subtree.BufferView> bufferViews) {
+        int valueCount = boundingVolumes.values().stream().mapToInt(values -> values.length).sum();
+        ByteBuffer values = ByteBuffer.allocate(valueCount * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        boundingVolumes.values().forEach(volume -> {
+            for (double value : volume) {
+                values.putDouble(value);
+            }
+        });
+        // the availability bitstreams keep the binary chunk 8-byte aligned
+        bufferViews.add(new Subtree.BufferView(0, binary.size(), values.capacity()));
+        binary.writeBytes(values.array());
+
+        Subtree.PropertyTable propertyTable = new Subtree.PropertyTable();
+        propertyTable.setClassName(TILE_CLASS);
+        propertyTable.setCount(boundingVolumes.size());
+        propertyTable.setProperties(Map.of(BOUNDING_VOLUME_PROPERTY, new Subtree.PropertyTableProperty(bufferViews.size() - 1)));
+        return propertyTable;
+    }
+
+    private Schema createSchema(boolean isRegion) {
+        ClassProperty boundingVolume = new ClassProperty();
+        boundingVolume.setType("SCALAR");
+        boundingVolume.setComponentType("FLOAT64");
+        boundingVolume.setArray(true);
+        boundingVolume.setCount(isRegion ? 6 : 12);
+        boundingVolume.setSemantic(isRegion ? "TILE_BOUNDING_REGION" : "TILE_BOUNDING_BOX");
+
+        SchemaClass tileClass = new SchemaClass();
+        tileClass.setProperties(Map.of(BOUNDING_VOLUME_PROPERTY, boundingVolume));
+        Schema schema = new Schema();
+        schema.setId(SCHEMA_ID);
+        schema.setClasses(Map.of(TILE_CLASS, tileClass));
+        return schema;
+    }
+
+    private byte[] padJson(byte[] json) {
+        int paddedLength = (json.length + 7) / 8 * 8;
+        byte[] padded = Arrays.copyOf(json, paddedLength);
+        Arrays.fill(padded, json.length, paddedLength, (byte) ' ');
+        return padded;
+    }
+
+    private static class SubtreeAvailability {
+        private final BitSet tiles = new BitSet();
+        private final BitSet contents = new BitSet();
+        private final BitSet childSubtrees = new BitSet();
+        private final SortedMap<Integer, double[]> boundingVolumes = new TreeMap<>();
+    }
+}
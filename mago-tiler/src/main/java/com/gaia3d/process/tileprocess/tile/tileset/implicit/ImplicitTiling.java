@@ -0,0 +1,22 @@
+package com.gaia3d.process.tileprocess.tile.tileset.implicit;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * implicitTiling property of the root tile (3D Tiles 1.1).
+ */
+@Getter
+@Setter
+public class ImplicitTiling {
+    private String subdivisionScheme = "QUADTREE";
+    private int subtreeLevels;
+    private int availableLevels;
+    private Subtrees subtrees;
+
+    @Getter
+    @Setter
+    public static class Subtrees {
+        private String uri;
+    }
+}
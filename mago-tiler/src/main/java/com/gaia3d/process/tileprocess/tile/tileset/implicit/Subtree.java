@@ -0,0 +1,75 @@
+package com.gaia3d.process.tileprocess.tile.tileset.implicit;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JSON chunk of a .subtree file, the availability of the tiles, contents and child subtrees of one subtree
+ * and the property table of the tile metadata.
+ */
+@Getter
+@Setter
+public class Subtree {
+    private List<Buffer> buffers;
+    private List<BufferView> bufferViews;
+    private Availability tileAvailability;
+    private List<Availability> contentAvailability;
+    private Availability childSubtreeAvailability;
+    private List<PropertyTable> propertyTables;
+    private Integer tileMetadata;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Buffer {
+        private long byteLength;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class BufferView {
+        private int buffer;
+        private long byteOffset;
+        private long byteLength;
+    }
+
+    /**
+     * Either the index of the buffer view holding the bitstream or a constant (0 or 1) for all the bits.
+     */
+    @Getter
+    @Setter
+    public static class Availability {
+        private Integer bitstream;
+        private Long availableCount;
+        private Integer constant;
+    }
+
+    /**
+     * One row per available tile in the order of the tile availability.
+     */
+    @Getter
+    @Setter
+    public static class PropertyTable {
+        @JsonProperty("class")
+        private String className;
+        private long count;
+        private Map<String, PropertyTableProperty> properties;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PropertyTableProperty {
+        private int values;
+    }
+}
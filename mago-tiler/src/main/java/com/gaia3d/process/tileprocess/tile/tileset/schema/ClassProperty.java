@@ -21,4 +21,13 @@ public class ClassProperty {
 
     @JsonProperty("required")
     private Boolean required;
+
+    @JsonProperty("array")
+    private Boolean array;
+
+    @JsonProperty("count")
+    private Integer count;
+
+    @JsonProperty("semantic")
+    private String semantic;
 }
\ No newline at end of file
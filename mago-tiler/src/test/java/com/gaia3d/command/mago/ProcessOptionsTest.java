@@ -0,0 +1,42 @@
+package com.gaia3d.command.mago;
+
+import com.gaia3d.command.LoggingConfiguration;
+import org.apache.commons.cli.CommandLine;
+import org.apache.commons.cli.DefaultParser;
+import org.apache.commons.cli.Options;
+import org.apache.commons.cli.ParseException;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Every option is registered with commons-cli by its names, a duplicated name silently replaces the earlier option.
+ */
+@Tag("default")
+class ProcessOptionsTest {
+
+    @Test
+    void shortAndLongNamesAreUnique() {
+        Map<String, ProcessOptions> shortNames = new HashMap<>();
+        Map<String, ProcessOptions> longNames = new HashMap<>();
+        for (ProcessOptions processOptions : ProcessOptions.values()) {
+            ProcessOptions previous = shortNames.put(processOptions.getShortName(), processOptions);
+            assertNull(previous, "-" + processOptions.getShortName() + " is used by " + previous + " and " + processOptions);
+            previous = longNames.put(processOptions.getLongName(), processOptions);
+            assertNull(previous, "--" + processOptions.getLongName() + " is used by " + previous + " and " + processOptions);
+        }
+        assertEquals(ProcessOptions.values().length, LoggingConfiguration.createOptions().getOptions().size());
+    }
+
+    @Test
+    void inputTypeKeepsItsShortName() throws ParseException {
+        Options options = LoggingConfiguration.createOptions();
+        CommandLine command = new DefaultParser().parse(options, new String[]{"-it", "shp", "-imt"});
+        assertEquals("shp", command.getOptionValue(ProcessOptions.INPUT_TYPE.getLongName()));
+        assertTrue(command.hasOption(ProcessOptions.IMPLICIT_TILING.getLongName()));
+    }
+}
@@ -0,0 +1,140 @@
+package com.gaia3d.converter.citygml;
+
+import com.gaia3d.basic.model.GaiaScene;
+import com.gaia3d.basic.temp.GaiaSceneTempGroup;
+import com.gaia3d.basic.types.FormatType;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.Parametric3DOptions;
+import com.gaia3d.converter.parametric.ExtrusionTempGenerator;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.locationtech.proj4j.CRSFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("default")
+class CityGmlConverterTest {
+    // more than two batches of city objects
+    private static final int BUILDING_COUNT = 2500;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        GlobalOptions.recreateInstance();
+    }
+
+    @Test
+    void chunkedReadMatchesWholeFile() throws Exception {
+        File input = writeCityModel(tempDir.resolve("buildings.gml"));
+        File output = Files.createDirectories(tempDir.resolve("temp")).toFile();
+        CityGmlConverter converter = new CityGmlConverter(createOptions());
+
+        List<GaiaScene> expected = converter.load(input);
+        assertEquals(BUILDING_COUNT, expected.size());
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<GaiaSceneTempGroup> sceneTemps;
+        try {
+            sceneTemps = pool.submit(() -> converter.convertTemp(input, output)).get();
+        } finally {
+            pool.shutdown();
+        }
+        // one temp file per batch
+        assertEquals(3, sceneTemps.size());
+        List<GaiaScene> chunked = new ArrayList<>();
+        for (GaiaSceneTempGroup sceneTemp : sceneTemps) {
+            assertTrue(sceneTemp.getTempFile().isFile());
+            chunked.addAll(converter.load(sceneTemp.getTempFile()));
+        }
+
+        List<Vector3d> expectedTranslations = sortedTranslations(expected);
+        List<Vector3d> chunkedTranslations = sortedTranslations(chunked);
+        assertEquals(expectedTranslations.size(), chunkedTranslations.size());
+        for (int i = 0; i < expectedTranslations.size(); i++) {
+            assertTrue(expectedTranslations.get(i).equals(chunkedTranslations.get(i), 1.0e-9));
+        }
+    }
+
+    @Test
+    void resumedRunReadsWholeFiles() throws IOException {
+        File input = writeCityModel(tempDir.resolve("buildings.gml"));
+        File output = Files.createDirectories(tempDir.resolve("temp")).toFile();
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        globalOptions.setInputFormat(FormatType.CITYGML);
+        globalOptions.setMultiThreadCount((byte) 2);
+
+        ExtrusionTempGenerator tempGenerator = new ExtrusionTempGenerator(new CityGmlConverter(createOptions()));
+        globalOptions.setResume(true);
+        // the run manifest restores the inputs, not the random temp files of the chunks
+        assertEquals(List.of(input), tempGenerator.generate(output, List.of(input)));
+        assertEquals(0, output.list().length);
+
+        globalOptions.setResume(false);
+        List<File> tempFiles = tempGenerator.generate(output, List.of(input));
+        assertEquals(3, tempFiles.size());
+        assertFalse(tempFiles.contains(input));
+    }
+
+    private Parametric3DOptions createOptions() {
+        return Parametric3DOptions.builder()
+                .sourceCrs(new CRSFactory().createFromName("EPSG:5186"))
+                .build();
+    }
+
+    private List<Vector3d> sortedTranslations(List<GaiaScene> scenes) {
+        return scenes.stream()
+                .map(GaiaScene::getTranslation)
+                .sorted(Comparator.comparingDouble((Vector3d translation) -> translation.x).thenComparingDouble(translation -> translation.y))
+                .toList();
+    }
+
+    /**
+     * A grid of buildings of 10m, each with a roof and a wall.
+     */
+    private File writeCityModel(Path path) throws IOException {
+        StringBuilder builder = new StringBuilder();
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n")
+                .append("<core:CityModel xmlns:core=\"http://www.opengis.net/citygml/2.0\"")
+                .append(" xmlns:bldg=\"http://www.opengis.net/citygml/building/2.0\"")
+                .append(" xmlns:gml=\"http://www.opengis.net/gml\">\n");
+        for (int i = 0; i < BUILDING_COUNT; i++) {
+            double x = 200000.0d + (i % 50) * 20.0d;
+            double y = 500000.0d + (i / 50) * 20.0d;
+            builder.append("<core:cityObjectMember><bldg:Building gml:id=\"building_").append(i).append("\">")
+                    .append("<bldg:lod2MultiSurface><gml:MultiSurface>")
+                    .append(polygon(x, y, 10.0d, x + 10.0d, y, 10.0d, x + 10.0d, y + 10.0d, 10.0d, x, y + 10.0d, 10.0d))
+                    .append(polygon(x, y, 0.0d, x + 10.0d, y, 0.0d, x + 10.0d, y, 10.0d, x, y, 10.0d))
+                    .append("</gml:MultiSurface></bldg:lod2MultiSurface>")
+                    .append("</bldg:Building></core:cityObjectMember>\n");
+        }
+        builder.append("</core:CityModel>\n");
+        Files.writeString(path, builder.toString(), StandardCharsets.UTF_8);
+        return path.toFile();
+    }
+
+    private String polygon(double... coordinates) {
+        StringBuilder posList = new StringBuilder();
+        for (double coordinate : coordinates) {
+            posList.append(coordinate).append(' ');
+        }
+        // the ring is closed by its first position
+        posList.append(coordinates[0]).append(' ').append(coordinates[1]).append(' ').append(coordinates[2]);
+        return "<gml:surfaceMember><gml:Polygon><gml:exterior><gml:LinearRing><gml:posList srsDimension=\"3\">"
+                + posList + "</gml:posList></gml:LinearRing></gml:exterior></gml:Polygon></gml:surfaceMember>";
+    }
+}
@@ -3,10 +3,10 @@ package com.gaia3d.converter.gltf;
 import com.gaia3d.command.LoggingConfiguration;
 import lombok.extern.slf4j.Slf4j;
 import org.joml.Matrix4d;
+import org.joml.Vector3d;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertArrayEquals;
-import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.*;
 
 @Slf4j
 class QuantizationTest {
@@ -44,6 +44,52 @@ class QuantizationTest {
         assertEquals(expectedMatrix, quantizationMatrix);
     }
 
+    @Test
+    void computeQuantizationMatrixFromBounds() {
+        LoggingConfiguration.initConsoleLogger();
+
+        // the tips of an octahedron, none of them is a corner of the bounds
+        float[] positions = new float[]{
+                -1, 0, 0,
+                1, 0, 0,
+                0, -2, 0,
+                0, 2, 0,
+                0, 0, -3,
+                0, 0, 3
+        };
+        double[] min = new double[]{-1, -2, -3};
+        double[] max = new double[]{1, 2, 3};
+
+        // translations and scales give the scanned matrix
+        Matrix4d scaledMatrix = new Matrix4d().translate(100, 200, 300).scale(2.0);
+        Matrix4d scanned = Quantization.computeQuantizationMatrix(scaledMatrix, positions);
+        Matrix4d fromBounds = Quantization.computeQuantizationMatrix(scaledMatrix, min, max);
+        assertTrue(scanned.equals(fromBounds, 1.0e-9));
+
+        // with a rotation the bounds are larger than the scanned ones, but still contain every value
+        Matrix4d rotatedMatrix = new Matrix4d().translate(100, 200, 300).rotateXYZ(0.3, 0.5, 0.7);
+        scanned = Quantization.computeQuantizationMatrix(rotatedMatrix, positions);
+        fromBounds = Quantization.computeQuantizationMatrix(rotatedMatrix, min, max);
+        assertTrue(fromBounds.m00() > scanned.m00());
+        assertTrue(fromBounds.m30() < scanned.m30());
+        assertTrue(fromBounds.m31() < scanned.m31());
+        assertTrue(fromBounds.m32() < scanned.m32());
+
+        short[] quantizedPositions = Quantization.quantizeUnsignedShorts(positions, rotatedMatrix, fromBounds);
+        for (int i = 0; i < positions.length / 3; i++) {
+            Vector3d transformed = new Vector3d(positions[i * 3], positions[i * 3 + 1], positions[i * 3 + 2]).mulPosition(rotatedMatrix);
+            double[] offsets = {fromBounds.m30(), fromBounds.m31(), fromBounds.m32()};
+            double[] values = {transformed.x, transformed.y, transformed.z};
+            for (int axis = 0; axis < 3; axis++) {
+                double normalized = (values[axis] - offsets[axis]) / fromBounds.m00();
+                assertTrue(normalized >= 0.0 && normalized <= 1.0, "value " + i + " outside of the bounds");
+                // the quantized value decodes back to the transformed one
+                int quantized = Short.toUnsignedInt(quantizedPositions[i * 4 + axis]);
+                assertEquals(normalized, quantized / 65535.0, 1.0e-4);
+            }
+        }
+    }
+
     @Test
     void paddedLength() {
         LoggingConfiguration.initConsoleLogger();
@@ -0,0 +1,112 @@
+package com.gaia3d.converter.pointcloud;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class GaiaPointBlockTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sameLayoutAsLasPoint() {
+        GaiaPointBlock block = new GaiaPointBlock(1);
+        block.add(127.1, 37.5, 42.25, (byte) 10, (byte) -20, (byte) 30, (byte) -1, (char) 65000, (short) 6);
+
+        ByteBuffer buffer = ByteBuffer.allocate(GaiaPointBlock.BYTES_SIZE).order(ByteOrder.BIG_ENDIAN);
+        block.writeTo(buffer, 0, 1);
+        GaiaLasPoint point = GaiaLasPoint.fromBytes(buffer.array());
+        assertEquals(127.1, point.getX());
+        assertEquals(37.5, point.getY());
+        assertEquals(42.25, point.getZ());
+        assertEquals((byte) -20, point.getG());
+        assertEquals((byte) -1, point.getA());
+        assertEquals((char) 65000, point.getIntensity());
+        assertEquals((short) 6, point.getClassification());
+
+        byte[] encoded = new byte[GaiaPointBlock.BYTES_SIZE];
+        GaiaPointBlock.encode(encoded, 0, 127.1, 37.5, 42.25, block.getRgba(0), (char) 65000, (short) 6);
+        assertArrayEquals(buffer.array(), encoded);
+    }
+
+    @Test
+    void minimizeAndReadChunks() {
+        int pointCount = 1000;
+        GaiaPointBlock block = new GaiaPointBlock();
+        for (int i = 0; i < pointCount; i++) {
+            block.add(i, i * 2.0, i * 3.0, (byte) i, (byte) 0, (byte) 0, (byte) -1, (char) i, (short) (i % 8));
+        }
+
+        GaiaPointCloud pointCloud = new GaiaPointCloud();
+        pointCloud.setPoints(block);
+        File minimizedFile = tempDir.resolve("points.tmp").toFile();
+        pointCloud.minimize(minimizedFile);
+        assertNull(pointCloud.getPoints());
+        assertEquals(pointCount * (long) GaiaPointBlock.BYTES_SIZE, minimizedFile.length());
+
+        long chunkSize = 300L * GaiaPointBlock.BYTES_SIZE;
+        int chunkCount = pointCloud.getChunkCount(chunkSize);
+        assertEquals(4, chunkCount);
+        int readPoints = 0;
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            GaiaPointBlock points = pointCloud.readChunk(chunkSize, chunk * chunkSize).getPoints();
+            for (int i = 0; i < points.size(); i++) {
+                int expected = readPoints + i;
+                assertEquals(expected * 3.0, points.getZ(i));
+                assertEquals((char) expected, points.getIntensity(i));
+                assertEquals((short) (expected % 8), points.getClassification(i));
+            }
+            readPoints += points.size();
+        }
+        assertEquals(pointCount, readPoints);
+
+        pointCloud.maximize(true);
+        assertEquals(pointCount, pointCloud.getPoints().size());
+        assertFalse(minimizedFile.exists());
+    }
+
+    @Test
+    void divideChunkSizeMovesThePoints() {
+        int pointCount = 1000;
+        GaiaPointBlock block = new GaiaPointBlock();
+        for (int i = 0; i < pointCount; i++) {
+            block.add(i, 0.0, 0.0, 0, (char) 0, (short) 0);
+        }
+        GaiaPointCloud pointCloud = new GaiaPointCloud();
+        pointCloud.setPoints(block);
+
+        List<GaiaPointCloud> divided = pointCloud.divideChunkSize(300);
+        GaiaPointBlock chunk = divided.getFirst().getPoints();
+        GaiaPointBlock remainder = divided.getLast().getPoints();
+        assertEquals(300, chunk.size());
+        assertEquals(700, remainder.size());
+        // the remainder reuses the block, every point is kept once
+        assertSame(block, remainder);
+        assertNull(pointCloud.getPoints());
+        assertEquals(pointCount, pointCloud.getPointCount());
+        // the chunk is the head of the points, the remainder keeps the order of the tail
+        for (int i = 0; i < chunk.size(); i++) {
+            assertEquals(i, chunk.getX(i));
+        }
+        for (int i = 0; i < remainder.size(); i++) {
+            assertEquals(300 + i, remainder.getX(i));
+        }
+
+        // a small point cloud is not copied at all
+        GaiaPointCloud smallPointCloud = new GaiaPointCloud();
+        smallPointCloud.setPoints(remainder);
+        List<GaiaPointCloud> notDivided = smallPointCloud.divideChunkSize(pointCount);
+        assertSame(remainder, notDivided.getFirst().getPoints());
+        assertTrue(notDivided.getLast().getPoints().isEmpty());
+    }
+}
@@ -0,0 +1,56 @@
+package com.gaia3d.converter.pointcloud;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bucket writer shard of the parallel ingestion keeps draining its bounded queue after a failure.
+ */
+@Tag("default")
+class LasConverterIngestTest {
+    private static final int QUEUE_CAPACITY = 2;
+    private static final int RECORDS_COUNT = 20;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void failingWriterKeepsDraining() throws Exception {
+        LasConverter converter = new LasConverter(LasConverterOptions.builder()
+                .tempDirectory(tempDir)
+                .build());
+        BlockingQueue<LasConverter.BucketRecords> recordQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Queue<LasConverter.BucketRecords> recordPool = new ConcurrentLinkedQueue<>();
+        AtomicBoolean failed = new AtomicBoolean(false);
+        ExecutorService writerService = Executors.newSingleThreadExecutor();
+        try (BucketWriter throwingWriter = new BucketWriter(tempDir.resolve("buckets"), 8) {
+            @Override
+            public void addRecord(int bucketId, byte[] records, int offset) {
+                throw new IllegalStateException("broken bucket");
+            }
+        }) {
+            Future<?> writer = writerService.submit(() -> converter.writeRecords(recordQueue, recordPool, throwingWriter, failed));
+            // far more records than the queue holds, a stopped writer would block the producer
+            for (int i = 0; i < RECORDS_COUNT; i++) {
+                LasConverter.BucketRecords records = new LasConverter.BucketRecords(1);
+                records.add(i, 127.0d, 37.5d, 0.0d, 0, (char) 0, (short) 0);
+                assertTrue(recordQueue.offer(records, 10, TimeUnit.SECONDS), "the writer stopped draining at record " + i);
+            }
+            assertTrue(recordQueue.offer(LasConverter.END_OF_RECORDS, 10, TimeUnit.SECONDS));
+            writer.get(10, TimeUnit.SECONDS);
+            assertTrue(failed.get());
+        } finally {
+            writerService.shutdownNow();
+            converter.close();
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.gaia3d.converter.terrain;
+
+import org.eclipse.imagen.Interpolation;
+import org.geotools.api.geometry.Position;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.geotools.coverage.grid.GridCoverageFactory;
+import org.geotools.coverage.grid.Interpolator2D;
+import org.geotools.geometry.Position2D;
+import org.geotools.geometry.jts.ReferencedEnvelope;
+import org.geotools.referencing.crs.DefaultGeographicCRS;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("default")
+class HeightSamplerTest {
+
+    private static GridCoverage2D createCoverage(String name, double minLon, double minLat, double size, float[][] matrix) {
+        ReferencedEnvelope envelope = new ReferencedEnvelope(minLon, minLon + size, minLat, minLat + size, DefaultGeographicCRS.WGS84);
+        return new GridCoverageFactory().create(name, matrix, envelope);
+    }
+
+    private static float[][] createSlope(int size) {
+        float[][] matrix = new float[size][size];
+        for (int row = 0; row < size; row++) {
+            for (int column = 0; column < size; column++) {
+                matrix[row][column] = 100.0f + 10.0f * row + column;
+            }
+        }
+        return matrix;
+    }
+
+    @Test
+    void sameHeightsAsBilinearCoverage() {
+        GridCoverage2D terrain = createCoverage("terrain", 127.0, 37.0, 1.0, createSlope(4));
+        GridCoverage2D interpolated = Interpolator2D.create(terrain, Interpolation.getInstance(Interpolation.INTERP_BILINEAR));
+        HeightSampler sampler = new HeightSampler(List.of(terrain), List.of());
+
+        double[][] positions = {{127.125, 37.875}, {127.3, 37.6}, {127.5, 37.5}, {127.71, 37.22}, {127.875, 37.125}};
+        for (double[] position : positions) {
+            Position point = new Position2D(DefaultGeographicCRS.WGS84, position[0], position[1]);
+            double[] expected = interpolated.evaluate(point, new double[1]);
+            assertEquals(expected[0], sampler.sample(position[0], position[1]), 1.0e-4);
+        }
+    }
+
+    @Test
+    void outsideAndGeoid() {
+        GridCoverage2D terrain = createCoverage("terrain", 127.0, 37.0, 1.0, createSlope(4));
+        GridCoverage2D geoid = createCoverage("geoid", 120.0, 30.0, 20.0, new float[][]{{25.0f, 25.0f}, {25.0f, 25.0f}});
+        HeightSampler sampler = new HeightSampler(List.of(terrain), List.of(geoid));
+
+        assertEquals(25.0, sampler.sample(126.5, 37.5), 1.0e-6);
+        assertEquals(0.0, sampler.sample(0.0, 0.0), 1.0e-6);
+        // the border half pixel takes the border pixels
+        assertEquals(sampler.sample(127.01, 37.5), sampler.sample(127.12, 37.5), 1.0e-4);
+        assertTrue(sampler.sample(127.5, 37.5) > 100.0);
+    }
+
+    @Test
+    void firstCoveringRasterWins() {
+        GridCoverage2D first = createCoverage("first", 127.0, 37.0, 1.0, new float[][]{{10.0f, 10.0f}, {10.0f, 10.0f}});
+        GridCoverage2D second = createCoverage("second", 127.5, 37.5, 1.0, new float[][]{{20.0f, 20.0f}, {20.0f, 20.0f}});
+        HeightSampler sampler = new HeightSampler(List.of(first, second), List.of());
+
+        assertEquals(10.0, sampler.sample(127.75, 37.75), 1.0e-6);
+        assertEquals(20.0, sampler.sample(128.25, 38.25), 1.0e-6);
+    }
+
+    @Test
+    void batchedSampleWithEvictingCache() {
+        GridCoverage2D terrain = createCoverage("terrain", 127.0, 37.0, 1.0, createSlope(16));
+        HeightSampler cached = new HeightSampler(List.of(terrain), List.of());
+        // no tile fits, every tile is decoded again
+        HeightSampler uncached = new HeightSampler(List.of(terrain), List.of(), 1);
+
+        int count = 1000;
+        double[] lon = new double[count];
+        double[] lat = new double[count];
+        for (int i = 0; i < count; i++) {
+            lon[i] = 126.9 + 1.2 * ((i * 37) % count) / count;
+            lat[i] = 36.9 + 1.2 * ((i * 91) % count) / count;
+        }
+        double[] heights = new double[count];
+        double[] uncachedHeights = new double[count];
+        cached.sample(lon, lat, heights);
+        uncached.sample(lon, lat, uncachedHeights);
+        for (int i = 0; i < count; i++) {
+            assertEquals(cached.sample(lon[i], lat[i]), heights[i], 1.0e-9);
+            assertEquals(heights[i], uncachedHeights[i], 1.0e-9);
+        }
+        assertTrue(cached.getCachedTileCount() > 0);
+        assertEquals(0, uncached.getCachedTileCount());
+        assertThrows(IllegalArgumentException.class, () -> cached.sample(lon, new double[1], heights));
+    }
+}
@@ -0,0 +1,302 @@
+package com.gaia3d.process;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.command.mago.Mago3DTilerMain;
+import com.gaia3d.process.tileprocess.tile.Batched3DModelTiler;
+import com.gaia3d.process.tileprocess.tile.ContentInfo;
+import com.gaia3d.process.tileprocess.tile.TileInfo;
+import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
+import com.gaia3d.process.tileprocess.tile.tileset.implicit.ImplicitTileCoordinate;
+import com.gaia3d.util.GlobeUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writes the sample as an implicit tileset, tileset.json only holds the root tile
+ * and the contents are written under the {level}/{x}/{y} paths of the subtrees.
+ * The bounding volume of every tile is read back from the tile metadata of the subtrees.
+ */
+@Tag("default")
+@Slf4j
+class ImplicitTilingTest {
+    private static final int COPY_COUNT = 8;
+    private static final int MAX_TRIANGLES = 1000;
+    /* the bounding regions are cut to 8 decimals of radians */
+    private static final double REGION_TOLERANCE = 1.0e-8d;
+    /* the RTC centers of the contents are floored to meters and stored as floats */
+    private static final double CENTER_TOLERANCE = 1.0e-6d;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        GlobalOptions.recreateInstance();
+    }
+
+    @Test
+    void nodeCodeToCoordinate() {
+        assertEquals(new ImplicitTileCoordinate(0, 0, 0), ImplicitTileCoordinate.fromNodeCode("R"));
+        // 1 = +x, 2 = +y, 3 = +x +y
+        assertEquals(new ImplicitTileCoordinate(1, 1, 0), ImplicitTileCoordinate.fromNodeCode("R1"));
+        assertEquals(new ImplicitTileCoordinate(2, 1, 3), ImplicitTileCoordinate.fromNodeCode("R2C3"));
+        assertEquals(new ImplicitTileCoordinate(3, 2, 5), ImplicitTileCoordinate.fromNodeCode("R21C2"));
+        assertEquals(new ImplicitTileCoordinate(1, 0, 1), ImplicitTileCoordinate.fromNodeCode("R21C2").getAncestor(1));
+    }
+
+    @Test
+    void writeSubtreesAndRootTileset() throws IOException {
+        Path output = tempDir.resolve("output");
+        Mago3DTilerMain.main(createArgs(copySample(), output));
+
+        String tileset = Files.readString(output.resolve("tileset.json"));
+        assertTrue(tileset.contains("\"implicitTiling\""), "tileset.json has no implicit tiling.");
+        assertTrue(tileset.contains("data/{level}/{x}/{y}.glb"), "tileset.json has no content template.");
+        assertFalse(tileset.contains("\"children\""), "tileset.json still lists the tiles.");
+
+        Path rootSubtree = output.resolve("subtrees/0/0/0.subtree");
+        assertTrue(Files.isRegularFile(rootSubtree), "root subtree was not written.");
+        ByteBuffer header = ByteBuffer.wrap(Files.readAllBytes(rootSubtree)).order(ByteOrder.LITTLE_ENDIAN);
+        byte[] magic = new byte[4];
+        header.get(magic);
+        assertEquals("subt", new String(magic, StandardCharsets.US_ASCII));
+        assertEquals(1, header.getInt());
+        assertEquals(0, header.getLong() % 8, "JSON chunk is not 8-byte aligned.");
+
+        try (Stream<Path> contents = Files.walk(output.resolve("data"))) {
+            assertTrue(contents.anyMatch(path -> path.toString().endsWith(".glb") && path.getNameCount() - output.getNameCount() == 4), "contents are not under {level}/{x}/{y}.");
+        }
+
+        // without tile transforms, every content is placed by its RTC center inside the bounds of its tile
+        assertFalse(tileset.contains("\"transform\""), "tileset.json has a tile transform.");
+        double[] rootRegion = readRootRegion(output);
+        Map<ImplicitTileCoordinate, double[]> boundingVolumes = readTileBoundingVolumes(output);
+        List<Path> glbFiles;
+        try (Stream<Path> contents = Files.walk(output.resolve("data"))) {
+            glbFiles = contents.filter(path -> path.toString().endsWith(".glb")).toList();
+        }
+        assertFalse(glbFiles.isEmpty());
+        for (Path glbFile : glbFiles) {
+            Path relative = output.resolve("data").relativize(glbFile);
+            ImplicitTileCoordinate coordinate = toCoordinate(relative, ".glb");
+            double[] region = boundingVolumes.get(coordinate);
+            assertNotNull(region, "no bounding volume for " + relative);
+            assertRegionContains(rootRegion, region, REGION_TOLERANCE);
+
+            Vector3d center = readContentCenter(glbFile);
+            double[] centerRegion = {center.x, center.y, center.x, center.y};
+            assertRegionContains(region, centerRegion, CENTER_TOLERANCE);
+        }
+    }
+
+    @Test
+    void contentsLieInsideTheirTileBounds() throws IOException {
+        GlobalOptions globalOptions = TileInfoFixtures.resetGlobalOptions();
+        globalOptions.setImplicitTiling(true);
+        globalOptions.setMaxTriangles(20000);
+        globalOptions.setOutputPath(Files.createDirectories(tempDir.resolve("output")).toString());
+        // the boxes are wider than their spacing, many of them straddle the quadrant boundaries
+        Batched3DModelTiler tiler = new Batched3DModelTiler();
+        Tileset tileset = tiler.run(TileInfoFixtures.createGrid(12, 12, 50.0d, 80.0d, 2000));
+        tiler.writeTileset(tileset);
+
+        Path output = Path.of(globalOptions.getOutputPath());
+        double[] rootRegion = readRootRegion(output);
+        Map<ImplicitTileCoordinate, double[]> boundingVolumes = readTileBoundingVolumes(output);
+        List<ContentInfo> contentInfos = tileset.findAllContentInfo();
+        assertFalse(contentInfos.isEmpty());
+        int outsideImpliedCount = 0;
+        for (ContentInfo contentInfo : contentInfos) {
+            ImplicitTileCoordinate coordinate = ImplicitTileCoordinate.fromNodeCode(contentInfo.getNodeCode());
+            double[] region = boundingVolumes.get(coordinate);
+            assertNotNull(region, "no bounding volume for " + contentInfo.getNodeCode());
+            double[] impliedRegion = getImpliedRegion(rootRegion, coordinate);
+            for (TileInfo tileInfo : contentInfo.getTileInfos()) {
+                double[] objectRegion = toRegion(tileInfo);
+                assertRegionContains(region, objectRegion, REGION_TOLERANCE);
+                if (!contains(impliedRegion, objectRegion, REGION_TOLERANCE)) {
+                    outsideImpliedCount++;
+                }
+            }
+        }
+        // the objects are split by their centers, the written bounds are needed
+        assertTrue(outsideImpliedCount > 0);
+    }
+
+    @Test
+    void classicTransformIsRejected() throws IOException {
+        GlobalOptions.getInstance().setClassicTransformMatrix(true);
+        String[] args = createArgs(copySample(), tempDir.resolve("output"));
+        assertThrows(RuntimeException.class, () -> Mago3DTilerMain.main(args));
+    }
+
+    private Path copySample() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File sample = new File(classLoader.getResource("./sample-kml").getFile());
+        Path input = tempDir.resolve("input");
+        for (int index = 0; index < COPY_COUNT; index++) {
+            FileUtils.copyDirectory(sample, input.resolve("copy-" + index).toFile());
+        }
+        return input;
+    }
+
+    private String[] createArgs(Path input, Path output) {
+        return new String[]{
+                "-input", input.toAbsolutePath().toString(),
+                "-inputType", "kml",
+                "-output", output.toAbsolutePath().toString(),
+                "-recursive",
+                "-implicitTiling",
+                "-maxCount", String.valueOf(MAX_TRIANGLES),
+        };
+    }
+
+    private double[] readRootRegion(Path output) throws IOException {
+        JsonNode region = new ObjectMapper().readTree(output.resolve("tileset.json").toFile()).path("root").path("boundingVolume").path("region");
+        assertEquals(6, region.size(), "root has no bounding region.");
+        double[] values = new double[6];
+        for (int index = 0; index < values.length; index++) {
+            values[index] = region.get(index).asDouble();
+        }
+        return values;
+    }
+
+    /**
+     * Reads the TILE_BOUNDING_REGION of every available tile from the subtrees, one row per available tile in bit order.
+     */
+    private Map<ImplicitTileCoordinate, double[]> readTileBoundingVolumes(Path output) throws IOException {
+        ObjectMapper objectMapper = new ObjectMapper();
+        JsonNode tileset = objectMapper.readTree(output.resolve("tileset.json").toFile());
+        int subtreeLevels = tileset.path("root").path("implicitTiling").path("subtreeLevels").asInt();
+        JsonNode tileClass = tileset.path("schema").path("classes").path("tile");
+        assertEquals("TILE_BOUNDING_REGION", tileClass.path("properties").path("boundingVolume").path("semantic").asText());
+
+        int tileCount = ((1 << (2 * subtreeLevels)) - 1) / 3;
+        Map<ImplicitTileCoordinate, double[]> boundingVolumes = new HashMap<>();
+        Path subtreesPath = output.resolve("subtrees");
+        List<Path> subtreeFiles;
+        try (Stream<Path> paths = Files.walk(subtreesPath)) {
+            subtreeFiles = paths.filter(path -> path.toString().endsWith(".subtree")).toList();
+        }
+        for (Path subtreeFile : subtreeFiles) {
+            ImplicitTileCoordinate subtreeRoot = toCoordinate(subtreesPath.relativize(subtreeFile), ".subtree");
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(subtreeFile)).order(ByteOrder.LITTLE_ENDIAN);
+            int jsonLength = (int) buffer.getLong(8);
+            int binaryOffset = 24 + jsonLength;
+            JsonNode subtree = objectMapper.readTree(Arrays.copyOfRange(buffer.array(), 24, binaryOffset));
+            BitSet tiles = readAvailability(subtree, subtree.path("tileAvailability"), buffer, binaryOffset, tileCount);
+
+            JsonNode propertyTable = subtree.path("propertyTables").get(subtree.path("tileMetadata").asInt());
+            JsonNode bufferView = subtree.path("bufferViews").get(propertyTable.path("properties").path("boundingVolume").path("values").asInt());
+            int valueOffset = binaryOffset + bufferView.path("byteOffset").asInt();
+            int row = 0;
+            int tileIndex = 0;
+            for (int relativeLevel = 0; relativeLevel < subtreeLevels; relativeLevel++) {
+                for (int mortonIndex = 0; mortonIndex < 1 << (2 * relativeLevel); mortonIndex++, tileIndex++) {
+                    if (!tiles.get(tileIndex)) {
+                        continue;
+                    }
+                    double[] region = new double[6];
+                    for (int component = 0; component < region.length; component++) {
+                        region[component] = buffer.getDouble(valueOffset + (row * region.length + component) * Double.BYTES);
+                    }
+                    row++;
+                    int x = (subtreeRoot.x() << relativeLevel) + compactBits(mortonIndex);
+                    int y = (subtreeRoot.y() << relativeLevel) + compactBits(mortonIndex >> 1);
+                    boundingVolumes.put(new ImplicitTileCoordinate(subtreeRoot.level() + relativeLevel, x, y), region);
+                }
+            }
+            assertEquals(propertyTable.path("count").asInt(), row);
+        }
+        return boundingVolumes;
+    }
+
+    private BitSet readAvailability(JsonNode subtree, JsonNode availability, ByteBuffer buffer, int binaryOffset, int bitCount) {
+        BitSet bits = new BitSet();
+        if (availability.has("constant")) {
+            if (availability.path("constant").asInt() == 1) {
+                bits.set(0, bitCount);
+            }
+            return bits;
+        }
+        JsonNode bufferView = subtree.path("bufferViews").get(availability.path("bitstream").asInt());
+        int offset = binaryOffset + bufferView.path("byteOffset").asInt();
+        return BitSet.valueOf(Arrays.copyOfRange(buffer.array(), offset, offset + bufferView.path("byteLength").asInt()));
+    }
+
+    /**
+     * The RTC center of a glb content, the translation of its root node (y-up) as longitude and latitude in radians.
+     */
+    private Vector3d readContentCenter(Path glbFile) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(glbFile)).order(ByteOrder.LITTLE_ENDIAN);
+        int jsonLength = buffer.getInt(12);
+        JsonNode gltf = new ObjectMapper().readTree(Arrays.copyOfRange(buffer.array(), 20, 20 + jsonLength));
+        JsonNode translation = gltf.path("nodes").get(0).path("translation");
+        Vector3d cartographic = GlobeUtils.cartesianToGeographicWgs84(translation.get(0).asDouble(), -translation.get(2).asDouble(), translation.get(1).asDouble());
+        return new Vector3d(Math.toRadians(cartographic.x), Math.toRadians(cartographic.y), cartographic.z);
+    }
+
+    private ImplicitTileCoordinate toCoordinate(Path relative, String extension) {
+        int level = Integer.parseInt(relative.getName(0).toString());
+        int x = Integer.parseInt(relative.getName(1).toString());
+        int y = Integer.parseInt(relative.getName(2).toString().replace(extension, ""));
+        return new ImplicitTileCoordinate(level, x, y);
+    }
+
+    /**
+     * The quadrant of the root region at the coordinate, the bounds a viewer would imply without the tile metadata.
+     */
+    private double[] getImpliedRegion(double[] rootRegion, ImplicitTileCoordinate coordinate) {
+        double tileCount = 1L << coordinate.level();
+        double sizeX = (rootRegion[2] - rootRegion[0]) / tileCount;
+        double sizeY = (rootRegion[3] - rootRegion[1]) / tileCount;
+        double minX = rootRegion[0] + sizeX * coordinate.x();
+        double minY = rootRegion[1] + sizeY * coordinate.y();
+        return new double[]{minX, minY, minX + sizeX, minY + sizeY};
+    }
+
+    private double[] toRegion(TileInfo tileInfo) {
+        GaiaBoundingBox boundingBox = tileInfo.getBoundingBox().convertLocalToLonlatBoundingBox(tileInfo.getTileTransformInfo().getPosition());
+        return new double[]{Math.toRadians(boundingBox.getMinX()), Math.toRadians(boundingBox.getMinY()), Math.toRadians(boundingBox.getMaxX()), Math.toRadians(boundingBox.getMaxY())};
+    }
+
+    private void assertRegionContains(double[] region, double[] inner, double tolerance) {
+        assertTrue(contains(region, inner, tolerance), Arrays.toString(inner) + " is outside of " + Arrays.toString(region));
+    }
+
+    private boolean contains(double[] region, double[] inner, double tolerance) {
+        return region[0] - tolerance <= inner[0] && region[1] - tolerance <= inner[1]
+                && inner[2] <= region[2] + tolerance && inner[3] <= region[3] + tolerance;
+    }
+
+    /**
+     * Every other bit of the Morton index.
+     */
+    private int compactBits(int mortonIndex) {
+        int value = 0;
+        for (int bit = 0; bit < 16; bit++) {
+            value |= ((mortonIndex >> (2 * bit)) & 1) << bit;
+        }
+        return value;
+    }
+}
@@ -0,0 +1,73 @@
+package com.gaia3d.process;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import com.gaia3d.command.mago.GlobalConstants;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.kml.TileTransformInfo;
+import com.gaia3d.process.tileprocess.tile.TileInfo;
+import org.joml.Vector3d;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Synthetic tile infos for the tiler tests, boxes placed on a grid of longitudes and latitudes without scenes or temp files.
+ */
+final class TileInfoFixtures {
+    static final double ORIGIN_LONGITUDE = 127.0d;
+    static final double ORIGIN_LATITUDE = 37.5d;
+    /* about one meter in degrees of latitude */
+    static final double METER_IN_DEGREES = 1.0d / 111320.0d;
+
+    private TileInfoFixtures() {
+    }
+
+    /**
+     * Resets the global options to the defaults of the command line.
+     */
+    static GlobalOptions resetGlobalOptions() {
+        GlobalOptions.recreateInstance();
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        globalOptions.setTilesVersion(GlobalConstants.DEFAULT_TILES_VERSION);
+        globalOptions.setMinLod(GlobalConstants.DEFAULT_MIN_LOD);
+        globalOptions.setMaxLod(GlobalConstants.DEFAULT_MAX_LOD);
+        globalOptions.setMinGeometricError(GlobalConstants.DEFAULT_MIN_GEOMETRIC_ERROR);
+        globalOptions.setMaxGeometricError(GlobalConstants.DEFAULT_MAX_GEOMETRIC_ERROR);
+        globalOptions.setMaxTriangles(GlobalConstants.DEFAULT_MAX_TRIANGLES);
+        globalOptions.setMaxNodeDepth(GlobalConstants.DEFAULT_MAX_NODE_DEPTH);
+        return globalOptions;
+    }
+
+    /**
+     * A grid of boxes, the box at (column, row) is centered at column * spacing, row * spacing meters from the origin.
+     */
+    static List<TileInfo> createGrid(int columns, int rows, double spacing, double size, long triangleCount) {
+        List<TileInfo> tileInfos = new ArrayList<>(columns * rows);
+        for (int row = 0; row < rows; row++) {
+            for (int column = 0; column < columns; column++) {
+                tileInfos.add(createTileInfo(column * spacing, row * spacing, size, triangleCount));
+            }
+        }
+        return tileInfos;
+    }
+
+    /**
+     * A box of the size in meters, centered at the offset in meters (east, north) from the origin.
+     */
+    static TileInfo createTileInfo(double east, double north, double size, long triangleCount) {
+        double longitude = ORIGIN_LONGITUDE + east * METER_IN_DEGREES / Math.cos(Math.toRadians(ORIGIN_LATITUDE));
+        double latitude = ORIGIN_LATITUDE + north * METER_IN_DEGREES;
+        TileTransformInfo tileTransformInfo = TileTransformInfo.builder()
+                .position(new Vector3d(longitude, latitude, 0.0d))
+                .build();
+        GaiaBoundingBox boundingBox = new GaiaBoundingBox();
+        boundingBox.addPoint(new Vector3d(-size / 2, -size / 2, 0.0d));
+        boundingBox.addPoint(new Vector3d(size / 2, size / 2, size));
+        return TileInfo.builder()
+                .name(String.format("box-%.1f-%.1f", east, north))
+                .tileTransformInfo(tileTransformInfo)
+                .boundingBox(boundingBox)
+                .triangleCount(triangleCount)
+                .build();
+    }
+}
@@ -0,0 +1,60 @@
+package com.gaia3d.process;
+
+import com.gaia3d.command.mago.Mago3DTilerMain;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the batched pipeline with a single thread and with many threads,
+ * the written tileset.json has to be identical.
+ */
+@Tag("default")
+@Slf4j
+class TilingPipelineConcurrencyTest {
+    private static final int COPY_COUNT = 8;
+    private static final int THREAD_COUNT = 8;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sameTilesetRegardlessOfThreadCount() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File sample = new File(classLoader.getResource("./sample-kml").getFile());
+
+        // duplicate the sample, so every thread has several files to pre-process
+        Path input = tempDir.resolve("input");
+        for (int index = 0; index < COPY_COUNT; index++) {
+            FileUtils.copyDirectory(sample, input.resolve("copy-" + index).toFile());
+        }
+
+        byte[] singleThreadTileset = convert(input, tempDir.resolve("output-single"), 1);
+        byte[] multiThreadTileset = convert(input, tempDir.resolve("output-multi"), THREAD_COUNT);
+        assertArrayEquals(singleThreadTileset, multiThreadTileset, "tileset.json differs between 1 and " + THREAD_COUNT + " threads.");
+    }
+
+    private byte[] convert(Path input, Path output, int threadCount) throws IOException {
+        String[] args = {
+                "-input", input.toAbsolutePath().toString(),
+                "-inputType", "kml",
+                "-output", output.toAbsolutePath().toString(),
+                "-recursive",
+                "-multiThreadCount", String.valueOf(threadCount),
+        };
+        Mago3DTilerMain.main(args);
+        Path tileset = output.resolve("tileset.json");
+        assertTrue(Files.isRegularFile(tileset), "tileset.json was not written.");
+        return Files.readAllBytes(tileset);
+    }
+}
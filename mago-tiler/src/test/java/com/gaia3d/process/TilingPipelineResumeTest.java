@@ -0,0 +1,187 @@
+package com.gaia3d.process;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.command.mago.Mago3DTilerMain;
+import com.gaia3d.process.manifest.RunManifest;
+import com.gaia3d.process.manifest.RunManifestTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.io.FileUtils;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the batched pipeline twice with the resume option,
+ * the second run has to reuse every content and temp file that does not depend on a changed or deleted input.
+ */
+@Tag("default")
+@Slf4j
+class TilingPipelineResumeTest {
+
+    /* the input in the south-west quadrant, the other buildings are in their own quadrants */
+    private static final String AFFECTED_INPUT = "a_bd002.kml";
+
+    @TempDir
+    Path tempDir;
+
+    /* the modification time given to every output of the first run, rewritten files get a newer one */
+    private final long firstRunTime = (System.currentTimeMillis() / 1000 - 3600) * 1000;
+
+    @Test
+    void resumeWithoutChanges() throws IOException {
+        Path input = copySample();
+        Path output = tempDir.resolve("output");
+
+        byte[] firstTileset = convert(input, output);
+        assertTrue(Files.isRegularFile(output.resolve(RunManifestTracker.MANIFEST_FILE_NAME)), "run manifest was not written.");
+        Map<String, Long> firstContents = listContents(output);
+        assertFalse(firstContents.isEmpty());
+
+        byte[] secondTileset = convert(input, output);
+        assertArrayEquals(firstTileset, secondTileset, "tileset.json differs after resuming.");
+        // unchanged contents are not written again
+        assertEquals(firstContents, listContents(output));
+    }
+
+    @Test
+    void resumeWithChangedInput() throws IOException {
+        Path input = copySample();
+        Path output = tempDir.resolve("output");
+
+        byte[] firstTileset = convert(input, output);
+        RunManifest first = readManifest(output);
+        resetModificationTimes(first);
+
+        // the content changes, the tileset stays the same
+        Files.writeString(input.resolve(AFFECTED_INPUT), "\n", StandardOpenOption.APPEND);
+        byte[] secondTileset = convert(input, output);
+        assertArrayEquals(firstTileset, secondTileset, "tileset.json differs after changing an input.");
+
+        RunManifest second = readManifest(output);
+        assertEquals(first.getContents().keySet(), second.getContents().keySet());
+        int keptCount = 0;
+        for (RunManifest.ContentEntry content : second.getContents().values()) {
+            boolean affected = content.getInputs().stream().anyMatch(this::isAffectedInput);
+            assertEquals(affected, isRewritten(output.resolve(content.getFile())), content.getFile());
+            keptCount += affected ? 0 : 1;
+        }
+        assertTrue(keptCount > 0, "every content depends on the changed input.");
+        assertTrue(keptCount < second.getContents().size(), "no content depends on the changed input.");
+
+        // only the temp files of the changed input are pre-processed again
+        assertEquals(first.getInputs().keySet(), second.getInputs().keySet());
+        second.getInputs().forEach((path, entry) -> {
+            for (RunManifest.TileEntry tile : entry.getTiles()) {
+                assertEquals(isAffectedInput(path), isRewritten(Path.of(tile.getTempPath())), tile.getTempPath());
+            }
+        });
+    }
+
+    @Test
+    void resumeWithDeletedInput() throws IOException {
+        Path input = copySample();
+        Path output = tempDir.resolve("output");
+
+        convert(input, output);
+        RunManifest first = readManifest(output);
+        resetModificationTimes(first);
+
+        Files.delete(input.resolve(AFFECTED_INPUT));
+        convert(input, output);
+        RunManifest second = readManifest(output);
+
+        assertEquals(first.getInputs().size() - 1, second.getInputs().size());
+        assertTrue(second.getInputs().keySet().stream().noneMatch(this::isAffectedInput));
+        for (Map.Entry<String, RunManifest.ContentEntry> entry : second.getContents().entrySet()) {
+            RunManifest.ContentEntry content = entry.getValue();
+            assertTrue(content.getInputs().stream().noneMatch(this::isAffectedInput), content.getFile());
+            // the bounds of the tileset changed, a content is written again only when its node, transform or inputs changed
+            RunManifest.ContentEntry previous = first.getContents().get(entry.getKey());
+            boolean unchanged = previous != null && previous.getSignature().equals(content.getSignature());
+            assertEquals(!unchanged, isRewritten(output.resolve(content.getFile())), content.getFile());
+        }
+
+        // the contents of the deleted input are removed
+        Set<String> contentFiles = new TreeSet<>();
+        second.getContents().values().forEach(content -> contentFiles.add(content.getFile()));
+        assertEquals(contentFiles, new TreeSet<>(listContents(output).keySet().stream().map(name -> "data/" + name).toList()));
+
+        // the remaining inputs are restored from their temp files
+        second.getInputs().forEach((path, entry) -> {
+            for (RunManifest.TileEntry tile : entry.getTiles()) {
+                assertFalse(isRewritten(Path.of(tile.getTempPath())), tile.getTempPath());
+            }
+        });
+    }
+
+    private Path copySample() throws IOException {
+        ClassLoader classLoader = getClass().getClassLoader();
+        File sample = new File(classLoader.getResource("./sample-kml").getFile());
+        Path input = tempDir.resolve("input");
+        FileUtils.copyDirectory(sample, input.toFile());
+        return input;
+    }
+
+    private RunManifest readManifest(Path output) throws IOException {
+        return new ObjectMapper().readValue(output.resolve(RunManifestTracker.MANIFEST_FILE_NAME).toFile(), RunManifest.class);
+    }
+
+    /**
+     * Dates back the contents and temp files of the first run, so the files written by the second run can be told apart.
+     */
+    private void resetModificationTimes(RunManifest manifest) {
+        Path output = tempDir.resolve("output");
+        manifest.getContents().values().forEach(content -> assertTrue(output.resolve(content.getFile()).toFile().setLastModified(firstRunTime)));
+        manifest.getInputs().values().forEach(entry -> {
+            for (RunManifest.TileEntry tile : entry.getTiles()) {
+                assertTrue(new File(tile.getTempPath()).setLastModified(firstRunTime));
+            }
+        });
+    }
+
+    private boolean isRewritten(Path path) {
+        File file = path.toFile();
+        assertTrue(file.isFile(), file.getAbsolutePath() + " does not exist.");
+        return file.lastModified() != firstRunTime;
+    }
+
+    private boolean isAffectedInput(String path) {
+        return new File(path).getName().equals(AFFECTED_INPUT);
+    }
+
+    private Map<String, Long> listContents(Path output) {
+        Map<String, Long> contents = new TreeMap<>();
+        File[] files = output.resolve("data").toFile().listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            contents.put(file.getName(), file.lastModified());
+        }
+        return contents;
+    }
+
+    private byte[] convert(Path input, Path output) throws IOException {
+        String[] args = {
+                "-input", input.toAbsolutePath().toString(),
+                "-inputType", "kml",
+                "-output", output.toAbsolutePath().toString(),
+                "-recursive",
+                "-resume",
+        };
+        Mago3DTilerMain.main(args);
+        Path tileset = output.resolve("tileset.json");
+        assertTrue(Files.isRegularFile(tileset), "tileset.json was not written.");
+        return Files.readAllBytes(tileset);
+    }
+}
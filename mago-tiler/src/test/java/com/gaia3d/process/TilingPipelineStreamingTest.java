@@ -0,0 +1,215 @@
+package com.gaia3d.process;
+
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.loader.FileLoader;
+import com.gaia3d.process.postprocess.PostProcess;
+import com.gaia3d.process.tileprocess.Tiler;
+import com.gaia3d.process.tileprocess.tile.Batched3DModelTiler;
+import com.gaia3d.process.tileprocess.tile.ContentInfo;
+import com.gaia3d.process.tileprocess.tile.DefaultTiler;
+import com.gaia3d.process.tileprocess.tile.TileInfo;
+import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
+import org.geotools.coverage.grid.GridCoverage2D;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Streaming mode post-processes the contents while the tiler is running,
+ * parents still have to be post-processed before their children and nothing may be written after a tiling failure.
+ */
+@Tag("default")
+class TilingPipelineStreamingTest {
+    private static final int MAX_TRIANGLES = 20000;
+
+    @TempDir
+    Path tempDir;
+
+    private GlobalOptions globalOptions;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        globalOptions = TileInfoFixtures.resetGlobalOptions();
+        globalOptions.setStreaming(true);
+        globalOptions.setMaxTriangles(MAX_TRIANGLES);
+        globalOptions.setMultiThreadCount((byte) 1);
+        globalOptions.setTempPath(tempDir.resolve("temp").toString());
+        globalOptions.setOutputPath(Files.createDirectories(tempDir.resolve("output")).toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        GlobalOptions.recreateInstance();
+    }
+
+    @Test
+    void tilersPublishParentsFirst() {
+        for (String mode : List.of("default", "bulk", "implicit")) {
+            TileInfoFixtures.resetGlobalOptions().setMaxTriangles(MAX_TRIANGLES);
+            GlobalOptions.getInstance().setBulkTiling(mode.equals("bulk"));
+            GlobalOptions.getInstance().setImplicitTiling(mode.equals("implicit"));
+            Batched3DModelTiler tiler = new Batched3DModelTiler();
+            List<String> published = Collections.synchronizedList(new ArrayList<>());
+            tiler.setContentConsumer(contentInfo -> published.add(contentInfo.getNodeCode()));
+            Tileset tileset = tiler.run(TileInfoFixtures.createGrid(12, 12, 50.0d, 10.0d, 2000));
+
+            assertEquals(tileset.findAllContentInfo().size(), published.size(), mode);
+            assertParentsFirst(published, mode);
+        }
+    }
+
+    @Test
+    void postProcessParentsFirst() throws IOException {
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        PostProcess recorder = contentInfo -> {
+            processed.add(contentInfo.getNodeCode());
+            return contentInfo;
+        };
+        TilingPipeline pipeline = new TilingPipeline(List.of(), new Batched3DModelTiler(), List.of(recorder));
+        pipeline.process(new GridFileLoader(TileInfoFixtures.createGrid(12, 12, 50.0d, 10.0d, 2000)));
+
+        assertTrue(Files.isRegularFile(Path.of(globalOptions.getOutputPath(), "tileset.json")));
+        assertEquals(globalOptions.getTileCount(), processed.size());
+        assertParentsFirst(processed, "streaming");
+    }
+
+    @Test
+    void streamingThreadsStayWithinTheThreadCount() {
+        for (int threadCount = 2; threadCount <= 16; threadCount++) {
+            for (int fileCount : new int[]{1, 3, 100}) {
+                int[] counts = TilingPipeline.splitStreamingThreads(threadCount, fileCount);
+                assertTrue(counts[0] >= 1 && counts[1] >= 1);
+                assertTrue(counts[0] <= fileCount);
+                assertTrue(counts[0] + counts[1] <= threadCount);
+            }
+        }
+        assertArrayEquals(new int[]{1, 1}, TilingPipeline.splitStreamingThreads(1, 10));
+    }
+
+    @Test
+    void tilingFailureCancelsQueuedPostProcesses() throws InterruptedException {
+        CountDownLatch firstStarted = new CountDownLatch(1);
+        List<String> processed = Collections.synchronizedList(new ArrayList<>());
+        PostProcess recorder = contentInfo -> {
+            processed.add(contentInfo.getNodeCode());
+            firstStarted.countDown();
+            try {
+                // still running when the tiler fails
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return contentInfo;
+        };
+        FailingTiler tiler = new FailingTiler(firstStarted);
+        TilingPipeline pipeline = new TilingPipeline(List.of(), tiler, List.of(recorder));
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> pipeline.process(new GridFileLoader(TileInfoFixtures.createGrid(2, 2, 50.0d, 10.0d, 10))));
+        assertEquals(FailingTiler.MESSAGE, exception.getMessage());
+        // the running content is finished, the queued ones are cancelled
+        assertEquals(List.of("RC0"), processed);
+        Thread.sleep(100);
+        assertEquals(List.of("RC0"), processed);
+        assertFalse(Files.exists(Path.of(globalOptions.getOutputPath(), "tileset.json")));
+    }
+
+    private static void assertParentsFirst(List<String> nodeCodes, String message) {
+        assertFalse(nodeCodes.isEmpty(), message);
+        int nestedCount = 0;
+        for (int index = 0; index < nodeCodes.size(); index++) {
+            String nodeCode = nodeCodes.get(index);
+            for (int next = index + 1; next < nodeCodes.size(); next++) {
+                String nextNodeCode = nodeCodes.get(next);
+                assertFalse(nodeCode.startsWith(nextNodeCode), message + " : " + nextNodeCode + " after its child " + nodeCode);
+                if (nextNodeCode.startsWith(nodeCode)) {
+                    nestedCount++;
+                }
+            }
+        }
+        // the levels of detail are nested, otherwise the order would not be checked
+        assertTrue(nestedCount > 0, message);
+    }
+
+    /**
+     * Loads the same tile infos from a single file.
+     */
+    private class GridFileLoader implements FileLoader {
+        private final List<TileInfo> tileInfos;
+
+        private GridFileLoader(List<TileInfo> tileInfos) {
+            this.tileInfos = tileInfos;
+        }
+
+        @Override
+        public List<File> loadTemp(File tempPath, List<File> files) {
+            return files;
+        }
+
+        @Override
+        public List<TileInfo> loadTileInfo(File file) {
+            return tileInfos;
+        }
+
+        @Override
+        public List<File> loadFiles() {
+            return List.of(tempDir.resolve("grid.kml").toFile());
+        }
+
+        @Override
+        public List<GridCoverage2D> loadGridCoverages(File geoTiffPath, List<GridCoverage2D> coverages) {
+            return coverages;
+        }
+    }
+
+    /**
+     * Publishes three contents and fails while the first one is post-processed.
+     */
+    private static class FailingTiler extends DefaultTiler implements Tiler {
+        private static final String MESSAGE = "tiling failed";
+        private final CountDownLatch firstStarted;
+
+        private FailingTiler(CountDownLatch firstStarted) {
+            this.firstStarted = firstStarted;
+        }
+
+        @Override
+        public Tileset run(List<TileInfo> tileInfos) {
+            publishContent(createContentInfo("RC0", tileInfos));
+            try {
+                assertTrue(firstStarted.await(10, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+            publishContent(createContentInfo("RC00", tileInfos));
+            publishContent(createContentInfo("RC01", tileInfos));
+            throw new RuntimeException(MESSAGE);
+        }
+
+        @Override
+        public void writeTileset(Tileset tileset) {
+            fail("the tileset must not be written");
+        }
+
+        private ContentInfo createContentInfo(String nodeCode, List<TileInfo> tileInfos) {
+            ContentInfo contentInfo = new ContentInfo();
+            contentInfo.setName(nodeCode);
+            contentInfo.setNodeCode(nodeCode);
+            contentInfo.setTileInfos(new ArrayList<>(tileInfos));
+            return contentInfo;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.gaia3d.process.postprocess.pointcloud;
+
+import com.gaia3d.converter.gltf.Quantization;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
+import com.gaia3d.util.GlobeUtils;
+import org.joml.Matrix3d;
+import org.joml.Matrix4d;
+import org.joml.Vector3d;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("unit")
+class PointCloudEncoderTest {
+
+    @Test
+    void sameAsPointByPointEncoding() {
+        // more than the parallel threshold, split into two blocks
+        int pointCount = 100_000;
+        Random random = new Random(42);
+        GaiaPointBlock first = new GaiaPointBlock();
+        GaiaPointBlock second = new GaiaPointBlock();
+        for (int i = 0; i < pointCount; i++) {
+            GaiaPointBlock block = i < pointCount / 3 ? first : second;
+            block.add(127.0 + random.nextDouble() * 0.01, 37.0 + random.nextDouble() * 0.01, random.nextDouble() * 100.0,
+                    (byte) random.nextInt(256), (byte) random.nextInt(256), (byte) random.nextInt(256), (byte) -1, (char) i, (short) (i % 32));
+        }
+
+        Vector3d centerWorldCoordinate = GlobeUtils.geographicToCartesianWgs84(new Vector3d(127.005, 37.005, 50.0));
+        Matrix4d transformMatrix = GlobeUtils.transformMatrixAtCartesianPointWgs84(centerWorldCoordinate);
+        Matrix4d transformMatrixInv = new Matrix4d(transformMatrix).invert();
+        Matrix3d rotationMatrix3d = transformMatrix.get3x3(new Matrix3d());
+        new Matrix3d().rotateX(Math.toRadians(-90)).mul(rotationMatrix3d, rotationMatrix3d);
+        Matrix4d rotationMatrix4d = new Matrix4d(rotationMatrix3d);
+
+        PointCloudBuffer buffer = new PointCloudEncoder(transformMatrixInv, rotationMatrix4d).encode(List.of(first, second));
+        float[] positions = buffer.getPositions();
+        assertEquals(pointCount * 3, positions.length);
+
+        Vector3d expected = new Vector3d();
+        for (int index = 0; index < pointCount; index++) {
+            GaiaPointBlock block = index < first.size() ? first : second;
+            int i = index < first.size() ? index : index - first.size();
+            double[] world = GlobeUtils.geographicToCartesianWgs84(block.getX(i), block.getY(i), block.getZ(i));
+            expected.set(world[0], world[1], world[2]).mulPosition(transformMatrixInv).mulPosition(rotationMatrix4d);
+            assertEquals(expected.x, positions[index * 3], 1.0e-3);
+            assertEquals(expected.y, positions[index * 3 + 1], 1.0e-3);
+            assertEquals(expected.z, positions[index * 3 + 2], 1.0e-3);
+
+            assertEquals((byte) srgbToLinear(block.getR(i) & 0xFF), buffer.getColors()[index * 4]);
+            assertEquals((byte) -1, buffer.getColors()[index * 4 + 3]);
+            assertEquals(index, (int) buffer.getBatchIds()[index]);
+            assertEquals(block.getIntensity(i), buffer.getIntensities()[index]);
+            assertEquals(block.getClassification(i), buffer.getClassifications()[index]);
+        }
+
+        // the bounds have to give the same quantization as scanning the positions
+        Matrix4d translation = new Matrix4d().translate(0.25, 0.5, 0.75);
+        Matrix4d scanned = Quantization.computeQuantizationMatrix(translation, positions);
+        Matrix4d fromBounds = Quantization.computeQuantizationMatrix(translation, buffer.getPositionMin(), buffer.getPositionMax());
+        assertEquals(scanned, fromBounds);
+    }
+
+    private int srgbToLinear(int sRGB) {
+        float c = sRGB / 255.0f;
+        float linear;
+        if (c <= 0.04045f) {
+            linear = c / 12.92f;
+        } else {
+            linear = (float) Math.pow((c + 0.055f) / 1.055f, 2.4);
+        }
+        return Math.max(0, Math.min(255, Math.round(linear * 255.0f)));
+    }
+}
@@ -0,0 +1,197 @@
+package com.gaia3d.process.tileprocess.tile;
+
+import com.gaia3d.basic.geometry.GaiaBoundingBox;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The bulk packed tree, objects sorted along the Hilbert curve and packed into balanced leaves under the triangle limit.
+ */
+@Tag("default")
+class Batched3DModelTilerTest {
+    private static final int GRID_SIZE = 8;
+    // the grid cells fall on the 4096 wide blocks of the curve, 7 * 4681 is the last cell of the 2^15 grid
+    private static final double CELL_SPACING = 4681.0d;
+
+    @Test
+    void sortByHilbertKeyFollowsTheCurve() {
+        // the objects are listed in a shuffled order, the sort must not depend on it
+        List<int[]> cells = new ArrayList<>();
+        for (int row = 0; row < GRID_SIZE; row++) {
+            for (int column = 0; column < GRID_SIZE; column++) {
+                cells.add(new int[]{column, row});
+            }
+        }
+        Collections.shuffle(cells, new Random(42));
+        int objectCount = cells.size();
+        double[] bounds = new double[objectCount * 6];
+        for (int index = 0; index < objectCount; index++) {
+            setBounds(bounds, index, cells.get(index)[0] * CELL_SPACING, cells.get(index)[1] * CELL_SPACING, 1.0d);
+        }
+
+        int[] order = Batched3DModelTiler.sortByHilbertKey(bounds, objectCount);
+        assertEquals(objectCount, order.length);
+        boolean[] found = new boolean[objectCount];
+        for (int index : order) {
+            assertFalse(found[index]);
+            found[index] = true;
+        }
+
+        // the curve starts at the origin and ends at the other bottom corner
+        assertArrayEquals(new int[]{0, 0}, cells.get(order[0]));
+        assertArrayEquals(new int[]{GRID_SIZE - 1, 0}, cells.get(order[objectCount - 1]));
+        // every object is next to the previous one, on a Hilbert curve of the grid
+        for (int position = 1; position < objectCount; position++) {
+            int[] previous = cells.get(order[position - 1]);
+            int[] current = cells.get(order[position]);
+            int distance = Math.abs(previous[0] - current[0]) + Math.abs(previous[1] - current[1]);
+            assertEquals(1, distance, "position " + position);
+        }
+    }
+
+    @Test
+    void sortByHilbertKeyKeepsQuadrantsTogether() {
+        // random centers, each quadrant of the extent is a contiguous run of the order
+        Random random = new Random(7);
+        int objectCount = 1000;
+        double[] bounds = new double[objectCount * 6];
+        for (int index = 0; index < objectCount; index++) {
+            setBounds(bounds, index, random.nextDouble() * 1000.0d, random.nextDouble() * 1000.0d, 1.0d);
+        }
+        // the extent of the centers is the grid of the curve
+        setBounds(bounds, 0, 0.0d, 0.0d, 1.0d);
+        setBounds(bounds, 1, 1000.0d, 1000.0d, 1.0d);
+
+        int[] order = Batched3DModelTiler.sortByHilbertKey(bounds, objectCount);
+        int runs = 1;
+        for (int position = 1; position < objectCount; position++) {
+            if (quadrant(bounds, order[position - 1]) != quadrant(bounds, order[position])) {
+                runs++;
+            }
+        }
+        assertEquals(4, runs);
+    }
+
+    @Test
+    void packBulkNodesBalancesTheLeaves() {
+        Random random = new Random(42);
+        int objectCount = 1000;
+        long triangleLimit = 20000;
+        double[] bounds = new double[objectCount * 6];
+        long[] triangleCounts = new long[objectCount];
+        double[] geometricErrors = new double[objectCount];
+        for (int index = 0; index < objectCount; index++) {
+            setBounds(bounds, index, random.nextDouble() * 1000.0d, random.nextDouble() * 1000.0d, 1.0d + random.nextDouble() * 10.0d);
+            triangleCounts[index] = 1 + random.nextInt(5000);
+            geometricErrors[index] = random.nextDouble() * 10.0d;
+        }
+        int[] order = Batched3DModelTiler.sortByHilbertKey(bounds, objectCount);
+
+        List<Batched3DModelTiler.PackedNode> topLevel = Batched3DModelTiler.packBulkNodes(order, bounds, triangleCounts, geometricErrors, triangleLimit);
+        assertTrue(topLevel.size() <= Batched3DModelTiler.BULK_FAN_OUT);
+
+        List<Batched3DModelTiler.PackedNode> leaves = new ArrayList<>();
+        List<Integer> leafDepths = new ArrayList<>();
+        for (Batched3DModelTiler.PackedNode node : topLevel) {
+            collectLeaves(node, 0, leaves, leafDepths);
+        }
+        // every leaf is at the same depth, the tree is balanced
+        assertEquals(1, leafDepths.stream().distinct().count());
+        assertTrue(leafDepths.getFirst() > 0);
+
+        // the leaves cover the order without gaps
+        int expectedStart = 0;
+        for (int leafIndex = 0; leafIndex < leaves.size(); leafIndex++) {
+            Batched3DModelTiler.PackedNode leaf = leaves.get(leafIndex);
+            assertEquals(expectedStart, leaf.getStart());
+            assertTrue(leaf.getEnd() > leaf.getStart());
+            long triangleCount = 0;
+            for (int position = leaf.getStart(); position < leaf.getEnd(); position++) {
+                triangleCount += triangleCounts[order[position]];
+                assertContains(leaf.getBoundingBox(), bounds, order[position]);
+            }
+            assertEquals(triangleCount, leaf.getTriangleCount());
+            // under the budget, and full, the next object would not fit
+            assertTrue(leaf.getTriangleCount() <= triangleLimit);
+            if (leafIndex < leaves.size() - 1) {
+                assertTrue(leaf.getTriangleCount() + triangleCounts[order[leaf.getEnd()]] > triangleLimit);
+            }
+            expectedStart = leaf.getEnd();
+        }
+        assertEquals(objectCount, expectedStart);
+    }
+
+    @Test
+    void packBulkNodesKeepsHeavyObjects() {
+        // objects over the limit are packed alone
+        double[] bounds = new double[3 * 6];
+        for (int index = 0; index < 3; index++) {
+            setBounds(bounds, index, index * 10.0d, 0.0d, 1.0d);
+        }
+        int[] order = Batched3DModelTiler.sortByHilbertKey(bounds, 3);
+        List<Batched3DModelTiler.PackedNode> topLevel = Batched3DModelTiler.packBulkNodes(order, bounds, new long[]{500, 300, 500}, new double[3], 100);
+        assertEquals(3, topLevel.size());
+        for (Batched3DModelTiler.PackedNode leaf : topLevel) {
+            assertEquals(1, leaf.getEnd() - leaf.getStart());
+            assertTrue(leaf.getChildren().isEmpty());
+        }
+    }
+
+    private void collectLeaves(Batched3DModelTiler.PackedNode node, int depth, List<Batched3DModelTiler.PackedNode> leaves, List<Integer> leafDepths) {
+        if (node.getChildren().isEmpty()) {
+            leaves.add(node);
+            leafDepths.add(depth);
+            return;
+        }
+        assertTrue(node.getChildren().size() <= Batched3DModelTiler.BULK_FAN_OUT);
+        long triangleCount = 0;
+        for (Batched3DModelTiler.PackedNode child : node.getChildren()) {
+            triangleCount += child.getTriangleCount();
+            GaiaBoundingBox childBox = child.getBoundingBox();
+            assertTrue(node.getBoundingBox().getMinX() <= childBox.getMinX() && childBox.getMaxX() <= node.getBoundingBox().getMaxX());
+            assertTrue(node.getBoundingBox().getMinY() <= childBox.getMinY() && childBox.getMaxY() <= node.getBoundingBox().getMaxY());
+            collectLeaves(child, depth + 1, leaves, leafDepths);
+        }
+        assertEquals(triangleCount, node.getTriangleCount());
+        assertEquals(node.getChildren().getFirst().getStart(), node.getStart());
+        assertEquals(node.getChildren().getLast().getEnd(), node.getEnd());
+    }
+
+    private void assertContains(GaiaBoundingBox boundingBox, double[] bounds, int index) {
+        int offset = index * 6;
+        assertTrue(boundingBox.getMinX() <= bounds[offset] && bounds[offset + 3] <= boundingBox.getMaxX());
+        assertTrue(boundingBox.getMinY() <= bounds[offset + 1] && bounds[offset + 4] <= boundingBox.getMaxY());
+        assertTrue(boundingBox.getMinZ() <= bounds[offset + 2] && bounds[offset + 5] <= boundingBox.getMaxZ());
+    }
+
+    /**
+     * Quadrant of the center in the 2^15 grid over the extent of 1000.
+     */
+    private int quadrant(double[] bounds, int index) {
+        int offset = index * 6;
+        double scale = ((1 << 15) - 1) / 1000.0d;
+        int cellX = (int) ((bounds[offset] + bounds[offset + 3]) * 0.5 * scale);
+        int cellY = (int) ((bounds[offset + 1] + bounds[offset + 4]) * 0.5 * scale);
+        return (cellX < (1 << 14) ? 0 : 1) + (cellY < (1 << 14) ? 0 : 2);
+    }
+
+    /**
+     * A box of the size centered at (x, y), standing on z = 0.
+     */
+    private void setBounds(double[] bounds, int index, double x, double y, double size) {
+        int offset = index * 6;
+        bounds[offset] = x - size / 2;
+        bounds[offset + 1] = y - size / 2;
+        bounds[offset + 2] = 0.0d;
+        bounds[offset + 3] = x + size / 2;
+        bounds[offset + 4] = y + size / 2;
+        bounds[offset + 5] = size;
+    }
+}
@@ -0,0 +1,98 @@
+package com.gaia3d.process.tileprocess.tile;
+
+import com.gaia3d.command.mago.GlobalConstants;
+import com.gaia3d.command.mago.GlobalOptions;
+import com.gaia3d.converter.pointcloud.GaiaPointBlock;
+import com.gaia3d.converter.pointcloud.GaiaPointCloud;
+import com.gaia3d.process.tileprocess.tile.tileset.Tileset;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("default")
+class PointCloudTilerTest {
+    private static final int POINT_COUNT = 200000;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void tearDown() {
+        GlobalOptions.recreateInstance();
+    }
+
+    @Test
+    void everyPointIsTiledOnce() {
+        Map<String, Long> pointCounts = runTiler(new PointCloudTiler(), 4, "default");
+        assertTrue(pointCounts.size() > 1);
+        assertEquals(POINT_COUNT, pointCounts.values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    void smallBudgetKeepsTheTileset() {
+        // the budget is smaller than the first distributions, they wait for each other instead of failing
+        Map<String, Long> expected = runTiler(new PointCloudTiler(), 1, "single");
+        Map<String, Long> budgeted = runTiler(new PointCloudTiler(5000), 4, "budgeted");
+        assertEquals(expected, budgeted);
+    }
+
+    /**
+     * Tiles the same random point cloud and returns the point count of every content node.
+     */
+    private Map<String, Long> runTiler(PointCloudTiler tiler, int threadCount, String name) {
+        GlobalOptions.recreateInstance();
+        GlobalOptions globalOptions = GlobalOptions.getInstance();
+        globalOptions.setTilesVersion(GlobalConstants.DEFAULT_TILES_VERSION);
+        globalOptions.setMaximumPointPerTile(20000);
+        globalOptions.setMultiThreadCount((byte) threadCount);
+        globalOptions.setTempPath(tempDir.resolve(name).toString());
+
+        TileInfo tileInfo = TileInfo.builder()
+                .pointCloud(createPointCloud(tempDir.resolve(name + ".points")))
+                .build();
+        Tileset tileset = tiler.run(List.of(tileInfo));
+
+        Map<String, Long> pointCounts = new TreeMap<>();
+        collectPointCounts(tileset.getRoot(), pointCounts);
+        return pointCounts;
+    }
+
+    private void collectPointCounts(Node node, Map<String, Long> pointCounts) {
+        if (node.getContent() != null) {
+            GaiaPointCloud pointCloud = node.getContent().getContentInfo().getTileInfos().getFirst().getPointCloud();
+            assertNull(pointCounts.put(node.getNodeCode(), pointCloud.getPointCount()));
+        }
+        for (Node child : node.getChildren()) {
+            collectPointCounts(child, pointCounts);
+        }
+    }
+
+    /**
+     * Random points in a box of about 1km, minimized like the converted point clouds.
+     */
+    private GaiaPointCloud createPointCloud(Path path) {
+        Random random = new Random(42);
+        GaiaPointBlock points = new GaiaPointBlock(POINT_COUNT);
+        for (int i = 0; i < POINT_COUNT; i++) {
+            double longitude = 127.0d + random.nextDouble() * 0.01d;
+            double latitude = 37.5d + random.nextDouble() * 0.01d;
+            double height = random.nextDouble() * 100.0d;
+            points.add(longitude, latitude, height, 0xFFFFFFFF, (char) 0, (short) 0);
+        }
+        GaiaPointCloud pointCloud = new GaiaPointCloud();
+        pointCloud.setPoints(points);
+        pointCloud.computeBoundingBox();
+        pointCloud.minimize(path.toFile());
+        return pointCloud;
+    }
+}
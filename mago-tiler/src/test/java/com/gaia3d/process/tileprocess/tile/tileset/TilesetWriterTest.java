@@ -0,0 +1,106 @@
+package com.gaia3d.process.tileprocess.tile.tileset;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.gaia3d.process.tileprocess.tile.tileset.node.BoundingVolume;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Content;
+import com.gaia3d.process.tileprocess.tile.tileset.node.Node;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@Tag("default")
+class TilesetWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void writeWithoutSplit() throws IOException {
+        ObjectMapper objectMapper = createObjectMapper();
+        Tileset tileset = createTileset();
+        File tilesetFile = tempDir.resolve("tileset.json").toFile();
+
+        long tilesetSize = new TilesetWriter(objectMapper, 0, 0).write(tileset, tilesetFile);
+        byte[] written = Files.readAllBytes(tilesetFile.toPath());
+        assertEquals(written.length, tilesetSize);
+        assertArrayEquals(objectMapper.writeValueAsBytes(tileset), written);
+    }
+
+    @Test
+    void splitByDepth() throws IOException {
+        Tileset tileset = createTileset();
+        File tilesetFile = tempDir.resolve("tileset.json").toFile();
+        new TilesetWriter(createObjectMapper(), 1, 0).write(tileset, tilesetFile);
+
+        String root = Files.readString(tilesetFile.toPath());
+        assertTrue(root.contains("\"tileset_R0.json\""));
+        assertTrue(root.contains("\"tileset_R1.json\""));
+        assertFalse(root.contains("data/R00.glb"), "split tiles are still in the root tileset.");
+        String external = Files.readString(tempDir.resolve("tileset_R0.json"));
+        assertTrue(external.contains("data/R00.glb"));
+        assertTrue(external.contains("data/R01.glb"));
+        // the tree itself is not modified
+        assertEquals(2, tileset.getRoot().getChildren().get(0).getChildren().size());
+    }
+
+    @Test
+    void splitByCount() throws IOException {
+        Tileset tileset = createTileset();
+        File tilesetFile = tempDir.resolve("tileset.json").toFile();
+        // 7 tiles, the subtrees of R0 and R1 hold 3 each
+        new TilesetWriter(createObjectMapper(), 0, 3).write(tileset, tilesetFile);
+
+        assertTrue(Files.isRegularFile(tempDir.resolve("tileset_R0.json")));
+        assertTrue(Files.isRegularFile(tempDir.resolve("tileset_R1.json")));
+        assertFalse(Files.readString(tilesetFile.toPath()).contains("data/R10.glb"));
+    }
+
+    private ObjectMapper createObjectMapper() {
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        objectMapper.setSerializationInclusion(JsonInclude.Include.NON_DEFAULT);
+        return objectMapper;
+    }
+
+    private Tileset createTileset() {
+        Node root = createNode("R", 2);
+        root.setParent(root);
+        Tileset tileset = new TilesetV2();
+        tileset.setGeometricError(100.0d);
+        tileset.setRoot(root);
+        return tileset;
+    }
+
+    private Node createNode(String nodeCode, int depth) {
+        Node node = new Node();
+        node.setNodeCode(nodeCode);
+        BoundingVolume boundingVolume = new BoundingVolume(BoundingVolume.BoundingVolumeType.REGION);
+        boundingVolume.setRegion(new double[]{0.1, 0.1, 0.2, 0.2, 0.0, 10.0});
+        node.setBoundingVolume(boundingVolume);
+        node.setGeometricError(depth * 10.0d + 1.0d);
+        node.setRefine(Node.RefineType.REPLACE);
+        node.setChildren(new ArrayList<>());
+        if (depth == 0) {
+            Content content = new Content();
+            content.setUri("data/" + nodeCode + ".glb");
+            node.setContent(content);
+            return node;
+        }
+        for (int index = 0; index < 2; index++) {
+            Node child = createNode(nodeCode + index, depth - 1);
+            child.setParent(node);
+            node.getChildren().add(child);
+        }
+        return node;
+    }
+}